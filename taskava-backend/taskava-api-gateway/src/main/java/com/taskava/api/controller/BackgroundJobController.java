@@ -0,0 +1,46 @@
+package com.taskava.api.controller;
+
+import com.taskava.common.dto.BackgroundJobDTO;
+import com.taskava.common.dto.BaseResponse;
+import com.taskava.service.BackgroundJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/v1/jobs")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Jobs", description = "Progress of asynchronous operations")
+@SecurityRequirement(name = "bearerAuth")
+public class BackgroundJobController {
+
+    private final BackgroundJobService backgroundJobService;
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get job", description = "Status and progress of an asynchronous operation")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BaseResponse<BackgroundJobDTO>> getJob(
+            @Parameter(description = "Job ID") @PathVariable UUID id) {
+        
+        return ResponseEntity.ok(BaseResponse.success(backgroundJobService.getJob(id)));
+    }
+
+    @PostMapping("/{id}/cancel")
+    @Operation(summary = "Cancel job", description = "Asks a pending or running job to stop; it undoes its partial work")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BaseResponse<BackgroundJobDTO>> cancelJob(
+            @Parameter(description = "Job ID") @PathVariable UUID id) {
+        
+        log.info("Cancelling job: {}", id);
+        return ResponseEntity.ok(BaseResponse.success(backgroundJobService.cancelJob(id), "Cancellation requested"));
+    }
+}
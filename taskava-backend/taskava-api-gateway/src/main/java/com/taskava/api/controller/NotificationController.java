@@ -0,0 +1,48 @@
+package com.taskava.api.controller;
+
+import com.taskava.common.dto.BaseResponse;
+import com.taskava.service.NotificationService;
+import com.taskava.service.dto.NotificationDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/v1/notifications")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Notifications", description = "In-app notifications of the current user")
+@SecurityRequirement(name = "bearerAuth")
+public class NotificationController {
+
+    private final NotificationService notificationService;
+
+    @GetMapping
+    @Operation(summary = "Get notifications", description = "Latest notifications of the current user, newest first, including task reminders")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BaseResponse<List<NotificationDTO>>> getNotifications(
+            @Parameter(description = "Only unread notifications") @RequestParam(defaultValue = "false") boolean unreadOnly,
+            @Parameter(description = "Maximum number of notifications") @RequestParam(defaultValue = "50") int limit) {
+        
+        return ResponseEntity.ok(BaseResponse.success(notificationService.getNotifications(unreadOnly, limit)));
+    }
+
+    @PostMapping("/{id}/read")
+    @Operation(summary = "Mark notification read", description = "Mark a notification of the current user read")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BaseResponse<Void>> markRead(
+            @Parameter(description = "Notification ID") @PathVariable UUID id) {
+        
+        notificationService.markRead(id);
+        return ResponseEntity.ok(BaseResponse.success(null, "Notification marked read"));
+    }
+}
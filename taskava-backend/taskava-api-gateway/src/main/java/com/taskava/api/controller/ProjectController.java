@@ -1,11 +1,22 @@
 package com.taskava.api.controller;
 
 import com.taskava.common.dto.*;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.taskava.common.response.ApiResponse;
+import com.taskava.security.context.TenantContext;
+import com.taskava.service.DependencyGraphService;
+import com.taskava.service.ProjectBoardService;
 import com.taskava.service.ProjectService;
+import com.taskava.service.SchedulingService;
+import com.taskava.service.TypeaheadService;
+import com.taskava.service.dto.DependencyGraphDTO;
+import com.taskava.service.dto.ProjectBoardColumnDTO;
+import com.taskava.service.dto.ProjectScheduleDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,12 +25,15 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -33,6 +47,11 @@ import java.util.UUID;
 public class ProjectController {
 
     private final ProjectService projectService;
+    private final TypeaheadService typeaheadService;
+    private final ProjectBoardService projectBoardService;
+    private final DependencyGraphService dependencyGraphService;
+    private final SchedulingService schedulingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @Operation(summary = "Create a new project", description = "Creates a new project in the current workspace")
@@ -52,6 +71,7 @@ public class ProjectController {
             @PathVariable UUID id) {
         log.info("Fetching project: {}", id);
         ProjectDTO project = projectService.getProject(id);
+        typeaheadService.recordVisit(TenantContext.getCurrentUserId(), TypeaheadService.TYPE_PROJECT, id);
         return ResponseEntity.ok(ApiResponse.success(project));
     }
 
@@ -67,15 +87,37 @@ public class ProjectController {
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete project", description = "Soft deletes a project and all its data")
+    @Operation(summary = "Delete project",
+            description = "Soft deletes a project and all its data. The tasks of large projects are deleted by a " +
+                    "background job, returned with 202 Accepted; the project itself is gone at once.")
     @PreAuthorize("@securityExpressionService.canModifyProject(#id, authentication)")
-    public ResponseEntity<ApiResponse<Void>> deleteProject(
+    public ResponseEntity<ApiResponse<BackgroundJobDTO>> deleteProject(
             @PathVariable UUID id) {
         log.info("Deleting project: {}", id);
-        projectService.deleteProject(id);
+        BackgroundJobDTO job = projectService.deleteProject(id);
+        if (job != null) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Project deletion started", job));
+        }
         return ResponseEntity.ok(ApiResponse.success("Project deleted successfully"));
     }
 
+    @PostMapping("/{id}/undelete")
+    @Operation(summary = "Undelete project",
+            description = "Restores a deleted project with everything deleted along with it. Large projects are " +
+                    "restored by a background job, returned with 202 Accepted; the project reappears once it is done.")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ApiResponse<BackgroundJobDTO>> undeleteProject(
+            @PathVariable UUID id) {
+        log.info("Undeleting project: {}", id);
+        BackgroundJobDTO job = projectService.undeleteProject(id);
+        if (job != null) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Project restore started", job));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Project restored successfully"));
+    }
+
     @PostMapping("/{id}/archive")
     @Operation(summary = "Archive project", description = "Archives a project (can be restored)")
     @PreAuthorize("@securityExpressionService.canModifyProject(#id, authentication)")
@@ -87,7 +129,7 @@ public class ProjectController {
     }
 
     @PostMapping("/{id}/restore")
-    @Operation(summary = "Restore project", description = "Restores an archived project")
+    @Operation(summary = "Restore project", description = "Restores an archived project and brings its archived tasks back")
     @PreAuthorize("@securityExpressionService.canModifyProject(#id, authentication)")
     public ResponseEntity<ApiResponse<ProjectDTO>> restoreProject(
             @PathVariable UUID id) {
@@ -97,15 +139,21 @@ public class ProjectController {
     }
 
     @PostMapping("/{id}/duplicate")
-    @Operation(summary = "Duplicate project", description = "Creates a copy of the project with a new name")
+    @Operation(summary = "Duplicate project",
+            description = "Creates a copy of the project with a new name, including its tasks. The tasks of large " +
+                    "projects are copied by a background job, returned with 202 Accepted, whose progress can be polled.")
     @PreAuthorize("@securityExpressionService.canModifyProject(#id, authentication)")
-    public ResponseEntity<ApiResponse<ProjectDTO>> duplicateProject(
+    public ResponseEntity<ApiResponse<ProjectDuplicationDTO>> duplicateProject(
             @PathVariable UUID id,
             @RequestParam String name) {
         log.info("Duplicating project: {} with name: {}", id, name);
-        ProjectDTO project = projectService.duplicateProject(id, name);
+        ProjectDuplicationDTO duplication = projectService.duplicateProject(id, name);
+        if (duplication.getJob() != null) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Project duplication started", duplication));
+        }
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(ApiResponse.success("Project duplicated successfully", project));
+                .body(ApiResponse.success("Project duplicated successfully", duplication));
     }
 
     @GetMapping
@@ -139,6 +187,39 @@ public class ProjectController {
         return ResponseEntity.ok(ApiResponse.success(projects));
     }
 
+    @GetMapping("/{projectId}/board")
+    @Operation(summary = "Get project board",
+            description = "Streams all sections with their first tasks in board order. Columns with more tasks " +
+                    "carry a cursor for GET /v1/projects/{projectId}/tasks with sectionId (or hasSection=false).")
+    @PreAuthorize("@securityExpressionService.hasProjectAccess(#projectId, authentication)")
+    public void getProjectBoard(
+            @PathVariable UUID projectId,
+            @Parameter(description = "Maximum tasks per column") @RequestParam(required = false) Integer limit,
+            HttpServletResponse response) throws IOException {
+        log.info("Streaming board for project: {}", projectId);
+        projectBoardService.streamBoard(projectId, limit, new BoardJsonWriter(response));
+    }
+
+    @GetMapping("/{projectId}/dependencies")
+    @Operation(summary = "Get project dependencies",
+            description = "Returns the dependencies of the project's tasks for Gantt views, optionally only those touching the given tasks")
+    @PreAuthorize("@securityExpressionService.hasProjectAccess(#projectId, authentication)")
+    public ResponseEntity<ApiResponse<DependencyGraphDTO>> getProjectDependencies(
+            @PathVariable UUID projectId,
+            @Parameter(description = "Only dependencies of these tasks") @RequestParam(required = false) List<UUID> taskIds) {
+        log.info("Getting dependencies for project: {}", projectId);
+        return ResponseEntity.ok(ApiResponse.success(dependencyGraphService.getProjectDependencies(projectId, taskIds)));
+    }
+
+    @GetMapping("/{projectId}/schedule")
+    @Operation(summary = "Get project schedule",
+            description = "Returns earliest and latest dates, slack and the critical path of the project's dated tasks")
+    @PreAuthorize("@securityExpressionService.hasProjectAccess(#projectId, authentication)")
+    public ResponseEntity<ApiResponse<ProjectScheduleDTO>> getProjectSchedule(@PathVariable UUID projectId) {
+        log.info("Getting schedule for project: {}", projectId);
+        return ResponseEntity.ok(ApiResponse.success(schedulingService.getProjectSchedule(projectId)));
+    }
+
     // Section Management Endpoints
 
     @PostMapping("/{projectId}/sections")
@@ -200,14 +281,55 @@ public class ProjectController {
     }
 
     @PostMapping("/{projectId}/sections/batch-reorder")
-    @Operation(summary = "Batch reorder sections", description = "Reorders multiple sections at once")
+    @Operation(summary = "Batch reorder sections", description = "Moves multiple sections at once; positions are 0-based indexes in the resulting order")
     @PreAuthorize("@securityExpressionService.canModifyProject(#projectId, authentication)")
     public ResponseEntity<ApiResponse<Void>> batchReorderSections(
             @PathVariable UUID projectId,
             @RequestBody Map<UUID, Integer> sectionPositions) {
         log.info("Batch reordering sections in project: {}", projectId);
-        sectionPositions.forEach((sectionId, position) -> 
-            projectService.reorderSection(projectId, sectionId, position));
+        projectService.reorderSections(projectId, sectionPositions);
         return ResponseEntity.ok(ApiResponse.success("Sections reordered successfully"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Writes the board as an {@link ApiResponse} envelope, flushing after every column
+     */
+    private class BoardJsonWriter implements ProjectBoardService.BoardWriter {
+
+        private final HttpServletResponse response;
+        private JsonGenerator json;
+
+        BoardJsonWriter(HttpServletResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void begin(UUID projectId, int columnLimit) throws IOException {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            json = objectMapper.getFactory().createGenerator(response.getOutputStream());
+            json.writeStartObject();
+            json.writeBooleanField("success", true);
+            json.writeObjectField("timestamp", Instant.now());
+            json.writeNumberField("statusCode", HttpStatus.OK.value());
+            json.writeObjectFieldStart("data");
+            json.writeObjectField("projectId", projectId);
+            json.writeNumberField("columnLimit", columnLimit);
+            json.writeArrayFieldStart("columns");
+        }
+
+        @Override
+        public void column(ProjectBoardColumnDTO column) throws IOException {
+            json.writeObject(column);
+            json.flush();
+        }
+
+        @Override
+        public void end() throws IOException {
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndObject();
+            json.close();
+        }
+    }
+}
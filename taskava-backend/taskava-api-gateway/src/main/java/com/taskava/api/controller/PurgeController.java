@@ -0,0 +1,47 @@
+package com.taskava.api.controller;
+
+import com.taskava.common.dto.BaseResponse;
+import com.taskava.common.dto.PurgeStatusDTO;
+import com.taskava.service.PurgeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/v1/admin/purge")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Purge", description = "Purge of soft-deleted rows past their retention")
+@SecurityRequirement(name = "bearerAuth")
+public class PurgeController {
+
+    private final PurgeService purgeService;
+
+    @GetMapping
+    @Operation(summary = "Get purge status", description = "Pause switch, retention and outcome of the last run")
+    @PreAuthorize("hasRole('ORGANIZATION_ADMIN')")
+    public ResponseEntity<BaseResponse<PurgeStatusDTO>> getStatus() {
+        return ResponseEntity.ok(BaseResponse.success(purgeService.getStatus()));
+    }
+
+    @PostMapping("/pause")
+    @Operation(summary = "Pause purge", description = "Stops the purge on every node after its current batch")
+    @PreAuthorize("hasRole('ORGANIZATION_ADMIN')")
+    public ResponseEntity<BaseResponse<PurgeStatusDTO>> pause() {
+        log.info("Pausing purge");
+        return ResponseEntity.ok(BaseResponse.success(purgeService.pause(), "Purge paused"));
+    }
+
+    @PostMapping("/resume")
+    @Operation(summary = "Resume purge", description = "Lets the purge run again from its next scheduled run")
+    @PreAuthorize("hasRole('ORGANIZATION_ADMIN')")
+    public ResponseEntity<BaseResponse<PurgeStatusDTO>> resume() {
+        log.info("Resuming purge");
+        return ResponseEntity.ok(BaseResponse.success(purgeService.resume(), "Purge resumed"));
+    }
+}
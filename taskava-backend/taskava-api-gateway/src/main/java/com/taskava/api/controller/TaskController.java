@@ -1,8 +1,13 @@
 package com.taskava.api.controller;
 
+import com.taskava.common.dto.BackgroundJobDTO;
 import com.taskava.common.dto.BaseResponse;
+import com.taskava.common.dto.CursorPage;
 import com.taskava.common.dto.task.*;
+import com.taskava.data.query.TaskFetchPlan;
+import com.taskava.security.context.TenantContext;
 import com.taskava.service.TaskService;
+import com.taskava.service.TypeaheadService;
 import com.taskava.service.dto.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,6 +19,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,6 +27,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
@@ -36,19 +43,44 @@ import java.util.UUID;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TypeaheadService typeaheadService;
 
     // ===== Basic Task Operations =====
 
     @GetMapping("/tasks")
     @Operation(summary = "Get all tasks", description = "Retrieve a paginated list of tasks with optional filters")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<BaseResponse<Page<TaskDTO>>> getAllTasks(
+    public ResponseEntity<BaseResponse<Page<TaskSummaryDTO>>> getAllTasks(
             @ModelAttribute TaskFilterRequest filter,
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
         
         log.debug("Getting tasks with filters");
         
-        Page<TaskDTO> tasks = taskService.getTasksWithFilters(filter, pageable);
+        Page<TaskSummaryDTO> tasks = taskService.getTasksWithFilters(filter, pageable);
+        
+        BaseResponse<Page<TaskSummaryDTO>> response = BaseResponse.success(tasks, "Tasks retrieved successfully");
+        response.setPageInfo(BaseResponse.PageInfo.builder()
+                .page(tasks.getNumber())
+                .size(tasks.getSize())
+                .totalElements(tasks.getTotalElements())
+                .totalPages(tasks.getTotalPages())
+                .hasNext(tasks.hasNext())
+                .hasPrevious(tasks.hasPrevious())
+                .build());
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/tasks/export")
+    @Operation(summary = "Export tasks", description = "Retrieve full task details with optional filters, one large page at a time")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BaseResponse<Page<TaskDTO>>> exportTasks(
+            @ModelAttribute TaskFilterRequest filter,
+            @PageableDefault(size = 250, sort = "createdAt", direction = Sort.Direction.ASC) Pageable pageable) {
+        
+        log.debug("Exporting tasks with filters");
+        
+        Page<TaskDTO> tasks = taskService.getTasksWithFilters(filter, pageable, TaskFetchPlan.EXPORT);
         
         BaseResponse<Page<TaskDTO>> response = BaseResponse.success(tasks, "Tasks retrieved successfully");
         response.setPageInfo(BaseResponse.PageInfo.builder()
@@ -63,14 +95,101 @@ public class TaskController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/tasks/cursor")
+    @Operation(summary = "Get tasks by cursor", description = "Retrieve tasks with optional filters using keyset (cursor) pagination")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BaseResponse<CursorPage<TaskSummaryDTO>>> getTasksByCursor(
+            @ModelAttribute TaskFilterRequest filter,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Also count all matching tasks") @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        log.debug("Getting tasks with cursor pagination");
+        CursorPage<TaskSummaryDTO> tasks = taskService.getTasksWithCursor(filter, cursor, size, includeTotal);
+        return ResponseEntity.ok(BaseResponse.success(tasks, "Tasks retrieved successfully"));
+    }
+
+    @GetMapping("/tasks/archived")
+    @Operation(summary = "Get archived tasks", description = "Retrieve tasks moved to the archive, newest first, using cursor pagination. " +
+            "Archived tasks are those of archived projects and task trees completed long ago; other listings leave them out.")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BaseResponse<CursorPage<TaskSummaryDTO>>> getArchivedTasks(
+            @Parameter(description = "Only archived tasks of this project") @RequestParam(required = false) UUID projectId,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        
+        log.debug("Getting archived tasks of project: {}", projectId);
+        CursorPage<TaskSummaryDTO> tasks = taskService.getArchivedTasks(projectId, cursor, size);
+        return ResponseEntity.ok(BaseResponse.success(tasks, "Archived tasks retrieved successfully"));
+    }
+
+    @PostMapping("/tasks/{id}/unarchive")
+    @Operation(summary = "Unarchive task", description = "Bring an archived task back to the active tasks, along with the " +
+            "rest of its archived task tree. Tasks of an archived project come back when the project is restored.")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BaseResponse<TaskDTO>> unarchiveTask(
+            @Parameter(description = "Task ID") @PathVariable UUID id) {
+        
+        log.info("Unarchiving task: {}", id);
+        TaskDTO task = taskService.unarchiveTask(id);
+        return ResponseEntity.ok(BaseResponse.success(task, "Task unarchived successfully"));
+    }
+
+    @GetMapping("/projects/{projectId}/tasks")
+    @Operation(summary = "Get project tasks", description = "Retrieve the tasks of a project using cursor pagination, by default in board position order")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BaseResponse<CursorPage<TaskSummaryDTO>>> getProjectTasks(
+            @Parameter(description = "Project ID") @PathVariable UUID projectId,
+            @Parameter(description = "Only tasks in this board section") @RequestParam(required = false) UUID sectionId,
+            @Parameter(description = "false for tasks without a section") @RequestParam(required = false) Boolean hasSection,
+            @Parameter(description = "Sort key: position, createdAt, dueDate or priority") @RequestParam(defaultValue = "position") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @Parameter(description = "Also count all matching tasks") @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        log.debug("Getting tasks for project: {}", projectId);
+        TaskFilterRequest filter = TaskFilterRequest.builder()
+                .projectId(projectId)
+                .sectionId(sectionId)
+                .hasSection(hasSection)
+                .sortBy(sortBy)
+                .sortDirection(sortDirection)
+                .build();
+        CursorPage<TaskSummaryDTO> tasks = taskService.getTasksWithCursor(filter, cursor, size, includeTotal);
+        return ResponseEntity.ok(BaseResponse.success(tasks, "Tasks retrieved successfully"));
+    }
+
+    @GetMapping("/users/{userId}/tasks")
+    @Operation(summary = "Get user tasks", description = "Retrieve the tasks assigned to a user using cursor pagination")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BaseResponse<CursorPage<TaskSummaryDTO>>> getUserTasks(
+            @Parameter(description = "User ID") @PathVariable UUID userId,
+            @Parameter(description = "Sort key: createdAt, dueDate or priority") @RequestParam(defaultValue = "dueDate") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @Parameter(description = "Also count all matching tasks") @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        log.debug("Getting tasks for user: {}", userId);
+        TaskFilterRequest filter = TaskFilterRequest.builder()
+                .assigneeId(userId)
+                .sortBy(sortBy)
+                .sortDirection(sortDirection)
+                .build();
+        CursorPage<TaskSummaryDTO> tasks = taskService.getTasksWithCursor(filter, cursor, size, includeTotal);
+        return ResponseEntity.ok(BaseResponse.success(tasks, "Tasks retrieved successfully"));
+    }
+
     @GetMapping("/tasks/{id}")
-    @Operation(summary = "Get task by ID", description = "Retrieve a single task by its ID with all details")
+    @Operation(summary = "Get task by ID", description = "Retrieve a single task by its ID with all details, archived or not")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<BaseResponse<TaskDTO>> getTaskById(
             @Parameter(description = "Task ID") @PathVariable UUID id) {
         
         log.debug("Getting task with id: {}", id);
         TaskDTO task = taskService.getTaskById(id);
+        typeaheadService.recordVisit(TenantContext.getCurrentUserId(), TypeaheadService.TYPE_TASK, id);
         return ResponseEntity.ok(BaseResponse.success(task, "Task retrieved successfully"));
     }
 
@@ -122,16 +241,37 @@ public class TaskController {
     }
 
     @DeleteMapping("/tasks/{id}")
-    @Operation(summary = "Delete task", description = "Soft delete a task")
+    @Operation(summary = "Delete task", description = "Soft delete a task and its subtasks. Large subtrees are deleted in the background: the task is gone at once and the response holds a job to poll.")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<BaseResponse<Void>> deleteTask(
+    public ResponseEntity<BaseResponse<BackgroundJobDTO>> deleteTask(
             @Parameter(description = "Task ID") @PathVariable UUID id) {
         
         log.info("Deleting task with id: {}", id);
-        taskService.deleteTask(id);
+        BackgroundJobDTO job = taskService.deleteTask(id);
+        if (job != null) {
+            return ResponseEntity
+                    .status(HttpStatus.ACCEPTED)
+                    .body(BaseResponse.success(job, "Task deletion started"));
+        }
         return ResponseEntity.ok(BaseResponse.success(null, "Task deleted successfully"));
     }
 
+    @PostMapping("/tasks/{id}/restore")
+    @Operation(summary = "Restore task", description = "Restore a deleted task with the subtasks deleted along with it; other tasks of the same deletion stay deleted. Large subtrees are restored in the background: the response then holds a job to poll, and the task reappears once it is done.")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BaseResponse<BackgroundJobDTO>> restoreTask(
+            @Parameter(description = "Task ID") @PathVariable UUID id) {
+        
+        log.info("Restoring task with id: {}", id);
+        BackgroundJobDTO job = taskService.restoreTask(id);
+        if (job != null) {
+            return ResponseEntity
+                    .status(HttpStatus.ACCEPTED)
+                    .body(BaseResponse.success(job, "Task restore started"));
+        }
+        return ResponseEntity.ok(BaseResponse.success(null, "Task restored successfully"));
+    }
+
     // ===== Task Status Management =====
 
     @PostMapping("/tasks/{id}/complete")
@@ -168,6 +308,39 @@ public class TaskController {
         return ResponseEntity.ok(BaseResponse.success(task, "Task status updated successfully"));
     }
 
+    @GetMapping("/tasks/{id}/transitions")
+    @Operation(summary = "Get task status history", description = "Retrieve the status changes of a task, oldest first. " +
+            "Changes are recorded asynchronously and show up here within a few seconds.")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BaseResponse<List<TaskStatusTransitionDTO>>> getStatusTransitions(
+            @Parameter(description = "Task ID") @PathVariable UUID id,
+            @Parameter(description = "Only changes at or after this instant") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "Only changes before this instant") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "100") int limit) {
+        
+        log.debug("Getting status transitions of task: {}", id);
+        List<TaskStatusTransitionDTO> transitions = taskService.getStatusTransitions(id, from, to, limit);
+        return ResponseEntity.ok(BaseResponse.success(transitions, "Status transitions retrieved successfully"));
+    }
+
+    @GetMapping("/tasks/transitions")
+    @Operation(summary = "Get workspace status history", description = "Retrieve the status changes of all tasks in the " +
+            "current workspace within a time range, oldest first, using cursor pagination")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BaseResponse<CursorPage<TaskStatusTransitionDTO>>> getWorkspaceStatusTransitions(
+            @Parameter(description = "Only changes at or after this instant") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "Only changes before this instant") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        
+        CursorPage<TaskStatusTransitionDTO> transitions = taskService.getWorkspaceStatusTransitions(from, to, cursor, size);
+        return ResponseEntity.ok(BaseResponse.success(transitions, "Status transitions retrieved successfully"));
+    }
+
     // ===== Assignee Management =====
 
     @PostMapping("/tasks/{id}/assignees")
@@ -282,6 +455,41 @@ public class TaskController {
         return ResponseEntity.ok(BaseResponse.success(task, "Subtask promoted successfully"));
     }
 
+    @PutMapping("/tasks/{id}/parent")
+    @Operation(summary = "Move subtask", description = "Move a task with its subtasks under another task, or to the top level")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BaseResponse<TaskDTO>> moveSubtask(
+            @Parameter(description = "Task ID") @PathVariable UUID id,
+            @RequestBody MoveSubtaskRequest request) {
+        
+        log.info("Moving task {} under task {}", id, request.getParentTaskId());
+        TaskDTO task = taskService.moveSubtask(id, request);
+        return ResponseEntity.ok(BaseResponse.success(task, "Task moved successfully"));
+    }
+
+    @GetMapping("/tasks/{id}/subtree")
+    @Operation(summary = "Get subtree", description = "Get all subtasks of a task at any depth, or down to maxDepth levels")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BaseResponse<List<TaskTreeNodeDTO>>> getSubtree(
+            @Parameter(description = "Task ID") @PathVariable UUID id,
+            @Parameter(description = "Levels below the task to include") @RequestParam(required = false) Integer maxDepth) {
+        
+        log.debug("Getting subtree of task: {}", id);
+        List<TaskTreeNodeDTO> subtree = taskService.getSubtree(id, maxDepth);
+        return ResponseEntity.ok(BaseResponse.success(subtree, "Subtree retrieved successfully"));
+    }
+
+    @GetMapping("/tasks/{id}/ancestors")
+    @Operation(summary = "Get ancestors", description = "Get the parent chain of a task, root first")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BaseResponse<List<TaskTreeNodeDTO>>> getAncestors(
+            @Parameter(description = "Task ID") @PathVariable UUID id) {
+        
+        log.debug("Getting ancestors of task: {}", id);
+        List<TaskTreeNodeDTO> ancestors = taskService.getAncestors(id);
+        return ResponseEntity.ok(BaseResponse.success(ancestors, "Ancestors retrieved successfully"));
+    }
+
     // ===== Dependency Management =====
 
     @PostMapping("/tasks/{id}/dependencies")
@@ -337,28 +545,33 @@ public class TaskController {
     // ===== Task Operations =====
 
     @PostMapping("/tasks/{id}/duplicate")
-    @Operation(summary = "Duplicate task", description = "Create a duplicate of an existing task")
+    @Operation(summary = "Duplicate task", description = "Create a duplicate of an existing task and, optionally, its whole subtree. Large subtrees are copied in the background: the response then holds a job to poll instead of the copy.")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<BaseResponse<TaskDTO>> duplicateTask(
+    public ResponseEntity<BaseResponse<TaskDuplicationDTO>> duplicateTask(
             @Parameter(description = "Task ID") @PathVariable UUID id,
             @Valid @RequestBody DuplicateTaskRequest request) {
         
         log.info("Duplicating task: {}", id);
-        TaskDTO duplicate = taskService.duplicateTask(id, request);
+        TaskDuplicationDTO duplication = taskService.duplicateTask(id, request);
+        if (duplication.getJob() != null) {
+            return ResponseEntity
+                    .status(HttpStatus.ACCEPTED)
+                    .body(BaseResponse.success(duplication, "Task duplication started"));
+        }
         return ResponseEntity
                 .status(HttpStatus.CREATED)
-                .body(BaseResponse.success(duplicate, "Task duplicated successfully"));
+                .body(BaseResponse.success(duplication, "Task duplicated successfully"));
     }
 
     @PostMapping("/tasks/bulk")
     @Operation(summary = "Bulk update tasks", description = "Perform bulk operations on multiple tasks")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<BaseResponse<List<TaskDTO>>> bulkUpdateTasks(
+    public ResponseEntity<BaseResponse<BulkTaskUpdateResult>> bulkUpdateTasks(
             @Valid @RequestBody BulkTaskUpdateRequest request) {
         
         log.info("Bulk updating {} tasks", request.getTaskIds().size());
-        List<TaskDTO> tasks = taskService.bulkUpdateTasks(request);
-        return ResponseEntity.ok(BaseResponse.success(tasks, "Tasks updated successfully"));
+        BulkTaskUpdateResult result = taskService.bulkUpdateTasks(request);
+        return ResponseEntity.ok(BaseResponse.success(result, "Tasks updated successfully"));
     }
 
     // ===== Comments =====
@@ -380,14 +593,15 @@ public class TaskController {
     // ===== Search =====
 
     @GetMapping("/tasks/search")
-    @Operation(summary = "Search tasks", description = "Search tasks by query")
+    @Operation(summary = "Search tasks", description = "Full-text search of task titles and descriptions, best matches first")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<BaseResponse<List<TaskDTO>>> searchTasks(
+    public ResponseEntity<BaseResponse<List<TaskSearchResultDTO>>> searchTasks(
             @Parameter(description = "Search query") @RequestParam String q,
-            @Parameter(description = "Workspace ID") @RequestParam(required = false) UUID workspaceId) {
+            @Parameter(description = "Workspace ID") @RequestParam(required = false) UUID workspaceId,
+            @Parameter(description = "Maximum number of results") @RequestParam(defaultValue = "20") int limit) {
         
         log.debug("Searching tasks with query: {}", q);
-        List<TaskDTO> tasks = taskService.searchTasks(q, workspaceId);
+        List<TaskSearchResultDTO> tasks = taskService.searchTasks(q, workspaceId, limit);
         return ResponseEntity.ok(BaseResponse.success(tasks, "Search completed successfully"));
     }
 
@@ -0,0 +1,57 @@
+package com.taskava.api.controller;
+
+import com.taskava.common.dto.BaseResponse;
+import com.taskava.common.dto.TypeaheadResultDTO;
+import com.taskava.common.exception.BadRequestException;
+import com.taskava.security.context.TenantContext;
+import com.taskava.service.TypeaheadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Set;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/v1/typeahead")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Typeahead", description = "Quick switcher suggestions")
+@SecurityRequirement(name = "bearerAuth")
+public class TypeaheadController {
+
+    private final TypeaheadService typeaheadService;
+
+    @GetMapping
+    @Operation(summary = "Suggest tasks and projects", description = "Lightweight suggestions ordered by similarity, boosting items the user opened recently")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BaseResponse<TypeaheadResultDTO>> suggest(
+            @Parameter(description = "Text typed so far") @RequestParam String q,
+            @Parameter(description = "Item types to include: TASK, PROJECT") @RequestParam(required = false) Set<String> types,
+            @Parameter(description = "Maximum number of suggestions") @RequestParam(defaultValue = "10") int limit) {
+        
+        TypeaheadResultDTO result = typeaheadService.suggest(q, types, limit);
+        return ResponseEntity.ok(BaseResponse.success(result));
+    }
+
+    @PostMapping("/recent/{type}/{id}")
+    @Operation(summary = "Record recent item", description = "Record that the current user opened a task or project")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BaseResponse<Void>> recordRecent(
+            @Parameter(description = "Item type: TASK or PROJECT") @PathVariable String type,
+            @Parameter(description = "Item ID") @PathVariable UUID id) {
+        
+        String itemType = type.toUpperCase();
+        if (!TypeaheadService.isSupportedType(itemType)) {
+            throw new BadRequestException("Unsupported item type: " + type);
+        }
+        typeaheadService.recordVisit(TenantContext.getCurrentUserId(), itemType, id);
+        return ResponseEntity.ok(BaseResponse.success(null, "Recent item recorded"));
+    }
+}
@@ -0,0 +1,36 @@
+package com.taskava.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of an asynchronous operation. {@code resultId} is set once the job has completed,
+ * {@code errorMessage} once it has failed; a cancelled job undoes what it had done.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BackgroundJobDTO {
+
+    private UUID id;
+    private String type;
+    private String status;
+    private UUID subjectId;
+    private UUID resultId;
+    private int totalItems;
+    private int processedItems;
+    private int progressPercentage;
+    private boolean cancelRequested;
+    private String errorMessage;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,34 @@
+package com.taskava.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Cursor-paginated slice of results")
+public class CursorPage<T> {
+
+    @Schema(description = "Items of this page")
+    private List<T> content;
+
+    @Schema(description = "Number of items in this page")
+    private int size;
+
+    @Schema(description = "Opaque cursor for the next page, absent on the last page")
+    private String nextCursor;
+
+    @Schema(description = "Whether another page follows")
+    private boolean hasNext;
+
+    @Schema(description = "Total number of matching items, only present when requested")
+    private Long totalElements;
+}
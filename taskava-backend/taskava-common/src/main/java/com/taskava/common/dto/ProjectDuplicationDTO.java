@@ -0,0 +1,22 @@
+package com.taskava.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a project duplication: the copy of the project, and the background job copying its
+ * tasks when the project was too large to copy within the request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProjectDuplicationDTO {
+
+    private ProjectDTO project;
+    private BackgroundJobDTO job;
+}
@@ -0,0 +1,31 @@
+package com.taskava.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * State of the purge of soft-deleted rows. {@code lastRunFinishedAt} is unset while a run is in
+ * progress.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PurgeStatusDTO {
+
+    private boolean enabled;
+    private boolean paused;
+    private Instant pausedAt;
+    private UUID pausedBy;
+    private int retentionDays;
+    private Instant lastRunStartedAt;
+    private Instant lastRunFinishedAt;
+    private long lastRunPurged;
+}
@@ -0,0 +1,55 @@
+package com.taskava.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Typeahead suggestions for the quick switcher")
+public class TypeaheadResultDTO {
+
+    @Schema(description = "Suggestions, best match first")
+    private List<Suggestion> suggestions;
+
+    @Schema(description = "True when the latency budget ran out before all item types were searched")
+    private boolean truncated;
+
+    @Schema(description = "Time spent searching in milliseconds")
+    private long tookMs;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Suggestion {
+
+        @Schema(description = "Item type", example = "TASK")
+        private String type;
+
+        private UUID id;
+
+        @Schema(description = "Task number, tasks only")
+        private Long number;
+
+        @Schema(description = "Task title or project name")
+        private String label;
+
+        private String status;
+
+        @Schema(description = "Whether the user opened this item recently")
+        private boolean recent;
+
+        private double score;
+    }
+}
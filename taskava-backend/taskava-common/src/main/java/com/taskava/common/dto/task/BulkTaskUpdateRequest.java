@@ -40,6 +40,10 @@ public class BulkTaskUpdateRequest {
     private Set<UUID> addProjectIds;
     private Set<UUID> removeProjectIds;
     
+    // When false, only ids and new versions of the updated tasks are returned
+    @Builder.Default
+    private boolean returnTasks = true;
+    
     public enum BulkOperation {
         UPDATE_STATUS,
         UPDATE_PRIORITY,
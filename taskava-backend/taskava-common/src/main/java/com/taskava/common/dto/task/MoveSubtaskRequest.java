@@ -0,0 +1,17 @@
+package com.taskava.common.dto.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoveSubtaskRequest {
+    
+    private UUID parentTaskId; // null makes the task a top-level task
+}
@@ -19,5 +19,9 @@ public class MoveTaskToSectionRequest {
     
     private UUID sectionId; // null means move to "no section"
     
-    private Integer position;
+    private UUID afterTaskId; // place directly below this task of the target section
+    
+    private UUID beforeTaskId; // place directly above this task of the target section
+    
+    private Integer position; // 0-based index, used when no neighbour task is given
 }
\ No newline at end of file
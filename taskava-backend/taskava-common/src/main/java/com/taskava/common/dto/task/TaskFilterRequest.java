@@ -50,6 +50,8 @@ public class TaskFilterRequest {
     private Boolean hasAttachments;
     private Boolean hasComments;
     private Boolean hasDependencies;
+    private UUID sectionId; // Board column, requires projectId
+    private Boolean hasSection; // false selects the "no section" column, requires projectId
     private Boolean isRecurring;
     private String taskType; // task, milestone, approval
     
@@ -0,0 +1,70 @@
+package com.taskava.service;
+
+import com.taskava.common.dto.BackgroundJobDTO;
+import com.taskava.common.exception.BadRequestException;
+import com.taskava.common.exception.ConflictException;
+import com.taskava.common.exception.ResourceNotFoundException;
+import com.taskava.data.repository.BackgroundJobRepository;
+import com.taskava.data.repository.BackgroundJobRepository.BackgroundJob;
+import com.taskava.security.context.TenantContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Background jobs of the current workspace, for clients polling the progress of an operation
+ * they started or asking it to stop
+ */
+@Service
+@RequiredArgsConstructor
+public class BackgroundJobService {
+
+    private final BackgroundJobRepository jobRepository;
+
+    public BackgroundJobDTO getJob(UUID jobId) {
+        return toDTO(findJob(jobId));
+    }
+
+    /**
+     * Ask a job to stop. The worker stops after the batch in progress, so the job reads CANCELLED
+     * shortly after.
+     */
+    public BackgroundJobDTO cancelJob(UUID jobId) {
+        BackgroundJob job = findJob(jobId);
+        if (!job.type().isCancellable()) {
+            throw new BadRequestException("Jobs of type " + job.type() + " cannot be cancelled");
+        }
+        if (!jobRepository.requestCancel(jobId)) {
+            throw new ConflictException("Job has already finished: " + job.status());
+        }
+        return toDTO(findJob(jobId));
+    }
+
+    private BackgroundJob findJob(UUID jobId) {
+        UUID workspaceId = TenantContext.getCurrentWorkspaceId();
+        return jobRepository.findById(jobId)
+                .filter(job -> job.workspaceId().equals(workspaceId))
+                .orElseThrow(() -> new ResourceNotFoundException("Job", "id", jobId));
+    }
+
+    public static BackgroundJobDTO toDTO(BackgroundJob job) {
+        return BackgroundJobDTO.builder()
+                .id(job.id())
+                .type(job.type().name())
+                .status(job.status().name())
+                .subjectId(job.subjectId())
+                .resultId(job.resultId())
+                .totalItems(job.totalItems())
+                .processedItems(job.processedItems())
+                .progressPercentage(job.totalItems() > 0
+                        ? (int) Math.min(100L, job.processedItems() * 100L / job.totalItems())
+                        : 0)
+                .cancelRequested(job.cancelRequested())
+                .errorMessage(job.errorMessage())
+                .createdAt(job.createdAt())
+                .startedAt(job.startedAt())
+                .finishedAt(job.finishedAt())
+                .build();
+    }
+}
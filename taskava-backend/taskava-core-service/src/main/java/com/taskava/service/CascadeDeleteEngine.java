@@ -0,0 +1,137 @@
+package com.taskava.service;
+
+import com.taskava.data.repository.BackgroundJobRepository;
+import com.taskava.data.repository.CascadeDeleteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+/**
+ * Cascades soft-deletes and restores of tasks and projects. The caller marks the top of a
+ * deletion (the tasks or the project) itself, so it disappears within the request; the engine then
+ * deletes what hangs off it, chunk by chunk, each chunk one statement in its own short
+ * transaction. A restore runs the other way round: the rows of the deletion come back in chunks
+ * and the top last, so a project or task only reappears once it is whole again. Within a caller's
+ * transaction the chunks join it; as a background job each chunk commits on its own and reports
+ * progress. A failed deletion can be undone by restoring it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CascadeDeleteEngine {
+
+    private final CascadeDeleteRepository cascadeRepository;
+    private final BackgroundJobRepository jobRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${cascade-delete.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * What a deletion removed: a task (with the tasks deleted along with it), or a project when
+     * {@code project} is set. {@code subjectId} is the task or project.
+     */
+    public record CascadeSpec(UUID subjectId, boolean project, UUID deletionId, UUID userId) {
+
+        public static CascadeSpec task(UUID taskId, UUID deletionId, UUID userId) {
+            return new CascadeSpec(taskId, false, deletionId, userId);
+        }
+
+        public static CascadeSpec project(UUID projectId, UUID deletionId, UUID userId) {
+            return new CascadeSpec(projectId, true, deletionId, userId);
+        }
+    }
+
+    /**
+     * Delete everything below the marked top of a deletion: for a project, its tasks that are in
+     * no other live project; then the live subtrees of every task of the deletion. Returns the
+     * number of tasks deleted.
+     */
+    public int delete(CascadeSpec spec, UUID jobId) {
+        int deleted = 0;
+        if (spec.project()) {
+            deleted += inChunks(jobId, () -> cascadeRepository.deleteProjectTasksChunk(
+                    spec.subjectId(), spec.deletionId(), spec.userId(), chunkSize));
+        }
+        deleted += inChunks(jobId, () -> cascadeRepository.deleteDescendantsChunk(
+                spec.deletionId(), spec.userId(), chunkSize));
+        log.info("Deleted {} tasks with {} {}", deleted, spec.project() ? "project" : "task", spec.subjectId());
+        return deleted;
+    }
+
+    /**
+     * Restore the rows of a deletion, the top last: all of them for a project, only the task's own
+     * subtree for a task, so restoring one task of a bulk deletion, or a subtask deleted along with
+     * its parent, brings back nothing else. Returns the number of tasks restored besides the top.
+     */
+    public int restore(CascadeSpec spec, UUID jobId) {
+        int restored = 0;
+        if (spec.deletionId() != null) {
+            restored = inChunks(jobId, spec.project()
+                    ? () -> cascadeRepository.restoreTasksChunk(spec.deletionId(), spec.userId(), chunkSize)
+                    : () -> cascadeRepository.restoreSubtreeChunk(
+                            spec.deletionId(), spec.subjectId(), spec.userId(), chunkSize));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (spec.project()) {
+                cascadeRepository.restoreProject(spec.subjectId(), spec.deletionId(), spec.userId());
+            } else {
+                cascadeRepository.restoreTask(spec.subjectId(), spec.userId());
+            }
+        });
+        log.info("Restored {} tasks with {} {}", restored, spec.project() ? "project" : "task", spec.subjectId());
+        return restored;
+    }
+
+    /**
+     * Cascade a deletion as a background job. Must be started only once the job and the marked
+     * top are committed.
+     */
+    @Async
+    public void runDelete(UUID jobId, CascadeSpec spec) {
+        runJob(jobId, spec, () -> delete(spec, jobId));
+    }
+
+    /**
+     * Restore a deletion as a background job. Must be started only once the job is committed.
+     */
+    @Async
+    public void runRestore(UUID jobId, CascadeSpec spec) {
+        runJob(jobId, spec, () -> restore(spec, jobId));
+    }
+
+    private void runJob(UUID jobId, CascadeSpec spec, IntSupplier work) {
+        jobRepository.markRunning(jobId);
+        try {
+            work.getAsInt();
+            jobRepository.complete(jobId, spec.subjectId());
+        } catch (RuntimeException e) {
+            log.error("Cascade job {} of {} failed", jobId, spec.subjectId(), e);
+            jobRepository.fail(jobId, e.getMessage());
+        }
+    }
+
+    // Run a chunk until it finds nothing left, each run in its own transaction
+    private int inChunks(UUID jobId, IntSupplier chunk) {
+        int total = 0;
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> {
+                int updated = chunk.getAsInt();
+                if (jobId != null && updated > 0) {
+                    jobRepository.addProgress(jobId, updated);
+                }
+                return updated;
+            });
+            if (count == null || count == 0) {
+                return total;
+            }
+            total += count;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.taskava.service;
+
+import com.taskava.common.dto.BackgroundJobDTO;
+import com.taskava.data.repository.BackgroundJobRepository;
+import com.taskava.data.repository.BackgroundJobRepository.JobType;
+import com.taskava.service.CascadeDeleteEngine.CascadeSpec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Decides whether a cascading delete or restore runs within the caller's transaction or as a
+ * background job, by the number of tasks it touches. Must be called within a transaction: a job
+ * is started only once that transaction has committed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CascadeDeleteService {
+
+    private final CascadeDeleteEngine cascadeDeleteEngine;
+    private final BackgroundJobRepository jobRepository;
+
+    @Value("${cascade-delete.async-threshold:500}")
+    private int asyncThreshold;
+
+    /**
+     * Cascade a deletion whose top the caller has marked. Returns the job running it, or null when
+     * it is already done.
+     */
+    public BackgroundJobDTO cascadeDelete(CascadeSpec spec, UUID workspaceId, int size) {
+        if (size <= asyncThreshold) {
+            cascadeDeleteEngine.delete(spec, null);
+            return null;
+        }
+        UUID jobId = jobRepository.create(JobType.CASCADE_DELETE, workspaceId, spec.subjectId(), size, spec.userId());
+        afterCommit(() -> cascadeDeleteEngine.runDelete(jobId, spec));
+        log.info("Deletion of {} with {} tasks queued as job {}", spec.subjectId(), size, jobId);
+        return findJob(jobId);
+    }
+
+    /**
+     * Restore a deletion. Returns the job running it, or null when it is already done.
+     */
+    public BackgroundJobDTO restore(CascadeSpec spec, UUID workspaceId, int size) {
+        if (size <= asyncThreshold) {
+            cascadeDeleteEngine.restore(spec, null);
+            return null;
+        }
+        UUID jobId = jobRepository.create(JobType.CASCADE_RESTORE, workspaceId, spec.subjectId(), size, spec.userId());
+        afterCommit(() -> cascadeDeleteEngine.runRestore(jobId, spec));
+        log.info("Restore of {} with {} tasks queued as job {}", spec.subjectId(), size, jobId);
+        return findJob(jobId);
+    }
+
+    private void afterCommit(Runnable task) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
+    }
+
+    private BackgroundJobDTO findJob(UUID jobId) {
+        return jobRepository.findById(jobId).map(BackgroundJobService::toDTO).orElse(null);
+    }
+}
@@ -0,0 +1,226 @@
+package com.taskava.service;
+
+import com.taskava.common.exception.ConflictException;
+import com.taskava.data.repository.TaskDependencyRepository.DependencyEdge;
+import com.taskava.data.repository.TaskScheduleRepository.TaskDates;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Critical path arithmetic over task dates in whole days. A task occupies the days from its start
+ * date through its due date, or the single day of whichever one it has. With lag 0, finish_start
+ * lets the successor start the day after the predecessor is due, start_start and finish_finish
+ * align the start or due dates, and start_finish lets the successor be due the day before the
+ * predecessor starts. Tasks without any date take no part.
+ */
+final class CriticalPathScheduler {
+
+    /**
+     * Days {@code [start, finish)} as epoch days, so a task due the day it starts lasts one day
+     */
+    record Span(long start, long finish) {
+
+        long duration() {
+            return finish - start;
+        }
+
+        Span startingOn(long day) {
+            return new Span(day, day + duration());
+        }
+    }
+
+    /**
+     * Schedule of one task; finish dates are inclusive like due dates
+     */
+    record TaskSchedule(UUID taskId, LocalDate earliestStart, LocalDate earliestFinish,
+                        LocalDate latestStart, LocalDate latestFinish, long slackDays) {
+
+        boolean critical() {
+            return slackDays == 0;
+        }
+    }
+
+    private CriticalPathScheduler() {
+    }
+
+    static Span span(TaskDates dates) {
+        LocalDate start = dates.startDate() != null ? dates.startDate() : dates.dueDate();
+        LocalDate due = dates.dueDate() != null ? dates.dueDate() : dates.startDate();
+        if (start == null) {
+            return null;
+        }
+        long startDay = start.toEpochDay();
+        return new Span(startDay, Math.max(startDay, due.toEpochDay()) + 1);
+    }
+
+    static TaskDates toDates(UUID taskId, TaskDates original, Span span) {
+        return new TaskDates(taskId,
+                original.startDate() != null ? LocalDate.ofEpochDay(span.start()) : null,
+                original.dueDate() != null ? LocalDate.ofEpochDay(span.finish() - 1) : null);
+    }
+
+    /**
+     * Earliest start the dependency allows its successor, given the predecessor's days
+     */
+    static long earliestStart(DependencyEdge edge, Span predecessor, long successorDuration) {
+        return switch (Objects.requireNonNullElse(edge.dependencyType(), "finish_start")) {
+            case "start_start" -> predecessor.start() + edge.lagDays();
+            case "finish_finish" -> predecessor.finish() + edge.lagDays() - successorDuration;
+            case "start_finish" -> predecessor.start() + edge.lagDays() - successorDuration;
+            default -> predecessor.finish() + edge.lagDays();
+        };
+    }
+
+    /**
+     * Latest finish the dependency allows its predecessor, given the successor's days
+     */
+    static long latestFinish(DependencyEdge edge, Span successor, long predecessorDuration) {
+        return switch (Objects.requireNonNullElse(edge.dependencyType(), "finish_start")) {
+            case "start_start" -> successor.start() - edge.lagDays() + predecessorDuration;
+            case "finish_finish" -> successor.finish() - edge.lagDays();
+            case "start_finish" -> successor.finish() - edge.lagDays() + predecessorDuration;
+            default -> successor.start() - edge.lagDays();
+        };
+    }
+
+    /**
+     * Earliest and latest dates, slack and criticality of every dated task, in topological order.
+     * Only dependencies between two of the given tasks count. A task starts no earlier than
+     * planned, and the latest dates are taken back from the finish of the last task.
+     */
+    static List<TaskSchedule> schedule(Map<UUID, Span> planned, Collection<DependencyEdge> dependencies) {
+        List<DependencyEdge> edges = dependencies.stream()
+                .filter(e -> planned.containsKey(e.predecessorId()) && planned.containsKey(e.successorId()))
+                .toList();
+        List<UUID> order = topologicalOrder(planned.keySet(), edges);
+        Map<UUID, List<DependencyEdge>> incoming = new HashMap<>();
+        Map<UUID, List<DependencyEdge>> outgoing = new HashMap<>();
+        for (DependencyEdge edge : edges) {
+            incoming.computeIfAbsent(edge.successorId(), k -> new ArrayList<>()).add(edge);
+            outgoing.computeIfAbsent(edge.predecessorId(), k -> new ArrayList<>()).add(edge);
+        }
+
+        Map<UUID, Span> early = new HashMap<>();
+        long projectFinish = Long.MIN_VALUE;
+        for (UUID taskId : order) {
+            Span span = planned.get(taskId);
+            long start = span.start();
+            for (DependencyEdge edge : incoming.getOrDefault(taskId, List.of())) {
+                start = Math.max(start, earliestStart(edge, early.get(edge.predecessorId()), span.duration()));
+            }
+            Span earliest = span.startingOn(start);
+            early.put(taskId, earliest);
+            projectFinish = Math.max(projectFinish, earliest.finish());
+        }
+
+        Map<UUID, Span> late = new HashMap<>();
+        for (int i = order.size() - 1; i >= 0; i--) {
+            UUID taskId = order.get(i);
+            long duration = planned.get(taskId).duration();
+            long finish = projectFinish;
+            for (DependencyEdge edge : outgoing.getOrDefault(taskId, List.of())) {
+                finish = Math.min(finish, latestFinish(edge, late.get(edge.successorId()), duration));
+            }
+            late.put(taskId, new Span(finish - duration, finish));
+        }
+
+        List<TaskSchedule> schedules = new ArrayList<>(order.size());
+        for (UUID taskId : order) {
+            Span earliest = early.get(taskId);
+            Span latest = late.get(taskId);
+            schedules.add(new TaskSchedule(taskId,
+                    LocalDate.ofEpochDay(earliest.start()), LocalDate.ofEpochDay(earliest.finish() - 1),
+                    LocalDate.ofEpochDay(latest.start()), LocalDate.ofEpochDay(latest.finish() - 1),
+                    latest.start() - earliest.start()));
+        }
+        return schedules;
+    }
+
+    /**
+     * Push tasks later until every dependency into them holds, in topological order so a shift
+     * carries on downstream. {@code dates} must hold the days of every dated task at either end of
+     * {@code incoming}; tasks in {@code fixed} keep their dates. Returns the new days of the tasks
+     * that moved; durations are kept.
+     */
+    static Map<UUID, Span> propagate(Map<UUID, Span> dates, Collection<DependencyEdge> incoming, Set<UUID> fixed) {
+        Set<UUID> successors = new HashSet<>();
+        Map<UUID, List<DependencyEdge>> into = new HashMap<>();
+        for (DependencyEdge edge : incoming) {
+            successors.add(edge.successorId());
+            into.computeIfAbsent(edge.successorId(), k -> new ArrayList<>()).add(edge);
+        }
+        List<DependencyEdge> internal = incoming.stream()
+                .filter(e -> successors.contains(e.predecessorId()))
+                .toList();
+
+        Map<UUID, Span> current = new HashMap<>(dates);
+        Map<UUID, Span> shifted = new LinkedHashMap<>();
+        for (UUID taskId : topologicalOrder(successors, internal)) {
+            Span span = current.get(taskId);
+            if (span == null || fixed.contains(taskId)) {
+                continue;
+            }
+            long start = span.start();
+            for (DependencyEdge edge : into.get(taskId)) {
+                Span predecessor = current.get(edge.predecessorId());
+                if (predecessor != null) {
+                    start = Math.max(start, earliestStart(edge, predecessor, span.duration()));
+                }
+            }
+            if (start > span.start()) {
+                Span moved = span.startingOn(start);
+                current.put(taskId, moved);
+                shifted.put(taskId, moved);
+            }
+        }
+        return shifted;
+    }
+
+    /**
+     * Kahn's algorithm over the dependencies between the tasks
+     */
+    static List<UUID> topologicalOrder(Collection<UUID> tasks, Collection<DependencyEdge> edges) {
+        Map<UUID, Integer> inDegree = new LinkedHashMap<>();
+        for (UUID taskId : tasks) {
+            inDegree.put(taskId, 0);
+        }
+        Map<UUID, List<UUID>> successors = new HashMap<>();
+        for (DependencyEdge edge : edges) {
+            successors.computeIfAbsent(edge.predecessorId(), k -> new ArrayList<>()).add(edge.successorId());
+            inDegree.merge(edge.successorId(), 1, Integer::sum);
+        }
+
+        Deque<UUID> ready = new ArrayDeque<>();
+        inDegree.forEach((taskId, degree) -> {
+            if (degree == 0) {
+                ready.add(taskId);
+            }
+        });
+        List<UUID> order = new ArrayList<>(inDegree.size());
+        while (!ready.isEmpty()) {
+            UUID taskId = ready.poll();
+            order.add(taskId);
+            for (UUID successor : successors.getOrDefault(taskId, List.of())) {
+                if (inDegree.merge(successor, -1, Integer::sum) == 0) {
+                    ready.add(successor);
+                }
+            }
+        }
+        if (order.size() < inDegree.size()) {
+            throw new ConflictException("Task dependencies contain a cycle");
+        }
+        return order;
+    }
+}
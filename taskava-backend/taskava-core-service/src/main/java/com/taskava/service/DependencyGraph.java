@@ -0,0 +1,96 @@
+package com.taskava.service;
+
+import com.taskava.data.repository.TaskDependencyRepository.DependencyEdge;
+import com.taskava.data.repository.TaskDependencyRepository.GraphEdge;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of one project's dependency graph: every live dependency with at least one
+ * task in the project, as adjacency lists in both directions. Tasks at the far end of a
+ * cross-project dependency are included along with the projects they belong to, so a traversal
+ * knows which other graphs continue the path. Dependencies of deleted tasks are kept apart for
+ * cycle checks, since restoring the tasks brings them back.
+ */
+public final class DependencyGraph {
+
+    private final UUID projectId;
+    private final long version;
+    private final List<DependencyEdge> edges;
+    private final Map<UUID, List<DependencyEdge>> outgoing = new HashMap<>();
+    private final Map<UUID, List<DependencyEdge>> incoming = new HashMap<>();
+    private final Map<UUID, List<DependencyEdge>> outgoingIncludingDeleted = new HashMap<>();
+    private final Map<UUID, List<UUID>> taskProjects = new HashMap<>();
+
+    public DependencyGraph(UUID projectId, long version, List<GraphEdge> graphEdges) {
+        this.projectId = projectId;
+        this.version = version;
+        List<DependencyEdge> all = new ArrayList<>(graphEdges.size());
+        for (GraphEdge graphEdge : graphEdges) {
+            DependencyEdge edge = graphEdge.edge();
+            outgoingIncludingDeleted.computeIfAbsent(edge.predecessorId(), k -> new ArrayList<>()).add(edge);
+            if (graphEdge.live()) {
+                all.add(edge);
+                outgoing.computeIfAbsent(edge.predecessorId(), k -> new ArrayList<>()).add(edge);
+                incoming.computeIfAbsent(edge.successorId(), k -> new ArrayList<>()).add(edge);
+            }
+            taskProjects.putIfAbsent(edge.predecessorId(), graphEdge.predecessorProjects());
+            taskProjects.putIfAbsent(edge.successorId(), graphEdge.successorProjects());
+        }
+        this.edges = Collections.unmodifiableList(all);
+    }
+
+    public UUID getProjectId() {
+        return projectId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<DependencyEdge> getEdges() {
+        return edges;
+    }
+
+    public List<DependencyEdge> outgoing(UUID taskId) {
+        return outgoing.getOrDefault(taskId, List.of());
+    }
+
+    public List<DependencyEdge> incoming(UUID taskId) {
+        return incoming.getOrDefault(taskId, List.of());
+    }
+
+    /**
+     * Outgoing dependencies of a task, including those of deleted tasks
+     */
+    public List<DependencyEdge> outgoingIncludingDeleted(UUID taskId) {
+        return outgoingIncludingDeleted.getOrDefault(taskId, List.of());
+    }
+
+    /**
+     * Projects of a task that has a dependency in this graph, or null for other tasks
+     */
+    public List<UUID> projectsOf(UUID taskId) {
+        return taskProjects.get(taskId);
+    }
+
+    /**
+     * Dependencies touching any of the tasks, each once
+     */
+    public List<DependencyEdge> edgesOf(Collection<UUID> taskIds) {
+        Set<DependencyEdge> selected = new LinkedHashSet<>();
+        for (UUID taskId : taskIds) {
+            selected.addAll(incoming(taskId));
+            selected.addAll(outgoing(taskId));
+        }
+        return new ArrayList<>(selected);
+    }
+}
@@ -0,0 +1,205 @@
+package com.taskava.service;
+
+import com.taskava.common.dto.task.TaskDependencyDTO;
+import com.taskava.common.exception.ResourceNotFoundException;
+import com.taskava.data.repository.ProjectRepository;
+import com.taskava.data.repository.TaskDependencyRepository;
+import com.taskava.data.repository.TaskDependencyRepository.DependencyEdge;
+import com.taskava.security.context.TenantContext;
+import com.taskava.service.dto.DependencyGraphDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Per-project dependency graphs cached in memory. A cached graph is used as long as the project's
+ * graph version in the database still matches, so checking freshness is a single primary key
+ * read and every node sees changes made through any other node. Versions are drawn from a
+ * sequence, so a graph cached inside a transaction that later rolls back carries a version no
+ * committed change will ever have. Cycle checks traverse only the part of the graph reachable
+ * from the new dependency's successor, and they follow dependencies of deleted tasks too, since
+ * restoring those tasks must not bring back a cycle.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DependencyGraphService {
+
+    private final TaskDependencyRepository taskDependencyRepository;
+    private final ProjectRepository projectRepository;
+
+    @Value("${dependency-graph.max-cached-projects:1000}")
+    private int maxCachedProjects;
+
+    // Least recently used graphs are dropped first
+    private final Map<UUID, DependencyGraph> graphs = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, DependencyGraph> eldest) {
+                    return size() > maxCachedProjects;
+                }
+            });
+
+    /**
+     * Current dependency graph of a project
+     */
+    @Transactional(readOnly = true)
+    public DependencyGraph getGraph(UUID projectId) {
+        return graph(projectId, taskDependencyRepository.findGraphVersions(List.of(projectId)).get(projectId));
+    }
+
+    /**
+     * Dependencies of a project for Gantt views, optionally only those touching the given tasks
+     */
+    @Transactional(readOnly = true)
+    public DependencyGraphDTO getProjectDependencies(UUID projectId, Collection<UUID> taskIds) {
+        projectRepository.findActiveByIdAndWorkspace(projectId, TenantContext.getCurrentWorkspace())
+                .orElseThrow(() -> new ResourceNotFoundException("Project", "id", projectId));
+
+        DependencyGraph graph = getGraph(projectId);
+        List<DependencyEdge> edges = taskIds == null || taskIds.isEmpty() ? graph.getEdges() : graph.edgesOf(taskIds);
+        return DependencyGraphDTO.builder()
+                .projectId(projectId)
+                .version(graph.getVersion())
+                .dependencies(edges.stream().map(DependencyGraphService::toDTO).toList())
+                .build();
+    }
+
+    /**
+     * Whether adding {@code predecessorId -> successorId} would close a cycle, that is whether the
+     * predecessor is already reachable from the successor. Callers must hold the workspace
+     * dependency lock so the answer stays true until they commit.
+     */
+    @Transactional(readOnly = true)
+    public boolean wouldCreateCycle(UUID predecessorId, UUID successorId) {
+        if (predecessorId.equals(successorId)) {
+            return true;
+        }
+        boolean cycle = traverse(List.of(successorId), true, edge -> edge.successorId().equals(predecessorId));
+        if (cycle) {
+            log.debug("Dependency {} -> {} would close a cycle", predecessorId, successorId);
+        }
+        return cycle;
+    }
+
+    /**
+     * Every dependency reachable downstream of any of the tasks, across projects, each once
+     */
+    @Transactional(readOnly = true)
+    public List<DependencyEdge> downstreamEdges(Collection<UUID> taskIds) {
+        List<DependencyEdge> edges = new ArrayList<>();
+        traverse(taskIds, false, edge -> {
+            edges.add(edge);
+            return false;
+        });
+        return edges;
+    }
+
+    /**
+     * Breadth-first walk along outgoing dependencies from {@code startIds}, visiting each dependency
+     * once until {@code visitor} returns true. Dependencies of deleted tasks are followed only if
+     * {@code includeDeleted}. Returns whether the walk was stopped.
+     */
+    private boolean traverse(Collection<UUID> startIds, boolean includeDeleted, Predicate<DependencyEdge> visitor) {
+        Map<UUID, DependencyGraph> loaded = new HashMap<>();
+        Map<UUID, List<UUID>> projectsOf = new HashMap<>();
+        Map<UUID, List<UUID>> startProjects = taskDependencyRepository.findProjectIds(startIds);
+        for (UUID startId : startIds) {
+            projectsOf.put(startId, new ArrayList<>(startProjects.getOrDefault(startId, List.of())));
+        }
+
+        Deque<UUID> queue = new ArrayDeque<>();
+        Set<UUID> visited = new HashSet<>();
+        for (UUID startId : startIds) {
+            if (visited.add(startId)) {
+                queue.add(startId);
+            }
+        }
+        while (!queue.isEmpty()) {
+            UUID taskId = queue.poll();
+            for (DependencyEdge edge : outgoing(taskId, includeDeleted, projectsOf, loaded)) {
+                if (visitor.test(edge)) {
+                    return true;
+                }
+                if (visited.add(edge.successorId())) {
+                    queue.add(edge.successorId());
+                }
+            }
+        }
+        return false;
+    }
+
+    private List<DependencyEdge> outgoing(UUID taskId, boolean includeDeleted, Map<UUID, List<UUID>> projectsOf,
+                                          Map<UUID, DependencyGraph> loaded) {
+        List<UUID> projects = projectsOf.get(taskId);
+        if (projects == null) {
+            projects = taskDependencyRepository.findProjectIds(List.of(taskId)).getOrDefault(taskId, List.of());
+        }
+        if (projects.isEmpty()) {
+            // No project graph covers a task outside every project
+            return taskDependencyRepository.findOutgoing(List.of(taskId), includeDeleted);
+        }
+
+        List<UUID> missing = projects.stream().filter(p -> !loaded.containsKey(p)).toList();
+        if (!missing.isEmpty()) {
+            taskDependencyRepository.findGraphVersions(missing)
+                    .forEach((projectId, version) -> loaded.put(projectId, graph(projectId, version)));
+        }
+
+        // A dependency between two tasks of the same projects is in each of their graphs
+        Map<UUID, DependencyEdge> edges = new LinkedHashMap<>();
+        for (UUID projectId : projects) {
+            DependencyGraph graph = loaded.get(projectId);
+            List<DependencyEdge> graphEdges = includeDeleted
+                    ? graph.outgoingIncludingDeleted(taskId)
+                    : graph.outgoing(taskId);
+            for (DependencyEdge edge : graphEdges) {
+                edges.putIfAbsent(edge.id(), edge);
+                projectsOf.putIfAbsent(edge.successorId(), graph.projectsOf(edge.successorId()));
+            }
+        }
+        return new ArrayList<>(edges.values());
+    }
+
+    private DependencyGraph graph(UUID projectId, long version) {
+        DependencyGraph cached = graphs.get(projectId);
+        if (cached != null && cached.getVersion() == version) {
+            return cached;
+        }
+
+        // The version was read before the edges, so a concurrent change can only make this
+        // snapshot newer than its version, never older
+        DependencyGraph graph = new DependencyGraph(projectId, version,
+                taskDependencyRepository.findProjectGraph(projectId));
+        graphs.merge(projectId, graph, (old, loaded) -> loaded.getVersion() >= old.getVersion() ? loaded : old);
+        log.debug("Loaded dependency graph of project {} at version {} with {} dependencies",
+                projectId, version, graph.getEdges().size());
+        return graph;
+    }
+
+    private static TaskDependencyDTO toDTO(DependencyEdge edge) {
+        return TaskDependencyDTO.builder()
+                .id(edge.id())
+                .predecessorId(edge.predecessorId())
+                .successorId(edge.successorId())
+                .dependencyType(edge.dependencyType())
+                .lagDays(edge.lagDays())
+                .build();
+    }
+}
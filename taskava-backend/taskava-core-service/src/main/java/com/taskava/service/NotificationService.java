@@ -0,0 +1,65 @@
+package com.taskava.service;
+
+import com.taskava.common.exception.BadRequestException;
+import com.taskava.data.repository.NotificationRepository;
+import com.taskava.data.repository.NotificationRepository.Notification;
+import com.taskava.security.context.TenantContext;
+import com.taskava.service.dto.NotificationDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The current user's in-app notifications, such as delivered task reminders
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationService {
+
+    private final NotificationRepository notificationRepository;
+
+    @Value("${application.max-page-size:100}")
+    private int maxPageSize;
+
+    @Transactional(readOnly = true)
+    public List<NotificationDTO> getNotifications(boolean unreadOnly, int limit) {
+        return notificationRepository.findByUser(currentUser(), unreadOnly, Math.max(1, Math.min(limit, maxPageSize)))
+                .stream()
+                .map(NotificationService::toDTO)
+                .toList();
+    }
+
+    /**
+     * Mark a notification of the current user read. Notifications already read, or of other
+     * users, are left alone.
+     */
+    @Transactional
+    public void markRead(UUID notificationId) {
+        notificationRepository.markRead(currentUser(), List.of(notificationId));
+    }
+
+    private static UUID currentUser() {
+        UUID userId = TenantContext.getCurrentUserId();
+        if (userId == null) {
+            throw new BadRequestException("User context is required");
+        }
+        return userId;
+    }
+
+    private static NotificationDTO toDTO(Notification notification) {
+        return NotificationDTO.builder()
+                .id(notification.id())
+                .workspaceId(notification.workspaceId())
+                .taskId(notification.taskId())
+                .kind(notification.kind())
+                .title(notification.title())
+                .dueAt(notification.dueAt())
+                .createdAt(notification.createdAt())
+                .readAt(notification.readAt())
+                .build();
+    }
+}
@@ -0,0 +1,141 @@
+package com.taskava.service;
+
+import com.taskava.common.exception.ResourceNotFoundException;
+import com.taskava.data.query.TaskCursor;
+import com.taskava.data.query.TaskSortKey;
+import com.taskava.data.repository.ProjectBoardRepository;
+import com.taskava.data.repository.ProjectBoardRepository.BoardRow;
+import com.taskava.data.repository.ProjectRepository;
+import com.taskava.security.context.TenantContext;
+import com.taskava.service.dto.ProjectBoardColumnDTO;
+import com.taskava.service.dto.TaskSummaryDTO;
+import com.taskava.service.mapper.TaskMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Project boards in a single round trip. The board query returns every column with its first
+ * cards; columns are handed to a {@link BoardWriter} one at a time as the rows stream in, so
+ * neither the service nor the database result is ever held for the whole board. Columns with
+ * more cards than the limit carry a position cursor for the project task listing.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProjectBoardService {
+
+    private final ProjectRepository projectRepository;
+    private final ProjectBoardRepository projectBoardRepository;
+    private final TaskMapper taskMapper;
+
+    @Value("${project-board.default-column-limit:50}")
+    private int defaultColumnLimit;
+
+    @Value("${project-board.max-column-limit:200}")
+    private int maxColumnLimit;
+
+    /**
+     * Receives a board as it is read
+     */
+    public interface BoardWriter {
+
+        void begin(UUID projectId, int columnLimit) throws IOException;
+
+        void column(ProjectBoardColumnDTO column) throws IOException;
+
+        void end() throws IOException;
+    }
+
+    /**
+     * Stream the board of a project to {@code writer}. Fails before anything is written when the
+     * project does not exist in the current workspace.
+     */
+    @Transactional(readOnly = true)
+    public void streamBoard(UUID projectId, Integer columnLimit, BoardWriter writer) throws IOException {
+        projectRepository.findActiveByIdAndWorkspace(projectId, TenantContext.getCurrentWorkspace())
+                .orElseThrow(() -> new ResourceNotFoundException("Project", "id", projectId));
+        int limit = columnLimit == null ? defaultColumnLimit : Math.max(1, Math.min(columnLimit, maxColumnLimit));
+
+        log.debug("Streaming board of project {} with up to {} tasks per column", projectId, limit);
+        writer.begin(projectId, limit);
+        ColumnAssembler assembler = new ColumnAssembler(writer);
+        try {
+            projectBoardRepository.streamBoard(projectId, limit, assembler::accept);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        assembler.flush();
+        writer.end();
+    }
+
+    /**
+     * Groups consecutive board rows into columns
+     */
+    private class ColumnAssembler {
+
+        private final BoardWriter writer;
+        private BoardRow header;
+        private final List<TaskSummaryDTO> tasks = new ArrayList<>();
+        private BoardRow last;
+
+        ColumnAssembler(BoardWriter writer) {
+            this.writer = writer;
+        }
+
+        void accept(BoardRow row) {
+            try {
+                if (header != null && !sameColumn(header, row)) {
+                    flush();
+                }
+                if (header == null) {
+                    header = row;
+                }
+                if (row.card() != null) {
+                    tasks.add(taskMapper.toSummaryDTO(row.card()));
+                    last = row;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void flush() throws IOException {
+            if (header == null) {
+                return;
+            }
+            // The "no section" column is only shown when it has tasks
+            if (header.sectionId() != null || header.columnSize() > 0) {
+                boolean hasMore = header.columnSize() > tasks.size();
+                writer.column(ProjectBoardColumnDTO.builder()
+                        .sectionId(header.sectionId())
+                        .name(header.sectionName())
+                        .position(header.sectionPosition())
+                        .taskCount(header.columnSize())
+                        .tasks(List.copyOf(tasks))
+                        .hasMore(hasMore)
+                        .nextCursor(hasMore ? nextCursor(last) : null)
+                        .build());
+            }
+            header = null;
+            last = null;
+            tasks.clear();
+        }
+
+        private String nextCursor(BoardRow lastRow) {
+            return new TaskCursor(TaskSortKey.POSITION, false, lastRow.cardRank(), lastRow.card().id()).encode();
+        }
+
+        private boolean sameColumn(BoardRow a, BoardRow b) {
+            return a.sectionId() == null ? b.sectionId() == null : a.sectionId().equals(b.sectionId());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.taskava.service;
+
+import com.taskava.common.exception.ResourceNotFoundException;
+import com.taskava.data.repository.BackgroundJobRepository;
+import com.taskava.data.repository.ProjectCopyRepository;
+import com.taskava.data.repository.TaskCopyRepository;
+import com.taskava.data.repository.TaskCopyRepository.TaskCopy;
+import com.taskava.data.repository.TaskHierarchyRepository;
+import com.taskava.data.repository.TaskHierarchyRepository.SubtreeLink;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Copies a project with everything in it. The project itself (sections, members, custom field
+ * assignments and automation rules) is copied in a few statements within the caller's
+ * transaction; its tasks, with their subtasks, tags, followers, custom field values and places
+ * in the project's columns, are then copied in chunks of set-based statements, the same way
+ * {@link TaskDuplicationEngine} copies a subtree. Run as a background job, each chunk commits on
+ * its own and reports progress, and a failed or cancelled job soft-deletes the whole copy.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProjectDuplicationEngine {
+
+    private final ProjectCopyRepository projectCopyRepository;
+    private final TaskHierarchyRepository hierarchyRepository;
+    private final TaskCopyRepository taskCopyRepository;
+    private final BackgroundJobRepository jobRepository;
+    private final TaskNumberAllocator taskNumberAllocator;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${project-duplication.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * The tasks of project {@code sourceId} to copy into its copy {@code copyId}, whose sections
+     * are the values of {@code sectionCopies} by source section
+     */
+    public record DuplicationSpec(UUID sourceId, UUID copyId, UUID workspaceId, UUID userId,
+                                  Map<UUID, UUID> sectionCopies) {
+    }
+
+    /**
+     * Copy a project without its tasks as {@code copyId}, named {@code name}. Returns the copy id
+     * of each section by source id, to copy the tasks with.
+     */
+    public Map<UUID, UUID> copyProject(UUID sourceId, UUID copyId, String name, UUID userId) {
+        if (!projectCopyRepository.copyProject(sourceId, copyId, name, userId)) {
+            throw new ResourceNotFoundException("Project", "id", sourceId);
+        }
+        Map<UUID, UUID> sectionCopies = projectCopyRepository.copySections(sourceId, copyId, userId);
+        projectCopyRepository.copyMembers(sourceId, copyId);
+        projectCopyRepository.copyCustomFields(sourceId, copyId);
+
+        Map<UUID, UUID> idCopies = new LinkedHashMap<>(sectionCopies);
+        idCopies.put(sourceId, copyId);
+        projectCopyRepository.copyAutomationRules(sourceId, copyId, idCopies, userId);
+        return sectionCopies;
+    }
+
+    /**
+     * Copy the tasks of a project into its copy. Returns the number of tasks copied. Progress is
+     * reported to the background job {@code jobId} when it is not null.
+     */
+    public int copyTasks(DuplicationSpec spec, UUID jobId) {
+        List<SubtreeLink> links = hierarchyRepository.findLiveProjectTaskLinks(spec.sourceId());
+
+        // Tasks whose parent is not copied become top-level copies
+        Map<UUID, UUID> copyIds = new HashMap<>();
+        List<TaskCopy> copies = new ArrayList<>(links.size());
+        for (SubtreeLink link : links) {
+            UUID copyId = UUID.randomUUID();
+            copyIds.put(link.taskId(), copyId);
+            UUID copyParentId = link.parentId() != null ? copyIds.get(link.parentId()) : null;
+            copies.add(new TaskCopy(link.taskId(), copyId, copyParentId,
+                    taskNumberAllocator.next(spec.workspaceId())));
+        }
+
+        List<UUID> written = new ArrayList<>(copies.size());
+        try {
+            for (int from = 0; from < copies.size(); from += chunkSize) {
+                if (jobId != null && jobRepository.isCancelRequested(jobId)) {
+                    throw new CancellationException("Duplication of project " + spec.sourceId() + " was cancelled");
+                }
+                List<TaskCopy> chunk = copies.subList(from, Math.min(from + chunkSize, copies.size()));
+                transactionTemplate.executeWithoutResult(status -> {
+                    copyChunk(chunk, spec);
+                    if (jobId != null) {
+                        jobRepository.addProgress(jobId, chunk.size());
+                    }
+                });
+                chunk.forEach(copy -> written.add(copy.copyId()));
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                    taskCopyRepository.copyDependencies(copies, spec.userId()));
+        } catch (RuntimeException e) {
+            if (jobId != null && !written.isEmpty()) {
+                discardTasks(written, spec.userId());
+            }
+            throw e;
+        }
+        log.info("Copied {} tasks of project {} to {}", copies.size(), spec.sourceId(), spec.copyId());
+        return copies.size();
+    }
+
+    /**
+     * Copy the tasks of a project as a background job. Must be started only once the job and the
+     * project copy are committed.
+     */
+    @Async
+    public void runJob(UUID jobId, DuplicationSpec spec) {
+        jobRepository.markRunning(jobId);
+        try {
+            copyTasks(spec, jobId);
+            jobRepository.complete(jobId, spec.copyId());
+        } catch (CancellationException e) {
+            log.info("Duplication job {} of project {} was cancelled", jobId, spec.sourceId());
+            discardProject(spec);
+            jobRepository.markCancelled(jobId);
+        } catch (RuntimeException e) {
+            log.error("Duplication job {} of project {} failed", jobId, spec.sourceId(), e);
+            discardProject(spec);
+            jobRepository.fail(jobId, e.getMessage());
+        }
+    }
+
+    private void copyChunk(List<TaskCopy> chunk, DuplicationSpec spec) {
+        taskCopyRepository.copyTasks(chunk, spec.userId());
+        taskCopyRepository.copyTags(chunk);
+        taskCopyRepository.copyFollowers(chunk);
+        taskCopyRepository.copyCustomFieldValues(chunk);
+        projectCopyRepository.copyMemberships(chunk, spec.sourceId(), spec.copyId(), spec.sectionCopies(),
+                spec.userId());
+        projectCopyRepository.copyProjectFieldValues(chunk, spec.sourceId(), spec.copyId(), spec.userId());
+    }
+
+    private void discardTasks(List<UUID> copyIds, UUID userId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> taskCopyRepository.discard(copyIds, userId));
+        } catch (RuntimeException e) {
+            log.error("Failed to discard {} partially copied tasks", copyIds.size(), e);
+        }
+    }
+
+    private void discardProject(DuplicationSpec spec) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    projectCopyRepository.discard(spec.copyId(), spec.userId()));
+        } catch (RuntimeException e) {
+            log.error("Failed to discard partially copied project {}", spec.copyId(), e);
+        }
+    }
+}
@@ -2,10 +2,12 @@ package com.taskava.service;
 
 import com.taskava.common.dto.*;
 import com.taskava.data.entity.*;
+import com.taskava.data.query.GapPositions;
 import com.taskava.data.repository.*;
 import com.taskava.security.context.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -13,6 +15,8 @@ import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.util.*;
@@ -26,10 +30,20 @@ public class ProjectService {
 
     private final ProjectRepository projectRepository;
     private final ProjectSectionRepository sectionRepository;
+    private final ProjectSectionOrderRepository sectionOrderRepository;
     private final WorkspaceRepository workspaceRepository;
     private final TeamRepository teamRepository;
     private final UserRepository userRepository;
     private final WorkspaceMemberRepository workspaceMemberRepository;
+    private final TaskHierarchyRepository taskHierarchyRepository;
+    private final BackgroundJobRepository backgroundJobRepository;
+    private final ProjectDuplicationEngine projectDuplicationEngine;
+    private final CascadeDeleteRepository cascadeDeleteRepository;
+    private final CascadeDeleteService cascadeDeleteService;
+    private final TaskTieringRepository taskTieringRepository;
+
+    @Value("${project-duplication.async-threshold:500}")
+    private int duplicationAsyncThreshold;
 
     // Overloaded method for workspace-specific projects
     @PreAuthorize("@workspaceService.canViewWorkspace(#workspaceId, authentication.principal.id)")
@@ -122,11 +136,11 @@ public class ProjectService {
         
         // Create default sections if specified
         if (dto.getSectionNames() != null && !dto.getSectionNames().isEmpty()) {
-            int position = 0;
+            Iterator<Integer> positions = GapPositions.spread(dto.getSectionNames().size()).iterator();
             for (String sectionName : dto.getSectionNames()) {
                 ProjectSection section = ProjectSection.builder()
                         .name(sectionName)
-                        .position(position++)
+                        .position(positions.next())
                         .project(project)
                         .build();
                 sectionRepository.save(section);
@@ -257,7 +271,7 @@ public class ProjectService {
     }
 
     /**
-     * Restore archived project
+     * Restore archived project, bringing back the tasks its archiving moved to the cold tier
      */
     @PreAuthorize("@projectService.canManageProject(#id, authentication.principal.id)")
     public ProjectDTO restoreProject(UUID id) {
@@ -273,42 +287,73 @@ public class ProjectService {
         }
         
         project.restore();
-        project = projectRepository.save(project);
+        // Flushed first: the row lock makes a tiering chunk in progress finish before the tasks come back
+        project = projectRepository.saveAndFlush(project);
+        int restored = taskTieringRepository.restoreProjectTasks(id);
+        log.info("Restored {} archived tasks of project {}", restored, id);
         return mapToDTO(project);
     }
 
     /**
-     * Delete project (soft delete)
+     * Delete project (soft delete) with its sections, automation rules and the tasks that are in
+     * no other project. Returns the background job deleting the tasks of a large project, or null
+     * when everything is deleted already.
      */
     @PreAuthorize("@projectService.canManageProject(#id, authentication.principal.id)")
-    public void deleteProject(UUID id) {
+    public BackgroundJobDTO deleteProject(UUID id) {
         UUID workspaceId = TenantContext.getCurrentWorkspace();
         UUID userId = TenantContext.getCurrentUser();
         
         log.info("Soft deleting project: {} in workspace: {} by user: {}", id, workspaceId, userId);
         
-        Project project = projectRepository.findActiveByIdAndWorkspace(id, workspaceId)
+        projectRepository.findActiveByIdAndWorkspace(id, workspaceId)
                 .orElseThrow(() -> new IllegalArgumentException("Project not found: " + id));
         
-        // Soft delete all sections
-        sectionRepository.softDeleteByProjectId(id);
+        // The project, its sections and rules disappear now; its tasks follow
+        int taskCount = taskHierarchyRepository.countLiveProjectTasks(id);
+        UUID deletionId = UUID.randomUUID();
+        cascadeDeleteRepository.markProjectDeleted(id, deletionId, userId);
+        return cascadeDeleteService.cascadeDelete(
+                CascadeDeleteEngine.CascadeSpec.project(id, deletionId, userId), workspaceId, taskCount);
+    }
+
+    /**
+     * Undo the deletion of a project, bringing back everything deleted along with it. Returns the
+     * background job restoring a large project, which reappears once the job is done, or null when
+     * it is restored already. Takes the same permission as deleting it.
+     */
+    @PreAuthorize("@projectService.canManageProject(#id, authentication.principal.id)")
+    public BackgroundJobDTO undeleteProject(UUID id) {
+        UUID workspaceId = TenantContext.getCurrentWorkspace();
+        UUID userId = TenantContext.getCurrentUser();
+        
+        log.info("Undeleting project: {} in workspace: {} by user: {}", id, workspaceId, userId);
         
-        // Soft delete the project
-        project.softDelete(userId);
-        projectRepository.save(project);
+        CascadeDeleteRepository.DeletedRow deleted = cascadeDeleteRepository.findDeletedProject(id)
+                .filter(row -> row.workspaceId().equals(workspaceId))
+                .orElseThrow(() -> new IllegalArgumentException("Deleted project not found: " + id));
+        if (projectRepository.existsByWorkspaceIdAndName(workspaceId, deleted.name())) {
+            throw new IllegalArgumentException("Project with name already exists: " + deleted.name());
+        }
+        
+        int taskCount = deleted.deletionId() != null ? cascadeDeleteRepository.countTasks(deleted.deletionId()) : 0;
+        return cascadeDeleteService.restore(
+                CascadeDeleteEngine.CascadeSpec.project(id, deleted.deletionId(), userId), workspaceId, taskCount);
     }
 
     /**
-     * Duplicate project
+     * Duplicate project with its sections, members, custom fields, automation rules and tasks.
+     * Small projects are copied right away; for larger ones the project is returned at once and
+     * its tasks are copied by a background job.
      */
     @PreAuthorize("@projectService.canManageProject(#id, authentication.principal.id)")
-    public ProjectDTO duplicateProject(UUID id, String newName) {
+    public ProjectDuplicationDTO duplicateProject(UUID id, String newName) {
         UUID workspaceId = TenantContext.getCurrentWorkspace();
         UUID userId = TenantContext.getCurrentUser();
         
         log.info("Duplicating project: {} in workspace: {} with new name: {}", id, workspaceId, newName);
         
-        Project originalProject = projectRepository.findActiveByIdAndWorkspace(id, workspaceId)
+        projectRepository.findActiveByIdAndWorkspace(id, workspaceId)
                 .orElseThrow(() -> new IllegalArgumentException("Project not found: " + id));
         
         // Check if new name is available
@@ -316,37 +361,33 @@ public class ProjectService {
             throw new IllegalArgumentException("Project with name already exists: " + newName);
         }
         
-        // Create new project with copied attributes
-        Project newProject = Project.builder()
-                .name(newName)
-                .description(originalProject.getDescription())
-                .color(originalProject.getColor())
-                .icon(originalProject.getIcon())
-                .workspace(originalProject.getWorkspace())
-                .team(originalProject.getTeam())
-                .privacy(originalProject.getPrivacy())
-                .settings(new HashMap<>(originalProject.getSettings()))
-                .status(Project.ProjectStatus.ACTIVE)
-                .build();
-        
-        newProject = projectRepository.save(newProject);
+        UUID copyId = UUID.randomUUID();
+        Map<UUID, UUID> sectionCopies = projectDuplicationEngine.copyProject(id, copyId, newName, userId);
+        ProjectDuplicationEngine.DuplicationSpec spec = new ProjectDuplicationEngine.DuplicationSpec(
+                id, copyId, workspaceId, userId, sectionCopies);
         
-        // Copy sections
-        List<ProjectSection> originalSections = sectionRepository.findByProjectIdOrderByPosition(id);
-        for (ProjectSection originalSection : originalSections) {
-            ProjectSection newSection = ProjectSection.builder()
-                    .name(originalSection.getName())
-                    .position(originalSection.getPosition())
-                    .project(newProject)
-                    .build();
-            sectionRepository.save(newSection);
+        int taskCount = taskHierarchyRepository.countLiveProjectTasks(id);
+        BackgroundJobDTO job = null;
+        if (taskCount <= duplicationAsyncThreshold) {
+            projectDuplicationEngine.copyTasks(spec, null);
+        } else {
+            UUID jobId = backgroundJobRepository.create(BackgroundJobRepository.JobType.PROJECT_DUPLICATION,
+                    workspaceId, id, taskCount, userId);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    projectDuplicationEngine.runJob(jobId, spec);
+                }
+            });
+            job = backgroundJobRepository.findById(jobId).map(BackgroundJobService::toDTO).orElse(null);
         }
         
-        // Copy members
-        newProject.setMembers(new HashSet<>(originalProject.getMembers()));
-        newProject = projectRepository.save(newProject);
-        
-        return mapToDTO(newProject);
+        Project copy = projectRepository.findById(copyId)
+                .orElseThrow(() -> new IllegalStateException("Project copy not found: " + copyId));
+        return ProjectDuplicationDTO.builder()
+                .project(mapToDTO(copy))
+                .job(job)
+                .build();
     }
 
     /**
@@ -417,13 +458,16 @@ public class ProjectService {
             throw new IllegalArgumentException("Section with name already exists: " + dto.getName());
         }
         
-        // Get position
-        Integer position = dto.getPosition();
-        if (position == null) {
-            position = sectionRepository.getMaxPositionByProjectId(projectId) + 1;
+        // Append, or take the gap at the requested index
+        Integer position;
+        if (dto.getPosition() == null) {
+            position = Math.max(sectionRepository.getMaxPositionByProjectId(projectId), 0) + GapPositions.GAP;
         } else {
-            // Shift existing sections if inserting in middle
-            sectionRepository.updatePositionsAfter(projectId, position, 1);
+            List<ProjectSection> sections = sectionRepository.findByProjectIdOrderByPosition(projectId);
+            int index = Math.min(dto.getPosition(), sections.size());
+            List<UUID> order = new ArrayList<>(sections.stream().map(ProjectSection::getId).toList());
+            order.add(index, null);
+            position = placeSections(projectId, sections, order, Set.of()).get(index);
         }
         
         ProjectSection section = ProjectSection.builder()
@@ -463,24 +507,43 @@ public class ProjectService {
     @PreAuthorize("@projectService.canManageProject(#projectId, authentication.principal.id)")
     public void reorderSection(UUID projectId, UUID sectionId, Integer newPosition) {
         log.info("Reordering section: {} to position: {} in project: {}", sectionId, newPosition, projectId);
+        reorderSections(projectId, Map.of(sectionId, newPosition));
+    }
+
+    /**
+     * Move several sections at once. Target positions are 0-based indexes in the resulting order;
+     * sections not mentioned keep their relative order around them. Only the moved sections are
+     * renumbered, in a single statement, unless a gap has run out and the project is re-spread.
+     */
+    @PreAuthorize("@projectService.canManageProject(#projectId, authentication.principal.id)")
+    public void reorderSections(UUID projectId, Map<UUID, Integer> targetIndexes) {
+        log.info("Reordering {} sections in project: {}", targetIndexes.size(), projectId);
         
-        ProjectSection section = sectionRepository.findByIdAndProjectId(sectionId, projectId)
-                .orElseThrow(() -> new IllegalArgumentException("Section not found: " + sectionId));
-        
-        Integer oldPosition = section.getPosition();
+        List<ProjectSection> sections = sectionRepository.findByProjectIdOrderByPosition(projectId);
+        Set<UUID> sectionIds = sections.stream().map(ProjectSection::getId).collect(Collectors.toSet());
+        for (UUID sectionId : targetIndexes.keySet()) {
+            if (!sectionIds.contains(sectionId)) {
+                throw new IllegalArgumentException("Section not found: " + sectionId);
+            }
+        }
         
-        if (!oldPosition.equals(newPosition)) {
-            if (newPosition < oldPosition) {
-                // Moving up
-                sectionRepository.updatePositionsBetween(projectId, newPosition, oldPosition - 1, 1);
+        // Lay out the final order: unmoved sections in place, then moved ones inserted by target index
+        List<UUID> order = new ArrayList<>();
+        List<ProjectSection> moved = new ArrayList<>();
+        for (ProjectSection section : sections) {
+            if (targetIndexes.containsKey(section.getId())) {
+                moved.add(section);
             } else {
-                // Moving down
-                sectionRepository.updatePositionsBetween(projectId, oldPosition + 1, newPosition, -1);
+                order.add(section.getId());
             }
-            
-            section.setPosition(newPosition);
-            sectionRepository.save(section);
         }
+        moved.sort(Comparator.comparing(section -> targetIndexes.get(section.getId())));
+        for (ProjectSection section : moved) {
+            int index = Math.max(0, Math.min(targetIndexes.get(section.getId()), order.size()));
+            order.add(index, section.getId());
+        }
+        
+        placeSections(projectId, sections, order, targetIndexes.keySet());
     }
 
     /**
@@ -495,10 +558,7 @@ public class ProjectService {
         ProjectSection section = sectionRepository.findByIdAndProjectId(sectionId, projectId)
                 .orElseThrow(() -> new IllegalArgumentException("Section not found: " + sectionId));
         
-        // Update positions of sections after this one
-        sectionRepository.updatePositionsAfter(projectId, section.getPosition() + 1, -1);
-        
-        // Soft delete the section
+        // Soft delete the section; the gap it leaves is reused by later inserts
         section.softDelete(userId);
         sectionRepository.save(section);
     }
@@ -519,16 +579,48 @@ public class ProjectService {
 
     private void createDefaultSections(Project project) {
         String[] defaultSections = {"To Do", "In Progress", "Done"};
+        List<Integer> positions = GapPositions.spread(defaultSections.length);
         for (int i = 0; i < defaultSections.length; i++) {
             ProjectSection section = ProjectSection.builder()
                     .name(defaultSections[i])
-                    .position(i)
+                    .position(positions.get(i))
                     .project(project)
                     .build();
             sectionRepository.save(section);
         }
     }
 
+    /**
+     * Assign positions for a project's sections laid out in {@code order}. Moved sections, and null
+     * placeholders for new ones, get positions in the gaps between their unmoved neighbours. Changed
+     * positions of existing sections are written in one statement; the positions of all entries are
+     * returned in order.
+     */
+    private List<Integer> placeSections(UUID projectId, List<ProjectSection> sections, List<UUID> order,
+                                        Set<UUID> moved) {
+        Map<UUID, Integer> current = new HashMap<>();
+        for (ProjectSection section : sections) {
+            current.put(section.getId(), section.getPosition());
+        }
+        
+        List<Integer> layout = new ArrayList<>(order.size());
+        for (UUID id : order) {
+            layout.add(id != null && !moved.contains(id) ? current.get(id) : null);
+        }
+        
+        List<Integer> positions = GapPositions.assign(layout);
+        Map<UUID, Integer> changed = new HashMap<>();
+        for (int i = 0; i < order.size(); i++) {
+            UUID id = order.get(i);
+            if (id != null && !positions.get(i).equals(current.get(id))) {
+                changed.put(id, positions.get(i));
+            }
+        }
+        int updated = sectionOrderRepository.updatePositions(projectId, changed, TenantContext.getCurrentUser());
+        log.debug("Renumbered {} sections in project: {}", updated, projectId);
+        return positions;
+    }
+
     private boolean isUserInWorkspace(UUID userId, UUID workspaceId) {
         return workspaceMemberRepository.isActiveMember(workspaceId, userId);
     }
@@ -0,0 +1,185 @@
+package com.taskava.service;
+
+import com.taskava.data.repository.PurgeRepository;
+import com.taskava.data.repository.PurgeRepository.PurgeTarget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hard-deletes soft-deleted rows once they have been deleted for {@code purge.retention-days}.
+ * Each run walks the {@link PurgeTarget}s in order, children before parents, purging batches of
+ * {@code purge.batch-size} rows, each in its own short transaction, until a target has nothing
+ * left. Batches are spaced out to stay under {@code purge.max-rows-per-second}, a run stops after
+ * {@code purge.max-batches-per-run}, and the pause switch is read before every batch, so pausing
+ * takes effect on every node within a batch. The scheduler only hands a run to the engine's own
+ * thread, so the waits between batches never hold a scheduler thread the other jobs need; a run
+ * that is due while the previous one still goes on is skipped. Rows purged and batch durations
+ * are published per table as {@code taskava.purge.rows} and {@code taskava.purge.batch}.
+ */
+@Slf4j
+@Component
+public class PurgeEngine {
+
+    private final PurgeRepository purgeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<PurgeTarget, Counter> purgedRows = new EnumMap<>(PurgeTarget.class);
+    private final Map<PurgeTarget, Timer> batchTimers = new EnumMap<>(PurgeTarget.class);
+    private final AtomicBoolean paused = new AtomicBoolean();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "taskava-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${purge.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${purge.batch-size:200}")
+    private int batchSize;
+
+    @Value("${purge.max-rows-per-second:1000}")
+    private int maxRowsPerSecond;
+
+    @Value("${purge.max-batches-per-run:500}")
+    private int maxBatchesPerRun;
+
+    public PurgeEngine(PurgeRepository purgeRepository, TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry) {
+        this.purgeRepository = purgeRepository;
+        this.transactionTemplate = transactionTemplate;
+        for (PurgeTarget target : PurgeTarget.values()) {
+            purgedRows.put(target, Counter.builder("taskava.purge.rows")
+                    .description("Soft-deleted rows hard-deleted by the purge")
+                    .tag("table", target.table())
+                    .register(meterRegistry));
+            batchTimers.put(target, Timer.builder("taskava.purge.batch")
+                    .description("Duration of one purge batch")
+                    .tag("table", target.table())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("taskava.purge.paused", paused, flag -> flag.get() ? 1 : 0)
+                .description("Whether the purge is paused")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    @Scheduled(fixedDelayString = "${purge.interval-ms:300000}")
+    public void schedulePurge() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                purge();
+            } catch (RuntimeException e) {
+                log.error("Purge run failed", e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    /**
+     * Run the purge on the calling thread
+     */
+    public void purge() {
+        if (!enabled || isPaused()) {
+            return;
+        }
+        purgeRepository.markRunStarted();
+        long purged = 0;
+        int batches = 0;
+        run:
+        for (PurgeTarget target : PurgeTarget.values()) {
+            while (true) {
+                if (batches >= maxBatchesPerRun) {
+                    log.info("Purge stopped after {} batches, continuing next run", batches);
+                    break run;
+                }
+                if (isPaused()) {
+                    log.info("Purge paused after {} rows", purged);
+                    break run;
+                }
+                long started = System.nanoTime();
+                int count;
+                try {
+                    Integer rows = transactionTemplate.execute(status ->
+                            purgeRepository.purgeBatch(target, retentionDays, batchSize));
+                    count = rows != null ? rows : 0;
+                } catch (RuntimeException e) {
+                    log.warn("Failed to purge a batch of {}, moving on", target.table(), e);
+                    break;
+                }
+                long elapsed = System.nanoTime() - started;
+                batchTimers.get(target).record(elapsed, TimeUnit.NANOSECONDS);
+                if (count == 0) {
+                    break;
+                }
+                batches++;
+                purged += count;
+                purgedRows.get(target).increment(count);
+                if (!throttle(count, elapsed)) {
+                    break run;
+                }
+            }
+        }
+        purgeRepository.markRunFinished(purged);
+        if (purged > 0) {
+            log.info("Purged {} soft-deleted rows in {} batches", purged, batches);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupts a throttled run, which then stops after its current batch
+        executor.shutdownNow();
+    }
+
+    public boolean isPaused() {
+        boolean current = purgeRepository.isPaused();
+        paused.set(current);
+        return current;
+    }
+
+    // Wait out the rest of the time the batch is allowed under the rate limit; false if interrupted
+    private boolean throttle(int rows, long elapsedNanos) {
+        long allowedNanos = TimeUnit.SECONDS.toNanos(rows) / Math.max(maxRowsPerSecond, 1);
+        long waitMillis = TimeUnit.NANOSECONDS.toMillis(allowedNanos - elapsedNanos);
+        if (waitMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(waitMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.taskava.service;
+
+import com.taskava.common.dto.PurgeStatusDTO;
+import com.taskava.data.repository.PurgeRepository;
+import com.taskava.data.repository.PurgeRepository.PurgeState;
+import com.taskava.security.context.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Pauses and resumes the purge of soft-deleted rows for every node. A run in progress stops
+ * after its current batch.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PurgeService {
+
+    private final PurgeRepository purgeRepository;
+    private final PurgeEngine purgeEngine;
+
+    public PurgeStatusDTO getStatus() {
+        PurgeState state = purgeRepository.findState()
+                .orElseThrow(() -> new IllegalStateException("Purge state is missing"));
+        return PurgeStatusDTO.builder()
+                .enabled(purgeEngine.isEnabled())
+                .paused(state.paused())
+                .pausedAt(state.pausedAt())
+                .pausedBy(state.pausedBy())
+                .retentionDays(purgeEngine.getRetentionDays())
+                .lastRunStartedAt(state.lastRunStartedAt())
+                .lastRunFinishedAt(state.lastRunFinishedAt())
+                .lastRunPurged(state.lastRunPurged())
+                .build();
+    }
+
+    public PurgeStatusDTO pause() {
+        purgeRepository.setPaused(true, TenantContext.getCurrentUserId());
+        log.info("Purge paused by {}", TenantContext.getCurrentUserId());
+        return getStatus();
+    }
+
+    public PurgeStatusDTO resume() {
+        purgeRepository.setPaused(false, null);
+        log.info("Purge resumed by {}", TenantContext.getCurrentUserId());
+        return getStatus();
+    }
+}
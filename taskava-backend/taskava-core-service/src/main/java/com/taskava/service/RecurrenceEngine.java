@@ -0,0 +1,159 @@
+package com.taskava.service;
+
+import com.taskava.data.entity.Task;
+import com.taskava.data.repository.TaskRecurrenceRepository;
+import com.taskava.data.repository.TaskRecurrenceRepository.MaterializedOccurrence;
+import com.taskava.data.repository.TaskRecurrenceRepository.Occurrence;
+import com.taskava.data.repository.TaskRecurrenceRepository.RecurringSeries;
+import com.taskava.data.repository.TaskRecurrenceRepository.SeriesProgress;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Materializes occurrences of recurring tasks up to {@code recurrence.horizon-days} ahead. Each
+ * run claims due series in batches, expands every series of a batch in memory and writes the
+ * batch's occurrences, project memberships and progress with one statement each, in one short
+ * transaction. Claims skip series locked by other nodes, so the engine can run on every node at
+ * once; a series is expanded again only once the horizon has moved past what it holds.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecurrenceEngine {
+
+    private final TaskRecurrenceRepository recurrenceRepository;
+    private final TaskNumberAllocator taskNumberAllocator;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${recurrence.horizon-days:30}")
+    private int horizonDays;
+
+    @Value("${recurrence.batch-size:200}")
+    private int batchSize;
+
+    @Value("${recurrence.max-occurrences-per-series:400}")
+    private int maxOccurrencesPerSeries;
+
+    @Scheduled(fixedDelayString = "${recurrence.interval-ms:300000}")
+    public void materialize() {
+        LocalDate horizonEnd = LocalDate.now().plusDays(horizonDays);
+        try {
+            Integer enrolled = transactionTemplate.execute(status -> recurrenceRepository.enrollTemplates());
+            if (enrolled != null && enrolled > 0) {
+                log.info("Enrolled {} new recurring task series", enrolled);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to enroll recurring task series", e);
+        }
+
+        int series = 0;
+        int created = 0;
+        while (true) {
+            BatchResult result;
+            try {
+                result = transactionTemplate.execute(status -> materializeBatch(horizonEnd));
+            } catch (RuntimeException e) {
+                log.warn("Failed to materialize a batch of recurring tasks", e);
+                break;
+            }
+            if (result == null || result.series() == 0) {
+                break;
+            }
+            series += result.series();
+            created += result.occurrences();
+            if (result.series() < batchSize) {
+                break;
+            }
+        }
+        if (series > 0) {
+            log.info("Materialized {} occurrences of {} recurring series through {}", created, series, horizonEnd);
+        }
+    }
+
+    private record BatchResult(int series, int occurrences) {
+    }
+
+    /**
+     * Claim and expand one batch of series
+     */
+    private BatchResult materializeBatch(LocalDate horizonEnd) {
+        List<RecurringSeries> claimed = recurrenceRepository.claimDue(horizonEnd, batchSize);
+        if (claimed.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        List<Occurrence> occurrences = new ArrayList<>();
+        Map<UUID, RecurrenceExpander.Expansion> expansions = new HashMap<>();
+        for (RecurringSeries series : claimed) {
+            RecurrenceExpander.Expansion expansion = expand(series, horizonEnd);
+            expansions.put(series.templateId(), expansion);
+            for (LocalDate date : expansion.dates()) {
+                occurrences.add(toOccurrence(series, date));
+            }
+        }
+
+        List<MaterializedOccurrence> inserted = recurrenceRepository.insertOccurrences(occurrences);
+        recurrenceRepository.copyProjectMemberships(inserted);
+
+        Map<UUID, Integer> added = new HashMap<>();
+        for (MaterializedOccurrence occurrence : inserted) {
+            added.merge(occurrence.templateId(), 1, Integer::sum);
+        }
+        List<SeriesProgress> progress = new ArrayList<>(claimed.size());
+        for (RecurringSeries series : claimed) {
+            RecurrenceExpander.Expansion expansion = expansions.get(series.templateId());
+            progress.add(new SeriesProgress(series.templateId(), expansion.through(),
+                    added.getOrDefault(series.templateId(), 0), expansion.finished()));
+        }
+        recurrenceRepository.saveProgress(progress);
+        return new BatchResult(claimed.size(), inserted.size());
+    }
+
+    private RecurrenceExpander.Expansion expand(RecurringSeries series, LocalDate horizonEnd) {
+        Task.RecurrenceType type;
+        try {
+            type = Task.RecurrenceType.valueOf(series.type());
+        } catch (IllegalArgumentException e) {
+            log.warn("Recurring task {} has unknown recurrence type {}", series.templateId(), series.type());
+            return new RecurrenceExpander.Expansion(List.of(), horizonEnd, true);
+        }
+        RecurrenceExpander expander = new RecurrenceExpander(type, series.interval(), series.daysOfWeek(),
+                series.dayOfMonth(), anchor(series), series.endDate(), series.maxOccurrences());
+        return expander.expand(series.materializedThrough(), horizonEnd, series.occurrenceCount(),
+                maxOccurrencesPerSeries);
+    }
+
+    /**
+     * An occurrence keeps the template's dates relative to the occurrence date: its due date, or
+     * its start date when the template has only that, falls on the occurrence date
+     */
+    private Occurrence toOccurrence(RecurringSeries series, LocalDate date) {
+        long taskNumber = taskNumberAllocator.next(series.workspaceId());
+        if (series.dueDate() == null && series.startDate() != null) {
+            return new Occurrence(series.templateId(), taskNumber, date, date, null);
+        }
+        LocalDate startDate = series.dueDate() != null && series.startDate() != null
+                ? date.minusDays(ChronoUnit.DAYS.between(series.startDate(), series.dueDate()))
+                : null;
+        return new Occurrence(series.templateId(), taskNumber, date, startDate, date);
+    }
+
+    private static LocalDate anchor(RecurringSeries series) {
+        if (series.dueDate() != null) {
+            return series.dueDate();
+        }
+        return series.startDate() != null ? series.startDate() : series.createdOn();
+    }
+}
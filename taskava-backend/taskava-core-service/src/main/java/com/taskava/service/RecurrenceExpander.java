@@ -0,0 +1,147 @@
+package com.taskava.service;
+
+import com.taskava.data.entity.Task;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Occurrence dates of a recurrence rule. The template task is the first occurrence, on the
+ * anchor date; later occurrences fall every {@code interval} days, weeks (on the rule's days of
+ * the week), months (on its day of the month, clamped to short months) or years after it.
+ */
+final class RecurrenceExpander {
+
+    private final Task.RecurrenceType type;
+    private final int interval;
+    private final Set<DayOfWeek> daysOfWeek;
+    private final Integer dayOfMonth;
+    private final LocalDate anchor;
+    private final LocalDate endDate;
+    private final Integer maxOccurrences;
+
+    /**
+     * Dates of an expansion, and whether the series has no occurrences left after them
+     */
+    record Expansion(List<LocalDate> dates, LocalDate through, boolean finished) {
+    }
+
+    RecurrenceExpander(Task.RecurrenceType type, Integer interval, String daysOfWeek, Integer dayOfMonth,
+                       LocalDate anchor, LocalDate endDate, Integer maxOccurrences) {
+        this.type = type;
+        this.interval = interval != null && interval > 0 ? interval : 1;
+        this.daysOfWeek = parseDaysOfWeek(daysOfWeek, anchor);
+        this.dayOfMonth = dayOfMonth;
+        this.anchor = anchor;
+        this.endDate = endDate;
+        this.maxOccurrences = maxOccurrences;
+    }
+
+    /**
+     * Occurrences after {@code after} up to and including {@code through}, given that
+     * {@code occurrenceCount} occurrences besides the template exist already. At most
+     * {@code limit} dates are returned; {@code through} of the result is then the last of them.
+     */
+    Expansion expand(LocalDate after, LocalDate through, int occurrenceCount, int limit) {
+        LocalDate from = after.isBefore(anchor) ? anchor : after;
+        int remaining = maxOccurrences != null ? maxOccurrences - 1 - occurrenceCount : Integer.MAX_VALUE;
+        List<LocalDate> dates = new ArrayList<>();
+        if (remaining <= 0) {
+            return new Expansion(dates, through, true);
+        }
+
+        long period = firstPeriod(from);
+        while (true) {
+            for (LocalDate date : datesOfPeriod(period)) {
+                if (!date.isAfter(from)) {
+                    continue;
+                }
+                if (endDate != null && date.isAfter(endDate)) {
+                    return new Expansion(dates, through, true);
+                }
+                if (date.isAfter(through)) {
+                    return new Expansion(dates, through, false);
+                }
+                dates.add(date);
+                if (dates.size() == remaining) {
+                    return new Expansion(dates, through, true);
+                }
+                if (dates.size() == limit) {
+                    return new Expansion(dates, date, false);
+                }
+            }
+            period += interval;
+        }
+    }
+
+    /**
+     * Index, counted in days, weeks, months or years from the anchor, of the period holding
+     * {@code date}, rounded down to a period the rule occurs in
+     */
+    private long firstPeriod(LocalDate date) {
+        long elapsed = switch (type) {
+            case DAILY -> ChronoUnit.DAYS.between(anchor, date);
+            case WEEKLY -> ChronoUnit.WEEKS.between(weekStart(anchor), weekStart(date));
+            case MONTHLY -> ChronoUnit.MONTHS.between(YearMonth.from(anchor), YearMonth.from(date));
+            case YEARLY -> date.getYear() - anchor.getYear();
+        };
+        return Math.max(elapsed, 0) / interval * interval;
+    }
+
+    private List<LocalDate> datesOfPeriod(long period) {
+        return switch (type) {
+            case DAILY -> List.of(anchor.plusDays(period));
+            case WEEKLY -> {
+                LocalDate weekStart = weekStart(anchor).plusWeeks(period);
+                List<LocalDate> dates = new ArrayList<>(daysOfWeek.size());
+                for (DayOfWeek day : daysOfWeek) {
+                    dates.add(weekStart.plusDays(day.getValue() - 1L));
+                }
+                yield dates;
+            }
+            case MONTHLY -> {
+                YearMonth month = YearMonth.from(anchor).plusMonths(period);
+                int day = dayOfMonth != null && dayOfMonth > 0 ? dayOfMonth : anchor.getDayOfMonth();
+                yield List.of(month.atDay(Math.min(day, month.lengthOfMonth())));
+            }
+            case YEARLY -> List.of(anchor.plusYears(period));
+        };
+    }
+
+    private static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    /**
+     * Days of the week stored comma-separated, by full or three-letter English name in any case.
+     * Unknown names are ignored; with none left, the series recurs on the anchor's day.
+     */
+    static Set<DayOfWeek> parseDaysOfWeek(String daysOfWeek, LocalDate anchor) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        if (daysOfWeek != null) {
+            for (String name : daysOfWeek.split(",")) {
+                String prefix = name.strip().toUpperCase(Locale.ROOT);
+                if (prefix.length() < 3) {
+                    continue;
+                }
+                for (DayOfWeek day : DayOfWeek.values()) {
+                    if (day.name().startsWith(prefix.substring(0, 3))) {
+                        days.add(day);
+                    }
+                }
+            }
+        }
+        if (days.isEmpty()) {
+            days.add(anchor.getDayOfWeek());
+        }
+        return days;
+    }
+}
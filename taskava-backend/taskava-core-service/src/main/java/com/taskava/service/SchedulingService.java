@@ -0,0 +1,134 @@
+package com.taskava.service;
+
+import com.taskava.common.exception.ResourceNotFoundException;
+import com.taskava.data.repository.ProjectRepository;
+import com.taskava.data.repository.TaskDependencyRepository;
+import com.taskava.data.repository.TaskDependencyRepository.DependencyEdge;
+import com.taskava.data.repository.TaskScheduleRepository;
+import com.taskava.data.repository.TaskScheduleRepository.TaskDates;
+import com.taskava.security.context.TenantContext;
+import com.taskava.service.CriticalPathScheduler.Span;
+import com.taskava.service.CriticalPathScheduler.TaskSchedule;
+import com.taskava.service.dto.ProjectScheduleDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Schedules from typed dependencies and their lag. A project schedule is one pass over the cached
+ * dependency graph and the project's task dates. Date changes are propagated only through the
+ * tasks downstream of the change, and every task that has to move is written with one statement.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SchedulingService {
+
+    private final ProjectRepository projectRepository;
+    private final TaskDependencyRepository taskDependencyRepository;
+    private final TaskScheduleRepository taskScheduleRepository;
+    private final DependencyGraphService dependencyGraphService;
+
+    @Value("${scheduling.propagate-date-shifts:true}")
+    private boolean propagateDateShifts;
+
+    /**
+     * Earliest and latest dates, slack and critical path of a project's dated tasks. Only
+     * dependencies between two tasks of the project are taken into account.
+     */
+    @Transactional(readOnly = true)
+    public ProjectScheduleDTO getProjectSchedule(UUID projectId) {
+        projectRepository.findActiveByIdAndWorkspace(projectId, TenantContext.getCurrentWorkspace())
+                .orElseThrow(() -> new ResourceNotFoundException("Project", "id", projectId));
+
+        DependencyGraph graph = dependencyGraphService.getGraph(projectId);
+        Map<UUID, Span> planned = new HashMap<>();
+        for (TaskDates dates : taskScheduleRepository.findProjectTaskDates(projectId)) {
+            Span span = CriticalPathScheduler.span(dates);
+            if (span != null) {
+                planned.put(dates.taskId(), span);
+            }
+        }
+
+        List<TaskSchedule> schedules = CriticalPathScheduler.schedule(planned, graph.getEdges());
+        return ProjectScheduleDTO.builder()
+                .projectId(projectId)
+                .dependencyVersion(graph.getVersion())
+                .startDate(schedules.stream().map(TaskSchedule::earliestStart).min(Comparable::compareTo).orElse(null))
+                .finishDate(schedules.stream().map(TaskSchedule::earliestFinish).max(Comparable::compareTo).orElse(null))
+                .tasks(schedules.stream().map(SchedulingService::toDTO).toList())
+                .criticalPath(schedules.stream().filter(TaskSchedule::critical).map(TaskSchedule::taskId).toList())
+                .build();
+    }
+
+    /**
+     * Move the tasks downstream of the changed ones later until all their dependencies hold
+     * again, keeping durations. The changed tasks themselves keep their dates. Only tasks of the
+     * current workspace are moved or constrain others, so a dependency into another workspace stops
+     * the propagation there. Returns the ids of the tasks moved.
+     */
+    @Transactional
+    public List<UUID> propagateDateShifts(Collection<UUID> changedTaskIds) {
+        if (!propagateDateShifts || changedTaskIds.isEmpty()) {
+            return List.of();
+        }
+        UUID workspaceId = TenantContext.getCurrentWorkspace();
+        List<DependencyEdge> downstream = dependencyGraphService.downstreamEdges(changedTaskIds);
+        if (downstream.isEmpty()) {
+            return List.of();
+        }
+
+        Set<UUID> affected = new HashSet<>();
+        downstream.forEach(edge -> affected.add(edge.successorId()));
+        // Predecessors outside the downstream tasks still constrain them; tasks of other workspaces
+        // are not read, so they neither move nor constrain
+        List<DependencyEdge> incoming = taskDependencyRepository.findIncoming(affected);
+        Set<UUID> involved = new HashSet<>(affected);
+        incoming.forEach(edge -> involved.add(edge.predecessorId()));
+
+        Map<UUID, TaskDates> dates = new HashMap<>();
+        Map<UUID, Span> spans = new HashMap<>();
+        for (TaskDates taskDates : taskScheduleRepository.findTaskDates(involved, workspaceId)) {
+            Span span = CriticalPathScheduler.span(taskDates);
+            if (span != null) {
+                dates.put(taskDates.taskId(), taskDates);
+                spans.put(taskDates.taskId(), span);
+            }
+        }
+
+        Map<UUID, Span> shifted = CriticalPathScheduler.propagate(spans, incoming, new HashSet<>(changedTaskIds));
+        if (shifted.isEmpty()) {
+            return List.of();
+        }
+        List<TaskDates> updates = new ArrayList<>(shifted.size());
+        shifted.forEach((taskId, span) -> updates.add(CriticalPathScheduler.toDates(taskId, dates.get(taskId), span)));
+        taskScheduleRepository.updateDates(updates, workspaceId, TenantContext.getCurrentUserId());
+
+        log.info("Shifted {} of {} downstream tasks after date changes to {} tasks",
+                shifted.size(), affected.size(), changedTaskIds.size());
+        return new ArrayList<>(shifted.keySet());
+    }
+
+    private static ProjectScheduleDTO.TaskScheduleDTO toDTO(TaskSchedule schedule) {
+        return ProjectScheduleDTO.TaskScheduleDTO.builder()
+                .taskId(schedule.taskId())
+                .earliestStart(schedule.earliestStart())
+                .earliestFinish(schedule.earliestFinish())
+                .latestStart(schedule.latestStart())
+                .latestFinish(schedule.latestFinish())
+                .slackDays(schedule.slackDays())
+                .critical(schedule.critical())
+                .build();
+    }
+}
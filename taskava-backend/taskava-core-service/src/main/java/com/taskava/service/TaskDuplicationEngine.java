@@ -0,0 +1,161 @@
+package com.taskava.service;
+
+import com.taskava.common.exception.ResourceNotFoundException;
+import com.taskava.data.repository.BackgroundJobRepository;
+import com.taskava.data.repository.TaskCopyRepository;
+import com.taskava.data.repository.TaskCopyRepository.TaskCopy;
+import com.taskava.data.repository.TaskHierarchyRepository;
+import com.taskava.data.repository.TaskHierarchyRepository.SubtreeLink;
+import com.taskava.data.repository.TaskProjectRankRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Copies a task together with its whole live subtree. Copy ids are assigned up front, so parent
+ * links and the dependencies inside the subtree are remapped in memory, and the tasks are written
+ * level by level in chunks, each chunk (tasks, tags, followers, custom field values and project
+ * memberships) with a handful of set-based statements in one transaction. Within a caller's
+ * transaction the chunks join it; as a background job each chunk commits on its own and reports
+ * progress, and a failed or cancelled job soft-deletes what it had copied.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskDuplicationEngine {
+
+    private final TaskHierarchyRepository hierarchyRepository;
+    private final TaskCopyRepository copyRepository;
+    private final TaskProjectRankRepository rankRepository;
+    private final BackgroundJobRepository jobRepository;
+    private final TaskNumberAllocator taskNumberAllocator;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${task-duplication.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * What to duplicate and how. The copy of the source task is titled {@code title}, assigned to
+     * {@code assigneeId} when set, and placed at the end of the project column; copies of its
+     * descendants keep the project columns of their sources.
+     */
+    public record DuplicationSpec(UUID sourceId, UUID workspaceId, UUID userId, String title, UUID assigneeId,
+                                  UUID projectId, UUID sectionId, boolean includeSubtasks,
+                                  boolean includeDependencies, boolean includeCustomFields,
+                                  boolean includeTags, boolean includeFollowers) {
+    }
+
+    /**
+     * Duplicate a task and, when asked for, its subtree. Returns the id of the copy of the task.
+     * Progress is reported to the background job {@code jobId} when it is not null.
+     */
+    public UUID duplicate(DuplicationSpec spec, UUID jobId) {
+        List<SubtreeLink> links = spec.includeSubtasks()
+                ? hierarchyRepository.findLiveSubtreeLinks(spec.sourceId())
+                : List.of(new SubtreeLink(spec.sourceId(), null, 0));
+        if (links.isEmpty()) {
+            throw new ResourceNotFoundException("Task", "id", spec.sourceId());
+        }
+
+        Map<UUID, UUID> copyIds = new HashMap<>();
+        List<TaskCopy> copies = new ArrayList<>(links.size());
+        for (SubtreeLink link : links) {
+            UUID copyId = UUID.randomUUID();
+            copyIds.put(link.taskId(), copyId);
+            UUID copyParentId = link.depth() == 0 ? null : copyIds.get(link.parentId());
+            copies.add(new TaskCopy(link.taskId(), copyId, copyParentId,
+                    taskNumberAllocator.next(spec.workspaceId())));
+        }
+        UUID rootCopyId = copies.get(0).copyId();
+
+        List<UUID> written = new ArrayList<>(copies.size());
+        try {
+            for (int from = 0; from < copies.size(); from += chunkSize) {
+                if (jobId != null && jobRepository.isCancelRequested(jobId)) {
+                    throw new CancellationException("Duplication of task " + spec.sourceId() + " was cancelled");
+                }
+                List<TaskCopy> chunk = copies.subList(from, Math.min(from + chunkSize, copies.size()));
+                boolean first = from == 0;
+                transactionTemplate.executeWithoutResult(status -> {
+                    copyChunk(chunk, spec, first);
+                    if (jobId != null) {
+                        jobRepository.addProgress(jobId, chunk.size());
+                    }
+                });
+                chunk.forEach(copy -> written.add(copy.copyId()));
+            }
+            if (spec.includeDependencies()) {
+                transactionTemplate.executeWithoutResult(status -> copyRepository.copyDependencies(copies, spec.userId()));
+            }
+        } catch (RuntimeException e) {
+            if (jobId != null && !written.isEmpty()) {
+                discard(written, spec.userId());
+            }
+            throw e;
+        }
+        log.info("Duplicated task {} with {} tasks as {}", spec.sourceId(), copies.size(), rootCopyId);
+        return rootCopyId;
+    }
+
+    /**
+     * Run a duplication as a background job. Must be started only once the job is committed.
+     */
+    @Async
+    public void runJob(UUID jobId, DuplicationSpec spec) {
+        jobRepository.markRunning(jobId);
+        try {
+            UUID rootCopyId = duplicate(spec, jobId);
+            jobRepository.complete(jobId, rootCopyId);
+        } catch (CancellationException e) {
+            log.info("Duplication job {} of task {} was cancelled", jobId, spec.sourceId());
+            jobRepository.markCancelled(jobId);
+        } catch (RuntimeException e) {
+            log.error("Duplication job {} of task {} failed", jobId, spec.sourceId(), e);
+            jobRepository.fail(jobId, e.getMessage());
+        }
+    }
+
+    private void copyChunk(List<TaskCopy> chunk, DuplicationSpec spec, boolean first) {
+        copyRepository.copyTasks(chunk, spec.userId());
+        if (spec.includeTags()) {
+            copyRepository.copyTags(chunk);
+        }
+        if (spec.includeFollowers()) {
+            copyRepository.copyFollowers(chunk);
+        }
+        if (spec.includeCustomFields()) {
+            copyRepository.copyCustomFieldValues(chunk);
+        }
+
+        Map<UUID, List<UUID>> descendantCopies = new LinkedHashMap<>();
+        for (TaskCopy copy : first ? chunk.subList(1, chunk.size()) : chunk) {
+            descendantCopies.put(copy.sourceId(), List.of(copy.copyId()));
+        }
+        rankRepository.appendCopies(descendantCopies, spec.userId());
+
+        if (first) {
+            UUID rootCopyId = chunk.get(0).copyId();
+            copyRepository.overrideCopy(rootCopyId, spec.title(), spec.assigneeId());
+            rankRepository.append(rootCopyId, spec.projectId(), spec.sectionId(), spec.userId());
+        }
+    }
+
+    private void discard(List<UUID> copyIds, UUID userId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> copyRepository.discard(copyIds, userId));
+        } catch (RuntimeException e) {
+            log.error("Failed to discard {} partially duplicated tasks", copyIds.size(), e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.taskava.service;
+
+import com.taskava.data.repository.WorkspaceTaskSequenceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hands out per-workspace task numbers from blocks reserved in {@code workspace_task_sequences}.
+ * Each node keeps its current block in memory, so most allocations cost no database round trip.
+ * Numbers are unique per workspace but not gap-free: unused numbers of a block are lost when
+ * the node restarts.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskNumberAllocator {
+
+    private final WorkspaceTaskSequenceRepository sequenceRepository;
+
+    private final ConcurrentMap<UUID, NumberBlock> blocks = new ConcurrentHashMap<>();
+
+    @Value("${task-numbering.block-size:100}")
+    private int blockSize;
+
+    /**
+     * Allocate the next task number for a workspace
+     */
+    public long next(UUID workspaceId) {
+        return blocks.computeIfAbsent(workspaceId, NumberBlock::new).next();
+    }
+
+    private final class NumberBlock {
+
+        private final UUID workspaceId;
+        private long next;
+        private long limit;
+
+        private NumberBlock(UUID workspaceId) {
+            this.workspaceId = workspaceId;
+        }
+
+        private synchronized long next() {
+            if (next >= limit) {
+                long start = sequenceRepository.reserveBlock(workspaceId, blockSize);
+                log.debug("Reserved task numbers {}-{} for workspace {}", start, start + blockSize - 1, workspaceId);
+                next = start;
+                limit = start + blockSize;
+            }
+            return next++;
+        }
+    }
+}
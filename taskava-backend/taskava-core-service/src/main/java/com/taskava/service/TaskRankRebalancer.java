@@ -0,0 +1,54 @@
+package com.taskava.service;
+
+import com.taskava.data.repository.SchedulerLockRepository;
+import com.taskava.data.repository.TaskProjectRankRepository;
+import com.taskava.data.repository.TaskProjectRankRepository.RankColumn;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Re-spreads the task ranks of project columns whose keys have grown long from repeated inserts
+ * into the same gap. Each column is rewritten in its own short transaction, so a rebalance only
+ * ever blocks moves within that one column. Runs on one node at a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskRankRebalancer {
+
+    private final TaskProjectRankRepository taskProjectRankRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLockRepository schedulerLockRepository;
+
+    @Value("${task-ranking.rebalance-batch-size:50}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${task-ranking.rebalance-interval-ms:60000}")
+    public void rebalanceLongRanks() {
+        schedulerLockRepository.runExclusively("task-rank-rebalance", this::rebalance);
+    }
+
+    private void rebalance() {
+        List<RankColumn> columns = taskProjectRankRepository.findColumnsNeedingRebalance(batchSize);
+        for (RankColumn column : columns) {
+            try {
+                Integer rows = transactionTemplate.execute(status ->
+                        taskProjectRankRepository.rebalance(column.projectId(), column.sectionId()));
+                log.debug("Rebalanced {} task ranks of section {} in project {}",
+                        rows, column.sectionId(), column.projectId());
+            } catch (RuntimeException e) {
+                log.warn("Failed to rebalance task ranks of section {} in project {}",
+                        column.sectionId(), column.projectId(), e);
+            }
+        }
+        if (!columns.isEmpty()) {
+            log.info("Rebalanced task ranks of {} project columns", columns.size());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.taskava.service;
+
+import com.taskava.data.repository.TaskReminderRepository;
+import com.taskava.data.repository.TaskReminderRepository.PendingReminder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hands recorded reminders to listeners as {@link TaskReminderEvent}s. Pending reminders are
+ * claimed in batches, each published in one short transaction, and nodes never claim the same
+ * batch. A reminder is marked dispatched only by a listener that handled it, within that
+ * transaction (see {@link TaskReminderNotifier}); reminders nobody acknowledged stay pending and
+ * are published again on the next run.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskReminderDispatcher {
+
+    private final TaskReminderRepository reminderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${reminders.dispatch-batch-size:500}")
+    private int batchSize;
+
+    @Value("${reminders.retention-days:30}")
+    private int retentionDays;
+
+    @Scheduled(fixedDelayString = "${reminders.dispatch-interval-ms:15000}")
+    public void dispatch() {
+        int dispatched = 0;
+        while (true) {
+            List<UUID> batch;
+            try {
+                batch = transactionTemplate.execute(status -> dispatchBatch());
+            } catch (RuntimeException e) {
+                log.warn("Failed to dispatch task reminders", e);
+                break;
+            }
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            int pending = reminderRepository.countPending(batch);
+            dispatched += batch.size() - pending;
+            if (pending > 0) {
+                log.warn("{} of {} task reminders were not acknowledged by any listener", pending, batch.size());
+                break;
+            }
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        if (dispatched > 0) {
+            log.info("Dispatched {} task reminders", dispatched);
+        }
+    }
+
+    private List<UUID> dispatchBatch() {
+        List<PendingReminder> batch = reminderRepository.claimPending(batchSize);
+        for (PendingReminder reminder : batch) {
+            eventPublisher.publishEvent(new TaskReminderEvent(reminder.id(), reminder.taskId(),
+                    reminder.workspaceId(), reminder.recipientId(), reminder.kind(), reminder.dueAt(),
+                    reminder.title(), reminder.taskNumber()));
+        }
+        return batch.stream().map(PendingReminder::id).toList();
+    }
+
+    /**
+     * Drop dispatched reminders once their tasks are past the scanner's overdue window, when they
+     * can no longer be recorded again
+     */
+    @Scheduled(cron = "${reminders.prune-cron:0 15 4 * * *}")
+    public void prune() {
+        int deleted = reminderRepository.deleteDispatchedDueBefore(Instant.now().minus(Duration.ofDays(retentionDays)));
+        log.info("Pruned {} dispatched task reminders older than {} days", deleted, retentionDays);
+    }
+}
@@ -0,0 +1,16 @@
+package com.taskava.service;
+
+import com.taskava.data.repository.TaskReminderRepository.ReminderKind;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A task is due soon or overdue. Published by {@link TaskReminderDispatcher} inside the
+ * transaction that claimed the reminder. A listener that delivers it marks the reminder
+ * dispatched in that transaction; a listener that throws rolls the batch back, and its reminders
+ * are published again on the next run.
+ */
+public record TaskReminderEvent(UUID reminderId, UUID taskId, UUID workspaceId, UUID recipientId,
+                                ReminderKind kind, Instant dueAt, String title, Long taskNumber) {
+}
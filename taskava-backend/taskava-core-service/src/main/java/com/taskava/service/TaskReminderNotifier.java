@@ -0,0 +1,36 @@
+package com.taskava.service;
+
+import com.taskava.data.repository.NotificationRepository;
+import com.taskava.data.repository.TaskReminderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Delivers task reminders to their recipients' in-app notification inboxes. Runs just before the
+ * dispatcher's transaction commits, and acknowledges each reminder by marking it dispatched in the
+ * same transaction as its notification, so a reminder is either delivered and dispatched or
+ * neither.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskReminderNotifier {
+
+    private final NotificationRepository notificationRepository;
+    private final TaskReminderRepository reminderRepository;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onReminder(TaskReminderEvent event) {
+        boolean added = notificationRepository.insertReminder(event.recipientId(), event.workspaceId(), event.taskId(),
+                event.reminderId(), event.kind().name(), event.title(), event.dueAt());
+        if (!added) {
+            log.debug("Task reminder {} was delivered before", event.reminderId());
+        }
+        reminderRepository.markDispatched(List.of(event.reminderId()));
+    }
+}
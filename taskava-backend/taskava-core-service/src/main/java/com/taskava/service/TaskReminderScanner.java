@@ -0,0 +1,134 @@
+package com.taskava.service;
+
+import com.taskava.data.repository.TaskReminderRepository;
+import com.taskava.data.repository.TaskReminderRepository.DueTask;
+import com.taskava.data.repository.TaskReminderRepository.NewReminder;
+import com.taskava.data.repository.TaskReminderRepository.ReminderKind;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Records due-soon and overdue reminders. Open tasks are streamed one workspace at a time in
+ * keyset chunks over a window around today, and each chunk's reminders are recorded with one
+ * statement. The ledger skips reminders recorded before, so scans can repeat as often as needed
+ * and on several nodes; {@link TaskReminderDispatcher} hands the new ones to listeners.
+ * <p>
+ * A task is due at its due time on its due date, or at the end of the day without a due time,
+ * in its recipient's time zone. It is due soon within {@code reminders.due-soon-lead-minutes}
+ * of that instant, and overdue after it, for up to {@code reminders.overdue-lookback-days}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskReminderScanner {
+
+    private final TaskReminderRepository reminderRepository;
+
+    @Value("${reminders.due-soon-lead-minutes:1440}")
+    private long dueSoonLeadMinutes;
+
+    @Value("${reminders.overdue-lookback-days:7}")
+    private int overdueLookbackDays;
+
+    @Value("${reminders.chunk-size:1000}")
+    private int chunkSize;
+
+    @Scheduled(fixedDelayString = "${reminders.scan-interval-ms:60000}")
+    public void scan() {
+        Instant now = Instant.now();
+        Duration lead = Duration.ofMinutes(dueSoonLeadMinutes);
+        // A day of slack on both ends covers every time zone offset
+        LocalDate today = LocalDate.ofInstant(now, ZoneOffset.UTC);
+        LocalDate from = today.minusDays(overdueLookbackDays + 1L);
+        LocalDate through = LocalDate.ofInstant(now.plus(lead), ZoneOffset.UTC).plusDays(1);
+        Instant overdueCutoff = now.minus(Duration.ofDays(overdueLookbackDays));
+
+        Map<String, ZoneId> zones = new HashMap<>();
+        int scanned = 0;
+        int recorded = 0;
+        UUID afterWorkspace = null;
+        while (true) {
+            List<UUID> workspaceIds = reminderRepository.findWorkspaceIdsAfter(afterWorkspace, chunkSize);
+            for (UUID workspaceId : workspaceIds) {
+                LocalDate afterDate = null;
+                UUID afterTask = null;
+                while (true) {
+                    List<DueTask> chunk = reminderRepository.findDueChunk(workspaceId, from, through,
+                            afterDate, afterTask, chunkSize);
+                    if (chunk.isEmpty()) {
+                        break;
+                    }
+                    List<NewReminder> reminders = new ArrayList<>();
+                    for (DueTask task : chunk) {
+                        NewReminder reminder = toReminder(task, now, lead, overdueCutoff, zones);
+                        if (reminder != null) {
+                            reminders.add(reminder);
+                        }
+                    }
+                    try {
+                        recorded += reminderRepository.recordReminders(workspaceId, reminders);
+                    } catch (RuntimeException e) {
+                        log.warn("Failed to record reminders of workspace {}", workspaceId, e);
+                    }
+                    scanned += chunk.size();
+                    DueTask last = chunk.get(chunk.size() - 1);
+                    afterDate = last.dueDate();
+                    afterTask = last.taskId();
+                    if (chunk.size() < chunkSize) {
+                        break;
+                    }
+                }
+            }
+            if (workspaceIds.size() < chunkSize) {
+                break;
+            }
+            afterWorkspace = workspaceIds.get(workspaceIds.size() - 1);
+        }
+        if (recorded > 0) {
+            log.info("Recorded {} task reminders from {} open tasks", recorded, scanned);
+        }
+    }
+
+    private NewReminder toReminder(DueTask task, Instant now, Duration lead, Instant overdueCutoff,
+                                   Map<String, ZoneId> zones) {
+        if (task.recipientId() == null) {
+            return null;
+        }
+        ZoneId zone = zones.computeIfAbsent(task.timezone() != null ? task.timezone() : "UTC",
+                TaskReminderScanner::zone);
+        Instant dueAt = task.dueTime() != null
+                ? task.dueDate().atTime(task.dueTime()).atZone(zone).toInstant()
+                : task.dueDate().plusDays(1).atStartOfDay(zone).toInstant();
+        if (!dueAt.isAfter(now)) {
+            return dueAt.isBefore(overdueCutoff) ? null
+                    : new NewReminder(task.taskId(), task.recipientId(), ReminderKind.OVERDUE, dueAt);
+        }
+        if (!dueAt.isAfter(now.plus(lead))) {
+            return new NewReminder(task.taskId(), task.recipientId(), ReminderKind.DUE_SOON, dueAt);
+        }
+        return null;
+    }
+
+    private static ZoneId zone(String timezone) {
+        try {
+            return ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            return ZoneOffset.UTC;
+        }
+    }
+}
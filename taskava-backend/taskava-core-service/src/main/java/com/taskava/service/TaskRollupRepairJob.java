@@ -0,0 +1,62 @@
+package com.taskava.service;
+
+import com.taskava.data.repository.SchedulerLockRepository;
+import com.taskava.data.repository.TaskRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Recomputes every task's subtree roll-ups from scratch, as a safety net for the incremental
+ * triggers. Tasks are walked in id order in batches, each recomputed in its own short
+ * transaction, so the repair never holds locks on more than one batch of parents. Runs on one
+ * node at a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskRollupRepairJob {
+
+    private final TaskRollupRepository taskRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLockRepository schedulerLockRepository;
+
+    @Value("${task-rollups.repair-batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(cron = "${task-rollups.repair-cron:0 30 3 * * *}")
+    public void repairAll() {
+        schedulerLockRepository.runExclusively("task-rollup-repair", this::repair);
+    }
+
+    private void repair() {
+        int checked = 0;
+        int repaired = 0;
+        UUID after = null;
+        while (true) {
+            List<UUID> batch = taskRollupRepository.findRollupTaskIdsAfter(after, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            try {
+                Integer rows = transactionTemplate.execute(status -> taskRollupRepository.recompute(batch));
+                repaired += rows != null ? rows : 0;
+            } catch (RuntimeException e) {
+                log.warn("Failed to repair task roll-ups after task {}", after, e);
+            }
+            checked += batch.size();
+            after = batch.get(batch.size() - 1);
+        }
+        if (repaired > 0) {
+            log.warn("Repaired drifted roll-ups of {} of {} tasks", repaired, checked);
+        } else {
+            log.info("Checked roll-ups of {} tasks, none had drifted", checked);
+        }
+    }
+}
@@ -1,29 +1,40 @@
 package com.taskava.service;
 
+import com.taskava.common.dto.BackgroundJobDTO;
+import com.taskava.common.dto.CursorPage;
 import com.taskava.common.dto.task.*;
+import com.taskava.data.query.TaskFetchPlan;
 import com.taskava.service.dto.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
 public interface TaskService {
     
     // Basic CRUD operations
-    Page<TaskDTO> getTasks(UUID projectId, UUID assigneeId, String status, Pageable pageable);
+    Page<TaskSummaryDTO> getTasks(UUID projectId, UUID assigneeId, String status, Pageable pageable);
     TaskDTO getTaskById(UUID id);
     TaskDTO createTask(CreateTaskRequest request);
     TaskDTO updateTask(UUID id, UpdateTaskRequest request);
-    void deleteTask(UUID id);
+    BackgroundJobDTO deleteTask(UUID id);
+    BackgroundJobDTO restoreTask(UUID id);
     
     // Task status management
     TaskDTO completeTask(UUID id);
     TaskDTO uncompleteTask(UUID id);
     TaskDTO updateTaskStatus(UUID taskId, String status);
+    List<TaskStatusTransitionDTO> getStatusTransitions(UUID taskId, Instant from, Instant to, int limit);
+    CursorPage<TaskStatusTransitionDTO> getWorkspaceStatusTransitions(Instant from, Instant to, String cursor, int size);
     
     // Advanced filtering
-    Page<TaskDTO> getTasksWithFilters(TaskFilterRequest filter, Pageable pageable);
+    Page<TaskSummaryDTO> getTasksWithFilters(TaskFilterRequest filter, Pageable pageable);
+    Page<TaskDTO> getTasksWithFilters(TaskFilterRequest filter, Pageable pageable, TaskFetchPlan plan);
+    CursorPage<TaskSummaryDTO> getTasksWithCursor(TaskFilterRequest filter, String cursor, int size, boolean includeTotal);
+    CursorPage<TaskSummaryDTO> getArchivedTasks(UUID projectId, String cursor, int size);
+    TaskDTO unarchiveTask(UUID id);
     
     // Assignee management
     TaskDTO assignTask(UUID taskId, UUID userId);
@@ -41,6 +52,9 @@ public interface TaskService {
     TaskDTO createSubtask(UUID parentTaskId, CreateSubtaskRequest request);
     List<TaskDTO> getSubtasks(UUID parentTaskId);
     TaskDTO promoteSubtaskToTask(UUID subtaskId);
+    TaskDTO moveSubtask(UUID taskId, MoveSubtaskRequest request);
+    List<TaskTreeNodeDTO> getSubtree(UUID taskId, Integer maxDepth);
+    List<TaskTreeNodeDTO> getAncestors(UUID taskId);
     
     // Dependency management
     TaskDependencyDTO addDependency(UUID taskId, AddTaskDependencyRequest request);
@@ -52,16 +66,16 @@ public interface TaskService {
     TaskDTO updateCustomField(UUID taskId, UUID fieldId, UpdateCustomFieldValueRequest request);
     
     // Task operations
-    TaskDTO duplicateTask(UUID taskId, DuplicateTaskRequest request);
-    List<TaskDTO> bulkUpdateTasks(BulkTaskUpdateRequest request);
+    TaskDuplicationDTO duplicateTask(UUID taskId, DuplicateTaskRequest request);
+    BulkTaskUpdateResult bulkUpdateTasks(BulkTaskUpdateRequest request);
     
     // Comments
     CommentDTO addComment(UUID taskId, CreateCommentRequest request);
     
     // Query methods
-    List<TaskDTO> getTasksByProject(UUID projectId);
-    List<TaskDTO> getTasksByUser(UUID userId);
-    List<TaskDTO> searchTasks(String query, UUID workspaceId);
+    List<TaskSummaryDTO> getTasksByProject(UUID projectId);
+    List<TaskSummaryDTO> getTasksByUser(UUID userId);
+    List<TaskSearchResultDTO> searchTasks(String query, UUID workspaceId, int limit);
     
     // Legacy support - deprecated but maintained for backward compatibility
     @Deprecated
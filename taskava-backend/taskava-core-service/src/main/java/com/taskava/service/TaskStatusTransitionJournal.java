@@ -0,0 +1,195 @@
+package com.taskava.service;
+
+import com.taskava.data.repository.TaskStatusTransitionRepository.StatusTransition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Local append-only journal of task status transitions waiting to be written to the database.
+ * Transitions are appended to the active segment, one line each, tagged with the id of the
+ * database transaction that made them; {@link #rotate()} closes the active segment, and closed
+ * segments are read back in the order they were closed and deleted once their transitions are
+ * stored. Segments outlive the process, so transitions recorded before a crash are written after
+ * the restart; a line torn by the crash is skipped. The journal directory must therefore be on a
+ * persistent volume, not in a container's own file system or a temporary directory.
+ */
+@Slf4j
+@Component
+public class TaskStatusTransitionJournal {
+
+    private static final String ACTIVE_SEGMENT = "active.log";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String NONE = "-";
+
+    private final Path directory;
+    private final boolean fsync;
+
+    private FileChannel active;
+    private long sequence;
+
+    /**
+     * A journaled transition and the database transaction that made it; {@code transactionId}
+     * is null for changes committed before they were journaled
+     */
+    public record Entry(String transactionId, StatusTransition transition) {
+    }
+
+    public TaskStatusTransitionJournal(
+            @Value("${task-transitions.journal-dir:${java.io.tmpdir}/taskava/task-transitions}") String directory,
+            @Value("${task-transitions.journal-fsync:true}") boolean fsync) throws IOException {
+        this.directory = Path.of(directory);
+        this.fsync = fsync;
+        Files.createDirectories(this.directory);
+    }
+
+    /**
+     * Append transitions made by the database transaction {@code transactionId}, null when
+     * already committed, to the active segment. With {@code task-transitions.journal-fsync}, the
+     * default, the call returns once they are on disk; otherwise once the operating system has
+     * them, which survives a crash of the process but not of the machine.
+     */
+    public synchronized void append(String transactionId, List<StatusTransition> transitions) {
+        StringBuilder lines = new StringBuilder();
+        for (StatusTransition transition : transitions) {
+            lines.append(format(transactionId, transition)).append('\n');
+        }
+        try {
+            if (active == null) {
+                active = FileChannel.open(directory.resolve(ACTIVE_SEGMENT),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                active.write(buffer);
+            }
+            if (fsync) {
+                active.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to the task transition journal", e);
+        }
+    }
+
+    /**
+     * Close the active segment, left over from a previous run or not, so that its transitions
+     * can be read back. Does nothing while it is empty.
+     */
+    public synchronized void rotate() {
+        Path activePath = directory.resolve(ACTIVE_SEGMENT);
+        try {
+            if (active != null) {
+                active.close();
+                active = null;
+            }
+            if (!Files.exists(activePath)) {
+                return;
+            }
+            if (Files.size(activePath) == 0) {
+                Files.delete(activePath);
+                return;
+            }
+            String name = "%s%020d-%06d%s".formatted(SEGMENT_PREFIX, System.currentTimeMillis(),
+                    sequence++ % 1_000_000, SEGMENT_SUFFIX);
+            Files.move(activePath, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to rotate the task transition journal", e);
+        }
+    }
+
+    /**
+     * Closed segments, oldest first
+     */
+    public List<Path> closedSegments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list the task transition journal", e);
+        }
+    }
+
+    /**
+     * Entries of a closed segment; lines that cannot be read are logged and skipped
+     */
+    public List<Entry> read(Path segment) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(segment, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read task transition journal segment " + segment, e);
+        }
+        List<Entry> entries = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                entries.add(parse(line));
+            } catch (RuntimeException e) {
+                log.warn("Skipping unreadable line in task transition journal segment {}: {}", segment, line);
+            }
+        }
+        return entries;
+    }
+
+    public void delete(Path segment) {
+        try {
+            Files.deleteIfExists(segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete task transition journal segment " + segment, e);
+        }
+    }
+
+    private static String format(String transactionId, StatusTransition transition) {
+        return String.join("\t",
+                orNone(transactionId),
+                transition.id().toString(),
+                transition.workspaceId().toString(),
+                transition.taskId().toString(),
+                orNone(transition.fromStatus()),
+                transition.toStatus(),
+                transition.transitionedAt().toString(),
+                orNone(transition.transitionedBy()));
+    }
+
+    private static Entry parse(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 8) {
+            throw new IllegalArgumentException("Expected 8 fields but found " + fields.length);
+        }
+        return new Entry(NONE.equals(fields[0]) ? null : fields[0], new StatusTransition(
+                UUID.fromString(fields[1]),
+                UUID.fromString(fields[2]),
+                UUID.fromString(fields[3]),
+                NONE.equals(fields[4]) ? null : fields[4],
+                fields[5],
+                Instant.parse(fields[6]),
+                NONE.equals(fields[7]) ? null : UUID.fromString(fields[7])));
+    }
+
+    private static String orNone(Object value) {
+        return value != null ? value.toString() : NONE;
+    }
+}
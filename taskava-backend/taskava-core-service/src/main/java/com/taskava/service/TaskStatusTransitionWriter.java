@@ -0,0 +1,164 @@
+package com.taskava.service;
+
+import com.taskava.data.entity.Task.TaskStatus;
+import com.taskava.data.repository.TaskStatusTransitionRepository;
+import com.taskava.data.repository.TaskStatusTransitionRepository.StatusTransition;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Records task status transitions off the request path. Just before the transaction that changed
+ * the status commits, its transitions are appended to the {@link TaskStatusTransitionJournal},
+ * tagged with the transaction's id, so a committed change is journaled even if the process dies
+ * right after the commit, and a change that cannot be journaled is not committed. Every
+ * {@code task-transitions.flush-interval-ms} the journal is rotated and the transitions of its
+ * closed segments whose transaction committed are written to {@code task_status_transitions} in
+ * batches; those of transactions that rolled back are dropped. A segment is only deleted once
+ * all of it is settled, and writing it again after a failure is harmless.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskStatusTransitionWriter {
+
+    private static final String COMMITTED = "committed";
+    private static final String IN_PROGRESS = "in progress";
+
+    private final TaskStatusTransitionJournal journal;
+    private final TaskStatusTransitionRepository transitionRepository;
+
+    @Value("${task-transitions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${task-transitions.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * A status change to record; {@code userId} may be null when unknown. Tasks that carry no
+     * workspace of their own are recorded under the workspace their change was made in.
+     */
+    public record Change(UUID taskId, UUID workspaceId, TaskStatus from, TaskStatus to, UUID userId) {
+    }
+
+    public void record(UUID taskId, UUID workspaceId, TaskStatus from, TaskStatus to, UUID userId) {
+        recordAll(List.of(new Change(taskId, workspaceId, from, to, userId)));
+    }
+
+    /**
+     * Record status changes made in the current transaction. Changes that leave the status as it
+     * was are dropped. Every change must name a workspace, since the partitioned history cannot
+     * hold a transition without one.
+     */
+    public void recordAll(List<Change> changes) {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<StatusTransition> transitions = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            if (change.from() == change.to()) {
+                continue;
+            }
+            if (change.workspaceId() == null) {
+                throw new IllegalArgumentException("Status transition of task " + change.taskId() + " has no workspace");
+            }
+            transitions.add(new StatusTransition(UUID.randomUUID(), change.workspaceId(), change.taskId(),
+                    change.from() != null ? change.from().name() : null, change.to().name(), now, change.userId()));
+        }
+        if (transitions.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    journal.append(transitionRepository.currentTransactionId(), transitions);
+                }
+            });
+        } else {
+            append(transitions);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${task-transitions.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        try {
+            journal.rotate();
+            for (Path segment : journal.closedSegments()) {
+                if (!flushSegment(segment)) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to write task status transitions, retrying on the next flush", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Write the committed transitions of a segment and delete it; false, keeping the segment,
+    // while one of its transactions is still in progress
+    private boolean flushSegment(Path segment) {
+        List<TaskStatusTransitionJournal.Entry> entries = journal.read(segment);
+        Set<String> transactionIds = new HashSet<>();
+        for (TaskStatusTransitionJournal.Entry entry : entries) {
+            if (entry.transactionId() != null) {
+                transactionIds.add(entry.transactionId());
+            }
+        }
+        Map<String, String> statuses = transitionRepository.findTransactionStatuses(transactionIds);
+        List<StatusTransition> committed = new ArrayList<>(entries.size());
+        boolean inProgress = false;
+        for (TaskStatusTransitionJournal.Entry entry : entries) {
+            String status = entry.transactionId() != null ? statuses.get(entry.transactionId()) : COMMITTED;
+            if (COMMITTED.equals(status)) {
+                committed.add(entry.transition());
+            } else if (IN_PROGRESS.equals(status)) {
+                inProgress = true;
+            }
+        }
+        int written = 0;
+        for (int from = 0; from < committed.size(); from += batchSize) {
+            written += transitionRepository.insertBatch(
+                    committed.subList(from, Math.min(from + batchSize, committed.size())));
+        }
+        if (inProgress) {
+            return false;
+        }
+        journal.delete(segment);
+        if (committed.size() < entries.size()) {
+            log.info("Dropped {} task status transitions of transactions that did not commit",
+                    entries.size() - committed.size());
+        }
+        log.debug("Wrote {} of {} task status transitions from {}", written, entries.size(), segment);
+        return true;
+    }
+
+    // Outside a transaction the status change is committed by now, so a journal failure must not
+    // surface to the caller
+    private void append(List<StatusTransition> transitions) {
+        try {
+            journal.append(null, transitions);
+        } catch (RuntimeException e) {
+            log.error("Failed to journal {} task status transitions", transitions.size(), e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.taskava.service;
+
+import com.taskava.data.repository.SchedulerLockRepository;
+import com.taskava.data.repository.TaskTieringRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+/**
+ * Moves cold tasks out of the hot tier: the tasks of archived projects, and top-level task trees
+ * completed more than {@code task-tiering.completed-after-days} days ago. Archived projects are
+ * walked in id order, and every project, and then the completed trees, are moved chunk by chunk,
+ * each chunk in its own short transaction. Runs on one node at a time. Restoring a project brings
+ * its tasks back at once through {@link TaskTieringRepository#restoreProjectTasks}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskTieringJob {
+
+    private final TaskTieringRepository tieringRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLockRepository schedulerLockRepository;
+
+    @Value("${task-tiering.enabled:true}")
+    private boolean enabled;
+
+    @Value("${task-tiering.completed-after-days:90}")
+    private int completedAfterDays;
+
+    @Value("${task-tiering.chunk-size:1000}")
+    private int chunkSize;
+
+    @Scheduled(cron = "${task-tiering.cron:0 0 2 * * *}")
+    public void tierAll() {
+        if (enabled) {
+            schedulerLockRepository.runExclusively("task-tiering", this::tier);
+        }
+    }
+
+    private void tier() {
+        int projects = 0;
+        int archived = 0;
+        UUID after = null;
+        while (true) {
+            List<UUID> projectIds = tieringRepository.findArchivedProjectIdsAfter(after, chunkSize);
+            if (projectIds.isEmpty()) {
+                break;
+            }
+            for (UUID projectId : projectIds) {
+                try {
+                    archived += inChunks(() -> tieringRepository.archiveProjectTasksChunk(projectId, chunkSize));
+                    projects++;
+                } catch (RuntimeException e) {
+                    log.warn("Failed to archive the tasks of project {}", projectId, e);
+                }
+            }
+            after = projectIds.get(projectIds.size() - 1);
+        }
+        int completed = 0;
+        try {
+            completed = inChunks(() -> tieringRepository.archiveCompletedChunk(completedAfterDays, chunkSize));
+        } catch (RuntimeException e) {
+            log.warn("Failed to archive completed tasks", e);
+        }
+        log.info("Archived {} tasks of {} archived projects and {} completed tasks", archived, projects, completed);
+    }
+
+    // Run a chunk until it finds nothing left, each run in its own transaction
+    private int inChunks(IntSupplier chunk) {
+        int total = 0;
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> chunk.getAsInt());
+            if (count == null || count == 0) {
+                return total;
+            }
+            total += count;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.taskava.service;
+
+import com.taskava.common.dto.TypeaheadResultDTO;
+import com.taskava.common.exception.BadRequestException;
+import com.taskava.data.repository.SchedulerLockRepository;
+import com.taskava.data.repository.TypeaheadRepository;
+import com.taskava.data.repository.TypeaheadRepository.Suggestion;
+import com.taskava.security.context.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Quick-switcher suggestions for tasks and projects. Every lookup runs under a hard latency
+ * budget enforced by PostgreSQL's {@code statement_timeout}: item types that do not fit into
+ * the remaining budget are skipped and the result is flagged as truncated instead of failing.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TypeaheadService {
+
+    public static final String TYPE_TASK = "TASK";
+    public static final String TYPE_PROJECT = "PROJECT";
+
+    // PostgreSQL "query_canceled", raised when statement_timeout expires
+    private static final String QUERY_CANCELED = "57014";
+
+    private final TypeaheadRepository typeaheadRepository;
+    private final SchedulerLockRepository schedulerLockRepository;
+
+    @Value("${typeahead.latency-budget-ms:50}")
+    private long latencyBudgetMs;
+
+    @Value("${typeahead.recency-weight:0.5}")
+    private double recencyWeight;
+
+    @Value("${typeahead.max-limit:20}")
+    private int maxLimit;
+
+    @Value("${typeahead.recent-retention-days:90}")
+    private int recentRetentionDays;
+
+    @Transactional(readOnly = true)
+    public TypeaheadResultDTO suggest(String query, Set<String> types, int limit) {
+        UUID workspaceId = TenantContext.getCurrentWorkspaceId();
+        UUID userId = TenantContext.getCurrentUserId();
+        if (workspaceId == null) {
+            throw new BadRequestException("Workspace context is required");
+        }
+
+        String term = query == null ? "" : query.strip();
+        int size = Math.max(1, Math.min(limit, maxLimit));
+        long started = System.nanoTime();
+        if (term.isEmpty()) {
+            return TypeaheadResultDTO.builder().suggestions(List.of()).build();
+        }
+
+        // Projects first: there are far fewer of them, so they rarely exhaust the budget
+        List<Suggestion> suggestions = new ArrayList<>();
+        boolean truncated = false;
+        for (String type : List.of(TYPE_PROJECT, TYPE_TASK)) {
+            if (types != null && !types.isEmpty() && !types.contains(type)) {
+                continue;
+            }
+            long remainingMs = latencyBudgetMs - Duration.ofNanos(System.nanoTime() - started).toMillis();
+            if (remainingMs <= 0) {
+                truncated = true;
+                break;
+            }
+            try {
+                typeaheadRepository.setStatementTimeout(remainingMs);
+                suggestions.addAll(TYPE_TASK.equals(type)
+                        ? typeaheadRepository.suggestTasks(workspaceId, userId, term, recencyWeight, size)
+                        : typeaheadRepository.suggestProjects(workspaceId, userId, term, recencyWeight, size));
+            } catch (DataAccessException e) {
+                if (!isQueryCanceled(e)) {
+                    throw e;
+                }
+                // A canceled statement aborts the transaction, so no further type can be searched
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                log.debug("Typeahead for '{}' exceeded its {}ms budget while searching {}", term, latencyBudgetMs, type);
+                truncated = true;
+                break;
+            }
+        }
+
+        return TypeaheadResultDTO.builder()
+                .suggestions(suggestions.stream()
+                        .sorted(Comparator.comparingDouble(Suggestion::score).reversed())
+                        .limit(size)
+                        .map(this::toDTO)
+                        .toList())
+                .truncated(truncated)
+                .tookMs(Duration.ofNanos(System.nanoTime() - started).toMillis())
+                .build();
+    }
+
+    /**
+     * Record that a user opened a task or project. Runs asynchronously so it never adds
+     * latency to the read that triggered it.
+     */
+    @Async
+    @Transactional
+    public void recordVisit(UUID userId, String itemType, UUID itemId) {
+        if (userId == null || itemId == null || !isSupportedType(itemType)) {
+            return;
+        }
+        typeaheadRepository.recordVisit(userId, itemType, itemId);
+    }
+
+    public static boolean isSupportedType(String itemType) {
+        return TYPE_TASK.equals(itemType) || TYPE_PROJECT.equals(itemType);
+    }
+
+    /**
+     * Drop visits past the retention period; runs on one node at a time
+     */
+    @Scheduled(cron = "${typeahead.recent-cleanup-cron:0 30 3 * * *}")
+    public void pruneRecentItems() {
+        schedulerLockRepository.runExclusively("typeahead-prune", () -> {
+            int deleted = typeaheadRepository.deleteVisitsBefore(Instant.now().minus(Duration.ofDays(recentRetentionDays)));
+            log.info("Pruned {} recent items older than {} days", deleted, recentRetentionDays);
+        });
+    }
+
+    private TypeaheadResultDTO.Suggestion toDTO(Suggestion suggestion) {
+        return TypeaheadResultDTO.Suggestion.builder()
+                .type(suggestion.type())
+                .id(suggestion.id())
+                .number(suggestion.number())
+                .label(suggestion.label())
+                .status(suggestion.status())
+                .recent(suggestion.recent())
+                .score(suggestion.score())
+                .build();
+    }
+
+    private static boolean isQueryCanceled(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && QUERY_CANCELED.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,41 @@
+package com.taskava.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.taskava.common.dto.BackgroundJobDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkTaskUpdateResult {
+
+    private String operation;
+    private int requestedCount;
+    private int updatedCount;
+
+    // Ids and new versions of every updated task
+    private List<TaskVersionDTO> updated;
+
+    // Full task representations, only populated when requested
+    private List<TaskDTO> tasks;
+
+    // Background job deleting the subtrees of deleted tasks, when there are too many to delete at once
+    private BackgroundJobDTO job;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TaskVersionDTO {
+        private UUID id;
+        private Long version;
+    }
+}
@@ -0,0 +1,27 @@
+package com.taskava.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.taskava.common.dto.task.TaskDependencyDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Dependencies of a project for Gantt views. {@code version} changes whenever the project's
+ * dependency graph does, so clients can skip re-rendering an unchanged graph.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DependencyGraphDTO {
+    
+    private UUID projectId;
+    private long version;
+    private List<TaskDependencyDTO> dependencies;
+}
@@ -0,0 +1,30 @@
+package com.taskava.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An in-app notification of the current user. {@code readAt} is absent while unread.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NotificationDTO {
+
+    private UUID id;
+    private UUID workspaceId;
+    private UUID taskId;
+    private String kind;
+    private String title;
+    private Instant dueAt;
+    private Instant createdAt;
+    private Instant readAt;
+}
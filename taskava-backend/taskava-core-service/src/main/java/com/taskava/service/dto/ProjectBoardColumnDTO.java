@@ -0,0 +1,30 @@
+package com.taskava.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One column of a project board: a section, or the tasks without a section when {@code sectionId}
+ * is null. {@code nextCursor} continues the column through the project task listing.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProjectBoardColumnDTO {
+    
+    private UUID sectionId;
+    private String name;
+    private Integer position;
+    private long taskCount;
+    private List<TaskSummaryDTO> tasks;
+    private boolean hasMore;
+    private String nextCursor;
+}
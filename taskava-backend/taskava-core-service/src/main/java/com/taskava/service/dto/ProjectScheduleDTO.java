@@ -0,0 +1,45 @@
+package com.taskava.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Critical path schedule of a project. Tasks are in dependency order; {@code criticalPath} lists
+ * the tasks without slack, whose delay delays the project's finish.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProjectScheduleDTO {
+
+    private UUID projectId;
+    private long dependencyVersion;
+    private LocalDate startDate;
+    private LocalDate finishDate;
+    private List<TaskScheduleDTO> tasks;
+    private List<UUID> criticalPath;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TaskScheduleDTO {
+
+        private UUID taskId;
+        private LocalDate earliestStart;
+        private LocalDate earliestFinish;
+        private LocalDate latestStart;
+        private LocalDate latestFinish;
+        private long slackDays;
+        private boolean critical;
+    }
+}
@@ -47,6 +47,11 @@ public class TaskDTO {
     private List<TagDTO> tags;
     private List<AttachmentDTO> attachments;
     private Integer commentCount;
+    private Integer attachmentCount;
+    private Integer subtaskCount;
+    private Integer completedSubtaskCount;
+    private Integer followerCount;
+    private TaskRollupDTO rollup;
     
     // Custom fields
     private Map<String, Object> customFields;
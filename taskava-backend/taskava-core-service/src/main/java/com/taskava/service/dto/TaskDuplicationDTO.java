@@ -0,0 +1,23 @@
+package com.taskava.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.taskava.common.dto.BackgroundJobDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a duplication: the copy itself when it was made right away, or the background job
+ * making it when the subtree was too large to copy within the request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskDuplicationDTO {
+
+    private TaskDTO task;
+    private BackgroundJobDTO job;
+}
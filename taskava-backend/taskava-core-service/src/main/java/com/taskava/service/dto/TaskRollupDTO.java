@@ -0,0 +1,25 @@
+package com.taskava.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Totals over all live subtasks of a task at any depth. {@code progressPercentage} is their
+ * average progress.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskRollupDTO {
+    
+    private int taskCount;
+    private int progressPercentage;
+    private BigDecimal estimatedHours;
+    private BigDecimal actualHours;
+    private long storyPoints;
+}
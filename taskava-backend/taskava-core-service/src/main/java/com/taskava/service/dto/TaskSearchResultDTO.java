@@ -0,0 +1,30 @@
+package com.taskava.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskSearchResultDTO {
+    
+    private UUID id;
+    private Long taskNumber;
+    private String title;
+    private String status;
+    private String priority;
+    private LocalDate dueDate;
+    private double rank;
+    
+    // Matched terms wrapped in <mark> tags
+    private String titleHighlight;
+    private String snippet;
+}
@@ -0,0 +1,29 @@
+package com.taskava.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A change of a task's status. {@code fromStatus} is absent when the previous status was not
+ * known, {@code transitionedBy} when no user made the change.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskStatusTransitionDTO {
+
+    private UUID id;
+    private UUID taskId;
+    private String fromStatus;
+    private String toStatus;
+    private Instant transitionedAt;
+    private UUID transitionedBy;
+}
@@ -0,0 +1,46 @@
+package com.taskava.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Lightweight task representation for list views. Use {@link TaskDTO} for a single task's details.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskSummaryDTO {
+    
+    private UUID id;
+    private String title;
+    private Long taskNumber;
+    private String status;
+    private String priority;
+    private LocalDate startDate;
+    private LocalDate dueDate;
+    private Instant completedAt;
+    private Integer progressPercentage;
+    private Integer storyPoints;
+    private UUID parentTaskId;
+    private UserDTO assignee;
+    
+    // Counts
+    private long subtaskCount;
+    private long completedSubtaskCount;
+    private long commentCount;
+    private long attachmentCount;
+    private long followerCount;
+    private TaskRollupDTO rollup;
+    
+    private Instant createdAt;
+    private Instant updatedAt;
+}
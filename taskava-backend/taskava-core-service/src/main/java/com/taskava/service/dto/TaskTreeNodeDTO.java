@@ -0,0 +1,20 @@
+package com.taskava.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A task of a subtree or ancestor chain, {@code depth} levels away from the task asked about.
+ * The tree is rebuilt client-side from each task's {@code parentTaskId}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTreeNodeDTO {
+    
+    private int depth;
+    private TaskSummaryDTO task;
+}
@@ -1,5 +1,7 @@
 package com.taskava.service.impl;
 
+import com.taskava.common.dto.BackgroundJobDTO;
+import com.taskava.common.dto.CursorPage;
 import com.taskava.common.dto.task.*;
 import com.taskava.common.exception.ResourceNotFoundException;
 import com.taskava.common.exception.BadRequestException;
@@ -7,24 +9,45 @@ import com.taskava.common.exception.ConflictException;
 import com.taskava.data.entity.*;
 import com.taskava.data.entity.Task.TaskStatus;
 import com.taskava.data.entity.Task.Priority;
+import com.taskava.data.query.LexoRank;
+import com.taskava.data.query.TaskCursor;
+import com.taskava.data.query.TaskFetchPlan;
+import com.taskava.data.query.TaskQueryFilter;
+import com.taskava.data.query.TaskSortKey;
+import com.taskava.data.query.TaskSummaryView;
 import com.taskava.data.repository.*;
 import com.taskava.security.context.TenantContext;
+import com.taskava.service.BackgroundJobService;
+import com.taskava.service.CascadeDeleteEngine;
+import com.taskava.service.CascadeDeleteService;
+import com.taskava.service.DependencyGraphService;
+import com.taskava.service.SchedulingService;
+import com.taskava.service.TaskDuplicationEngine;
+import com.taskava.service.TaskNumberAllocator;
 import com.taskava.service.TaskService;
+import com.taskava.service.TaskStatusTransitionWriter;
 import com.taskava.service.dto.*;
 import com.taskava.service.mapper.TaskMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -34,36 +57,62 @@ import java.util.stream.Collectors;
 public class TaskServiceImpl implements TaskService {
 
     private final TaskRepository taskRepository;
+    private final TaskBulkRepository taskBulkRepository;
+    private final TaskQueryRepository taskQueryRepository;
+    private final TaskSearchRepository taskSearchRepository;
     private final TaskProjectRepository taskProjectRepository;
+    private final TaskProjectRankRepository taskProjectRankRepository;
+    private final TaskDependencyRepository taskDependencyRepository;
+    private final TaskHierarchyRepository taskHierarchyRepository;
     private final UserRepository userRepository;
     private final ProjectRepository projectRepository;
     private final ProjectSectionRepository sectionRepository;
     private final WorkspaceRepository workspaceRepository;
     private final TaskMapper taskMapper;
+    private final TaskNumberAllocator taskNumberAllocator;
+    private final DependencyGraphService dependencyGraphService;
+    private final SchedulingService schedulingService;
+    private final TaskDuplicationEngine taskDuplicationEngine;
+    private final BackgroundJobRepository backgroundJobRepository;
+    private final CascadeDeleteRepository cascadeDeleteRepository;
+    private final CascadeDeleteService cascadeDeleteService;
+    private final TaskTieringRepository taskTieringRepository;
+    private final TaskStatusTransitionRepository transitionRepository;
+    private final TaskStatusTransitionWriter transitionWriter;
     private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${application.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${task-hierarchy.max-depth:100}")
+    private int maxTreeDepth;
+
+    @Value("${task-duplication.async-threshold:200}")
+    private int duplicationAsyncThreshold;
 
     @Override
     @Transactional(readOnly = true)
-    public Page<TaskDTO> getTasks(UUID projectId, UUID assigneeId, String status, Pageable pageable) {
+    public Page<TaskSummaryDTO> getTasks(UUID projectId, UUID assigneeId, String status, Pageable pageable) {
         log.debug("Getting tasks with filters - projectId: {}, assigneeId: {}, status: {}", 
                 projectId, assigneeId, status);
         
-        TaskStatus taskStatus = status != null ? TaskStatus.valueOf(status.toUpperCase()) : null;
-        
-        Page<Task> tasks = taskRepository.findWithFilters(
-            projectId, assigneeId, taskStatus, null, null, null, null, null, null, pageable
-        );
+        TaskFilterRequest filter = TaskFilterRequest.builder()
+                .projectId(projectId)
+                .assigneeId(assigneeId)
+                .status(status)
+                .build();
         
-        return tasks.map(taskMapper::toDTO);
+        Page<TaskSummaryView> tasks = taskQueryRepository.findSummaryPage(toQueryFilter(filter), pageable);
+        return tasks.map(taskMapper::toSummaryDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
     public TaskDTO getTaskById(UUID id) {
         log.debug("Getting task by id: {}", id);
-        Task task = taskRepository.findByIdAndDeletedFalse(id)
+        return taskQueryRepository.findById(id, TaskFetchPlan.DETAIL, taskMapper::toDTO)
                 .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
-        return taskMapper.toDTO(task);
     }
 
     @Override
@@ -79,15 +128,14 @@ public class TaskServiceImpl implements TaskService {
                 .orElseThrow(() -> new ResourceNotFoundException("Workspace", "id", workspaceId));
         
         // Generate task number
-        Long taskNumber = taskRepository.findMaxTaskNumberByWorkspaceId(workspaceId)
-                .map(n -> n + 1)
-                .orElse(1L);
+        Long taskNumber = taskNumberAllocator.next(workspaceId);
         
         // Create task entity
         Task task = Task.builder()
                 .title(request.getTitle())
                 .description(request.getDescription())
                 .taskNumber(taskNumber)
+                .workspaceId(workspaceId)
                 .status(TaskStatus.valueOf(request.getStatus()))
                 .priority(Priority.valueOf(request.getPriority()))
                 .startDate(request.getStartDate())
@@ -107,6 +155,7 @@ public class TaskServiceImpl implements TaskService {
         if (request.getParentTaskId() != null) {
             Task parentTask = taskRepository.findById(request.getParentTaskId())
                     .orElseThrow(() -> new ResourceNotFoundException("Parent task", "id", request.getParentTaskId()));
+            untierParent(parentTask);
             task.setParentTask(parentTask);
         }
         
@@ -182,6 +231,7 @@ public class TaskServiceImpl implements TaskService {
         if (request.getDescription() != null) {
             task.setDescription(request.getDescription());
         }
+        TaskStatus previousStatus = task.getStatus();
         if (request.getStatus() != null) {
             task.setStatus(TaskStatus.valueOf(request.getStatus()));
             if (request.getStatus().equals("COMPLETED")) {
@@ -191,12 +241,16 @@ public class TaskServiceImpl implements TaskService {
         if (request.getPriority() != null) {
             task.setPriority(Priority.valueOf(request.getPriority()));
         }
+        LocalDate startDate = task.getStartDate();
+        LocalDate dueDate = task.getDueDate();
         if (request.getStartDate() != null) {
             task.setStartDate(request.getStartDate());
         }
         if (request.getDueDate() != null || Boolean.TRUE.equals(request.getClearDueDate())) {
-            task.setDueDate(request.getClearDueDate() ? null : request.getDueDate());
+            task.setDueDate(Boolean.TRUE.equals(request.getClearDueDate()) ? null : request.getDueDate());
         }
+        boolean datesChanged = !Objects.equals(startDate, task.getStartDate())
+                || !Objects.equals(dueDate, task.getDueDate());
         if (request.getEstimatedHours() != null) {
             task.setEstimatedHours(request.getEstimatedHours());
         }
@@ -239,22 +293,63 @@ public class TaskServiceImpl implements TaskService {
         }
         
         task = taskRepository.save(task);
+        recordTransition(task, previousStatus);
+        untierIfReopened(task);
+        
+        if (datesChanged) {
+            // Downstream tasks are read and moved with SQL, so they must see the new dates
+            taskRepository.flush();
+            schedulingService.propagateDateShifts(List.of(task.getId()));
+        }
         
         log.info("Task updated successfully: {}", id);
         return taskMapper.toDTO(task);
     }
 
     @Override
-    public void deleteTask(UUID id) {
+    public BackgroundJobDTO deleteTask(UUID id) {
         log.info("Deleting task: {}", id);
         
         Task task = taskRepository.findByIdAndDeletedFalse(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
+        UUID userId = TenantContext.getCurrentUserId();
         
-        // Soft delete
-        taskRepository.softDelete(id);
+        // The task disappears now; its subtree follows, in the background when it is large
+        UUID deletionId = UUID.randomUUID();
+        cascadeDeleteRepository.markTaskDeleted(id, deletionId, userId);
+        BackgroundJobDTO job = cascadeDeleteService.cascadeDelete(
+                CascadeDeleteEngine.CascadeSpec.task(id, deletionId, userId),
+                resolveWorkspaceId(task), task.getRollupTaskCount());
         
         log.info("Task deleted successfully: {}", id);
+        return job;
+    }
+
+    @Override
+    public BackgroundJobDTO restoreTask(UUID id) {
+        log.info("Restoring task: {}", id);
+        
+        CascadeDeleteRepository.DeletedRow deleted = cascadeDeleteRepository.findDeletedTask(id)
+                .filter(row -> row.workspaceId() == null
+                        || row.workspaceId().equals(TenantContext.getCurrentWorkspaceId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
+        // Only the task's own subtree comes back, so a deleted parent would be left above it
+        boolean parentDeleted = deleted.parentId() != null
+                && cascadeDeleteRepository.findDeletedTask(deleted.parentId()).isPresent();
+        if (parentDeleted) {
+            throw new BadRequestException("The parent task is deleted, restore it first");
+        }
+        
+        // The subtree deleted along with the task comes back, the task itself last; other tasks of
+        // the same deletion, such as the rest of a bulk deletion, stay deleted
+        int size = deleted.deletionId() != null
+                ? cascadeDeleteRepository.countSubtreeTasks(deleted.deletionId(), id) + 1 : 1;
+        BackgroundJobDTO job = cascadeDeleteService.restore(
+                CascadeDeleteEngine.CascadeSpec.task(id, deleted.deletionId(), TenantContext.getCurrentUserId()),
+                resolveWorkspaceId(deleted.workspaceId()), size);
+        
+        log.info("Task restored successfully: {}", id);
+        return job;
     }
 
     @Override
@@ -264,9 +359,11 @@ public class TaskServiceImpl implements TaskService {
         Task task = taskRepository.findByIdAndDeletedFalse(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
         
+        TaskStatus previousStatus = task.getStatus();
         task.setStatus(TaskStatus.COMPLETED);
         task.setCompletedAt(Instant.now());
         task = taskRepository.save(task);
+        recordTransition(task, previousStatus);
         
         log.info("Task completed: {}", id);
         return taskMapper.toDTO(task);
@@ -279,9 +376,12 @@ public class TaskServiceImpl implements TaskService {
         Task task = taskRepository.findByIdAndDeletedFalse(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
         
+        TaskStatus previousStatus = task.getStatus();
         task.setStatus(TaskStatus.TODO);
         task.setCompletedAt(null);
         task = taskRepository.save(task);
+        recordTransition(task, previousStatus);
+        untierIfReopened(task);
         
         log.info("Task uncompleted: {}", id);
         return taskMapper.toDTO(task);
@@ -289,26 +389,196 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<TaskDTO> getTasksWithFilters(TaskFilterRequest filter, Pageable pageable) {
+    public Page<TaskSummaryDTO> getTasksWithFilters(TaskFilterRequest filter, Pageable pageable) {
         log.debug("Getting tasks with advanced filters");
         
-        TaskStatus status = filter.getStatus() != null ? TaskStatus.valueOf(filter.getStatus()) : null;
-        Priority priority = filter.getPriority() != null ? Priority.valueOf(filter.getPriority()) : null;
-        
-        Page<Task> tasks = taskRepository.findWithFilters(
-            filter.getProjectId(),
-            filter.getAssigneeId(),
-            status,
-            priority,
-            filter.getStartDateFrom(),
-            filter.getStartDateTo(),
-            filter.getDueDateFrom(),
-            filter.getDueDateTo(),
-            filter.getSearch(),
-            pageable
+        Page<TaskSummaryView> tasks = taskQueryRepository.findSummaryPage(toQueryFilter(filter), pageable);
+        return tasks.map(taskMapper::toSummaryDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TaskDTO> getTasksWithFilters(TaskFilterRequest filter, Pageable pageable, TaskFetchPlan plan) {
+        log.debug("Getting full tasks with advanced filters using the {} fetch plan", plan);
+        
+        return taskQueryRepository.findPage(toQueryFilter(filter), pageable, plan, taskMapper::toDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TaskSummaryDTO> getTasksWithCursor(TaskFilterRequest filter, String cursor, int size, boolean includeTotal) {
+        log.debug("Getting tasks with cursor pagination");
+        
+        TaskSortKey sortKey;
+        boolean descending;
+        TaskCursor after = null;
+        try {
+            sortKey = TaskSortKey.fromProperty(filter.getSortBy());
+            descending = !"ASC".equalsIgnoreCase(filter.getSortDirection());
+            if (cursor != null && !cursor.isBlank()) {
+                after = TaskCursor.decode(cursor);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+        if (after != null && (after.sortKey() != sortKey || after.descending() != descending)) {
+            throw new BadRequestException("Cursor does not match the requested sort order");
+        }
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        TaskQueryFilter queryFilter = toQueryFilter(filter);
+        
+        // Fetch one extra row to learn whether another page follows without counting
+        List<TaskQueryRepository.Row<TaskSummaryView>> rows = taskQueryRepository.findSummarySlice(
+            queryFilter, sortKey, descending, after, pageSize + 1
         );
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
         
-        return tasks.map(taskMapper::toDTO);
+        String nextCursor = null;
+        if (hasNext) {
+            TaskQueryRepository.Row<TaskSummaryView> last = rows.get(rows.size() - 1);
+            nextCursor = new TaskCursor(sortKey, descending, last.sortValue(), last.item().id()).encode();
+        }
+        
+        return CursorPage.<TaskSummaryDTO>builder()
+                .content(taskMapper.toSummaryDTOList(rows.stream().map(TaskQueryRepository.Row::item).toList()))
+                .size(rows.size())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .totalElements(includeTotal ? taskQueryRepository.count(queryFilter) : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TaskSummaryDTO> getArchivedTasks(UUID projectId, String cursor, int size) {
+        log.debug("Getting archived tasks of project: {}", projectId);
+        
+        UUID workspaceId = TenantContext.getCurrentWorkspaceId();
+        if (workspaceId == null) {
+            throw new BadRequestException("Workspace context is required");
+        }
+        TaskCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                after = TaskCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(e.getMessage());
+            }
+            if (after.sortKey() != TaskSortKey.CREATED_AT || !after.descending()) {
+                throw new BadRequestException("Cursor does not match the requested sort order");
+            }
+        }
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        
+        // Newest first; fetch one extra row to learn whether another page follows
+        List<TaskSummaryView> rows = taskTieringRepository.findArchivedSlice(workspaceId, projectId,
+                after != null ? (Instant) after.value() : null, after != null ? after.lastId() : null, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+        
+        String nextCursor = null;
+        if (hasNext) {
+            TaskSummaryView last = rows.get(rows.size() - 1);
+            nextCursor = new TaskCursor(TaskSortKey.CREATED_AT, true, last.createdAt(), last.id()).encode();
+        }
+        
+        return CursorPage.<TaskSummaryDTO>builder()
+                .content(taskMapper.toSummaryDTOList(rows))
+                .size(rows.size())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+    
+    @Override
+    public TaskDTO unarchiveTask(UUID id) {
+        log.info("Unarchiving task: {}", id);
+        
+        Task task = taskRepository.findByIdAndDeletedFalse(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
+        if (task.getArchivedAt() == null) {
+            throw new BadRequestException("Task is not archived");
+        }
+        // The tiering job would move the task back for as long as its project stays archived
+        boolean projectArchived = task.getArchivedProjectId() != null
+                && projectRepository.findById(task.getArchivedProjectId())
+                        .filter(project -> project.getStatus() == Project.ProjectStatus.ARCHIVED)
+                        .isPresent();
+        if (projectArchived) {
+            throw new BadRequestException("The task's project is archived, restore the project instead");
+        }
+        
+        // The whole cold tree comes back, so no hot task is left below a cold one
+        int restored = taskTieringRepository.restoreTrees(List.of(id));
+        
+        log.info("Unarchived {} tasks with task {}", restored, id);
+        return taskMapper.toDTO(task);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskStatusTransitionDTO> getStatusTransitions(UUID taskId, Instant from, Instant to, int limit) {
+        log.debug("Getting status transitions of task: {}", taskId);
+        
+        Task task = taskRepository.findByIdAndDeletedFalse(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", taskId));
+        if (task.getWorkspaceId() == null) {
+            return List.of();
+        }
+        return transitionRepository.findByTask(task.getWorkspaceId(), taskId, from, to,
+                        Math.max(1, Math.min(limit, maxPageSize))).stream()
+                .map(this::toTransitionDTO)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TaskStatusTransitionDTO> getWorkspaceStatusTransitions(Instant from, Instant to, String cursor,
+                                                                             int size) {
+        UUID workspaceId = TenantContext.getCurrentWorkspaceId();
+        if (workspaceId == null) {
+            throw new BadRequestException("Workspace context is required");
+        }
+        // Transitions are keyed by (transitioned_at, id), the shape of an ascending created-at cursor
+        TaskCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                after = TaskCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(e.getMessage());
+            }
+            if (after.sortKey() != TaskSortKey.CREATED_AT || after.descending()) {
+                throw new BadRequestException("Cursor does not match the requested sort order");
+            }
+        }
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        
+        // Oldest first; fetch one extra row to learn whether another page follows
+        List<TaskStatusTransitionRepository.StatusTransition> rows = transitionRepository.findByWorkspace(
+                workspaceId, from, to, after != null ? (Instant) after.value() : null,
+                after != null ? after.lastId() : null, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+        
+        String nextCursor = null;
+        if (hasNext) {
+            TaskStatusTransitionRepository.StatusTransition last = rows.get(rows.size() - 1);
+            nextCursor = new TaskCursor(TaskSortKey.CREATED_AT, false, last.transitionedAt(), last.id()).encode();
+        }
+        
+        return CursorPage.<TaskStatusTransitionDTO>builder()
+                .content(rows.stream().map(this::toTransitionDTO).collect(Collectors.toList()))
+                .size(rows.size())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
     }
 
     @Override
@@ -428,9 +698,11 @@ public class TaskServiceImpl implements TaskService {
         TaskProject taskProject = taskProjectRepository.findByTaskIdAndProjectId(taskId, projectId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found in project"));
         
-        if (request.getSectionId() != null) {
-            ProjectSection section = sectionRepository.findById(request.getSectionId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Section", "id", request.getSectionId()));
+        UUID currentSectionId = taskProject.getSection() != null ? taskProject.getSection().getId() : null;
+        UUID sectionId = request.getSectionId();
+        if (sectionId != null) {
+            ProjectSection section = sectionRepository.findById(sectionId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Section", "id", sectionId));
             
             if (!section.getProject().getId().equals(projectId)) {
                 throw new BadRequestException("Section does not belong to the specified project");
@@ -441,11 +713,14 @@ public class TaskServiceImpl implements TaskService {
             taskProject.setSection(null);
         }
         
-        if (request.getPosition() != null) {
-            taskProject.setPosition(request.getPosition());
+        boolean placed = request.getAfterTaskId() != null || request.getBeforeTaskId() != null
+                || request.getPosition() != null;
+        if (placed || !Objects.equals(currentSectionId, sectionId)) {
+            taskProject.updateRank(rankInColumn(projectId, sectionId, taskId,
+                    request.getAfterTaskId(), request.getBeforeTaskId(), request.getPosition()));
         }
         
-        taskProjectRepository.save(taskProject);
+        saveRanked(taskProject);
         
         Task task = taskRepository.findByIdAndDeletedFalse(taskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task", "id", taskId));
@@ -460,6 +735,7 @@ public class TaskServiceImpl implements TaskService {
         
         Task parentTask = taskRepository.findByIdAndDeletedFalse(parentTaskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Parent task", "id", parentTaskId));
+        untierParent(parentTask);
         
         CreateTaskRequest.CreateSubtaskRequest subtaskRequest = CreateTaskRequest.CreateSubtaskRequest.builder()
                 .title(request.getTitle())
@@ -481,6 +757,7 @@ public class TaskServiceImpl implements TaskService {
         
         Task parentTask = taskRepository.findByIdAndDeletedFalse(parentTaskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Parent task", "id", parentTaskId));
+        untierParent(parentTask);
         
         // Convert CreateTaskRequest to CreateSubtaskRequest
         CreateTaskRequest.CreateSubtaskRequest subtaskRequest = CreateTaskRequest.CreateSubtaskRequest.builder()
@@ -501,8 +778,11 @@ public class TaskServiceImpl implements TaskService {
     public List<TaskDTO> getSubtasks(UUID parentTaskId) {
         log.debug("Getting subtasks for task: {}", parentTaskId);
         
-        List<Task> subtasks = taskRepository.findSubtasksByParentTaskId(parentTaskId);
-        return taskMapper.toDTOList(subtasks);
+        TaskQueryFilter filter = TaskQueryFilter.builder()
+                .parentTaskId(parentTaskId)
+                .build();
+        return taskQueryRepository.findPage(filter, Pageable.unpaged(Sort.by("taskNumber")),
+                TaskFetchPlan.LIST, taskMapper::toDTO).getContent();
     }
 
     @Override
@@ -523,6 +803,62 @@ public class TaskServiceImpl implements TaskService {
         return taskMapper.toDTO(subtask);
     }
 
+    @Override
+    public TaskDTO moveSubtask(UUID taskId, MoveSubtaskRequest request) {
+        log.info("Moving task {} under task {}", taskId, request.getParentTaskId());
+        
+        Task task = taskRepository.findByIdAndDeletedFalse(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", taskId));
+        
+        UUID parentTaskId = request.getParentTaskId();
+        if (parentTaskId == null) {
+            task.setParentTask(null);
+        } else {
+            // One closure lookup instead of walking up the new parent's ancestors
+            if (parentTaskId.equals(taskId) || taskHierarchyRepository.isAncestor(taskId, parentTaskId)) {
+                throw new BadRequestException("A task cannot be moved below itself or one of its subtasks");
+            }
+            Task parentTask = taskRepository.findByIdAndDeletedFalse(parentTaskId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Parent task", "id", parentTaskId));
+            if (!resolveWorkspaceId(parentTask).equals(resolveWorkspaceId(task))) {
+                throw new BadRequestException("Parent task belongs to another workspace");
+            }
+            untierParent(parentTask);
+            task.setParentTask(parentTask);
+        }
+        task = taskRepository.save(task);
+        
+        log.info("Task {} moved successfully", taskId);
+        return taskMapper.toDTO(task);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskTreeNodeDTO> getSubtree(UUID taskId, Integer maxDepth) {
+        log.debug("Getting subtree of task {} to depth {}", taskId, maxDepth);
+        
+        taskRepository.findByIdAndDeletedFalse(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", taskId));
+        
+        int depth = maxDepth != null ? Math.min(Math.max(maxDepth, 1), maxTreeDepth) : maxTreeDepth;
+        return taskHierarchyRepository.findSubtree(taskId, depth).stream()
+                .map(node -> new TaskTreeNodeDTO(node.depth(), taskMapper.toSummaryDTO(node.task())))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskTreeNodeDTO> getAncestors(UUID taskId) {
+        log.debug("Getting ancestors of task {}", taskId);
+        
+        taskRepository.findByIdAndDeletedFalse(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", taskId));
+        
+        return taskHierarchyRepository.findAncestors(taskId).stream()
+                .map(node -> new TaskTreeNodeDTO(node.depth(), taskMapper.toSummaryDTO(node.task())))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public TaskDependencyDTO addDependency(UUID taskId, AddTaskDependencyRequest request) {
         log.info("Adding dependency from task {} to task {}", request.getPredecessorId(), taskId);
@@ -533,23 +869,32 @@ public class TaskServiceImpl implements TaskService {
         Task predecessor = taskRepository.findByIdAndDeletedFalse(request.getPredecessorId())
                 .orElseThrow(() -> new ResourceNotFoundException("Predecessor task", "id", request.getPredecessorId()));
         
-        // Check for circular dependency
-        if (taskRepository.hasCircularDependency(taskId)) {
+        String dependencyType = request.getDependencyType() != null ? request.getDependencyType() : "finish_start";
+        if (!TaskDependencyRepository.DEPENDENCY_TYPES.contains(dependencyType)) {
+            throw new BadRequestException("Invalid dependency type: " + dependencyType);
+        }
+        
+        // Check for circular dependency while no other dependency change in the workspace can interleave
+        taskDependencyRepository.lockWorkspaceDependencies(resolveWorkspaceId(task));
+        if (dependencyGraphService.wouldCreateCycle(predecessor.getId(), taskId)) {
             throw new ConflictException("Adding this dependency would create a circular reference");
         }
         
-        task.getDependencies().add(predecessor);
-        taskRepository.save(task);
+        TaskDependencyRepository.DependencyEdge edge = taskDependencyRepository.upsert(predecessor.getId(), taskId,
+                dependencyType, request.getLagDays() != null ? request.getLagDays() : 0,
+                TenantContext.getCurrentUserId());
+        schedulingService.propagateDateShifts(List.of(predecessor.getId()));
         
         TaskDependencyDTO dto = TaskDependencyDTO.builder()
+                .id(edge.id())
                 .predecessorId(predecessor.getId())
                 .predecessorTitle(predecessor.getTitle())
                 .predecessorStatus(predecessor.getStatus().name())
                 .successorId(task.getId())
                 .successorTitle(task.getTitle())
                 .successorStatus(task.getStatus().name())
-                .dependencyType(request.getDependencyType())
-                .lagDays(request.getLagDays())
+                .dependencyType(edge.dependencyType())
+                .lagDays(edge.lagDays())
                 .createdAt(Instant.now())
                 .build();
         
@@ -576,8 +921,7 @@ public class TaskServiceImpl implements TaskService {
         Task task = taskRepository.findByIdAndDeletedFalse(taskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task", "id", taskId));
         
-        task.getDependencies().removeIf(dep -> dep.getId().equals(dependsOnTaskId));
-        taskRepository.save(task);
+        taskDependencyRepository.delete(dependsOnTaskId, task.getId());
         
         log.info("Dependency removed successfully");
     }
@@ -590,14 +934,19 @@ public class TaskServiceImpl implements TaskService {
         Task task = taskRepository.findByIdAndDeletedFalse(taskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task", "id", taskId));
         
-        return task.getDependencies().stream()
-                .map(dep -> TaskDependencyDTO.builder()
-                        .predecessorId(dep.getId())
-                        .predecessorTitle(dep.getTitle())
-                        .predecessorStatus(dep.getStatus().name())
-                        .successorId(task.getId())
-                        .successorTitle(task.getTitle())
-                        .successorStatus(task.getStatus().name())
+        return taskDependencyRepository.findPredecessors(task.getId()).stream()
+                .map(dependency -> TaskDependencyDTO.builder()
+                        .id(dependency.edge().id())
+                        .predecessorId(dependency.edge().predecessorId())
+                        .predecessorTitle(dependency.predecessorTitle())
+                        .predecessorStatus(dependency.predecessorStatus())
+                        .successorId(dependency.edge().successorId())
+                        .successorTitle(dependency.successorTitle())
+                        .successorStatus(dependency.successorStatus())
+                        .dependencyType(dependency.edge().dependencyType())
+                        .lagDays(dependency.edge().lagDays())
+                        .createdAt(dependency.createdAt())
+                        .createdBy(dependency.createdBy())
                         .build())
                 .collect(Collectors.toList());
     }
@@ -617,112 +966,139 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
-    public TaskDTO duplicateTask(UUID taskId, DuplicateTaskRequest request) {
+    public TaskDuplicationDTO duplicateTask(UUID taskId, DuplicateTaskRequest request) {
         log.info("Duplicating task: {}", taskId);
         
         Task originalTask = taskRepository.findByIdAndDeletedFalse(taskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task", "id", taskId));
+        UUID workspaceId = resolveWorkspaceId(originalTask);
+        UUID userId = TenantContext.getCurrentUserId();
         
-        // Generate new task number
-        UUID workspaceId = TenantContext.getCurrentWorkspaceId();
-        Long taskNumber = taskRepository.findMaxTaskNumberByWorkspaceId(workspaceId)
-                .map(n -> n + 1)
-                .orElse(1L);
-        
-        // Create duplicate
-        Task duplicate = Task.builder()
-                .title(request.getNewTitle() != null ? request.getNewTitle() : originalTask.getTitle() + " (Copy)")
-                .description(originalTask.getDescription())
-                .taskNumber(taskNumber)
-                .status(TaskStatus.TODO)
-                .priority(originalTask.getPriority())
-                .startDate(originalTask.getStartDate())
-                .dueDate(originalTask.getDueDate())
-                .estimatedHours(originalTask.getEstimatedHours())
-                .storyPoints(originalTask.getStoryPoints())
-                .build();
-        
-        // Set assignees
-        if (request.getAssigneeIds() != null && !request.getAssigneeIds().isEmpty()) {
-            User assignee = userRepository.findById(request.getAssigneeIds().iterator().next())
-                    .orElse(null);
-            duplicate.setAssignee(assignee);
-        } else if (originalTask.getAssignee() != null) {
-            duplicate.setAssignee(originalTask.getAssignee());
+        if (!projectRepository.existsById(request.getProjectId())) {
+            throw new ResourceNotFoundException("Project", "id", request.getProjectId());
         }
-        
-        // Copy tags if requested
-        if (request.isIncludeTags() && originalTask.getTags() != null) {
-            duplicate.setTags(new HashSet<>(originalTask.getTags()));
+        if (request.getSectionId() != null && !sectionRepository.existsById(request.getSectionId())) {
+            throw new ResourceNotFoundException("Section", "id", request.getSectionId());
         }
-        
-        // Copy followers if requested
-        if (request.isIncludeFollowers() && originalTask.getFollowers() != null) {
-            duplicate.setFollowers(new HashSet<>(originalTask.getFollowers()));
+        UUID assigneeId = request.getAssigneeIds() != null && !request.getAssigneeIds().isEmpty()
+                ? userRepository.findById(request.getAssigneeIds().iterator().next()).map(User::getId).orElse(null)
+                : null;
+        
+        TaskDuplicationEngine.DuplicationSpec spec = new TaskDuplicationEngine.DuplicationSpec(
+                taskId, workspaceId, userId,
+                request.getNewTitle() != null ? request.getNewTitle() : originalTask.getTitle() + " (Copy)",
+                assigneeId, request.getProjectId(), request.getSectionId(),
+                request.isIncludeSubtasks(), request.isIncludeDependencies(), request.isIncludeCustomFields(),
+                request.isIncludeTags(), request.isIncludeFollowers());
+        
+        // The roll-up count is the number of live descendants
+        int size = request.isIncludeSubtasks() ? 1 + originalTask.getRollupTaskCount() : 1;
+        if (size <= duplicationAsyncThreshold) {
+            UUID copyId = taskDuplicationEngine.duplicate(spec, null);
+            Task duplicate = taskRepository.findById(copyId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Task", "id", copyId));
+            log.info("Task duplicated successfully with id: {}", copyId);
+            return TaskDuplicationDTO.builder().task(taskMapper.toDTO(duplicate)).build();
         }
         
-        duplicate = taskRepository.save(duplicate);
-        
-        // Add to project
-        addTaskToProjectInternal(duplicate, request.getProjectId(), request.getSectionId());
-        
-        // Duplicate subtasks if requested
-        if (request.isIncludeSubtasks() && originalTask.getSubtasks() != null) {
-            for (Task subtask : originalTask.getSubtasks()) {
-                duplicateSubtask(subtask, duplicate);
+        // Too large to copy within the request: copy in the background once the job is committed
+        UUID jobId = backgroundJobRepository.create(BackgroundJobRepository.JobType.TASK_DUPLICATION,
+                workspaceId, taskId, size, userId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                taskDuplicationEngine.runJob(jobId, spec);
             }
-        }
-        
-        log.info("Task duplicated successfully with id: {}", duplicate.getId());
-        return taskMapper.toDTO(duplicate);
+        });
+        log.info("Duplication of task {} with {} tasks queued as job {}", taskId, size, jobId);
+        return TaskDuplicationDTO.builder()
+                .job(backgroundJobRepository.findById(jobId).map(BackgroundJobService::toDTO).orElse(null))
+                .build();
     }
 
+    // Each chunk commits on its own, so a bulk edit holds its row locks for one chunk at a time;
+    // a failure leaves the chunks before it committed
     @Override
-    public List<TaskDTO> bulkUpdateTasks(BulkTaskUpdateRequest request) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkTaskUpdateResult bulkUpdateTasks(BulkTaskUpdateRequest request) {
         log.info("Bulk updating {} tasks with operation: {}", request.getTaskIds().size(), request.getOperation());
         
-        List<Task> tasks = taskRepository.findAllById(request.getTaskIds());
-        
-        for (Task task : tasks) {
-            switch (request.getOperation()) {
-                case UPDATE_STATUS:
-                    if (request.getStatus() != null) {
-                        task.setStatus(TaskStatus.valueOf(request.getStatus()));
-                        if (request.getStatus().equals("COMPLETED")) {
-                            task.setCompletedAt(Instant.now());
-                        }
-                    }
-                    break;
-                case UPDATE_PRIORITY:
-                    if (request.getPriority() != null) {
-                        task.setPriority(Priority.valueOf(request.getPriority()));
-                    }
-                    break;
-                case UPDATE_ASSIGNEE:
-                    if (request.getAssigneeId() != null) {
-                        User assignee = userRepository.findById(request.getAssigneeId()).orElse(null);
-                        task.setAssignee(assignee);
-                    }
-                    break;
-                case UPDATE_DUE_DATE:
-                    task.setDueDate(request.getDueDate());
-                    break;
-                case COMPLETE:
-                    task.setStatus(TaskStatus.COMPLETED);
-                    task.setCompletedAt(Instant.now());
-                    break;
-                case DELETE:
-                    taskRepository.softDelete(task.getId());
-                    break;
-                default:
-                    log.warn("Unsupported bulk operation: {}", request.getOperation());
-            }
+        UUID workspaceId = TenantContext.getCurrentWorkspaceId();
+        UUID userId = TenantContext.getCurrentUserId();
+        Set<UUID> taskIds = request.getTaskIds();
+        
+        List<TaskBulkRepository.TaskVersion> updated;
+        BackgroundJobDTO job = null;
+        switch (request.getOperation()) {
+            case UPDATE_STATUS:
+                if (request.getStatus() == null) {
+                    throw new BadRequestException("Status is required for " + request.getOperation());
+                }
+                TaskStatus status = TaskStatus.valueOf(request.getStatus());
+                updated = inChunkTransactions(taskIds, chunk -> updateStatus(chunk, status, workspaceId, userId));
+                break;
+            case UPDATE_PRIORITY:
+                if (request.getPriority() == null) {
+                    throw new BadRequestException("Priority is required for " + request.getOperation());
+                }
+                Priority priority = Priority.valueOf(request.getPriority());
+                updated = inChunkTransactions(taskIds, chunk -> 
+                        taskBulkRepository.updatePriority(chunk, priority, workspaceId, userId));
+                break;
+            case UPDATE_ASSIGNEE:
+                if (request.getAssigneeId() != null && !userRepository.existsById(request.getAssigneeId())) {
+                    throw new ResourceNotFoundException("User", "id", request.getAssigneeId());
+                }
+                updated = inChunkTransactions(taskIds, chunk -> 
+                        taskBulkRepository.updateAssignee(chunk, request.getAssigneeId(), workspaceId, userId));
+                break;
+            case UPDATE_DUE_DATE:
+                updated = inChunkTransactions(taskIds, chunk -> {
+                    List<TaskBulkRepository.TaskVersion> versions = 
+                            taskBulkRepository.updateDueDate(chunk, request.getDueDate(), workspaceId, userId);
+                    schedulingService.propagateDateShifts(versions.stream()
+                            .map(TaskBulkRepository.TaskVersion::id)
+                            .collect(Collectors.toList()));
+                    return versions;
+                });
+                break;
+            case COMPLETE:
+                updated = inChunkTransactions(taskIds, chunk -> 
+                        updateStatus(chunk, TaskStatus.COMPLETED, workspaceId, userId));
+                break;
+            case DELETE:
+                // A bulk deletion has no single top task, so the deletion itself is the job's subject
+                UUID deletionId = UUID.randomUUID();
+                updated = inChunkTransactions(taskIds, chunk -> 
+                        taskBulkRepository.softDelete(chunk, deletionId, workspaceId, userId));
+                job = transactionTemplate.execute(tx -> cascadeDeleteService.cascadeDelete(
+                        CascadeDeleteEngine.CascadeSpec.task(deletionId, deletionId, userId),
+                        resolveWorkspaceId(workspaceId), cascadeDeleteRepository.countLiveDescendants(deletionId)));
+                break;
+            default:
+                throw new BadRequestException("Unsupported bulk operation: " + request.getOperation());
         }
         
-        tasks = taskRepository.saveAll(tasks);
+        BulkTaskUpdateResult result = BulkTaskUpdateResult.builder()
+                .operation(request.getOperation().name())
+                .requestedCount(taskIds.size())
+                .updatedCount(updated.size())
+                .updated(updated.stream()
+                        .map(v -> new BulkTaskUpdateResult.TaskVersionDTO(v.id(), v.version()))
+                        .collect(Collectors.toList()))
+                .job(job)
+                .build();
+        
+        if (request.isReturnTasks() && request.getOperation() != BulkTaskUpdateRequest.BulkOperation.DELETE) {
+            List<UUID> updatedIds = updated.stream()
+                    .map(TaskBulkRepository.TaskVersion::id)
+                    .collect(Collectors.toList());
+            result.setTasks(transactionTemplate.execute(tx -> 
+                    taskQueryRepository.findAllById(updatedIds, TaskFetchPlan.LIST, taskMapper::toDTO)));
+        }
         
-        log.info("Bulk update completed successfully");
-        return taskMapper.toDTOList(tasks);
+        log.info("Bulk update completed: {} of {} tasks updated", updated.size(), taskIds.size());
+        return result;
     }
 
     @Override
@@ -745,20 +1121,20 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<TaskDTO> getTasksByProject(UUID projectId) {
+    public List<TaskSummaryDTO> getTasksByProject(UUID projectId) {
         log.debug("Getting tasks for project: {}", projectId);
         
-        Page<Task> tasks = taskRepository.findByProjectId(projectId, PageRequest.of(0, 1000));
-        return taskMapper.toDTOList(tasks.getContent());
+        TaskQueryFilter filter = TaskQueryFilter.builder().projectId(projectId).build();
+        return taskMapper.toSummaryDTOList(findAllSummaries(filter, TaskSortKey.POSITION));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<TaskDTO> getTasksByUser(UUID userId) {
+    public List<TaskSummaryDTO> getTasksByUser(UUID userId) {
         log.debug("Getting tasks for user: {}", userId);
         
-        Page<Task> tasks = taskRepository.findByAssigneeId(userId, PageRequest.of(0, 1000));
-        return taskMapper.toDTOList(tasks.getContent());
+        TaskQueryFilter filter = TaskQueryFilter.builder().assigneeId(userId).build();
+        return taskMapper.toSummaryDTOList(findAllSummaries(filter, TaskSortKey.CREATED_AT));
     }
 
     @Override
@@ -768,6 +1144,7 @@ public class TaskServiceImpl implements TaskService {
         Task task = taskRepository.findByIdAndDeletedFalse(taskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task", "id", taskId));
         
+        TaskStatus previousStatus = task.getStatus();
         TaskStatus newStatus = TaskStatus.valueOf(status.toUpperCase());
         task.setStatus(newStatus);
         
@@ -778,6 +1155,8 @@ public class TaskServiceImpl implements TaskService {
         }
         
         task = taskRepository.save(task);
+        recordTransition(task, previousStatus);
+        untierIfReopened(task);
         
         log.info("Task status updated successfully");
         return taskMapper.toDTO(task);
@@ -785,15 +1164,28 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<TaskDTO> searchTasks(String query, UUID workspaceId) {
+    public List<TaskSearchResultDTO> searchTasks(String query, UUID workspaceId, int limit) {
         log.debug("Searching tasks with query: {} in workspace: {}", query, workspaceId);
         
-        Page<Task> tasks = taskRepository.findWithFilters(
-            null, null, null, null, null, null, null, null, query, 
-            PageRequest.of(0, 100, Sort.by("createdAt").descending())
-        );
+        UUID searchWorkspaceId = workspaceId != null ? workspaceId : TenantContext.getCurrentWorkspaceId();
+        if (searchWorkspaceId == null) {
+            throw new BadRequestException("Workspace context is required");
+        }
         
-        return taskMapper.toDTOList(tasks.getContent());
+        return taskSearchRepository.search(searchWorkspaceId, query, Math.max(1, Math.min(limit, maxPageSize)))
+                .stream()
+                .map(hit -> TaskSearchResultDTO.builder()
+                        .id(hit.id())
+                        .taskNumber(hit.taskNumber())
+                        .title(hit.title())
+                        .status(hit.status())
+                        .priority(hit.priority())
+                        .dueDate(hit.dueDate())
+                        .rank(hit.rank())
+                        .titleHighlight(hit.titleHighlight())
+                        .snippet(hit.snippet())
+                        .build())
+                .toList();
     }
 
     // Helper methods
@@ -808,23 +1200,11 @@ public class TaskServiceImpl implements TaskService {
             return;
         }
         
-        // Get position for the task
-        Integer position;
-        if (sectionId != null) {
-            position = taskProjectRepository.findMaxPositionInSection(projectId, sectionId)
-                    .map(p -> p + 1)
-                    .orElse(0);
-        } else {
-            position = taskProjectRepository.findMaxPositionInProjectWithNoSection(projectId)
-                    .map(p -> p + 1)
-                    .orElse(0);
-        }
-        
-        // Create task-project relationship
+        // Append to the end of the column
         TaskProject taskProject = TaskProject.builder()
                 .task(task)
                 .project(project)
-                .position(position)
+                .rankKey(rankInColumn(projectId, sectionId, task.getId(), null, null, null))
                 .addedAt(Instant.now())
                 .addedBy(TenantContext.getCurrentUserId())
                 .build();
@@ -835,22 +1215,71 @@ public class TaskServiceImpl implements TaskService {
             taskProject.setSection(section);
         }
         
-        taskProjectRepository.save(taskProject);
+        saveRanked(taskProject);
         
         // Update task's projects set
         task.getProjects().add(project);
     }
     
+    /**
+     * Rank placing a task in a project column: below {@code afterTaskId}, above {@code beforeTaskId},
+     * at a 0-based index, or at the end when none is given. Only the neighbouring ranks are read.
+     */
+    private String rankInColumn(UUID projectId, UUID sectionId, UUID taskId,
+                                UUID afterTaskId, UUID beforeTaskId, Integer index) {
+        String before;
+        String after;
+        if (afterTaskId != null) {
+            before = neighbourRank(projectId, sectionId, afterTaskId);
+            after = taskProjectRankRepository.findRankAfter(projectId, sectionId, before, taskId);
+        } else if (beforeTaskId != null) {
+            after = neighbourRank(projectId, sectionId, beforeTaskId);
+            before = taskProjectRankRepository.findRankBefore(projectId, sectionId, after, taskId);
+        } else if (index != null) {
+            String[] around = taskProjectRankRepository.findRanksAround(projectId, sectionId, index, taskId);
+            before = around[0];
+            after = around[1];
+        } else {
+            before = taskProjectRankRepository.findLastRank(projectId, sectionId);
+            after = null;
+        }
+        
+        String rank = LexoRank.between(before, after);
+        if (rank.length() > LexoRank.STORED_LENGTH) {
+            // The gap has been split too often since the last background rebalance
+            log.info("Rebalancing ranks of section {} in project {} inline", sectionId, projectId);
+            taskProjectRankRepository.rebalance(projectId, sectionId);
+            return rankInColumn(projectId, sectionId, taskId, afterTaskId, beforeTaskId, index);
+        }
+        return rank;
+    }
+    
+    private String neighbourRank(UUID projectId, UUID sectionId, UUID neighbourTaskId) {
+        String rank = taskProjectRankRepository.findRank(projectId, sectionId, neighbourTaskId);
+        if (rank == null) {
+            throw new BadRequestException("Task " + neighbourTaskId + " is not in the target section");
+        }
+        return rank;
+    }
+    
+    private void saveRanked(TaskProject taskProject) {
+        try {
+            taskProjectRepository.saveAndFlush(taskProject);
+        } catch (DataIntegrityViolationException e) {
+            // Another task took the same rank concurrently
+            throw new ConflictException("The section was reordered concurrently, please retry", e);
+        }
+    }
+    
     private Task createSubtaskInternal(Task parentTask, CreateTaskRequest.CreateSubtaskRequest request) {
-        UUID workspaceId = TenantContext.getCurrentWorkspaceId();
-        Long taskNumber = taskRepository.findMaxTaskNumberByWorkspaceId(workspaceId)
-                .map(n -> n + 1)
-                .orElse(1L);
+        UUID workspaceId = resolveWorkspaceId(parentTask);
+        Long taskNumber = taskNumberAllocator.next(workspaceId);
         
         Task subtask = Task.builder()
                 .title(request.getTitle())
                 .description(request.getDescription())
                 .taskNumber(taskNumber)
+                .workspaceId(workspaceId)
                 .status(TaskStatus.TODO)
                 .priority(Priority.valueOf(request.getPriority()))
                 .dueDate(request.getDueDate())
@@ -872,22 +1301,129 @@ public class TaskServiceImpl implements TaskService {
         return subtask;
     }
     
-    private Task duplicateSubtask(Task originalSubtask, Task newParent) {
-        UUID workspaceId = TenantContext.getCurrentWorkspaceId();
-        Long taskNumber = taskRepository.findMaxTaskNumberByWorkspaceId(workspaceId)
-                .map(n -> n + 1)
-                .orElse(1L);
-        
-        Task duplicate = Task.builder()
-                .title(originalSubtask.getTitle())
-                .description(originalSubtask.getDescription())
-                .taskNumber(taskNumber)
-                .status(TaskStatus.TODO)
-                .priority(originalSubtask.getPriority())
-                .dueDate(originalSubtask.getDueDate())
-                .parentTask(newParent)
+    /**
+     * Read every task matching the filter in keyset chunks, so no listing is silently cut off
+     */
+    private List<TaskSummaryView> findAllSummaries(TaskQueryFilter filter, TaskSortKey sortKey) {
+        List<TaskSummaryView> tasks = new ArrayList<>();
+        TaskCursor after = null;
+        List<TaskQueryRepository.Row<TaskSummaryView>> rows;
+        do {
+            rows = taskQueryRepository.findSummarySlice(filter, sortKey, false, after, maxPageSize);
+            for (TaskQueryRepository.Row<TaskSummaryView> row : rows) {
+                tasks.add(row.item());
+                after = new TaskCursor(sortKey, false, row.sortValue(), row.item().id());
+            }
+        } while (rows.size() == maxPageSize);
+        return tasks;
+    }
+    
+    private TaskQueryFilter toQueryFilter(TaskFilterRequest filter) {
+        try {
+            return TaskQueryFilter.builder()
+                    .workspaceId(TenantContext.getCurrentWorkspaceId())
+                    .projectId(filter.getProjectId())
+                    .sectionId(filter.getSectionId())
+                    .assigneeId(filter.getAssigneeId())
+                    .createdById(filter.getCreatedById())
+                    .parentTaskId(filter.getParentTaskId())
+                    .followerId(filter.getFollowerId())
+                    .tagIds(filter.getTagIds())
+                    .status(filter.getStatus() != null ? TaskStatus.valueOf(filter.getStatus().toUpperCase()) : null)
+                    .priority(filter.getPriority() != null ? Priority.valueOf(filter.getPriority().toUpperCase()) : null)
+                    .startDateFrom(filter.getStartDateFrom())
+                    .startDateTo(filter.getStartDateTo())
+                    .dueDateFrom(filter.getDueDateFrom())
+                    .dueDateTo(filter.getDueDateTo())
+                    .completedFrom(filter.getCompletedFrom() != null
+                            ? filter.getCompletedFrom().atStartOfDay(ZoneOffset.UTC).toInstant() : null)
+                    .completedTo(filter.getCompletedTo() != null
+                            ? filter.getCompletedTo().plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant() : null)
+                    .search(filter.getSearch() != null && !filter.getSearch().isBlank() ? filter.getSearch().trim() : null)
+                    .subtask(filter.getIsSubtask())
+                    .completed(filter.getIsCompleted())
+                    .overdue(filter.getIsOverdue())
+                    .recurring(filter.getIsRecurring())
+                    .hasComments(filter.getHasComments())
+                    .hasAttachments(filter.getHasAttachments())
+                    .hasDependencies(filter.getHasDependencies())
+                    .hasSection(filter.getHasSection())
+                    .build();
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid task filter: " + e.getMessage());
+        }
+    }
+    
+    private <T> List<T> inChunkTransactions(Collection<UUID> taskIds, Function<List<UUID>, List<T>> update) {
+        List<T> updated = new ArrayList<>(taskIds.size());
+        for (List<UUID> chunk : taskBulkRepository.chunks(taskIds)) {
+            updated.addAll(transactionTemplate.execute(tx -> update.apply(chunk)));
+        }
+        return updated;
+    }
+    
+    // Bulk status update whose changes go to the status history
+    private List<TaskBulkRepository.TaskVersion> updateStatus(Collection<UUID> taskIds, TaskStatus status,
+                                                              UUID workspaceId, UUID userId) {
+        List<TaskBulkRepository.StatusChange> changes = taskBulkRepository.updateStatus(taskIds, status,
+                workspaceId, userId);
+        if (status != TaskStatus.COMPLETED && status != TaskStatus.CANCELLED) {
+            taskTieringRepository.restoreCompletedTrees(changes.stream()
+                    .map(TaskBulkRepository.StatusChange::id)
+                    .collect(Collectors.toList()));
+        }
+        transitionWriter.recordAll(changes.stream()
+                .map(c -> new TaskStatusTransitionWriter.Change(c.id(), resolveWorkspaceId(c.workspaceId()),
+                        c.previousStatus(), status, userId))
+                .collect(Collectors.toList()));
+        return changes.stream()
+                .map(TaskBulkRepository.StatusChange::taskVersion)
+                .collect(Collectors.toList());
+    }
+    
+    private TaskStatusTransitionDTO toTransitionDTO(TaskStatusTransitionRepository.StatusTransition transition) {
+        return TaskStatusTransitionDTO.builder()
+                .id(transition.id())
+                .taskId(transition.taskId())
+                .fromStatus(transition.fromStatus())
+                .toStatus(transition.toStatus())
+                .transitionedAt(transition.transitionedAt())
+                .transitionedBy(transition.transitionedBy())
                 .build();
-        
-        return taskRepository.save(duplicate);
     }
-}
\ No newline at end of file
+    
+    private void recordTransition(Task task, TaskStatus previousStatus) {
+        transitionWriter.record(task.getId(), resolveWorkspaceId(task), previousStatus, task.getStatus(),
+                TenantContext.getCurrentUserId());
+    }
+    
+    // An open task has no place in the cold tier: its tree comes back, unless it went cold with an
+    // archived project, which keeps it there
+    private void untierIfReopened(Task task) {
+        if (task.getArchivedAt() != null
+                && task.getStatus() != TaskStatus.COMPLETED && task.getStatus() != TaskStatus.CANCELLED) {
+            taskTieringRepository.restoreCompletedTrees(List.of(task.getId()));
+        }
+    }
+    
+    // A hot task must not hang below a cold one, so a cold parent's tree comes back first
+    private void untierParent(Task parentTask) {
+        if (parentTask.getArchivedAt() != null) {
+            taskTieringRepository.restoreTrees(List.of(parentTask.getId()));
+        }
+    }
+    
+    private UUID resolveWorkspaceId(Task relatedTask) {
+        return resolveWorkspaceId(relatedTask.getWorkspaceId());
+    }
+
+    private UUID resolveWorkspaceId(UUID taskWorkspaceId) {
+        UUID workspaceId = taskWorkspaceId != null
+                ? taskWorkspaceId
+                : TenantContext.getCurrentWorkspaceId();
+        if (workspaceId == null) {
+            throw new BadRequestException("Workspace context is required");
+        }
+        return workspaceId;
+    }
+}
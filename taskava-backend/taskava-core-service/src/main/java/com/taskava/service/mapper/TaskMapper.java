@@ -4,9 +4,11 @@ import com.taskava.data.entity.Task;
 import com.taskava.data.entity.User;
 import com.taskava.data.entity.Tag;
 import com.taskava.data.entity.Attachment;
+import com.taskava.data.query.TaskSummaryView;
 import com.taskava.service.dto.*;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -96,10 +98,14 @@ public class TaskMapper {
                     .collect(Collectors.toList()));
         }
         
-        // Set comment count
-        if (task.getComments() != null) {
-            dto.setCommentCount(task.getComments().size());
-        }
+        // Set counts from the trigger-maintained counters instead of loading the collections
+        dto.setCommentCount(task.getCommentsCount());
+        dto.setAttachmentCount(task.getAttachmentsCount());
+        dto.setSubtaskCount(task.getSubtasksCount());
+        dto.setCompletedSubtaskCount(task.getCompletedSubtasksCount());
+        dto.setFollowerCount(task.getFollowersCount());
+        dto.setRollup(toRollupDTO(task.getRollupTaskCount(), task.getRollupProgressSum(),
+                task.getRollupEstimatedHours(), task.getRollupActualHours(), task.getRollupStoryPoints()));
         
         // Map recurrence settings
         if (task.getRecurrenceSettings() != null) {
@@ -125,6 +131,70 @@ public class TaskMapper {
                 .build();
     }
     
+    public TaskSummaryDTO toSummaryDTO(TaskSummaryView view) {
+        if (view == null) {
+            return null;
+        }
+        
+        TaskSummaryDTO dto = TaskSummaryDTO.builder()
+                .id(view.id())
+                .title(view.title())
+                .taskNumber(view.taskNumber())
+                .status(view.status() != null ? view.status().name() : null)
+                .priority(view.priority() != null ? view.priority().name() : null)
+                .startDate(view.startDate())
+                .dueDate(view.dueDate())
+                .completedAt(view.completedAt())
+                .progressPercentage(view.progressPercentage())
+                .storyPoints(view.storyPoints())
+                .parentTaskId(view.parentTaskId())
+                .subtaskCount(view.subtaskCount())
+                .completedSubtaskCount(view.completedSubtaskCount())
+                .commentCount(view.commentCount())
+                .attachmentCount(view.attachmentCount())
+                .followerCount(view.followerCount())
+                .rollup(toRollupDTO(view.rollupTaskCount(), view.rollupProgressSum(),
+                        view.rollupEstimatedHours(), view.rollupActualHours(), view.rollupStoryPoints()))
+                .createdAt(view.createdAt())
+                .updatedAt(view.updatedAt())
+                .build();
+        
+        // Map assignee from the joined columns
+        if (view.assigneeId() != null) {
+            dto.setAssignee(UserDTO.builder()
+                    .id(view.assigneeId())
+                    .firstName(view.assigneeFirstName())
+                    .lastName(view.assigneeLastName())
+                    .avatarUrl(view.assigneeAvatarUrl())
+                    .build());
+        }
+        
+        return dto;
+    }
+    
+    public List<TaskSummaryDTO> toSummaryDTOList(List<TaskSummaryView> views) {
+        if (views == null) {
+            return List.of();
+        }
+        return views.stream()
+                .map(this::toSummaryDTO)
+                .collect(Collectors.toList());
+    }
+    
+    private TaskRollupDTO toRollupDTO(int taskCount, long progressSum, BigDecimal estimatedHours,
+                                      BigDecimal actualHours, long storyPoints) {
+        if (taskCount == 0) {
+            return null;
+        }
+        return TaskRollupDTO.builder()
+                .taskCount(taskCount)
+                .progressPercentage((int) Math.round((double) progressSum / taskCount))
+                .estimatedHours(estimatedHours)
+                .actualHours(actualHours)
+                .storyPoints(storyPoints)
+                .build();
+    }
+    
     private UserDTO toUserDTO(User user) {
         if (user == null) {
             return null;
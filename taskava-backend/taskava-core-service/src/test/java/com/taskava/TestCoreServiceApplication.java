@@ -0,0 +1,11 @@
+package com.taskava;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Minimal boot configuration for slice tests of the core service module, scanning the data access
+ * module's entities and repositories
+ */
+@SpringBootApplication
+public class TestCoreServiceApplication {
+}
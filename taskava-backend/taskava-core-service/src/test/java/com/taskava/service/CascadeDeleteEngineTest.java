@@ -0,0 +1,116 @@
+package com.taskava.service;
+
+import com.taskava.data.DatabaseTest;
+import com.taskava.data.repository.BackgroundJobRepository;
+import com.taskava.data.repository.CascadeDeleteRepository;
+import com.taskava.data.repository.TaskBulkRepository;
+import com.taskava.service.CascadeDeleteEngine.CascadeSpec;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that cascading deletes and their restores round-trip, and that restoring one task
+ * brings back only its own subtree
+ */
+@Import({CascadeDeleteEngine.class, CascadeDeleteRepository.class, BackgroundJobRepository.class,
+        TaskBulkRepository.class})
+class CascadeDeleteEngineTest extends DatabaseTest {
+
+    @Autowired
+    private CascadeDeleteEngine engine;
+
+    @Autowired
+    private CascadeDeleteRepository cascadeDeleteRepository;
+
+    @Autowired
+    private TaskBulkRepository taskBulkRepository;
+
+    @Test
+    void testTaskDeleteAndRestoreRoundTrip() {
+        UUID root = task(null);
+        UUID parent = task(root);
+        UUID child = task(parent);
+        UUID grandchild = task(child);
+        UUID deletionId = UUID.randomUUID();
+
+        cascadeDeleteRepository.markTaskDeleted(parent, deletionId, userId);
+        assertEquals(2, engine.delete(CascadeSpec.task(parent, deletionId, userId), null));
+        assertEquals(List.of(), live(parent, child, grandchild));
+        assertEquals(0, rollupTaskCount(root));
+
+        assertEquals(2, engine.restore(CascadeSpec.task(parent, deletionId, userId), null));
+        assertEquals(List.of(parent, child, grandchild), live(parent, child, grandchild));
+        assertEquals(3, rollupTaskCount(root));
+        assertEquals(0, cascadeDeleteRepository.countTasks(deletionId));
+    }
+
+    @Test
+    void testRestoreOfOneTaskOfABulkDeletionLeavesTheOthersDeleted() {
+        UUID first = task(null);
+        UUID firstChild = task(first);
+        UUID second = task(null);
+        UUID secondChild = task(second);
+        UUID deletionId = UUID.randomUUID();
+
+        taskBulkRepository.softDelete(List.of(first, second), deletionId, workspaceId, userId);
+        engine.delete(CascadeSpec.task(deletionId, deletionId, userId), null);
+        assertEquals(List.of(), live(first, firstChild, second, secondChild));
+
+        assertEquals(1, engine.restore(CascadeSpec.task(first, deletionId, userId), null));
+
+        assertEquals(List.of(first, firstChild), live(first, firstChild, second, secondChild));
+        assertEquals(2, cascadeDeleteRepository.countTasks(deletionId));
+    }
+
+    @Test
+    void testRestoreOfASubtaskLeavesItsParentDeleted() {
+        UUID parent = task(null);
+        UUID child = task(parent);
+        UUID grandchild = task(child);
+        UUID deletionId = UUID.randomUUID();
+
+        cascadeDeleteRepository.markTaskDeleted(parent, deletionId, userId);
+        engine.delete(CascadeSpec.task(parent, deletionId, userId), null);
+
+        assertEquals(1, cascadeDeleteRepository.countSubtreeTasks(deletionId, child));
+        engine.restore(CascadeSpec.task(child, deletionId, userId), null);
+
+        assertEquals(List.of(child, grandchild), live(parent, child, grandchild));
+    }
+
+    @Test
+    void testProjectDeleteAndRestoreRoundTrip() {
+        UUID projectId = project("Launch");
+        UUID otherProjectId = project("Roadmap");
+        UUID own = task(null);
+        UUID ownChild = task(own);
+        UUID shared = task(null);
+        addToProject(own, projectId);
+        addToProject(shared, projectId);
+        addToProject(shared, otherProjectId);
+        UUID deletionId = UUID.randomUUID();
+
+        cascadeDeleteRepository.markProjectDeleted(projectId, deletionId, userId);
+        assertEquals(2, engine.delete(CascadeSpec.project(projectId, deletionId, userId), null));
+        assertEquals(List.of(shared), live(own, ownChild, shared));
+
+        assertEquals(2, engine.restore(CascadeSpec.project(projectId, deletionId, userId), null));
+        assertEquals(List.of(own, ownChild, shared), live(own, ownChild, shared));
+        assertFalse(jdbc.queryForObject("SELECT is_deleted FROM projects WHERE id = ?", Boolean.class, projectId));
+    }
+
+    // The given tasks that are live, in the order given
+    private List<UUID> live(UUID... taskIds) {
+        return tasksWhere("is_deleted = FALSE", taskIds);
+    }
+
+    private int rollupTaskCount(UUID taskId) {
+        return jdbc.queryForObject("SELECT rollup_task_count FROM tasks WHERE id = ?", Integer.class, taskId);
+    }
+}
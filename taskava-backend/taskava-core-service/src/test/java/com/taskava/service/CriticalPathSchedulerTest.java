@@ -0,0 +1,151 @@
+package com.taskava.service;
+
+import com.taskava.common.exception.ConflictException;
+import com.taskava.data.repository.TaskDependencyRepository.DependencyEdge;
+import com.taskava.service.CriticalPathScheduler.Span;
+import com.taskava.service.CriticalPathScheduler.TaskSchedule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CriticalPathSchedulerTest {
+
+    private static final LocalDate DAY_ZERO = LocalDate.of(2024, 1, 1);
+
+    private final UUID a = UUID.randomUUID();
+    private final UUID b = UUID.randomUUID();
+    private final UUID c = UUID.randomUUID();
+    private final UUID d = UUID.randomUUID();
+
+    @Test
+    void testDependencyTypesAndLagGiveTheSuccessorsEarliestStart() {
+        // Starts on day 10 and is due on day 12; the successor lasts two days
+        Span predecessor = new Span(10, 13);
+
+        assertEquals(13, CriticalPathScheduler.earliestStart(edge(a, b, "finish_start", 0), predecessor, 2));
+        assertEquals(15, CriticalPathScheduler.earliestStart(edge(a, b, "finish_start", 2), predecessor, 2));
+        assertEquals(12, CriticalPathScheduler.earliestStart(edge(a, b, "finish_start", -1), predecessor, 2));
+        assertEquals(13, CriticalPathScheduler.earliestStart(edge(a, b, null, 0), predecessor, 2));
+        assertEquals(11, CriticalPathScheduler.earliestStart(edge(a, b, "start_start", 1), predecessor, 2));
+        assertEquals(11, CriticalPathScheduler.earliestStart(edge(a, b, "finish_finish", 0), predecessor, 2));
+        assertEquals(8, CriticalPathScheduler.earliestStart(edge(a, b, "start_finish", 0), predecessor, 2));
+    }
+
+    @Test
+    void testDependencyTypesAndLagGiveThePredecessorsLatestFinish() {
+        // Starts on day 20 and is due on day 21; the predecessor lasts three days
+        Span successor = new Span(20, 22);
+
+        assertEquals(20, CriticalPathScheduler.latestFinish(edge(a, b, "finish_start", 0), successor, 3));
+        assertEquals(18, CriticalPathScheduler.latestFinish(edge(a, b, "finish_start", 2), successor, 3));
+        assertEquals(22, CriticalPathScheduler.latestFinish(edge(a, b, "start_start", 1), successor, 3));
+        assertEquals(22, CriticalPathScheduler.latestFinish(edge(a, b, "finish_finish", 0), successor, 3));
+        assertEquals(25, CriticalPathScheduler.latestFinish(edge(a, b, "start_finish", 0), successor, 3));
+    }
+
+    @Test
+    void testScheduleFindsTheCriticalPathAndSlackOfTheOtherBranch() {
+        Map<UUID, Span> planned = new LinkedHashMap<>();
+        planned.put(d, span(0, 2));
+        planned.put(c, span(0, 1));
+        planned.put(b, span(0, 3));
+        planned.put(a, span(0, 2));
+        List<DependencyEdge> edges = List.of(
+                edge(a, b, "finish_start", 0), edge(a, c, "finish_start", 0),
+                edge(b, d, "finish_start", 0), edge(c, d, "finish_start", 0));
+
+        List<TaskSchedule> schedules = CriticalPathScheduler.schedule(planned, edges);
+        Map<UUID, TaskSchedule> byTask = byTask(schedules);
+
+        assertEquals(a, schedules.get(0).taskId());
+        assertEquals(d, schedules.get(3).taskId());
+        assertSchedule(byTask.get(a), 0, 1, 0, 1, 0);
+        assertSchedule(byTask.get(b), 2, 4, 2, 4, 0);
+        assertSchedule(byTask.get(c), 2, 2, 4, 4, 2);
+        assertSchedule(byTask.get(d), 5, 6, 5, 6, 0);
+        assertEquals(Set.of(a, b, d), schedules.stream()
+                .filter(TaskSchedule::critical).map(TaskSchedule::taskId).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void testScheduleKeepsPlannedStartsAndAppliesLag() {
+        Map<UUID, Span> planned = Map.of(a, span(0, 2), b, span(5, 1), c, span(0, 2));
+        List<DependencyEdge> edges = List.of(edge(a, b, "finish_start", 0), edge(a, c, "start_start", 1));
+
+        Map<UUID, TaskSchedule> byTask = byTask(CriticalPathScheduler.schedule(planned, edges));
+
+        // b is planned later than a allows, so a may slip until b's start
+        assertSchedule(byTask.get(b), 5, 5, 5, 5, 0);
+        assertSchedule(byTask.get(c), 1, 2, 4, 5, 3);
+        assertSchedule(byTask.get(a), 0, 1, 3, 4, 3);
+    }
+
+    @Test
+    void testScheduleIgnoresDependenciesOnUndatedTasks() {
+        Map<UUID, Span> planned = Map.of(b, span(0, 1));
+
+        List<TaskSchedule> schedules = CriticalPathScheduler.schedule(planned, List.of(edge(a, b, "finish_start", 5)));
+
+        assertEquals(1, schedules.size());
+        assertSchedule(schedules.get(0), 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    void testPropagateCarriesShiftsDownstream() {
+        Map<UUID, Span> dates = Map.of(a, span(0, 2), b, span(1, 2), c, span(3, 1), d, span(10, 1));
+        List<DependencyEdge> incoming = List.of(
+                edge(a, b, "finish_start", 0), edge(b, c, "finish_start", 0), edge(c, d, "finish_start", 0));
+
+        Map<UUID, Span> shifted = CriticalPathScheduler.propagate(dates, incoming, Set.of());
+
+        assertEquals(Map.of(b, span(2, 2), c, span(4, 1)), shifted);
+    }
+
+    @Test
+    void testPropagateLeavesFixedAndUndatedTasks() {
+        Map<UUID, Span> dates = Map.of(a, span(0, 2), b, span(1, 2), c, span(3, 1));
+        List<DependencyEdge> incoming = List.of(
+                edge(a, b, "finish_start", 0), edge(b, c, "finish_start", 0), edge(a, d, "finish_start", 0));
+
+        assertEquals(Map.of(), CriticalPathScheduler.propagate(dates, incoming, Set.of(b)));
+    }
+
+    @Test
+    void testCycleIsRejected() {
+        List<DependencyEdge> edges = List.of(edge(a, b, "finish_start", 0), edge(b, a, "finish_start", 0));
+
+        assertThrows(ConflictException.class, () -> CriticalPathScheduler.topologicalOrder(List.of(a, b), edges));
+    }
+
+    private static Span span(long day, long days) {
+        long start = DAY_ZERO.toEpochDay() + day;
+        return new Span(start, start + days);
+    }
+
+    private static DependencyEdge edge(UUID predecessorId, UUID successorId, String type, int lagDays) {
+        return new DependencyEdge(UUID.randomUUID(), predecessorId, successorId, type, lagDays);
+    }
+
+    private static Map<UUID, TaskSchedule> byTask(List<TaskSchedule> schedules) {
+        return schedules.stream().collect(Collectors.toMap(TaskSchedule::taskId, Function.identity()));
+    }
+
+    // Days are counted from day zero; finishes are inclusive
+    private static void assertSchedule(TaskSchedule schedule, int earliestStart, int earliestFinish,
+                                       int latestStart, int latestFinish, long slackDays) {
+        assertEquals(DAY_ZERO.plusDays(earliestStart), schedule.earliestStart());
+        assertEquals(DAY_ZERO.plusDays(earliestFinish), schedule.earliestFinish());
+        assertEquals(DAY_ZERO.plusDays(latestStart), schedule.latestStart());
+        assertEquals(DAY_ZERO.plusDays(latestFinish), schedule.latestFinish());
+        assertEquals(slackDays, schedule.slackDays());
+    }
+}
@@ -0,0 +1,107 @@
+package com.taskava.service;
+
+import com.taskava.data.DatabaseTest;
+import com.taskava.data.repository.TaskDependencyRepository;
+import com.taskava.data.repository.TaskDependencyRepository.DependencyEdge;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that a cached dependency graph is never served for a version it was not built from,
+ * and that cycle checks see the dependencies of deleted tasks
+ */
+@Import({DependencyGraphService.class, TaskDependencyRepository.class})
+class DependencyGraphServiceTest extends DatabaseTest {
+
+    @Autowired
+    private DependencyGraphService dependencyGraphService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID projectId;
+
+    @BeforeEach
+    void setUp() {
+        projectId = project("Launch");
+    }
+
+    @Test
+    void testGraphCachedByRolledBackTransactionIsNotReused() {
+        UUID a = projectTask();
+        UUID b = projectTask();
+        UUID c = projectTask();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            dependOn(a, b);
+            assertEquals(List.of(a), predecessors(dependencyGraphService.getGraph(projectId)));
+            status.setRollbackOnly();
+        });
+        dependOn(b, c);
+
+        assertEquals(List.of(b), predecessors(dependencyGraphService.getGraph(projectId)));
+    }
+
+    @Test
+    void testCommittedChangesMoveTheVersionForward() {
+        UUID a = projectTask();
+        UUID b = projectTask();
+        dependOn(a, b);
+        long before = dependencyGraphService.getGraph(projectId).getVersion();
+
+        jdbc.update("DELETE FROM task_dependencies_v2 WHERE predecessor_id = ?", a);
+
+        DependencyGraph graph = dependencyGraphService.getGraph(projectId);
+        assertTrue(graph.getVersion() > before);
+        assertTrue(graph.getEdges().isEmpty());
+    }
+
+    @Test
+    void testCycleThroughADeletedTaskIsRejected() {
+        UUID x = projectTask();
+        UUID d = projectTask();
+        UUID y = projectTask();
+        dependOn(x, d);
+        dependOn(d, y);
+        jdbc.update("UPDATE tasks SET is_deleted = TRUE, deleted_at = NOW() WHERE id = ?", d);
+
+        assertTrue(dependencyGraphService.getGraph(projectId).getEdges().isEmpty());
+        assertTrue(dependencyGraphService.wouldCreateCycle(y, x));
+        assertTrue(dependencyGraphService.downstreamEdges(List.of(x)).isEmpty());
+    }
+
+    @Test
+    void testCycleThroughADeletedTaskOutsideProjectsIsRejected() {
+        UUID x = projectTask();
+        UUID d = task(null, Map.of("is_deleted", true, "deleted_at", daysAgo(0)));
+        UUID y = projectTask();
+        dependOn(x, d);
+        dependOn(d, y);
+
+        assertTrue(dependencyGraphService.wouldCreateCycle(y, x));
+    }
+
+    private UUID projectTask() {
+        UUID taskId = task(null);
+        addToProject(taskId, projectId);
+        return taskId;
+    }
+
+    private void dependOn(UUID predecessorId, UUID successorId) {
+        jdbc.update("INSERT INTO task_dependencies_v2 (predecessor_id, successor_id, dependency_type) VALUES (?, ?, 'finish_start')",
+                predecessorId, successorId);
+    }
+
+    private static List<UUID> predecessors(DependencyGraph graph) {
+        return graph.getEdges().stream().map(DependencyEdge::predecessorId).toList();
+    }
+}
@@ -0,0 +1,161 @@
+package com.taskava.service;
+
+import com.taskava.data.DatabaseTest;
+import com.taskava.data.repository.BackgroundJobRepository;
+import com.taskava.data.repository.BackgroundJobRepository.JobType;
+import com.taskava.data.repository.ProjectCopyRepository;
+import com.taskava.data.repository.TaskCopyRepository;
+import com.taskava.data.repository.TaskHierarchyRepository;
+import com.taskava.service.ProjectDuplicationEngine.DuplicationSpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Verifies that copied tasks land in the copies of their sections at their sources' ranks, that
+ * copied automation rules point at the copied sections, and that a cancelled job discards the copy
+ */
+@TestPropertySource(properties = "project-duplication.chunk-size=2")
+@Import({ProjectDuplicationEngine.class, ProjectCopyRepository.class, TaskHierarchyRepository.class,
+        TaskCopyRepository.class, BackgroundJobRepository.class, TaskNumberAllocator.class})
+class ProjectDuplicationEngineTest extends DatabaseTest {
+
+    @Autowired
+    private ProjectDuplicationEngine engine;
+
+    @SpyBean
+    private BackgroundJobRepository jobRepository;
+
+    private UUID projectId;
+    private UUID todo;
+    private UUID done;
+    private UUID first;
+    private UUID second;
+    private UUID third;
+    private UUID subtask;
+
+    @BeforeEach
+    void setUp() {
+        projectId = project("Launch");
+        todo = section("To do", 0);
+        done = section("Done", 1);
+        first = task(null);
+        second = task(null);
+        third = task(null);
+        subtask = task(first);
+        addToProject(first, projectId, todo);
+        addToProject(second, projectId, done);
+        addToProject(third, projectId, todo);
+        // Numbers of the copies follow those given to the sources
+        jdbc.update("INSERT INTO workspace_task_sequences (workspace_id, next_value, updated_at) VALUES (?, 5, NOW())",
+                workspaceId);
+    }
+
+    @Test
+    void testTasksAreCopiedIntoTheCopiedSectionsAtTheirRanks() {
+        UUID copyId = UUID.randomUUID();
+        Map<UUID, UUID> sectionCopies = engine.copyProject(projectId, copyId, "Launch again", userId);
+
+        assertEquals(4, engine.copyTasks(new DuplicationSpec(projectId, copyId, workspaceId, userId, sectionCopies),
+                null));
+
+        Map<UUID, UUID> copies = copies();
+        for (UUID source : List.of(first, second, third)) {
+            Map<String, Object> membership = membership(source, projectId);
+            assertEquals(Map.of("section_id", sectionCopies.get((UUID) membership.get("section_id")),
+                    "rank_key", membership.get("rank_key")), membership(copies.get(source), copyId));
+        }
+        assertEquals(copies.get(first), jdbc.queryForObject("SELECT parent_task_id FROM tasks WHERE id = ?",
+                UUID.class, copies.get(subtask)));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM task_projects WHERE task_id = ?", Integer.class,
+                copies.get(subtask)));
+        assertEquals(List.of(copies.get(first), copies.get(third)), jdbc.queryForList(
+                "SELECT task_id FROM task_projects WHERE section_id = ? ORDER BY rank_key", UUID.class,
+                sectionCopies.get(todo)));
+    }
+
+    @Test
+    void testAutomationRulesPointAtTheCopiedSections() {
+        UUID elsewhere = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO automation_rules (project_id, name, trigger_type, trigger_config, conditions, actions)
+                VALUES (?, 'Close when done', 'TASK_MOVED', ?::jsonb, ?::jsonb, ?::jsonb)
+                """, projectId,
+                "{\"section_id\": \"" + done + "\"}",
+                "[{\"project_id\": \"" + projectId + "\"}]",
+                "[{\"type\": \"MOVE\", \"section_id\": \"" + todo + "\", \"assignee_id\": \"" + elsewhere + "\"}]");
+        UUID copyId = UUID.randomUUID();
+
+        Map<UUID, UUID> sectionCopies = engine.copyProject(projectId, copyId, "Launch again", userId);
+
+        Map<String, Object> rule = jdbc.queryForMap("""
+                SELECT trigger_config->>'section_id' AS trigger_section, conditions->0->>'project_id' AS project,
+                       actions->0->>'section_id' AS action_section, actions->0->>'assignee_id' AS assignee,
+                       execution_count
+                FROM automation_rules WHERE project_id = ?
+                """, copyId);
+        assertEquals(sectionCopies.get(done).toString(), rule.get("trigger_section"));
+        assertEquals(copyId.toString(), rule.get("project"));
+        assertEquals(sectionCopies.get(todo).toString(), rule.get("action_section"));
+        assertEquals(elsewhere.toString(), rule.get("assignee"));
+        assertEquals(0, rule.get("execution_count"));
+    }
+
+    @Test
+    void testCancelledJobDiscardsTheCopy() {
+        UUID copyId = UUID.randomUUID();
+        Map<UUID, UUID> sectionCopies = engine.copyProject(projectId, copyId, "Launch again", userId);
+        UUID jobId = jobRepository.create(JobType.PROJECT_DUPLICATION, workspaceId, projectId, 4, userId);
+        doReturn(false).doReturn(true).when(jobRepository).isCancelRequested(jobId);
+
+        engine.runJob(jobId, new DuplicationSpec(projectId, copyId, workspaceId, userId, sectionCopies));
+
+        assertEquals("CANCELLED", jdbc.queryForObject("SELECT status FROM background_jobs WHERE id = ?",
+                String.class, jobId));
+        assertTrue(jdbc.queryForObject("SELECT is_deleted FROM projects WHERE id = ?", Boolean.class, copyId));
+        assertEquals(0, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM project_sections WHERE project_id = ? AND is_deleted = FALSE",
+                Integer.class, copyId));
+        Map<UUID, UUID> copies = copies();
+        assertEquals(2, copies.size());
+        assertEquals(List.of(), tasksWhere("is_deleted = FALSE", copies.values().toArray(UUID[]::new)));
+    }
+
+    private UUID section(String name, int position) {
+        UUID sectionId = UUID.randomUUID();
+        jdbc.update("INSERT INTO project_sections (id, project_id, name, position) VALUES (?, ?, ?, ?)",
+                sectionId, projectId, name, position);
+        return sectionId;
+    }
+
+    private Map<String, Object> membership(UUID taskId, UUID projectId) {
+        return jdbc.queryForMap("SELECT section_id, rank_key FROM task_projects WHERE task_id = ? AND project_id = ?",
+                taskId, projectId);
+    }
+
+    // Copies by source, matched by title
+    private Map<UUID, UUID> copies() {
+        Map<String, UUID> sourcesByTitle = new HashMap<>();
+        jdbc.query("SELECT id, title FROM tasks WHERE workspace_id = ? AND created_by_user_id IS NULL",
+                rs -> {
+                    sourcesByTitle.put(rs.getString("title"), rs.getObject("id", UUID.class));
+                }, workspaceId);
+        Map<UUID, UUID> copies = new HashMap<>();
+        jdbc.query("SELECT id, title FROM tasks WHERE workspace_id = ? AND created_by_user_id = ?",
+                rs -> {
+                    copies.put(sourcesByTitle.get(rs.getString("title")), rs.getObject("id", UUID.class));
+                }, workspaceId, userId);
+        return copies;
+    }
+}
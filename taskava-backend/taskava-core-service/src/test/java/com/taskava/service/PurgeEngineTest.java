@@ -0,0 +1,159 @@
+package com.taskava.service;
+
+import com.taskava.data.DatabaseTest;
+import com.taskava.data.repository.PurgeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that the purge removes soft-deleted rows that other rows still reference, children
+ * before parents, and keeps what is still referenced by live rows or inside the retention window
+ */
+@TestPropertySource(properties = {
+        "purge.batch-size=2",
+        "purge.max-rows-per-second=1000000"
+})
+@Import({PurgeEngine.class, PurgeRepository.class, SimpleMeterRegistry.class})
+class PurgeEngineTest extends DatabaseTest {
+
+    @Autowired
+    private PurgeEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("UPDATE purge_state SET paused = FALSE");
+    }
+
+    @Test
+    void testPurgeRemovesLinkedTasksChildrenFirst() {
+        UUID live = task(null);
+        UUID parent = deletedTask(null, 40);
+        UUID child = deletedTask(parent, 40);
+        UUID grandchild = deletedTask(child, 40);
+        UUID comment = comment(child, null, null);
+        comment(child, comment, null);
+        attachment(child, null, null);
+        jdbc.update("INSERT INTO task_dependencies (task_id, depends_on_task_id) VALUES (?, ?)", child, live);
+        jdbc.update("INSERT INTO task_dependencies (task_id, depends_on_task_id) VALUES (?, ?)", live, grandchild);
+        jdbc.update("""
+                INSERT INTO task_reminders (task_id, workspace_id, recipient_id, kind, due_at)
+                VALUES (?, ?, ?, 'OVERDUE', NOW() - INTERVAL '40 days')
+                """, grandchild, workspaceId, userId);
+        jdbc.update("""
+                INSERT INTO notifications (user_id, workspace_id, task_id, kind)
+                VALUES (?, ?, ?, 'OVERDUE')
+                """, userId, workspaceId, grandchild);
+
+        engine.purge();
+
+        assertEquals(0, count("tasks", parent, child, grandchild));
+        assertEquals(1, count("tasks", live));
+        assertEquals(0, countWhere("comments", "task_id", child));
+        assertEquals(0, countWhere("attachments", "task_id", child));
+        assertEquals(0, countWhere("task_dependencies", "task_id", live));
+        assertEquals(0, countWhere("task_reminders", "task_id", grandchild));
+        assertEquals(0, countWhere("notifications", "task_id", grandchild));
+    }
+
+    @Test
+    void testPurgeRemovesRepliesBeforeTheirComments() {
+        UUID task = task(null);
+        UUID comment = comment(task, null, 40);
+        UUID reply = comment(task, comment, 40);
+        attachment(null, reply, 40);
+        UUID kept = comment(task, null, 40);
+        comment(task, kept, null);
+
+        engine.purge();
+
+        assertEquals(0, count("comments", comment, reply));
+        assertEquals(0, countWhere("attachments", "comment_id", reply));
+        assertEquals(1, count("comments", kept));
+    }
+
+    @Test
+    void testPurgeKeepsDeletedTasksStillReferencedOrRecentlyDeleted() {
+        UUID parent = deletedTask(null, 40);
+        UUID liveChild = task(parent);
+        UUID recent = deletedTask(null, 5);
+
+        engine.purge();
+
+        assertEquals(1, count("tasks", parent));
+        assertEquals(1, count("tasks", liveChild));
+        assertEquals(1, count("tasks", recent));
+    }
+
+    @Test
+    void testPurgeRemovesDeletedProjectAfterItsSectionsAndTasks() {
+        UUID projectId = UUID.randomUUID();
+        UUID sectionId = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO projects (id, name, workspace_id, is_deleted, deleted_at)
+                VALUES (?, 'Launch', ?, TRUE, NOW() - INTERVAL '40 days')
+                """, projectId, workspaceId);
+        jdbc.update("""
+                INSERT INTO project_sections (id, project_id, name, position, is_deleted, deleted_at)
+                VALUES (?, ?, 'To do', 0, TRUE, NOW() - INTERVAL '40 days')
+                """, sectionId, projectId);
+        UUID deleted = deletedTask(null, 40);
+        UUID live = task(null);
+        addToProject(deleted, projectId, sectionId);
+        addToProject(live, projectId, sectionId);
+
+        engine.purge();
+
+        assertEquals(0, count("projects", projectId));
+        assertEquals(0, count("project_sections", sectionId));
+        assertEquals(0, count("tasks", deleted));
+        assertEquals(1, count("tasks", live));
+        assertEquals(0, countWhere("task_projects", "task_id", live));
+    }
+
+    private UUID deletedTask(UUID parentId, int deletedDaysAgo) {
+        return task(parentId, Map.of("is_deleted", true, "deleted_at", daysAgo(deletedDaysAgo)));
+    }
+
+    // A comment, deleted the given number of days ago, or live when null
+    private UUID comment(UUID taskId, UUID parentCommentId, Integer deletedDaysAgo) {
+        UUID commentId = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO comments (id, task_id, author_id, parent_comment_id, content, is_deleted, deleted_at)
+                VALUES (?, ?, ?, ?, 'Looks good', ?, ?)
+                """, commentId, taskId, userId, parentCommentId, deletedDaysAgo != null, deletedAt(deletedDaysAgo));
+        return commentId;
+    }
+
+    private void attachment(UUID taskId, UUID commentId, Integer deletedDaysAgo) {
+        jdbc.update("""
+                INSERT INTO attachments (task_id, comment_id, file_name, file_url, is_deleted, deleted_at)
+                VALUES (?, ?, 'spec.pdf', 'https://files.acme.test/spec.pdf', ?, ?)
+                """, taskId, commentId, deletedDaysAgo != null, deletedAt(deletedDaysAgo));
+    }
+
+    private static Timestamp deletedAt(Integer deletedDaysAgo) {
+        return deletedDaysAgo != null ? daysAgo(deletedDaysAgo) : null;
+    }
+
+    private int count(String table, UUID... ids) {
+        int total = 0;
+        for (UUID id : ids) {
+            total += countWhere(table, "id", id);
+        }
+        return total;
+    }
+
+    private int countWhere(String table, String column, UUID id) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + column + " = ?", Integer.class, id);
+    }
+}
@@ -0,0 +1,118 @@
+package com.taskava.service;
+
+import com.taskava.data.entity.Task.RecurrenceType;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurrenceExpanderTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void testWeeklyRuleOccursOnEachOfItsDays() {
+        RecurrenceExpander expander = new RecurrenceExpander(RecurrenceType.WEEKLY, 1, "MON, wed,Friday", null,
+                MONDAY, null, null);
+
+        RecurrenceExpander.Expansion expansion = expander.expand(MONDAY, LocalDate.of(2024, 1, 14), 0, 100);
+
+        assertEquals(List.of(LocalDate.of(2024, 1, 3), LocalDate.of(2024, 1, 5), LocalDate.of(2024, 1, 8),
+                LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 12)), expansion.dates());
+        assertEquals(LocalDate.of(2024, 1, 14), expansion.through());
+        assertFalse(expansion.finished());
+    }
+
+    @Test
+    void testWeeklyIntervalSkipsWeeksAndResumesFromAnyDate() {
+        LocalDate tuesday = LocalDate.of(2024, 1, 2);
+        RecurrenceExpander expander = new RecurrenceExpander(RecurrenceType.WEEKLY, 2, "TUE", null,
+                tuesday, null, null);
+
+        assertEquals(List.of(LocalDate.of(2024, 1, 16), LocalDate.of(2024, 1, 30), LocalDate.of(2024, 2, 13)),
+                expander.expand(tuesday, LocalDate.of(2024, 2, 15), 0, 100).dates());
+        assertEquals(List.of(LocalDate.of(2024, 1, 30), LocalDate.of(2024, 2, 13)),
+                expander.expand(LocalDate.of(2024, 1, 20), LocalDate.of(2024, 2, 15), 1, 100).dates());
+    }
+
+    @Test
+    void testDailyIntervalStepsFromTheAnchor() {
+        RecurrenceExpander expander = new RecurrenceExpander(RecurrenceType.DAILY, 3, null, null,
+                MONDAY, null, null);
+
+        assertEquals(List.of(LocalDate.of(2024, 1, 4), LocalDate.of(2024, 1, 7), LocalDate.of(2024, 1, 10)),
+                expander.expand(MONDAY, LocalDate.of(2024, 1, 10), 0, 100).dates());
+        assertEquals(List.of(LocalDate.of(2024, 1, 7)),
+                expander.expand(LocalDate.of(2024, 1, 5), LocalDate.of(2024, 1, 8), 1, 100).dates());
+    }
+
+    @Test
+    void testMonthlyRuleClampsToShortMonths() {
+        LocalDate endOfJanuary = LocalDate.of(2024, 1, 31);
+        RecurrenceExpander expander = new RecurrenceExpander(RecurrenceType.MONTHLY, 1, null, null,
+                endOfJanuary, null, null);
+
+        assertEquals(List.of(LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 31), LocalDate.of(2024, 4, 30)),
+                expander.expand(endOfJanuary, LocalDate.of(2024, 4, 30), 0, 100).dates());
+    }
+
+    @Test
+    void testMonthlyIntervalOnTheRulesDayOfMonth() {
+        LocalDate anchor = LocalDate.of(2023, 11, 30);
+        RecurrenceExpander expander = new RecurrenceExpander(RecurrenceType.MONTHLY, 3, null, 30,
+                anchor, null, null);
+
+        assertEquals(List.of(LocalDate.of(2024, 2, 29), LocalDate.of(2024, 5, 30)),
+                expander.expand(anchor, LocalDate.of(2024, 6, 30), 0, 100).dates());
+    }
+
+    @Test
+    void testMaxOccurrencesCountsTheTemplate() {
+        RecurrenceExpander expander = new RecurrenceExpander(RecurrenceType.DAILY, 1, null, null,
+                MONDAY, null, 3);
+
+        RecurrenceExpander.Expansion expansion = expander.expand(MONDAY, LocalDate.of(2024, 12, 31), 0, 100);
+        assertEquals(List.of(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3)), expansion.dates());
+        assertTrue(expansion.finished());
+
+        RecurrenceExpander.Expansion exhausted = expander.expand(LocalDate.of(2024, 1, 3),
+                LocalDate.of(2024, 12, 31), 2, 100);
+        assertEquals(List.of(), exhausted.dates());
+        assertTrue(exhausted.finished());
+    }
+
+    @Test
+    void testEndDateIsTheLastPossibleOccurrence() {
+        RecurrenceExpander expander = new RecurrenceExpander(RecurrenceType.DAILY, 1, null, null,
+                MONDAY, LocalDate.of(2024, 1, 4), null);
+
+        RecurrenceExpander.Expansion expansion = expander.expand(MONDAY, LocalDate.of(2024, 12, 31), 0, 100);
+
+        assertEquals(List.of(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3), LocalDate.of(2024, 1, 4)),
+                expansion.dates());
+        assertTrue(expansion.finished());
+    }
+
+    @Test
+    void testLimitStopsAtTheLastDateReturned() {
+        RecurrenceExpander expander = new RecurrenceExpander(RecurrenceType.DAILY, 1, null, null,
+                MONDAY, null, null);
+
+        RecurrenceExpander.Expansion expansion = expander.expand(MONDAY, LocalDate.of(2024, 12, 31), 0, 2);
+
+        assertEquals(List.of(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3)), expansion.dates());
+        assertEquals(LocalDate.of(2024, 1, 3), expansion.through());
+        assertFalse(expansion.finished());
+    }
+
+    @Test
+    void testUnknownDaysFallBackToTheAnchorsDay() {
+        assertEquals(Set.of(DayOfWeek.MONDAY), RecurrenceExpander.parseDaysOfWeek("someday, x", MONDAY));
+        assertEquals(Set.of(DayOfWeek.TUESDAY, DayOfWeek.THURSDAY),
+                RecurrenceExpander.parseDaysOfWeek("tuesday,THU", MONDAY));
+    }
+}
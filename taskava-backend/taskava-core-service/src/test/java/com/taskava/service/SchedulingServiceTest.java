@@ -0,0 +1,89 @@
+package com.taskava.service;
+
+import com.taskava.data.DatabaseTest;
+import com.taskava.data.repository.TaskDependencyRepository;
+import com.taskava.data.repository.TaskScheduleRepository;
+import com.taskava.security.context.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that date shifts propagate only to tasks of the caller's workspace
+ */
+@Import({SchedulingService.class, DependencyGraphService.class, TaskDependencyRepository.class,
+        TaskScheduleRepository.class})
+class SchedulingServiceTest extends DatabaseTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+
+    @Autowired
+    private SchedulingService schedulingService;
+
+    private UUID otherWorkspaceId;
+
+    @BeforeEach
+    void setUp() {
+        otherWorkspaceId = UUID.randomUUID();
+        jdbc.update("INSERT INTO workspaces (id, name, organization_id) VALUES (?, 'Marketing', ?)",
+                otherWorkspaceId, organizationId);
+        TenantContext.setCurrentWorkspace(workspaceId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void testShiftsMoveOnlyTasksOfTheWorkspace() {
+        UUID changed = task(workspaceId, 0, 4);
+        UUID sameWorkspace = task(workspaceId, 5, 2);
+        UUID otherWorkspace = task(otherWorkspaceId, 5, 2);
+        dependOn(changed, sameWorkspace);
+        dependOn(changed, otherWorkspace);
+        jdbc.update("UPDATE tasks SET due_date = ? WHERE id = ?", MONDAY.plusDays(9), changed);
+
+        List<UUID> moved = schedulingService.propagateDateShifts(List.of(changed));
+
+        assertEquals(List.of(sameWorkspace), moved);
+        assertEquals(MONDAY.plusDays(5), startDate(otherWorkspace));
+    }
+
+    @Test
+    void testShiftsStopAtTasksOfOtherWorkspaces() {
+        UUID changed = task(workspaceId, 0, 4);
+        UUID otherWorkspace = task(otherWorkspaceId, 5, 2);
+        UUID behindOtherWorkspace = task(workspaceId, 8, 2);
+        dependOn(changed, otherWorkspace);
+        dependOn(otherWorkspace, behindOtherWorkspace);
+        jdbc.update("UPDATE tasks SET due_date = ? WHERE id = ?", MONDAY.plusDays(9), changed);
+
+        assertTrue(schedulingService.propagateDateShifts(List.of(changed)).isEmpty());
+        assertEquals(MONDAY.plusDays(5), startDate(otherWorkspace));
+        assertEquals(MONDAY.plusDays(8), startDate(behindOtherWorkspace));
+    }
+
+    private UUID task(UUID workspace, int startOffset, int days) {
+        return task(null, Map.of("workspace_id", workspace,
+                "start_date", MONDAY.plusDays(startOffset), "due_date", MONDAY.plusDays(startOffset + days)));
+    }
+
+    private void dependOn(UUID predecessorId, UUID successorId) {
+        jdbc.update("INSERT INTO task_dependencies_v2 (predecessor_id, successor_id, dependency_type) VALUES (?, ?, 'finish_start')",
+                predecessorId, successorId);
+    }
+
+    private LocalDate startDate(UUID taskId) {
+        return jdbc.queryForObject("SELECT start_date FROM tasks WHERE id = ?", LocalDate.class, taskId);
+    }
+}
@@ -0,0 +1,161 @@
+package com.taskava.service;
+
+import com.taskava.data.DatabaseTest;
+import com.taskava.data.repository.BackgroundJobRepository;
+import com.taskava.data.repository.BackgroundJobRepository.JobType;
+import com.taskava.data.repository.TaskCopyRepository;
+import com.taskava.data.repository.TaskHierarchyRepository;
+import com.taskava.data.repository.TaskProjectRankRepository;
+import com.taskava.service.TaskDuplicationEngine.DuplicationSpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doCallRealMethod;
+
+/**
+ * Verifies that a subtree duplicated over several chunks keeps its shape and only the
+ * dependencies inside it, and that a failed job discards what it had copied
+ */
+@TestPropertySource(properties = "task-duplication.chunk-size=2")
+@Import({TaskDuplicationEngine.class, TaskHierarchyRepository.class, TaskCopyRepository.class,
+        TaskProjectRankRepository.class, BackgroundJobRepository.class, TaskNumberAllocator.class})
+class TaskDuplicationEngineTest extends DatabaseTest {
+
+    @Autowired
+    private TaskDuplicationEngine engine;
+
+    @Autowired
+    private BackgroundJobRepository jobRepository;
+
+    @SpyBean
+    private TaskCopyRepository copyRepository;
+
+    private UUID projectId;
+    private UUID root;
+    private UUID a;
+    private UUID b;
+    private UUID a1;
+    private UUID a2;
+    private UUID b1;
+    private UUID outside;
+
+    // root -> (a -> (a1, a2), b -> b1), written level by level in chunks of two
+    @BeforeEach
+    void setUp() {
+        projectId = project("Launch");
+        root = task(null);
+        a = task(root);
+        b = task(root);
+        a1 = task(a, Map.of("status", "COMPLETED"));
+        a2 = task(a);
+        b1 = task(b);
+        outside = task(null);
+        addToProject(root, projectId);
+        addToProject(a, projectId);
+
+        dependOn(a1, b1);
+        dependOn(a2, outside);
+        dependOn(outside, b);
+        // Numbers of the copies follow those given to the sources
+        jdbc.update("INSERT INTO workspace_task_sequences (workspace_id, next_value, updated_at) VALUES (?, 8, NOW())",
+                workspaceId);
+    }
+
+    @Test
+    void testSubtreeIsCopiedAcrossChunks() {
+        UUID assignee = user();
+
+        UUID rootCopy = engine.duplicate(spec("Launch again", assignee), null);
+
+        Map<UUID, UUID> copies = copies();
+        assertEquals(6, copies.size());
+        assertEquals(rootCopy, copies.get(root));
+        assertEquals(Map.of("title", "Launch again", "assignee_id", assignee), jdbc.queryForMap(
+                "SELECT title, assignee_id FROM tasks WHERE id = ?", rootCopy));
+        assertNull(parentOf(rootCopy));
+        assertEquals(rootCopy, parentOf(copies.get(a)));
+        assertEquals(rootCopy, parentOf(copies.get(b)));
+        assertEquals(copies.get(a), parentOf(copies.get(a1)));
+        assertEquals(copies.get(a), parentOf(copies.get(a2)));
+        assertEquals(copies.get(b), parentOf(copies.get(b1)));
+        assertEquals("TODO", jdbc.queryForObject("SELECT status FROM tasks WHERE id = ?", String.class,
+                copies.get(a1)));
+
+        // Copies of the project's tasks are appended after them
+        List<UUID> column = jdbc.queryForList(
+                "SELECT task_id FROM task_projects WHERE project_id = ? ORDER BY rank_key", UUID.class, projectId);
+        assertEquals(4, column.size());
+        assertEquals(List.of(root, a), column.subList(0, 2));
+        assertEquals(Set.of(copies.get(a), rootCopy), Set.copyOf(column.subList(2, 4)));
+
+        List<Map<String, Object>> dependencies = jdbc.queryForList("""
+                SELECT predecessor_id, successor_id FROM task_dependencies_v2
+                WHERE predecessor_id = ANY(?::uuid[]) OR successor_id = ANY(?::uuid[])
+                """, ids(copies), ids(copies));
+        assertEquals(List.of(Map.of("predecessor_id", copies.get(a1), "successor_id", copies.get(b1))),
+                dependencies);
+    }
+
+    @Test
+    void testFailedJobDiscardsItsPartialCopy() {
+        UUID jobId = jobRepository.create(JobType.TASK_DUPLICATION, workspaceId, root, 6, userId);
+        doCallRealMethod()
+                .doThrow(new IllegalStateException("disk full"))
+                .when(copyRepository).copyTasks(anyList(), any());
+
+        assertThrows(IllegalStateException.class, () -> engine.duplicate(spec("Launch again", null), jobId));
+
+        Map<UUID, UUID> copies = copies();
+        assertEquals(2, copies.size());
+        assertEquals(List.of(), tasksWhere("is_deleted = FALSE", copies.values().toArray(UUID[]::new)));
+        assertEquals(7, jdbc.queryForObject("SELECT COUNT(*) FROM tasks WHERE workspace_id = ? AND is_deleted = FALSE",
+                Integer.class, workspaceId));
+    }
+
+    private DuplicationSpec spec(String title, UUID assigneeId) {
+        return new DuplicationSpec(root, workspaceId, userId, title, assigneeId, projectId, null,
+                true, true, false, false, false);
+    }
+
+    private void dependOn(UUID predecessorId, UUID successorId) {
+        jdbc.update("INSERT INTO task_dependencies_v2 (predecessor_id, successor_id, dependency_type) VALUES (?, ?, 'finish_start')",
+                predecessorId, successorId);
+    }
+
+    // Copies by source, matched by title; the copy of the root is the one without a source title
+    private Map<UUID, UUID> copies() {
+        Map<String, UUID> sourcesByTitle = new HashMap<>();
+        jdbc.query("SELECT id, title FROM tasks WHERE workspace_id = ? AND created_by_user_id IS NULL",
+                rs -> {
+                    sourcesByTitle.put(rs.getString("title"), rs.getObject("id", UUID.class));
+                }, workspaceId);
+        Map<UUID, UUID> copies = new HashMap<>();
+        jdbc.query("SELECT id, title FROM tasks WHERE workspace_id = ? AND created_by_user_id = ?",
+                rs -> {
+                    UUID source = sourcesByTitle.getOrDefault(rs.getString("title"), root);
+                    copies.put(source, rs.getObject("id", UUID.class));
+                }, workspaceId, userId);
+        return copies;
+    }
+
+    private UUID parentOf(UUID taskId) {
+        return jdbc.queryForObject("SELECT parent_task_id FROM tasks WHERE id = ?", UUID.class, taskId);
+    }
+
+    private static String[] ids(Map<UUID, UUID> copies) {
+        return copies.values().stream().map(UUID::toString).toArray(String[]::new);
+    }
+}
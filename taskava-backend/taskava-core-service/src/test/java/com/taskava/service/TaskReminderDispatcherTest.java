@@ -0,0 +1,88 @@
+package com.taskava.service;
+
+import com.taskava.data.DatabaseTest;
+import com.taskava.data.repository.NotificationRepository;
+import com.taskava.data.repository.TaskReminderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Verifies that a reminder is marked dispatched only once it was delivered to its recipient's inbox
+ */
+@Import({TaskReminderDispatcher.class, TaskReminderNotifier.class, TaskReminderRepository.class,
+        NotificationRepository.class})
+class TaskReminderDispatcherTest extends DatabaseTest {
+
+    @Autowired
+    private TaskReminderDispatcher dispatcher;
+
+    @SpyBean
+    private NotificationRepository notificationRepository;
+
+    private UUID reminderId;
+
+    @BeforeEach
+    void setUp() {
+        reminderId = UUID.randomUUID();
+        UUID taskId = task(null, Map.of("title", "Ship it", "assignee_id", userId));
+        jdbc.update("""
+            INSERT INTO task_reminders (id, task_id, workspace_id, recipient_id, kind, due_at)
+            VALUES (?, ?, ?, ?, 'OVERDUE', ?)
+            """, reminderId, taskId, workspaceId, userId, Timestamp.from(Instant.now()));
+    }
+
+    @Test
+    void testDeliveredReminderIsMarkedDispatched() {
+        dispatcher.dispatch();
+
+        assertTrue(dispatched());
+        assertEquals(1, notifications());
+        assertEquals("Ship it", jdbc.queryForObject(
+                "SELECT title FROM notifications WHERE reminder_id = ? AND user_id = ?", String.class, reminderId, userId));
+    }
+
+    @Test
+    void testReminderDispatchedAgainIsDeliveredOnce() {
+        dispatcher.dispatch();
+        jdbc.update("UPDATE task_reminders SET dispatched_at = NULL WHERE id = ?", reminderId);
+
+        dispatcher.dispatch();
+
+        assertTrue(dispatched());
+        assertEquals(1, notifications());
+    }
+
+    @Test
+    void testReminderNotDeliveredStaysPending() {
+        doThrow(new DataIntegrityViolationException("inbox unavailable")).when(notificationRepository)
+                .insertReminder(eq(userId), any(), any(), eq(reminderId), any(), any(), any());
+
+        dispatcher.dispatch();
+
+        assertFalse(dispatched());
+        assertEquals(0, notifications());
+    }
+
+    private boolean dispatched() {
+        return jdbc.queryForObject("SELECT dispatched_at IS NOT NULL FROM task_reminders WHERE id = ?",
+                Boolean.class, reminderId);
+    }
+
+    private int notifications() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM notifications WHERE reminder_id = ?", Integer.class, reminderId);
+    }
+}
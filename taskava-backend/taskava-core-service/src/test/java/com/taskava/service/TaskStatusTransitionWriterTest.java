@@ -0,0 +1,146 @@
+package com.taskava.service;
+
+import com.taskava.data.DatabaseTest;
+import com.taskava.data.entity.Task.TaskStatus;
+import com.taskava.data.repository.TaskStatusTransitionRepository;
+import com.taskava.data.repository.TaskStatusTransitionRepository.StatusTransition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Verifies that journaled transitions survive a failed flush and are written by the next one,
+ * and that only transitions of committed transactions are written
+ */
+@Import({TaskStatusTransitionWriter.class, TaskStatusTransitionJournal.class, TaskStatusTransitionRepository.class})
+class TaskStatusTransitionWriterTest extends DatabaseTest {
+
+    private static final Path JOURNAL_DIR = createJournalDir();
+
+    @Autowired
+    private TaskStatusTransitionWriter writer;
+
+    @Autowired
+    private TaskStatusTransitionJournal journal;
+
+    @SpyBean
+    private TaskStatusTransitionRepository transitionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID taskId;
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("task-transitions.journal-dir", JOURNAL_DIR::toString);
+    }
+
+    @BeforeEach
+    void setUp() {
+        taskId = task(null);
+
+        journal.rotate();
+        journal.closedSegments().forEach(journal::delete);
+    }
+
+    @Test
+    void testJournalIsReplayedAfterAFailedFlush() {
+        transactionTemplate.executeWithoutResult(status ->
+                writer.record(taskId, workspaceId, TaskStatus.TODO, TaskStatus.COMPLETED, null));
+
+        doThrow(new DataAccessResourceFailureException("Database unavailable"))
+                .when(transitionRepository).insertBatch(any());
+        writer.flush();
+        assertEquals(0, storedTransitions());
+
+        // The segment is still on disk for a journal opened after a restart
+        List<Path> segments = journal.closedSegments();
+        assertEquals(1, segments.size());
+        assertEquals(segments, reopenJournal().closedSegments());
+
+        Mockito.reset(transitionRepository);
+        writer.flush();
+
+        assertEquals(1, storedTransitions());
+        assertEquals(List.of(), journal.closedSegments());
+    }
+
+    @Test
+    void testTransitionsOfRolledBackTransactionsAreDropped() {
+        transactionTemplate.executeWithoutResult(status -> {
+            writer.record(taskId, workspaceId, TaskStatus.TODO, TaskStatus.IN_PROGRESS, null);
+            status.setRollbackOnly();
+        });
+        // Journaled, and then the commit failed
+        transactionTemplate.executeWithoutResult(status -> {
+            journal.append(transitionRepository.currentTransactionId(), List.of(transition()));
+            status.setRollbackOnly();
+        });
+
+        writer.flush();
+
+        assertEquals(0, storedTransitions());
+        assertEquals(List.of(), journal.closedSegments());
+    }
+
+    @Test
+    void testTransitionsOfATransactionInProgressWaitForItsCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            journal.append(transitionRepository.currentTransactionId(), List.of(transition()));
+            CompletableFuture.runAsync(writer::flush).join();
+
+            assertEquals(0, storedTransitions());
+            assertEquals(1, journal.closedSegments().size());
+        });
+
+        writer.flush();
+
+        assertEquals(1, storedTransitions());
+        assertEquals(List.of(), journal.closedSegments());
+    }
+
+    private StatusTransition transition() {
+        return new StatusTransition(UUID.randomUUID(), workspaceId, taskId, "TODO", "COMPLETED", Instant.now(), null);
+    }
+
+    private int storedTransitions() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM task_status_transitions WHERE workspace_id = ? AND task_id = ?",
+                Integer.class, workspaceId, taskId);
+    }
+
+    private static TaskStatusTransitionJournal reopenJournal() {
+        try {
+            return new TaskStatusTransitionJournal(JOURNAL_DIR.toString(), true);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path createJournalDir() {
+        try {
+            return Files.createTempDirectory("task-transitions");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
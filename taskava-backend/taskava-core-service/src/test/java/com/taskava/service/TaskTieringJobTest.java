@@ -0,0 +1,148 @@
+package com.taskava.service;
+
+import com.taskava.data.DatabaseTest;
+import com.taskava.data.repository.SchedulerLockRepository;
+import com.taskava.data.repository.TaskRepository;
+import com.taskava.data.repository.TaskTieringRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that tasks move to the cold tier and back whole, deepest tasks first, and that no hot
+ * task is ever left below a cold one
+ */
+@TestPropertySource(properties = "task-tiering.chunk-size=2")
+@Import({TaskTieringJob.class, TaskTieringRepository.class, SchedulerLockRepository.class})
+class TaskTieringJobTest extends DatabaseTest {
+
+    @Autowired
+    private TaskTieringJob job;
+
+    @Autowired
+    private TaskTieringRepository tieringRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Test
+    void testArchivedProjectTiersDeepestTasksFirst() {
+        UUID archivedProject = project("Launch", "ARCHIVED");
+        UUID root = task(null, "TODO", null);
+        UUID child = task(root, "TODO", null);
+        UUID grandchild = task(child, "TODO", null);
+        addToProject(root, archivedProject);
+        addToProject(child, archivedProject);
+
+        assertEquals(1, tieringRepository.archiveProjectTasksChunk(archivedProject, 1));
+        assertEquals(List.of(grandchild), archived(root, child, grandchild));
+
+        job.tierAll();
+
+        assertEquals(List.of(root, child, grandchild), archived(root, child, grandchild));
+        assertEquals(archivedProject, jdbc.queryForObject(
+                "SELECT archived_project_id FROM tasks WHERE id = ?", UUID.class, grandchild));
+        assertTrue(taskRepository.findByIdAndDeletedFalse(child).isPresent());
+        assertEquals(0, hotBelowCold());
+    }
+
+    @Test
+    void testTasksAboveATaskOfAnActiveProjectStayHot() {
+        UUID archivedProject = project("Launch", "ARCHIVED");
+        UUID activeProject = project("Roadmap", "ACTIVE");
+        UUID root = task(null, "TODO", null);
+        UUID child = task(root, "TODO", null);
+        UUID shared = task(child, "TODO", null);
+        UUID sibling = task(root, "TODO", null);
+        addToProject(root, archivedProject);
+        addToProject(shared, activeProject);
+
+        job.tierAll();
+
+        assertEquals(List.of(sibling), archived(root, child, shared, sibling));
+        assertEquals(0, hotBelowCold());
+    }
+
+    @Test
+    void testRestoringAProjectBringsItsTasksBack() {
+        UUID archivedProject = project("Launch", "ARCHIVED");
+        UUID root = task(null, "TODO", null);
+        UUID child = task(root, "TODO", null);
+        addToProject(root, archivedProject);
+        job.tierAll();
+        assertEquals(List.of(root, child), archived(root, child));
+
+        jdbc.update("UPDATE projects SET status = 'ACTIVE' WHERE id = ?", archivedProject);
+        assertEquals(2, tieringRepository.restoreProjectTasks(archivedProject));
+
+        assertEquals(List.of(), archived(root, child));
+    }
+
+    @Test
+    void testCompletedTreeComesBackWholeWhenReopenedAndStaysHot() {
+        UUID root = task(null, "COMPLETED", 120);
+        UUID child = task(root, "COMPLETED", 120);
+        UUID grandchild = task(child, "COMPLETED", 120);
+        UUID recent = task(null, "COMPLETED", 10);
+
+        job.tierAll();
+        assertEquals(List.of(root, child, grandchild), archived(root, child, grandchild, recent));
+
+        assertEquals(3, tieringRepository.restoreCompletedTrees(List.of(grandchild)));
+        assertEquals(List.of(), archived(root, child, grandchild));
+
+        // Brought back, the tree is no longer untouched long enough to move again
+        job.tierAll();
+        assertEquals(List.of(), archived(root, child, grandchild));
+    }
+
+    @Test
+    void testUnarchivingASubtaskBringsBackOnlyItsColdTree() {
+        UUID archivedProject = project("Launch", "ARCHIVED");
+        UUID activeProject = project("Roadmap", "ACTIVE");
+        UUID top = task(null, "TODO", null);
+        UUID child = task(top, "TODO", null);
+        UUID grandchild = task(child, "TODO", null);
+        UUID sibling = task(top, "TODO", null);
+        addToProject(top, activeProject);
+        addToProject(child, archivedProject);
+        addToProject(sibling, archivedProject);
+        job.tierAll();
+        assertEquals(List.of(child, grandchild, sibling), archived(top, child, grandchild, sibling));
+
+        assertEquals(2, tieringRepository.restoreTrees(List.of(grandchild)));
+        assertEquals(0, tieringRepository.restoreCompletedTrees(List.of(sibling)));
+
+        assertEquals(List.of(sibling), archived(top, child, grandchild, sibling));
+        assertEquals(0, hotBelowCold());
+    }
+
+    // A task with the given status, completed and last updated the given number of days ago
+    private UUID task(UUID parentId, String status, Integer completedDaysAgo) {
+        return completedDaysAgo != null
+                ? task(parentId, Map.of("status", status,
+                        "completed_at", daysAgo(completedDaysAgo), "updated_at", daysAgo(completedDaysAgo)))
+                : task(parentId, Map.of("status", status, "updated_at", daysAgo(0)));
+    }
+
+    // The given tasks that are archived, in the order given
+    private List<UUID> archived(UUID... taskIds) {
+        return tasksWhere("archived_at IS NOT NULL", taskIds);
+    }
+
+    // Hot tasks of the workspace with a cold parent
+    private int hotBelowCold() {
+        return jdbc.queryForObject("""
+                SELECT COUNT(*) FROM tasks c
+                JOIN tasks p ON p.id = c.parent_task_id
+                WHERE c.workspace_id = ? AND c.archived_at IS NULL AND p.archived_at IS NOT NULL
+                """, Integer.class, workspaceId);
+    }
+}
@@ -1,5 +1,6 @@
 package com.taskava.data.entity;
 
+import com.taskava.data.query.GapPositions;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.JdbcTypeCode;
@@ -159,7 +160,7 @@ public class Project extends BaseEntity {
     public ProjectSection addSection(String name, Integer position) {
         ProjectSection section = ProjectSection.builder()
                 .name(name)
-                .position(position != null ? position : sections.size())
+                .position(position != null ? position : (sections.size() + 1) * GapPositions.GAP)
                 .project(this)
                 .build();
         sections.add(section);
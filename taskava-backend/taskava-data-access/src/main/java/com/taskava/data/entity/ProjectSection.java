@@ -8,14 +8,10 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+// Positions are unique per project through the deferred uk_project_section_position constraint (V14)
 @Table(name = "project_sections",
-       uniqueConstraints = {
-           @UniqueConstraint(name = "uk_project_section_position", 
-                            columnNames = {"project_id", "position"})
-       },
        indexes = {
-           @Index(name = "idx_section_project", columnList = "project_id"),
-           @Index(name = "idx_section_position", columnList = "position")
+           @Index(name = "idx_section_project", columnList = "project_id")
        })
 @Getter
 @Setter
@@ -28,6 +24,9 @@ public class ProjectSection extends BaseEntity {
     @Column(name = "name", nullable = false, length = 255)
     private String name;
 
+    /**
+     * Sparse ordering key within the project, see {@link com.taskava.data.query.GapPositions}
+     */
     @Column(name = "position", nullable = false)
     private Integer position;
 
@@ -11,6 +11,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 @Entity
 @Table(name = "tasks",
@@ -20,8 +21,30 @@ import java.util.Set;
            @Index(name = "idx_task_parent", columnList = "parent_task_id"),
            @Index(name = "idx_task_deleted", columnList = "is_deleted"),
            @Index(name = "idx_task_status", columnList = "status"),
-           @Index(name = "idx_task_due_date", columnList = "due_date")
+           @Index(name = "idx_task_due_date", columnList = "due_date"),
+           @Index(name = "idx_task_workspace", columnList = "workspace_id")
+       },
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_task_workspace_number",
+                            columnNames = {"workspace_id", "task_number"})
        })
+@NamedEntityGraph(name = Task.GRAPH_LIST, attributeNodes = {
+    @NamedAttributeNode("assignee")
+})
+@NamedEntityGraph(name = Task.GRAPH_BOARD, attributeNodes = {
+    @NamedAttributeNode("assignee")
+})
+@NamedEntityGraph(name = Task.GRAPH_DETAIL, attributeNodes = {
+    @NamedAttributeNode("assignee"),
+    @NamedAttributeNode("createdByUser"),
+    @NamedAttributeNode("parentTask"),
+    @NamedAttributeNode("projects")
+})
+@NamedEntityGraph(name = Task.GRAPH_EXPORT, attributeNodes = {
+    @NamedAttributeNode("assignee"),
+    @NamedAttributeNode("createdByUser"),
+    @NamedAttributeNode("parentTask")
+})
 @Getter
 @Setter
 @Builder
@@ -30,6 +53,13 @@ import java.util.Set;
 @Where(clause = "is_deleted = false")
 public class Task extends BaseEntity {
 
+    // Entity graphs used by TaskFetchPlan. Paged graphs join to-one associations only;
+    // collections are left to batch fetching so LIMIT/OFFSET stays in the database.
+    public static final String GRAPH_LIST = "Task.list";
+    public static final String GRAPH_BOARD = "Task.board";
+    public static final String GRAPH_DETAIL = "Task.detail";
+    public static final String GRAPH_EXPORT = "Task.export";
+
     @Column(name = "title", nullable = false)
     private String title;
 
@@ -39,6 +69,10 @@ public class Task extends BaseEntity {
     @Column(name = "task_number", nullable = false)
     private Long taskNumber;
 
+    // Owning workspace, denormalized so task numbers can be scoped without joining projects
+    @Column(name = "workspace_id")
+    private UUID workspaceId;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private TaskStatus status = TaskStatus.TODO;
@@ -96,12 +130,12 @@ public class Task extends BaseEntity {
     @OneToMany(mappedBy = "parentTask", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Task> subtasks = new HashSet<>();
 
-    // Task dependencies
+    // Task dependencies (predecessors); type and lag are read through TaskDependencyRepository
     @ManyToMany
     @JoinTable(
-        name = "task_dependencies",
-        joinColumns = @JoinColumn(name = "task_id"),
-        inverseJoinColumns = @JoinColumn(name = "depends_on_task_id")
+        name = "task_dependencies_v2",
+        joinColumns = @JoinColumn(name = "successor_id"),
+        inverseJoinColumns = @JoinColumn(name = "predecessor_id")
     )
     private Set<Task> dependencies = new HashSet<>();
 
@@ -153,6 +187,50 @@ public class Task extends BaseEntity {
     @JoinColumn(name = "recurring_task_template_id")
     private Task recurringTaskTemplate;
 
+    // Series date of a materialized occurrence, written only by the recurrence engine
+    @Column(name = "recurrence_occurrence_date", insertable = false, updatable = false)
+    private LocalDate recurrenceOccurrenceDate;
+
+    // Child counters maintained by database triggers (V11), never written by the application
+    @Column(name = "comments_count", insertable = false, updatable = false)
+    private int commentsCount;
+
+    @Column(name = "attachments_count", insertable = false, updatable = false)
+    private int attachmentsCount;
+
+    @Column(name = "subtasks_count", insertable = false, updatable = false)
+    private int subtasksCount;
+
+    @Column(name = "completed_subtasks_count", insertable = false, updatable = false)
+    private int completedSubtasksCount;
+
+    @Column(name = "followers_count", insertable = false, updatable = false)
+    private int followersCount;
+
+    // Subtree roll-ups maintained by database triggers (V17), never written by the application
+    @Column(name = "rollup_task_count", insertable = false, updatable = false)
+    private int rollupTaskCount;
+
+    @Column(name = "rollup_progress_sum", insertable = false, updatable = false)
+    private long rollupProgressSum;
+
+    @Column(name = "rollup_estimated_hours", precision = 14, scale = 2, insertable = false, updatable = false)
+    private BigDecimal rollupEstimatedHours;
+
+    @Column(name = "rollup_actual_hours", precision = 14, scale = 2, insertable = false, updatable = false)
+    private BigDecimal rollupActualHours;
+
+    @Column(name = "rollup_story_points", insertable = false, updatable = false)
+    private long rollupStoryPoints;
+
+    // Cold tier (V24), moved by TaskTieringRepository, never written by the application. Archived
+    // tasks are still read by id; listings leave them out.
+    @Column(name = "archived_at", insertable = false, updatable = false)
+    private Instant archivedAt;
+
+    @Column(name = "archived_project_id", insertable = false, updatable = false)
+    private UUID archivedProjectId;
+
     public enum TaskStatus {
         TODO, IN_PROGRESS, IN_REVIEW, BLOCKED, COMPLETED, CANCELLED
     }
@@ -1,5 +1,6 @@
 package com.taskava.data.entity;
 
+import com.taskava.data.query.LexoRank;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -15,7 +16,7 @@ import java.util.UUID;
        indexes = {
            @Index(name = "idx_task_projects_task", columnList = "task_id"),
            @Index(name = "idx_task_projects_project", columnList = "project_id"),
-           @Index(name = "idx_task_projects_position", columnList = "project_id, position")
+           @Index(name = "idx_task_projects_project_rank", columnList = "project_id, rank_key, task_id")
        })
 @Getter
 @Setter
@@ -41,9 +42,11 @@ public class TaskProject {
     @JoinColumn(name = "section_id")
     private ProjectSection section;
 
-    @Column(name = "position", nullable = false)
-    @Builder.Default
-    private Integer position = 0;
+    /**
+     * Fractional ordering key within the section (or the project's "no section" column), see {@link LexoRank}
+     */
+    @Column(name = "rank_key", nullable = false, length = LexoRank.STORED_LENGTH)
+    private String rankKey;
 
     @Column(name = "added_at", nullable = false)
     @Builder.Default
@@ -63,9 +66,9 @@ public class TaskProject {
     }
 
     /**
-     * Update the position of the task within the project/section
+     * Update the rank of the task within the project/section
      */
-    public void updatePosition(Integer newPosition) {
-        this.position = newPosition;
+    public void updateRank(String newRankKey) {
+        this.rankKey = newRankKey;
     }
 }
\ No newline at end of file
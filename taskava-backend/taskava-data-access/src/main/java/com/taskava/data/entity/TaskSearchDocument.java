@@ -0,0 +1,26 @@
+package com.taskava.data.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.util.UUID;
+
+/**
+ * Read-only view of the full-text document of a task. Kept apart from {@link Task} so the
+ * generated {@code search_vector} column is never loaded along with regular task reads.
+ */
+@Entity
+@Immutable
+@Table(name = "tasks")
+@Getter
+@NoArgsConstructor
+public class TaskSearchDocument {
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "search_vector", columnDefinition = "tsvector", insertable = false, updatable = false)
+    private String searchVector;
+}
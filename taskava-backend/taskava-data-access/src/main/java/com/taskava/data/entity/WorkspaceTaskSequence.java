@@ -0,0 +1,34 @@
+package com.taskava.data.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Per-workspace task number sequence. Rows are only advanced through
+ * {@link com.taskava.data.repository.WorkspaceTaskSequenceRepository#reserveBlock},
+ * which hands out whole blocks of numbers to application nodes.
+ */
+@Entity
+@Table(name = "workspace_task_sequences")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkspaceTaskSequence {
+
+    @Id
+    @Column(name = "workspace_id", updatable = false, nullable = false)
+    private UUID workspaceId;
+
+    @Column(name = "next_value", nullable = false)
+    @Builder.Default
+    private Long nextValue = 1L;
+
+    @Column(name = "updated_at", nullable = false)
+    @Builder.Default
+    private Instant updatedAt = Instant.now();
+}
@@ -0,0 +1,62 @@
+package com.taskava.data.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sparse integer positions. Items are numbered {@link #GAP} apart, so an item can be placed
+ * between two neighbours by writing only its own row; the whole list is re-spread only once a
+ * gap has been used up.
+ */
+public final class GapPositions {
+
+    public static final int GAP = 1024;
+
+    private GapPositions() {
+    }
+
+    /**
+     * {@code count} positions, {@link #GAP} apart
+     */
+    public static List<Integer> spread(int count) {
+        List<Integer> positions = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            positions.add(i * GAP);
+        }
+        return positions;
+    }
+
+    /**
+     * Fill in positions for a list in its final order. Non-null entries are items that keep their
+     * position and must be strictly increasing; null entries are items being placed. Each run of
+     * nulls is spaced evenly between its neighbours. When a run does not fit into its gap, the
+     * whole list is re-spread instead.
+     *
+     * @return the positions of all items, in list order
+     */
+    public static List<Integer> assign(List<Integer> positions) {
+        List<Integer> assigned = new ArrayList<>(positions);
+        int i = 0;
+        while (i < assigned.size()) {
+            if (assigned.get(i) != null) {
+                i++;
+                continue;
+            }
+            int runEnd = i;
+            while (runEnd < assigned.size() && assigned.get(runEnd) == null) {
+                runEnd++;
+            }
+            long low = i > 0 ? assigned.get(i - 1) : 0;
+            long high = runEnd < assigned.size() ? assigned.get(runEnd) : low + (long) (runEnd - i + 1) * GAP;
+            long step = (high - low) / (runEnd - i + 1);
+            if (step < 1 || high > Integer.MAX_VALUE) {
+                return spread(positions.size());
+            }
+            for (int j = i; j < runEnd; j++) {
+                assigned.set(j, (int) (low + step * (j - i + 1)));
+            }
+            i = runEnd;
+        }
+        return assigned;
+    }
+}
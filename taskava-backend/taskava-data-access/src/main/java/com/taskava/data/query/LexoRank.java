@@ -0,0 +1,137 @@
+package com.taskava.data.query;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fractional ordering keys. A key is the digit string of a fraction in [0, 1) written in base 62
+ * ({@code 0-9A-Za-z}, which is also their ASCII order), without trailing zeros. Comparing keys as
+ * strings under the "C" collation therefore compares the fractions, and there is always room for
+ * another key between two different ones, so an item is placed by writing only its own row.
+ * <p>
+ * Appending and prepending step by a fixed amount, which keeps those keys short. Repeated inserts
+ * into the same gap add roughly one character per six inserts; columns whose keys grow past
+ * {@link #MAX_LENGTH} are re-spread with {@link #spread(int)}.
+ */
+public final class LexoRank {
+
+    /**
+     * Keys longer than this are due for rebalancing
+     */
+    public static final int MAX_LENGTH = 24;
+
+    /**
+     * Longest key the rank_key column can hold
+     */
+    public static final int STORED_LENGTH = 64;
+
+    private static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final BigInteger BASE = BigInteger.valueOf(DIGITS.length());
+    private static final BigInteger TWO = BigInteger.valueOf(2);
+
+    // Appends and prepends move by 1/62^3 of the key space, so ~238k of them fit in three characters
+    private static final int STEP_DIGITS = 3;
+
+    // Spread keys leave at least 62^2 between neighbours, room for ~11 inserts before a key grows
+    private static final int SPREAD_GAP_DIGITS = 2;
+
+    private LexoRank() {
+    }
+
+    /**
+     * A key sorting strictly between {@code before} and {@code after}. Either bound may be null,
+     * meaning the start or the end of the list.
+     *
+     * @throws IllegalArgumentException if a bound is not a valid key or {@code before >= after}
+     */
+    public static String between(String before, String after) {
+        int width = Math.max(STEP_DIGITS, Math.max(length(before), length(after)));
+        BigInteger low = before == null ? BigInteger.ZERO : toValue(before, width);
+        BigInteger high = after == null ? BASE.pow(width) : toValue(after, width);
+        if (low.compareTo(high) >= 0) {
+            throw new IllegalArgumentException("Rank " + before + " does not sort before " + after);
+        }
+
+        if (before == null && after == null) {
+            return toKey(high.shiftRight(1), width);
+        }
+
+        BigInteger step = BASE.pow(width - STEP_DIGITS);
+        BigInteger gap = high.subtract(low);
+        if (gap.compareTo(step.multiply(TWO)) > 0) {
+            if (after == null) {
+                return toKey(low.add(step), width);
+            }
+            if (before == null) {
+                return toKey(high.subtract(step), width);
+            }
+        }
+
+        while (high.subtract(low).compareTo(TWO) < 0) {
+            low = low.multiply(BASE);
+            high = high.multiply(BASE);
+            width++;
+        }
+        return toKey(low.add(high).shiftRight(1), width);
+    }
+
+    /**
+     * {@code count} evenly spaced, increasingly ordered keys
+     */
+    public static List<String> spread(int count) {
+        BigInteger slots = BigInteger.valueOf(count + 1L);
+        int width = STEP_DIGITS;
+        while (BASE.pow(width).divide(slots).compareTo(BASE.pow(SPREAD_GAP_DIGITS)) < 0) {
+            width++;
+        }
+        BigInteger gap = BASE.pow(width).divide(slots);
+
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            keys.add(toKey(gap.multiply(BigInteger.valueOf(i)), width));
+        }
+        return keys;
+    }
+
+    /**
+     * Whether a key has grown long enough that its column should be rebalanced
+     */
+    public static boolean needsRebalance(String key) {
+        return key != null && key.length() > MAX_LENGTH;
+    }
+
+    private static int length(String key) {
+        return key == null ? 0 : key.length();
+    }
+
+    private static BigInteger toValue(String key, int width) {
+        if (key.isEmpty() || key.endsWith("0")) {
+            throw new IllegalArgumentException("Invalid rank: " + key);
+        }
+        BigInteger value = BigInteger.ZERO;
+        for (int i = 0; i < width; i++) {
+            int digit = i < key.length() ? DIGITS.indexOf(key.charAt(i)) : 0;
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid rank: " + key);
+            }
+            value = value.multiply(BASE).add(BigInteger.valueOf(digit));
+        }
+        return value;
+    }
+
+    private static String toKey(BigInteger value, int width) {
+        char[] key = new char[width];
+        BigInteger remaining = value;
+        for (int i = width - 1; i >= 0; i--) {
+            BigInteger[] division = remaining.divideAndRemainder(BASE);
+            key[i] = DIGITS.charAt(division[1].intValue());
+            remaining = division[0];
+        }
+        int end = width;
+        while (end > 0 && key[end - 1] == '0') {
+            end--;
+        }
+        return new String(key, 0, end);
+    }
+}
@@ -0,0 +1,22 @@
+package com.taskava.data.query;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the PostgreSQL full-text match operator as the JPQL function
+ * {@code fts_match(vector, tsquery)}, so JPQL queries can use the GIN-indexed
+ * {@code tasks.search_vector} column.
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                "fts_match",
+                "(?1 @@ to_tsquery('" + TaskSearchTerms.TEXT_SEARCH_CONFIG + "', ?2))",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
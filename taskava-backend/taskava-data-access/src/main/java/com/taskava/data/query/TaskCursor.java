@@ -0,0 +1,56 @@
+package com.taskava.data.query;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a keyset-paginated task listing: the sort key value and id of the last row
+ * returned. Clients only ever see the opaque {@link #encode() encoded} form.
+ */
+public record TaskCursor(TaskSortKey sortKey, boolean descending, Object value, UUID lastId) {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = String.join(SEPARATOR,
+                VERSION,
+                sortKey.name(),
+                descending ? "D" : "A",
+                value != null ? value.toString() : "",
+                lastId.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode()}
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static TaskCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            TaskSortKey sortKey = TaskSortKey.valueOf(parts[1]);
+            Object value = parts[3].isEmpty() ? null : parseValue(sortKey, parts[3]);
+            return new TaskCursor(sortKey, "D".equals(parts[2]), value, UUID.fromString(parts[4]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static Object parseValue(TaskSortKey sortKey, String value) {
+        return switch (sortKey) {
+            case CREATED_AT -> Instant.parse(value);
+            case DUE_DATE -> LocalDate.parse(value);
+            case PRIORITY -> Integer.valueOf(value);
+            case POSITION -> value;
+        };
+    }
+}
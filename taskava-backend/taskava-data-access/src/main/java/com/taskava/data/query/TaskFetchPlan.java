@@ -0,0 +1,49 @@
+package com.taskava.data.query;
+
+import com.taskava.data.entity.Task;
+
+/**
+ * How much of a task is loaded up front for a particular view. Each plan pairs a named entity
+ * graph, which joins the associations every row of the view needs, with a fetch batch size for
+ * everything else: lazy associations touched while mapping a page are then initialized with one
+ * {@code IN (...)} query per association instead of one query per task, so the number of SQL
+ * statements for a page does not grow with the page size.
+ */
+public enum TaskFetchPlan {
+
+    /**
+     * Paged task lists
+     */
+    LIST(Task.GRAPH_LIST, 50),
+
+    /**
+     * Board columns, which show more but lighter cards
+     */
+    BOARD(Task.GRAPH_BOARD, 100),
+
+    /**
+     * A single task with everything the detail pane renders
+     */
+    DETAIL(Task.GRAPH_DETAIL, 25),
+
+    /**
+     * Large pages read once for CSV/JSON export
+     */
+    EXPORT(Task.GRAPH_EXPORT, 250);
+
+    private final String graphName;
+    private final int batchSize;
+
+    TaskFetchPlan(String graphName, int batchSize) {
+        this.graphName = graphName;
+        this.batchSize = batchSize;
+    }
+
+    public String getGraphName() {
+        return graphName;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
@@ -0,0 +1,27 @@
+package com.taskava.data.query;
+
+/**
+ * What a task listing query returns: managed {@code Task} entities, or flat
+ * {@link TaskSummaryView} rows for list views
+ */
+public enum TaskProjection {
+
+    ENTITY("t", ""),
+    SUMMARY(TaskSummaryView.SELECT, " LEFT JOIN t.assignee a");
+
+    private final String selection;
+    private final String joins;
+
+    TaskProjection(String selection, String joins) {
+        this.selection = selection;
+        this.joins = joins;
+    }
+
+    String getSelection() {
+        return selection;
+    }
+
+    String getJoins() {
+        return joins;
+    }
+}
@@ -0,0 +1,272 @@
+package com.taskava.data.query;
+
+import com.taskava.common.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds task listing queries that contain only the predicates of the filters actually present.
+ * <p>
+ * A catch-all {@code (:param IS NULL OR ...)} query is planned once for every combination of
+ * filters, so PostgreSQL cannot pick the index that fits a particular request. Here every filter
+ * shape gets its own JPQL string instead. Strings are cached per shape, which keeps Hibernate's
+ * query plan cache and the JDBC driver's prepared statement cache hitting, while each shape is
+ * still planned against the indexes matching its own predicates. At most
+ * {@code task-query.max-cached-queries} strings are kept, the least recently used dropped first.
+ */
+@Component
+public class TaskQueryBuilder {
+
+    private static final Map<String, String> SORTABLE_PROPERTIES = Map.of(
+            "createdAt", TaskSortKey.CREATED_AT.getExpression(),
+            "dueDate", TaskSortKey.DUE_DATE.getExpression(),
+            "priority", TaskSortKey.PRIORITY.getExpression(),
+            "updatedAt", "t.updatedAt",
+            "startDate", "t.startDate",
+            "completedAt", "t.completedAt",
+            "status", "t.status",
+            "title", "t.title",
+            "taskNumber", "t.taskNumber"
+    );
+
+    // Criteria that refer to the task_projects row and so only apply within a project
+    private static final EnumSet<Criterion> PROJECT_SCOPED = EnumSet.of(
+            Criterion.SECTION, Criterion.WITH_SECTION, Criterion.WITHOUT_SECTION);
+
+    @Value("${task-query.max-cached-queries:500}")
+    private int maxCachedQueries;
+
+    // Least recently used queries are dropped first
+    private final Map<String, String> compiledQueries = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > maxCachedQueries;
+                }
+            });
+
+    /**
+     * JPQL text plus the parameter values to bind for one execution
+     */
+    public record TaskQuery(String jpql, Map<String, Object> parameters) {
+    }
+
+    /**
+     * Select tasks matching the filter in the given order. The task id is always appended as a
+     * tie-breaker so offset pages are stable.
+     */
+    public TaskQuery select(TaskQueryFilter filter, Sort sort, TaskProjection projection) {
+        EnumSet<Criterion> shape = shapeOf(filter);
+        String orderBy = orderBy(sort, filter.getProjectId() != null);
+        String jpql = compiledQueries.computeIfAbsent("select|" + projection + "|" + key(shape) + "|" + orderBy,
+                k -> "SELECT " + projection.getSelection() + from(shape) + projection.getJoins() + where(shape) +
+                        " ORDER BY " + orderBy);
+        return new TaskQuery(jpql, parametersOf(filter, shape));
+    }
+
+    /**
+     * Count tasks matching the filter
+     */
+    public TaskQuery count(TaskQueryFilter filter) {
+        EnumSet<Criterion> shape = shapeOf(filter);
+        String jpql = compiledQueries.computeIfAbsent("count|" + key(shape),
+                k -> "SELECT COUNT(t)" + from(shape) + where(shape));
+        return new TaskQuery(jpql, parametersOf(filter, shape));
+    }
+
+    /**
+     * Select tasks and their sort key value, continuing strictly after {@code after} when present
+     */
+    public TaskQuery keyset(TaskQueryFilter filter, TaskSortKey sortKey, boolean descending, TaskCursor after,
+                            TaskProjection projection) {
+        if (sortKey == TaskSortKey.POSITION && filter.getProjectId() == null) {
+            throw new BadRequestException("Sorting by position requires a project");
+        }
+
+        EnumSet<Criterion> shape = shapeOf(filter);
+        String position = after == null ? "first" : after.value() == null ? "nulls" : "after";
+        String jpql = compiledQueries.computeIfAbsent(
+                "keyset|" + projection + "|" + key(shape) + "|" + sortKey + "|" + descending + "|" + position,
+                k -> keysetQuery(shape, sortKey, descending, position, projection));
+
+        Map<String, Object> parameters = parametersOf(filter, shape);
+        if (after != null) {
+            parameters.put("afterId", after.lastId());
+            if (after.value() != null) {
+                parameters.put("afterValue", after.value());
+            }
+        }
+        return new TaskQuery(jpql, parameters);
+    }
+
+    private String keysetQuery(EnumSet<Criterion> shape, TaskSortKey sortKey, boolean descending, String position,
+                               TaskProjection projection) {
+        String key = sortKey.getExpression();
+        String op = descending ? "<" : ">";
+        String direction = descending ? " DESC" : " ASC";
+
+        StringBuilder jpql = new StringBuilder("SELECT ").append(projection.getSelection()).append(", ").append(key)
+                .append(from(shape)).append(projection.getJoins()).append(where(shape));
+        if ("nulls".equals(position)) {
+            // Past the last non-null key: only the trailing null block remains
+            jpql.append(" AND ").append(key).append(" IS NULL AND t.id ").append(op).append(" :afterId");
+        } else if ("after".equals(position)) {
+            // The redundant range bound lets the planner start an index range scan at the cursor
+            String predicate = key + " " + op + "= :afterValue AND (" + key + " " + op + " :afterValue OR t.id " +
+                    op + " :afterId)";
+            jpql.append(" AND (").append(predicate);
+            if (sortKey.isNullable()) {
+                jpql.append(" OR ").append(key).append(" IS NULL");
+            }
+            jpql.append(")");
+        }
+        jpql.append(" ORDER BY ").append(key).append(direction)
+                .append(sortKey.isNullable() ? " NULLS LAST" : "")
+                .append(", t.id").append(direction);
+        return jpql.toString();
+    }
+
+    private String orderBy(Sort sort, boolean inProject) {
+        List<String> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String expression = "position".equals(order.getProperty()) && inProject
+                    ? TaskSortKey.POSITION.getExpression()
+                    : SORTABLE_PROPERTIES.get(order.getProperty());
+            if (expression == null) {
+                throw new BadRequestException("Unsupported sort property: " + order.getProperty());
+            }
+            orders.add(expression + (order.isDescending() ? " DESC" : " ASC") + " NULLS LAST");
+        }
+        boolean descending = sort.isSorted() && sort.iterator().next().isDescending();
+        orders.add("t.id" + (descending ? " DESC" : " ASC"));
+        return String.join(", ", orders);
+    }
+
+    private String from(EnumSet<Criterion> shape) {
+        // A task is linked to a project at most once, so joining the link table directly cannot duplicate rows
+        return shape.contains(Criterion.PROJECT)
+                ? " FROM TaskProject tp JOIN tp.task t"
+                : " FROM Task t";
+    }
+
+    private String where(EnumSet<Criterion> shape) {
+        // Archived tasks are cold and only listed through TaskTieringRepository, except as the
+        // subtasks of their parent
+        StringBuilder where = new StringBuilder(shape.contains(Criterion.PARENT)
+                ? " WHERE t.deleted = false"
+                : " WHERE t.deleted = false AND t.archivedAt IS NULL");
+        for (Criterion criterion : shape) {
+            where.append(" AND ").append(criterion.predicate);
+        }
+        return where.toString();
+    }
+
+    private EnumSet<Criterion> shapeOf(TaskQueryFilter filter) {
+        EnumSet<Criterion> shape = EnumSet.noneOf(Criterion.class);
+        for (Criterion criterion : Criterion.values()) {
+            if (criterion.value.apply(filter) != null) {
+                shape.add(criterion);
+            }
+        }
+        if (!shape.contains(Criterion.PROJECT) && shape.stream().anyMatch(PROJECT_SCOPED::contains)) {
+            throw new BadRequestException("Section filters require a project");
+        }
+        // Input without a single term would otherwise drop the search and match every task
+        if (filter.getSearch() != null && !filter.getSearch().isBlank() && !shape.contains(Criterion.SEARCH)) {
+            throw new BadRequestException("Search must contain at least one letter or digit");
+        }
+        return shape;
+    }
+
+    private Map<String, Object> parametersOf(TaskQueryFilter filter, EnumSet<Criterion> shape) {
+        Map<String, Object> parameters = new HashMap<>();
+        for (Criterion criterion : shape) {
+            if (criterion.parameter != null) {
+                parameters.put(criterion.parameter, criterion.value.apply(filter));
+            }
+        }
+        return parameters;
+    }
+
+    private static long key(EnumSet<Criterion> shape) {
+        long key = 0;
+        for (Criterion criterion : shape) {
+            key |= 1L << criterion.ordinal();
+        }
+        return key;
+    }
+
+    /**
+     * One optional filter predicate. A criterion is part of the query shape when its value is non-null;
+     * flag criteria without a parameter only use the value to decide whether they apply.
+     */
+    private enum Criterion {
+        WORKSPACE("t.workspaceId = :workspaceId", "workspaceId", TaskQueryFilter::getWorkspaceId),
+        PROJECT("tp.project.id = :projectId", "projectId", TaskQueryFilter::getProjectId),
+        SECTION("tp.section.id = :sectionId", "sectionId", TaskQueryFilter::getSectionId),
+        ASSIGNEE("t.assignee.id = :assigneeId", "assigneeId", TaskQueryFilter::getAssigneeId),
+        CREATED_BY("t.createdByUser.id = :createdById", "createdById", TaskQueryFilter::getCreatedById),
+        PARENT("t.parentTask.id = :parentTaskId", "parentTaskId", TaskQueryFilter::getParentTaskId),
+        STATUS("t.status = :status", "status", TaskQueryFilter::getStatus),
+        PRIORITY("t.priority = :priority", "priority", TaskQueryFilter::getPriority),
+        START_DATE_FROM("t.startDate >= :startDateFrom", "startDateFrom", TaskQueryFilter::getStartDateFrom),
+        START_DATE_TO("t.startDate <= :startDateTo", "startDateTo", TaskQueryFilter::getStartDateTo),
+        DUE_DATE_FROM("t.dueDate >= :dueDateFrom", "dueDateFrom", TaskQueryFilter::getDueDateFrom),
+        DUE_DATE_TO("t.dueDate <= :dueDateTo", "dueDateTo", TaskQueryFilter::getDueDateTo),
+        COMPLETED_FROM("t.completedAt >= :completedFrom", "completedFrom", TaskQueryFilter::getCompletedFrom),
+        COMPLETED_TO("t.completedAt < :completedTo", "completedTo", TaskQueryFilter::getCompletedTo),
+        TAGS("EXISTS (SELECT 1 FROM Task tt JOIN tt.tags tag WHERE tt.id = t.id AND tag.id IN :tagIds)",
+                "tagIds", f -> f.getTagIds() != null && !f.getTagIds().isEmpty() ? f.getTagIds() : null),
+        FOLLOWER("EXISTS (SELECT 1 FROM Task ft JOIN ft.followers fu WHERE ft.id = t.id AND fu.id = :followerId)",
+                "followerId", TaskQueryFilter::getFollowerId),
+        SEARCH("t.id IN (SELECT d.id FROM TaskSearchDocument d WHERE fts_match(d.searchVector, :search) = true)",
+                "search", f -> TaskSearchTerms.toPrefixQuery(f.getSearch())),
+        SUBTASK("t.parentTask IS NOT NULL", null, f -> isTrue(f.getSubtask())),
+        TOP_LEVEL("t.parentTask IS NULL", null, f -> isFalse(f.getSubtask())),
+        COMPLETED("t.status = 'COMPLETED'", null, f -> isTrue(f.getCompleted())),
+        NOT_COMPLETED("t.status <> 'COMPLETED'", null, f -> isFalse(f.getCompleted())),
+        OVERDUE("t.dueDate < CURRENT_DATE AND t.status NOT IN ('COMPLETED', 'CANCELLED')", null,
+                f -> isTrue(f.getOverdue())),
+        RECURRING("t.recurring = true", null, f -> isTrue(f.getRecurring())),
+        NOT_RECURRING("t.recurring = false", null, f -> isFalse(f.getRecurring())),
+        WITH_COMMENTS("t.commentsCount > 0", null, f -> isTrue(f.getHasComments())),
+        WITHOUT_COMMENTS("t.commentsCount = 0", null, f -> isFalse(f.getHasComments())),
+        WITH_ATTACHMENTS("t.attachmentsCount > 0", null, f -> isTrue(f.getHasAttachments())),
+        WITHOUT_ATTACHMENTS("t.attachmentsCount = 0", null, f -> isFalse(f.getHasAttachments())),
+        WITH_DEPENDENCIES("t.dependencies IS NOT EMPTY", null, f -> isTrue(f.getHasDependencies())),
+        WITHOUT_DEPENDENCIES("t.dependencies IS EMPTY", null, f -> isFalse(f.getHasDependencies())),
+        // A task whose section was soft-deleted shows up in the "no section" column of the board
+        WITH_SECTION("EXISTS (SELECT 1 FROM ProjectSection ps WHERE ps.id = tp.section.id AND ps.deleted = false)",
+                null, f -> isTrue(f.getHasSection())),
+        WITHOUT_SECTION("NOT EXISTS (SELECT 1 FROM ProjectSection ps WHERE ps.id = tp.section.id AND ps.deleted = false)",
+                null, f -> isFalse(f.getHasSection()));
+
+        private final String predicate;
+        private final String parameter;
+        private final Function<TaskQueryFilter, Object> value;
+
+        Criterion(String predicate, String parameter, Function<TaskQueryFilter, Object> value) {
+            this.predicate = predicate;
+            this.parameter = parameter;
+            this.value = value;
+        }
+
+        private static Object isTrue(Boolean flag) {
+            return Boolean.TRUE.equals(flag) ? Boolean.TRUE : null;
+        }
+
+        private static Object isFalse(Boolean flag) {
+            return Boolean.FALSE.equals(flag) ? Boolean.TRUE : null;
+        }
+    }
+}
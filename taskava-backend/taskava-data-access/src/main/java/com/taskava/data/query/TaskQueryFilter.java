@@ -0,0 +1,45 @@
+package com.taskava.data.query;
+
+import com.taskava.data.entity.Task.Priority;
+import com.taskava.data.entity.Task.TaskStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Typed task listing filter. Null fields are not filtered on and add no predicate to the query.
+ */
+@Getter
+@Builder
+public class TaskQueryFilter {
+
+    private UUID workspaceId;
+    private UUID projectId;
+    private UUID sectionId;
+    private UUID assigneeId;
+    private UUID createdById;
+    private UUID parentTaskId;
+    private UUID followerId;
+    private Set<UUID> tagIds;
+    private TaskStatus status;
+    private Priority priority;
+    private LocalDate startDateFrom;
+    private LocalDate startDateTo;
+    private LocalDate dueDateFrom;
+    private LocalDate dueDateTo;
+    private Instant completedFrom;
+    private Instant completedTo;
+    private String search;
+    private Boolean subtask;
+    private Boolean completed;
+    private Boolean overdue;
+    private Boolean recurring;
+    private Boolean hasComments;
+    private Boolean hasAttachments;
+    private Boolean hasDependencies;
+    private Boolean hasSection;
+}
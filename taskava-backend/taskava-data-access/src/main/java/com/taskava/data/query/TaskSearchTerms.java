@@ -0,0 +1,44 @@
+package com.taskava.data.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns free-form user input into a PostgreSQL {@code tsquery}. Only letters and digits survive,
+ * so user input can never produce tsquery syntax errors. All terms must match and the last one
+ * matches as a prefix, so results keep up with a query that is still being typed.
+ */
+public final class TaskSearchTerms {
+
+    public static final String TEXT_SEARCH_CONFIG = "english";
+
+    private static final Pattern TERM = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private TaskSearchTerms() {
+    }
+
+    /**
+     * Build a prefix tsquery such as {@code quick & bro:*}, or null when the input has no searchable terms
+     */
+    public static String toPrefixQuery(String input) {
+        if (input == null) {
+            return null;
+        }
+
+        List<String> terms = new ArrayList<>();
+        Matcher matcher = TERM.matcher(input.toLowerCase(Locale.ROOT));
+        while (matcher.find()) {
+            terms.add(matcher.group());
+        }
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        int last = terms.size() - 1;
+        terms.set(last, terms.get(last) + ":*");
+        return String.join(" & ", terms);
+    }
+}
@@ -0,0 +1,58 @@
+package com.taskava.data.query;
+
+/**
+ * Sort keys supported by keyset pagination. Every key is paired with the task id as a
+ * tie-breaker, so the resulting order is total and stable across pages.
+ */
+public enum TaskSortKey {
+
+    CREATED_AT("createdAt", "t.createdAt", false),
+    DUE_DATE("dueDate", "t.dueDate", true),
+    PRIORITY("priority", """
+            CASE WHEN t.priority = 'LOW' THEN 0 \
+            WHEN t.priority = 'MEDIUM' THEN 1 \
+            WHEN t.priority = 'HIGH' THEN 2 \
+            WHEN t.priority = 'CRITICAL' THEN 3 \
+            ELSE -1 END""", false),
+    POSITION("position", "tp.rankKey", false);
+
+    private final String property;
+    private final String expression;
+    private final boolean nullable;
+
+    TaskSortKey(String property, String expression, boolean nullable) {
+        this.property = property;
+        this.expression = expression;
+        this.nullable = nullable;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * JPQL expression of the key, with {@code t} aliasing the task and {@code tp} the task-project link
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Whether the key can be null; null values always sort last
+     */
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public static TaskSortKey fromProperty(String property) {
+        if (property == null || property.isBlank()) {
+            return CREATED_AT;
+        }
+        for (TaskSortKey key : values()) {
+            if (key.property.equalsIgnoreCase(property) || key.name().equalsIgnoreCase(property)) {
+                return key;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort key: " + property);
+    }
+}
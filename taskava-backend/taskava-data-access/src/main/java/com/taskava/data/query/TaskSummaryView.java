@@ -0,0 +1,111 @@
+package com.taskava.data.query;
+
+import com.taskava.data.entity.Task.Priority;
+import com.taskava.data.entity.Task.TaskStatus;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Flat row for task list views, read with a single JPQL constructor expression. The child counts
+ * and subtree roll-ups come from trigger-maintained columns of the task row, so neither child
+ * tables nor any association of the task are touched.
+ */
+public record TaskSummaryView(
+        UUID id,
+        String title,
+        Long taskNumber,
+        TaskStatus status,
+        Priority priority,
+        LocalDate startDate,
+        LocalDate dueDate,
+        Instant completedAt,
+        Integer progressPercentage,
+        Integer storyPoints,
+        UUID parentTaskId,
+        UUID assigneeId,
+        String assigneeFirstName,
+        String assigneeLastName,
+        String assigneeAvatarUrl,
+        Instant createdAt,
+        Instant updatedAt,
+        int subtaskCount,
+        int completedSubtaskCount,
+        int commentCount,
+        int attachmentCount,
+        int followerCount,
+        int rollupTaskCount,
+        long rollupProgressSum,
+        BigDecimal rollupEstimatedHours,
+        BigDecimal rollupActualHours,
+        long rollupStoryPoints) {
+
+    /**
+     * JPQL select list matching the record components, with {@code t} aliasing the task and
+     * {@code a} its left-joined assignee
+     */
+    static final String SELECT = "new com.taskava.data.query.TaskSummaryView(" +
+            "t.id, t.title, t.taskNumber, t.status, t.priority, t.startDate, t.dueDate, t.completedAt, " +
+            "t.progressPercentage, t.storyPoints, t.parentTask.id, " +
+            "a.id, a.firstName, a.lastName, a.avatarUrl, t.createdAt, t.updatedAt, " +
+            "t.subtasksCount, t.completedSubtasksCount, t.commentsCount, t.attachmentsCount, t.followersCount, " +
+            "t.rollupTaskCount, t.rollupProgressSum, t.rollupEstimatedHours, t.rollupActualHours, t.rollupStoryPoints)";
+
+    /**
+     * SQL select list read by {@link #fromRow}, with {@code t} aliasing the task and {@code a} its
+     * left-joined assignee
+     */
+    public static final String SQL_COLUMNS = """
+            t.id, t.title, t.task_number, t.status, t.priority, t.start_date, t.due_date,
+            t.completed_at, t.progress_percentage, t.story_points, t.parent_task_id,
+            a.id AS assignee_id, a.first_name AS assignee_first_name,
+            a.last_name AS assignee_last_name, a.avatar_url AS assignee_avatar_url,
+            t.created_at, t.updated_at, t.subtasks_count, t.completed_subtasks_count,
+            t.comments_count, t.attachments_count, t.followers_count,
+            t.rollup_task_count, t.rollup_progress_sum, t.rollup_estimated_hours,
+            t.rollup_actual_hours, t.rollup_story_points""";
+
+    /**
+     * Map the current row of a native query selecting {@link #SQL_COLUMNS}
+     */
+    public static TaskSummaryView fromRow(ResultSet rs) throws SQLException {
+        String priority = rs.getString("priority");
+        return new TaskSummaryView(
+                rs.getObject("id", UUID.class),
+                rs.getString("title"),
+                rs.getObject("task_number", Long.class),
+                TaskStatus.valueOf(rs.getString("status")),
+                priority != null ? Priority.valueOf(priority) : null,
+                rs.getObject("start_date", LocalDate.class),
+                rs.getObject("due_date", LocalDate.class),
+                toInstant(rs.getTimestamp("completed_at")),
+                rs.getObject("progress_percentage", Integer.class),
+                rs.getObject("story_points", Integer.class),
+                rs.getObject("parent_task_id", UUID.class),
+                rs.getObject("assignee_id", UUID.class),
+                rs.getString("assignee_first_name"),
+                rs.getString("assignee_last_name"),
+                rs.getString("assignee_avatar_url"),
+                toInstant(rs.getTimestamp("created_at")),
+                toInstant(rs.getTimestamp("updated_at")),
+                rs.getInt("subtasks_count"),
+                rs.getInt("completed_subtasks_count"),
+                rs.getInt("comments_count"),
+                rs.getInt("attachments_count"),
+                rs.getInt("followers_count"),
+                rs.getInt("rollup_task_count"),
+                rs.getLong("rollup_progress_sum"),
+                rs.getBigDecimal("rollup_estimated_hours"),
+                rs.getBigDecimal("rollup_actual_hours"),
+                rs.getLong("rollup_story_points"));
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
@@ -0,0 +1,151 @@
+package com.taskava.data.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Progress of asynchronous long-running operations in {@code background_jobs} (V20). Every
+ * update is a single-row write, so a worker reports progress from its own short transactions
+ * while clients poll the job, and checks between batches whether it has been asked to stop.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BackgroundJobRepository {
+
+    private static final String SELECT_SQL = """
+        SELECT id, workspace_id, job_type, status, subject_id, result_id, total_items, processed_items,
+               cancel_requested, error_message, requested_by, created_at, started_at, finished_at
+        FROM background_jobs
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Kinds of jobs. Only jobs that can undo their partial work are cancellable.
+     */
+    public enum JobType {
+        TASK_DUPLICATION(true),
+        PROJECT_DUPLICATION(true),
+        CASCADE_DELETE(false),
+        CASCADE_RESTORE(false);
+
+        private final boolean cancellable;
+
+        JobType(boolean cancellable) {
+            this.cancellable = cancellable;
+        }
+
+        public boolean isCancellable() {
+            return cancellable;
+        }
+    }
+
+    public enum JobStatus {
+        PENDING, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
+    public record BackgroundJob(UUID id, UUID workspaceId, JobType type, JobStatus status, UUID subjectId,
+                                UUID resultId, int totalItems, int processedItems, boolean cancelRequested,
+                                String errorMessage, UUID requestedBy, Instant createdAt, Instant startedAt,
+                                Instant finishedAt) {
+    }
+
+    /**
+     * Create a pending job and return its id
+     */
+    public UUID create(JobType type, UUID workspaceId, UUID subjectId, int totalItems, UUID requestedBy) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO background_jobs (workspace_id, job_type, subject_id, total_items, requested_by)
+                VALUES (?, ?, ?, ?, ?)
+                RETURNING id
+                """, UUID.class, workspaceId, type.name(), subjectId, totalItems, requestedBy);
+    }
+
+    public Optional<BackgroundJob> findById(UUID jobId) {
+        List<BackgroundJob> jobs = jdbcTemplate.query(SELECT_SQL + " WHERE id = ?",
+                (rs, rowNum) -> mapJob(rs), jobId);
+        return jobs.stream().findFirst();
+    }
+
+    public void markRunning(UUID jobId) {
+        jdbcTemplate.update("""
+                UPDATE background_jobs SET status = 'RUNNING', started_at = NOW(), updated_at = NOW()
+                WHERE id = ?
+                """, jobId);
+    }
+
+    public void addProgress(UUID jobId, int processedItems) {
+        jdbcTemplate.update("""
+                UPDATE background_jobs SET processed_items = processed_items + ?, updated_at = NOW()
+                WHERE id = ?
+                """, processedItems, jobId);
+    }
+
+    public void complete(UUID jobId, UUID resultId) {
+        jdbcTemplate.update("""
+                UPDATE background_jobs SET status = 'COMPLETED', result_id = ?, processed_items = total_items,
+                    finished_at = NOW(), updated_at = NOW()
+                WHERE id = ?
+                """, resultId, jobId);
+    }
+
+    public void fail(UUID jobId, String errorMessage) {
+        jdbcTemplate.update("""
+                UPDATE background_jobs SET status = 'FAILED', error_message = ?, finished_at = NOW(), updated_at = NOW()
+                WHERE id = ?
+                """, errorMessage, jobId);
+    }
+
+    /**
+     * Ask an unfinished job to stop. Returns false when it has already finished.
+     */
+    public boolean requestCancel(UUID jobId) {
+        return jdbcTemplate.update("""
+                UPDATE background_jobs SET cancel_requested = TRUE, updated_at = NOW()
+                WHERE id = ? AND status IN ('PENDING', 'RUNNING')
+                """, jobId) > 0;
+    }
+
+    public boolean isCancelRequested(UUID jobId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT cancel_requested FROM background_jobs WHERE id = ?", Boolean.class, jobId));
+    }
+
+    public void markCancelled(UUID jobId) {
+        jdbcTemplate.update("""
+                UPDATE background_jobs SET status = 'CANCELLED', finished_at = NOW(), updated_at = NOW()
+                WHERE id = ?
+                """, jobId);
+    }
+
+    private static BackgroundJob mapJob(ResultSet rs) throws SQLException {
+        return new BackgroundJob(
+                rs.getObject("id", UUID.class),
+                rs.getObject("workspace_id", UUID.class),
+                JobType.valueOf(rs.getString("job_type")),
+                JobStatus.valueOf(rs.getString("status")),
+                rs.getObject("subject_id", UUID.class),
+                rs.getObject("result_id", UUID.class),
+                rs.getInt("total_items"),
+                rs.getInt("processed_items"),
+                rs.getBoolean("cancel_requested"),
+                rs.getString("error_message"),
+                rs.getObject("requested_by", UUID.class),
+                toInstant(rs.getTimestamp("created_at")),
+                toInstant(rs.getTimestamp("started_at")),
+                toInstant(rs.getTimestamp("finished_at")));
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
@@ -0,0 +1,231 @@
+package com.taskava.data.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cascading soft-deletes and their restores (V22). Every row deleted by one operation is tagged
+ * with the operation's {@code deletion_id}. The top of a deletion (a task or a project) is marked
+ * first so it disappears at once; the rest is marked, and later restored, by chunk methods that
+ * each touch at most {@code limit} tasks with one statement, so callers keep every transaction
+ * short however large the cascade. Counters and roll-ups follow through the triggers on
+ * {@code tasks}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CascadeDeleteRepository {
+
+    private static final String DELETE_TASKS = """
+        UPDATE tasks SET is_deleted = TRUE, deleted_at = NOW(), deleted_by = ?, deletion_id = ?
+        WHERE id IN (%s)
+        """;
+
+    // Live tasks of the project that are not in any other live project
+    private static final String PROJECT_TASKS_CHUNK_SQL = DELETE_TASKS.formatted("""
+        SELECT t.id
+        FROM task_projects tp
+        JOIN tasks t ON t.id = tp.task_id AND t.is_deleted = FALSE
+        WHERE tp.project_id = ?
+        AND NOT EXISTS (
+            SELECT 1
+            FROM task_projects o
+            JOIN projects p ON p.id = o.project_id AND p.is_deleted = FALSE
+            WHERE o.task_id = t.id
+            AND o.project_id <> tp.project_id
+        )
+        LIMIT ?
+        """);
+
+    // Live descendants of the topmost tasks of the deletion; descendants marked by earlier chunks
+    // are not roots, so the closure is only walked from the tops
+    private static final String DESCENDANTS_CHUNK_SQL = DELETE_TASKS.formatted("""
+        SELECT h.descendant_id
+        FROM tasks r
+        JOIN task_hierarchy h ON h.ancestor_id = r.id
+        JOIN tasks t ON t.id = h.descendant_id AND t.is_deleted = FALSE
+        WHERE r.deletion_id = ?
+        AND NOT EXISTS (
+            SELECT 1 FROM tasks p WHERE p.id = r.parent_task_id AND p.deletion_id = r.deletion_id
+        )
+        LIMIT ?
+        """);
+
+    private static final String RESTORE_TASKS = """
+        UPDATE tasks SET is_deleted = FALSE, deleted_at = NULL, deleted_by = NULL, deletion_id = NULL,
+            updated_at = NOW(), updated_by = ?
+        WHERE id IN (%s)
+        """;
+
+    private static final String RESTORE_TASKS_CHUNK_SQL = RESTORE_TASKS.formatted("""
+        SELECT id FROM tasks WHERE deletion_id = ? LIMIT ?
+        """);
+
+    // Descendants of one task deleted along with it; the rest of the deletion stays deleted
+    private static final String RESTORE_SUBTREE_CHUNK_SQL = RESTORE_TASKS.formatted("""
+        SELECT h.descendant_id
+        FROM task_hierarchy h
+        JOIN tasks t ON t.id = h.descendant_id AND t.deletion_id = ?
+        WHERE h.ancestor_id = ?
+        LIMIT ?
+        """);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A soft-deleted task or project. {@code deletionId} is null for rows deleted before deletions
+     * were tagged, which restore on their own.
+     */
+    public record DeletedRow(UUID id, UUID workspaceId, UUID parentId, String name, UUID deletionId) {
+    }
+
+    public Optional<DeletedRow> findDeletedTask(UUID taskId) {
+        return jdbcTemplate.query("""
+                SELECT id, workspace_id, parent_task_id, title, deletion_id
+                FROM tasks WHERE id = ? AND is_deleted = TRUE
+                """, (rs, rowNum) -> new DeletedRow(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("workspace_id", UUID.class),
+                        rs.getObject("parent_task_id", UUID.class),
+                        rs.getString("title"),
+                        rs.getObject("deletion_id", UUID.class)), taskId)
+                .stream().findFirst();
+    }
+
+    public Optional<DeletedRow> findDeletedProject(UUID projectId) {
+        return jdbcTemplate.query("""
+                SELECT id, workspace_id, name, deletion_id
+                FROM projects WHERE id = ? AND is_deleted = TRUE
+                """, (rs, rowNum) -> new DeletedRow(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("workspace_id", UUID.class),
+                        null,
+                        rs.getString("name"),
+                        rs.getObject("deletion_id", UUID.class)), projectId)
+                .stream().findFirst();
+    }
+
+    /**
+     * Mark a live task deleted as the top of deletion {@code deletionId}. Returns false when it was
+     * deleted already.
+     */
+    public boolean markTaskDeleted(UUID taskId, UUID deletionId, UUID userId) {
+        return jdbcTemplate.update("""
+                UPDATE tasks SET is_deleted = TRUE, deleted_at = NOW(), deleted_by = ?, deletion_id = ?
+                WHERE id = ? AND is_deleted = FALSE
+                """, userId, deletionId, taskId) > 0;
+    }
+
+    /**
+     * Mark a live project deleted together with its live sections and automation rules, as the
+     * top of deletion {@code deletionId}. Returns false when it was deleted already.
+     */
+    public boolean markProjectDeleted(UUID projectId, UUID deletionId, UUID userId) {
+        int updated = jdbcTemplate.update("""
+                UPDATE projects SET is_deleted = TRUE, deleted_at = NOW(), deleted_by = ?, deletion_id = ?
+                WHERE id = ? AND is_deleted = FALSE
+                """, userId, deletionId, projectId);
+        if (updated == 0) {
+            return false;
+        }
+        for (String table : List.of("project_sections", "automation_rules")) {
+            jdbcTemplate.update("UPDATE " + table + " SET is_deleted = TRUE, deleted_at = NOW(), deleted_by = ?, " +
+                    "deletion_id = ? WHERE project_id = ? AND is_deleted = FALSE", userId, deletionId, projectId);
+        }
+        return true;
+    }
+
+    /**
+     * Delete up to {@code limit} live tasks that belong to the project and to no other live
+     * project. Returns the number deleted; zero once none are left.
+     */
+    public int deleteProjectTasksChunk(UUID projectId, UUID deletionId, UUID userId, int limit) {
+        return jdbcTemplate.update(PROJECT_TASKS_CHUNK_SQL, userId, deletionId, projectId, limit);
+    }
+
+    /**
+     * Delete up to {@code limit} live descendants of the tasks of a deletion. Returns the number
+     * deleted; zero once none are left.
+     */
+    public int deleteDescendantsChunk(UUID deletionId, UUID userId, int limit) {
+        return jdbcTemplate.update(DESCENDANTS_CHUNK_SQL, userId, deletionId, deletionId, limit);
+    }
+
+    public int countTasks(UUID deletionId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM tasks WHERE deletion_id = ?", Integer.class, deletionId);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Number of descendants of a task deleted along with it, which restoring the task brings back
+     */
+    public int countSubtreeTasks(UUID deletionId, UUID taskId) {
+        Integer count = jdbcTemplate.queryForObject("""
+                SELECT count(*)
+                FROM task_hierarchy h
+                JOIN tasks t ON t.id = h.descendant_id AND t.deletion_id = ?
+                WHERE h.ancestor_id = ?
+                """, Integer.class, deletionId, taskId);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Number of live descendants of the tasks of a deletion, which a cascade would delete
+     */
+    public int countLiveDescendants(UUID deletionId) {
+        Integer count = jdbcTemplate.queryForObject("""
+                SELECT count(DISTINCT h.descendant_id)
+                FROM tasks r
+                JOIN task_hierarchy h ON h.ancestor_id = r.id
+                JOIN tasks t ON t.id = h.descendant_id AND t.is_deleted = FALSE
+                WHERE r.deletion_id = ?
+                """, Integer.class, deletionId);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Restore up to {@code limit} tasks of a deletion. Returns the number restored; zero once none
+     * are left.
+     */
+    public int restoreTasksChunk(UUID deletionId, UUID userId, int limit) {
+        return jdbcTemplate.update(RESTORE_TASKS_CHUNK_SQL, userId, deletionId, limit);
+    }
+
+    /**
+     * Restore up to {@code limit} descendants of a task that were deleted along with it, leaving the
+     * rest of the deletion deleted. Returns the number restored; zero once none are left.
+     */
+    public int restoreSubtreeChunk(UUID deletionId, UUID taskId, UUID userId, int limit) {
+        return jdbcTemplate.update(RESTORE_SUBTREE_CHUNK_SQL, userId, deletionId, taskId, limit);
+    }
+
+    public void restoreTask(UUID taskId, UUID userId) {
+        jdbcTemplate.update("""
+                UPDATE tasks SET is_deleted = FALSE, deleted_at = NULL, deleted_by = NULL, deletion_id = NULL,
+                    updated_at = NOW(), updated_by = ?
+                WHERE id = ? AND is_deleted = TRUE
+                """, userId, taskId);
+    }
+
+    /**
+     * Restore a project with the sections and automation rules deleted along with it
+     */
+    public void restoreProject(UUID projectId, UUID deletionId, UUID userId) {
+        if (deletionId != null) {
+            for (String table : List.of("project_sections", "automation_rules")) {
+                jdbcTemplate.update("UPDATE " + table + " SET is_deleted = FALSE, deleted_at = NULL, " +
+                        "deleted_by = NULL, deletion_id = NULL WHERE deletion_id = ?", deletionId);
+            }
+        }
+        jdbcTemplate.update("""
+                UPDATE projects SET is_deleted = FALSE, deleted_at = NULL, deleted_by = NULL, deletion_id = NULL,
+                    updated_at = NOW(), updated_by = ?
+                WHERE id = ? AND is_deleted = TRUE
+                """, userId, projectId);
+    }
+}
@@ -0,0 +1,103 @@
+package com.taskava.data.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Users' in-app notifications in {@code notifications} (V28), read newest first. A task reminder
+ * is delivered at most once: delivering it again adds nothing.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationRepository {
+
+    private static final String INSERT_REMINDER_SQL = """
+        INSERT INTO notifications (user_id, workspace_id, task_id, reminder_id, kind, title, due_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT ON CONSTRAINT uk_notifications_reminder DO NOTHING
+        """;
+
+    private static final String COLUMNS = """
+        id, user_id, workspace_id, task_id, reminder_id, kind, title, due_at, created_at, read_at
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A notification of {@code userId}; {@code readAt} is null while unread
+     */
+    public record Notification(UUID id, UUID userId, UUID workspaceId, UUID taskId, UUID reminderId, String kind,
+                               String title, Instant dueAt, Instant createdAt, Instant readAt) {
+    }
+
+    /**
+     * Deliver a task reminder to its recipient's inbox, unless it was delivered before. Returns
+     * whether a notification was added.
+     */
+    public boolean insertReminder(UUID userId, UUID workspaceId, UUID taskId, UUID reminderId, String kind,
+                                  String title, Instant dueAt) {
+        return jdbcTemplate.update(INSERT_REMINDER_SQL, userId, workspaceId, taskId, reminderId, kind, title,
+                dueAt != null ? Timestamp.from(dueAt) : null) > 0;
+    }
+
+    /**
+     * Latest notifications of a user, newest first
+     */
+    public List<Notification> findByUser(UUID userId, boolean unreadOnly, int limit) {
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM notifications WHERE user_id = ?");
+        if (unreadOnly) {
+            sql.append(" AND read_at IS NULL");
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> map(rs), args.toArray());
+    }
+
+    /**
+     * Mark notifications of a user read; others' notifications are left alone. Returns the number
+     * marked.
+     */
+    public int markRead(UUID userId, Collection<UUID> notificationIds) {
+        if (notificationIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement("""
+                    UPDATE notifications SET read_at = NOW()
+                    WHERE user_id = ? AND id = ANY(?) AND read_at IS NULL
+                    """);
+            ps.setObject(1, userId);
+            ps.setArray(2, connection.createArrayOf("uuid", notificationIds.toArray()));
+            return ps;
+        });
+    }
+
+    private static Notification map(ResultSet rs) throws SQLException {
+        Timestamp dueAt = rs.getTimestamp("due_at");
+        Timestamp readAt = rs.getTimestamp("read_at");
+        return new Notification(
+                rs.getObject("id", UUID.class),
+                rs.getObject("user_id", UUID.class),
+                rs.getObject("workspace_id", UUID.class),
+                rs.getObject("task_id", UUID.class),
+                rs.getObject("reminder_id", UUID.class),
+                rs.getString("kind"),
+                rs.getString("title"),
+                dueAt != null ? dueAt.toInstant() : null,
+                rs.getTimestamp("created_at").toInstant(),
+                readAt != null ? readAt.toInstant() : null);
+    }
+}
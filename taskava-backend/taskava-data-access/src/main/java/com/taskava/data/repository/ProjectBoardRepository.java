@@ -0,0 +1,128 @@
+package com.taskava.data.repository;
+
+import com.taskava.data.query.TaskSummaryView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads a whole project board in one statement: every live section of the project (plus the
+ * "no section" column) with the first cards of each column in board order. Each column reads only
+ * its first cards, in a lateral subquery limited per column, so a board costs the cards it shows
+ * rather than the size of the project. Rows are streamed to the caller in
+ * {@code (section position, task rank, task id)} order, so a board never has to be held in
+ * memory at once.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProjectBoardRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    // Live cards of a column, joined onto task_projects rows
+    private static final String CARD_JOINS = """
+            JOIN tasks t ON t.id = tp.task_id AND t.is_deleted = FALSE AND t.archived_at IS NULL
+            LEFT JOIN users a ON a.id = t.assignee_id""";
+
+    private static final String LIVE_TASK = """
+            JOIN tasks t ON t.id = tp.task_id AND t.is_deleted = FALSE AND t.archived_at IS NULL""";
+
+    // The "no section" column holds tasks without a section and tasks whose section was
+    // soft-deleted; each part is read from its own index and limited before they are merged
+    private static final String UNSECTIONED_COLUMN = """
+        SELECT NULL::UUID AS column_id, NULL::VARCHAR AS column_name, NULL::INTEGER AS column_position,
+               (SELECT COUNT(*) FROM task_projects tp %2$s
+                WHERE tp.project_id = ? AND tp.section_id IS NULL)
+               + (SELECT COUNT(*) FROM project_sections ps
+                  JOIN task_projects tp ON tp.section_id = ps.id %2$s
+                  WHERE ps.project_id = ? AND ps.is_deleted = TRUE) AS column_size,
+               c.*
+        FROM (VALUES (1)) AS unsectioned(one)
+        LEFT JOIN LATERAL (
+            SELECT * FROM (
+                (SELECT tp.rank_key AS card_rank_key, %1$s
+                 FROM task_projects tp %3$s
+                 WHERE tp.project_id = ? AND tp.section_id IS NULL
+                 ORDER BY tp.rank_key
+                 LIMIT ?)
+                UNION ALL
+                (SELECT tp.rank_key AS card_rank_key, %1$s
+                 FROM project_sections ps
+                 JOIN task_projects tp ON tp.section_id = ps.id %3$s
+                 WHERE ps.project_id = ? AND ps.is_deleted = TRUE
+                 ORDER BY tp.rank_key, tp.task_id
+                 LIMIT ?)
+            ) merged
+            ORDER BY card_rank_key, id
+            LIMIT ?
+        ) c ON TRUE
+        """.formatted(TaskSummaryView.SQL_COLUMNS, LIVE_TASK, CARD_JOINS);
+
+    // Each live section reads only its first cards, in rank order from the section's rank index
+    private static final String SECTION_COLUMNS = """
+        SELECT s.id AS column_id, s.name AS column_name, s.position AS column_position, size.column_size, c.*
+        FROM project_sections s
+        CROSS JOIN LATERAL (
+            SELECT COUNT(*) AS column_size
+            FROM task_projects tp %2$s
+            WHERE tp.section_id = s.id
+        ) size
+        LEFT JOIN LATERAL (
+            SELECT tp.rank_key AS card_rank_key, %1$s
+            FROM task_projects tp %3$s
+            WHERE tp.section_id = s.id
+            ORDER BY tp.rank_key
+            LIMIT ?
+        ) c ON TRUE
+        WHERE s.project_id = ?
+        AND s.is_deleted = FALSE
+        """.formatted(TaskSummaryView.SQL_COLUMNS, LIVE_TASK, CARD_JOINS);
+
+    private static final String BOARD_SQL = UNSECTIONED_COLUMN + "UNION ALL\n" + SECTION_COLUMNS +
+            "ORDER BY column_position NULLS FIRST, card_rank_key, id\n";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * One row of the board. Columns without cards yield a single row whose {@code card} is null;
+     * the "no section" column has a null {@code sectionId}.
+     */
+    public record BoardRow(UUID sectionId, String sectionName, Integer sectionPosition, long columnSize,
+                           String cardRank, TaskSummaryView card) {
+    }
+
+    /**
+     * Stream the board of a project, at most {@code columnLimit} cards per column
+     */
+    public void streamBoard(UUID projectId, int columnLimit, Consumer<BoardRow> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(BOARD_SQL);
+            ps.setFetchSize(FETCH_SIZE);
+            int index = 1;
+            // No section: its size, then its two limited parts and the merged limit
+            ps.setObject(index++, projectId);
+            ps.setObject(index++, projectId);
+            ps.setObject(index++, projectId);
+            ps.setInt(index++, columnLimit);
+            ps.setObject(index++, projectId);
+            ps.setInt(index++, columnLimit);
+            ps.setInt(index++, columnLimit);
+            // Live sections
+            ps.setInt(index++, columnLimit);
+            ps.setObject(index, projectId);
+            return ps;
+        }, rs -> {
+            consumer.accept(new BoardRow(
+                    rs.getObject("column_id", UUID.class),
+                    rs.getString("column_name"),
+                    rs.getObject("column_position", Integer.class),
+                    rs.getLong("column_size"),
+                    rs.getString("card_rank_key"),
+                    rs.getObject("id") != null ? TaskSummaryView.fromRow(rs) : null));
+        });
+    }
+}
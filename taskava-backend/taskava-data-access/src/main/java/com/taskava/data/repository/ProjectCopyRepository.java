@@ -0,0 +1,216 @@
+package com.taskava.data.repository;
+
+import com.taskava.data.repository.TaskCopyRepository.TaskCopy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Set-based copies of a project and of what belongs to it: sections, members, custom field
+ * assignments, automation rules and, batch by batch, the project memberships and project-scoped
+ * custom field values of copied tasks. Like {@link TaskCopyRepository}, copies get their ids from
+ * the caller, so every reference between copied rows is remapped inside the statement that
+ * writes them.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProjectCopyRepository {
+
+    // Copies start over as active projects without a status update
+    private static final String COPY_PROJECT_SQL = """
+        INSERT INTO projects (id, name, description, color, icon, status, privacy, settings, workspace_id, team_id,
+                              created_at, created_by, version, is_deleted)
+        SELECT ?, ?, p.description, p.color, p.icon, 'ACTIVE', p.privacy, p.settings, p.workspace_id, p.team_id,
+               NOW(), ?, 0, FALSE
+        FROM projects p
+        WHERE p.id = ?
+        """;
+
+    // Deleted sections are copied too, still deleted, so memberships that point at them keep a
+    // column and every rank stays unique in its column
+    private static final String COPY_SECTIONS_SQL = """
+        INSERT INTO project_sections (id, project_id, name, position, created_at, created_by, version,
+                                      is_deleted, deleted_at, deleted_by)
+        SELECT c.copy_id, ?, s.name, s.position, NOW(), ?, 0, s.is_deleted, s.deleted_at, s.deleted_by
+        FROM unnest(?::uuid[], ?::uuid[]) AS c(source_id, copy_id)
+        JOIN project_sections s ON s.id = c.source_id
+        """;
+
+    private static final String COPY_MEMBERS_SQL = """
+        INSERT INTO project_members (project_id, user_id)
+        SELECT ?, m.user_id
+        FROM project_members m
+        WHERE m.project_id = ?
+        ON CONFLICT DO NOTHING
+        """;
+
+    private static final String COPY_CUSTOM_FIELDS_SQL = """
+        INSERT INTO project_custom_fields (project_id, custom_field_id, is_required, position)
+        SELECT ?, f.custom_field_id, f.is_required, f.position
+        FROM project_custom_fields f
+        WHERE f.project_id = ?
+        ON CONFLICT DO NOTHING
+        """;
+
+    // Rules refer to the project and its sections by id inside their JSON documents
+    private static final String COPY_AUTOMATION_RULES_SQL = """
+        INSERT INTO automation_rules (project_id, name, description, trigger_type, trigger_config, conditions,
+                                      actions, is_active, execution_count, created_at, created_by, version, is_deleted)
+        SELECT ?, r.name, r.description, r.trigger_type,
+               remap_uuids(r.trigger_config, ?::uuid[], ?::uuid[]),
+               remap_uuids(r.conditions, ?::uuid[], ?::uuid[]),
+               remap_uuids(r.actions, ?::uuid[], ?::uuid[]),
+               r.is_active, 0, NOW(), ?, 0, FALSE
+        FROM automation_rules r
+        WHERE r.project_id = ?
+        AND r.is_deleted = FALSE
+        """;
+
+    // Ranks are copied verbatim: the copy's columns are empty and mirror the source's
+    private static final String COPY_MEMBERSHIPS_SQL = """
+        INSERT INTO task_projects (task_id, project_id, section_id, rank_key, added_at, added_by, workspace_id)
+        SELECT c.copy_id, ?, s.copy_id, tp.rank_key, NOW(), ?, tp.workspace_id
+        FROM unnest(?::uuid[], ?::uuid[]) AS c(source_id, copy_id)
+        JOIN task_projects tp ON tp.task_id = c.source_id AND tp.project_id = ?
+        LEFT JOIN unnest(?::uuid[], ?::uuid[]) AS s(source_id, copy_id) ON s.source_id = tp.section_id
+        ON CONFLICT (task_id, project_id) DO NOTHING
+        """;
+
+    // The copy stays in the source's workspace, so its values go to the same partition (V25)
+    private static final String COPY_PROJECT_FIELD_VALUES_SQL = """
+        INSERT INTO task_custom_field_values_v2 (workspace_id, task_id, custom_field_id, project_id, text_value,
+                                                 number_value, date_value, boolean_value, json_value,
+                                                 updated_at, updated_by)
+        SELECT v.workspace_id, c.copy_id, v.custom_field_id, ?, v.text_value,
+               v.number_value, v.date_value, v.boolean_value, v.json_value, NOW(), ?
+        FROM unnest(?::uuid[], ?::uuid[]) AS c(source_id, copy_id)
+        JOIN task_custom_field_values_v2 v ON v.task_id = c.source_id AND v.project_id = ?
+        WHERE v.workspace_id = (SELECT workspace_id FROM projects WHERE id = ?)
+        ON CONFLICT ON CONSTRAINT uk_task_custom_value_v2 DO NOTHING
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert a copy of a project named {@code name}, created by {@code userId}. Returns false when
+     * the source project does not exist.
+     */
+    public boolean copyProject(UUID sourceId, UUID copyId, String name, UUID userId) {
+        return jdbcTemplate.update(COPY_PROJECT_SQL, copyId, name, userId, sourceId) > 0;
+    }
+
+    /**
+     * Copy every section of a project to its copy. Returns the copy id of each section by source id.
+     */
+    public Map<UUID, UUID> copySections(UUID sourceProjectId, UUID copyProjectId, UUID userId) {
+        Map<UUID, UUID> sectionCopies = new LinkedHashMap<>();
+        for (UUID sectionId : jdbcTemplate.queryForList(
+                "SELECT id FROM project_sections WHERE project_id = ? ORDER BY position, id", UUID.class,
+                sourceProjectId)) {
+            sectionCopies.put(sectionId, UUID.randomUUID());
+        }
+        if (sectionCopies.isEmpty()) {
+            return sectionCopies;
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(COPY_SECTIONS_SQL);
+            ps.setObject(1, copyProjectId);
+            ps.setObject(2, userId);
+            ps.setArray(3, connection.createArrayOf("uuid", sectionCopies.keySet().toArray()));
+            ps.setArray(4, connection.createArrayOf("uuid", sectionCopies.values().toArray()));
+            return ps;
+        });
+        return sectionCopies;
+    }
+
+    public int copyMembers(UUID sourceProjectId, UUID copyProjectId) {
+        return jdbcTemplate.update(COPY_MEMBERS_SQL, copyProjectId, sourceProjectId);
+    }
+
+    public int copyCustomFields(UUID sourceProjectId, UUID copyProjectId) {
+        return jdbcTemplate.update(COPY_CUSTOM_FIELDS_SQL, copyProjectId, sourceProjectId);
+    }
+
+    /**
+     * Copy the live automation rules of a project, rewriting the ids in {@code idCopies} (the
+     * project's and its sections') to their copies. Copied rules start with no executions.
+     */
+    public int copyAutomationRules(UUID sourceProjectId, UUID copyProjectId, Map<UUID, UUID> idCopies,
+                                   UUID userId) {
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(COPY_AUTOMATION_RULES_SQL);
+            ps.setObject(1, copyProjectId);
+            for (int i = 0; i < 3; i++) {
+                ps.setArray(2 + 2 * i, connection.createArrayOf("uuid", idCopies.keySet().toArray()));
+                ps.setArray(3 + 2 * i, connection.createArrayOf("uuid", idCopies.values().toArray()));
+            }
+            ps.setObject(8, userId);
+            ps.setObject(9, sourceProjectId);
+            return ps;
+        });
+    }
+
+    /**
+     * Add copies of tasks to the project copy, in the copies of the sections and at the ranks their
+     * sources have in the source project. Copies of tasks that are not in the source project (such
+     * as subtasks) stay out of the copy too.
+     */
+    public int copyMemberships(Collection<TaskCopy> copies, UUID sourceProjectId, UUID copyProjectId,
+                               Map<UUID, UUID> sectionCopies, UUID userId) {
+        if (copies.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(COPY_MEMBERSHIPS_SQL);
+            ps.setObject(1, copyProjectId);
+            ps.setObject(2, userId);
+            ps.setArray(3, connection.createArrayOf("uuid", copies.stream().map(TaskCopy::sourceId).toArray()));
+            ps.setArray(4, connection.createArrayOf("uuid", copies.stream().map(TaskCopy::copyId).toArray()));
+            ps.setObject(5, sourceProjectId);
+            ps.setArray(6, connection.createArrayOf("uuid", sectionCopies.keySet().toArray()));
+            ps.setArray(7, connection.createArrayOf("uuid", sectionCopies.values().toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Copy the custom field values the sources have in the source project to their copies in the
+     * project copy
+     */
+    public int copyProjectFieldValues(Collection<TaskCopy> copies, UUID sourceProjectId, UUID copyProjectId,
+                                      UUID userId) {
+        if (copies.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(COPY_PROJECT_FIELD_VALUES_SQL);
+            ps.setObject(1, copyProjectId);
+            ps.setObject(2, userId);
+            ps.setArray(3, connection.createArrayOf("uuid", copies.stream().map(TaskCopy::sourceId).toArray()));
+            ps.setArray(4, connection.createArrayOf("uuid", copies.stream().map(TaskCopy::copyId).toArray()));
+            ps.setObject(5, sourceProjectId);
+            ps.setObject(6, sourceProjectId);
+            return ps;
+        });
+    }
+
+    /**
+     * Soft-delete a project copy with its sections and automation rules, to discard a copy that
+     * could not be finished
+     */
+    public void discard(UUID copyProjectId, UUID userId) {
+        for (String table : List.of("project_sections", "automation_rules")) {
+            jdbcTemplate.update("UPDATE " + table + " SET is_deleted = TRUE, deleted_at = NOW(), deleted_by = ? " +
+                    "WHERE project_id = ? AND is_deleted = FALSE", userId, copyProjectId);
+        }
+        jdbcTemplate.update("UPDATE projects SET is_deleted = TRUE, deleted_at = NOW(), deleted_by = ? WHERE id = ?",
+                userId, copyProjectId);
+    }
+}
@@ -0,0 +1,53 @@
+package com.taskava.data.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes section positions of a project in one statement. Position uniqueness is a deferred
+ * constraint (V14), so sections may trade places within the statement and are only checked
+ * once at commit.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProjectSectionOrderRepository {
+
+    private static final String UPDATE_POSITIONS_SQL = """
+        UPDATE project_sections s
+        SET position = v.position, version = COALESCE(version, 0) + 1, updated_at = NOW(), updated_by = ?
+        FROM unnest(?::uuid[], ?::integer[]) AS v(id, position)
+        WHERE s.id = v.id
+        AND s.project_id = ?
+        AND s.is_deleted = FALSE
+        AND s.position <> v.position
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Set the positions of live sections of a project. Returns the number of sections that moved.
+     */
+    public int updatePositions(UUID projectId, Map<UUID, Integer> positions, UUID userId) {
+        if (positions.isEmpty()) {
+            return 0;
+        }
+        UUID[] ids = positions.keySet().toArray(new UUID[0]);
+        Integer[] values = new Integer[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            values[i] = positions.get(ids[i]);
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(UPDATE_POSITIONS_SQL);
+            ps.setObject(1, userId);
+            ps.setArray(2, connection.createArrayOf("uuid", ids));
+            ps.setArray(3, connection.createArrayOf("integer", values));
+            ps.setObject(4, projectId);
+            return ps;
+        });
+    }
+}
@@ -34,28 +34,6 @@ public interface ProjectSectionRepository extends JpaRepository<ProjectSection,
     @Query("SELECT COUNT(s) FROM ProjectSection s WHERE s.project.id = :projectId AND s.deleted = false")
     Long countByProjectId(@Param("projectId") UUID projectId);
 
-    // Update positions of sections after a specific position
-    @Modifying
-    @Query("UPDATE ProjectSection s SET s.position = s.position + :delta " +
-           "WHERE s.project.id = :projectId " +
-           "AND s.position >= :fromPosition " +
-           "AND s.deleted = false")
-    void updatePositionsAfter(@Param("projectId") UUID projectId, 
-                             @Param("fromPosition") Integer fromPosition, 
-                             @Param("delta") Integer delta);
-
-    // Update positions of sections between two positions
-    @Modifying
-    @Query("UPDATE ProjectSection s SET s.position = s.position + :delta " +
-           "WHERE s.project.id = :projectId " +
-           "AND s.position >= :fromPosition " +
-           "AND s.position <= :toPosition " +
-           "AND s.deleted = false")
-    void updatePositionsBetween(@Param("projectId") UUID projectId, 
-                                @Param("fromPosition") Integer fromPosition,
-                                @Param("toPosition") Integer toPosition,
-                                @Param("delta") Integer delta);
-
     // Delete all sections for a project (soft delete handled by entity)
     @Modifying
     @Query("UPDATE ProjectSection s SET s.deleted = true, s.deletedAt = CURRENT_TIMESTAMP " +
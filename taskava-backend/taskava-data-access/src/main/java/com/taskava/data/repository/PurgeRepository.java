@@ -0,0 +1,204 @@
+package com.taskava.data.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Hard-deletes rows that were soft-deleted longer ago than a retention window (V23). Each call
+ * purges one batch of one {@link PurgeTarget}: it locks the oldest eligible rows, skipping rows
+ * locked by a purge on another node, removes what still references them and then the rows
+ * themselves, all in the caller's transaction. A row is only eligible once nothing that would
+ * outlive it still hangs off it, so subtasks and replies go before their parents.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PurgeRepository {
+
+    /**
+     * What the purge removes, in the order it should run: rows of a later target may still be
+     * referenced by rows of an earlier one, never the other way round. {@code dependentSql}
+     * removes the rows, live or not, that belong to a batch about to be purged and have no
+     * cascading foreign key to it.
+     */
+    public enum PurgeTarget {
+        ATTACHMENTS("attachments", """
+                SELECT id FROM attachments
+                WHERE is_deleted = TRUE AND deleted_at < NOW() - make_interval(days => ?)
+                ORDER BY deleted_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """),
+
+        // Replies are purged before the comments they answer
+        COMMENTS("comments", """
+                SELECT c.id FROM comments c
+                WHERE c.is_deleted = TRUE AND c.deleted_at < NOW() - make_interval(days => ?)
+                AND NOT EXISTS (SELECT 1 FROM comments r WHERE r.parent_comment_id = c.id)
+                ORDER BY c.deleted_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """,
+                "DELETE FROM attachments WHERE comment_id = ANY(?)"),
+
+        // Subtasks are purged before their parents; occurrences of a purged recurring template
+        // stay as plain tasks
+        TASKS("tasks", """
+                SELECT t.id FROM tasks t
+                WHERE t.is_deleted = TRUE AND t.deleted_at < NOW() - make_interval(days => ?)
+                AND NOT EXISTS (SELECT 1 FROM tasks c WHERE c.parent_task_id = t.id)
+                ORDER BY t.deleted_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """,
+                "UPDATE tasks SET recurring_task_template_id = NULL WHERE recurring_task_template_id = ANY(?)",
+                "DELETE FROM attachments WHERE comment_id IN (SELECT id FROM comments WHERE task_id = ANY(?))",
+                "DELETE FROM attachments WHERE task_id = ANY(?)",
+                "DELETE FROM comments WHERE task_id = ANY(?)",
+                "DELETE FROM task_projects WHERE task_id = ANY(?)",
+                "DELETE FROM task_dependencies WHERE task_id = ANY(?) OR depends_on_task_id = ANY(?)",
+                "DELETE FROM task_followers WHERE task_id = ANY(?)",
+                "DELETE FROM task_tags WHERE task_id = ANY(?)",
+                "DELETE FROM task_custom_field_values WHERE task_id = ANY(?)"),
+
+        FORMS("forms", """
+                SELECT id FROM forms
+                WHERE is_deleted = TRUE AND deleted_at < NOW() - make_interval(days => ?)
+                ORDER BY deleted_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """),
+
+        AUTOMATION_RULES("automation_rules", """
+                SELECT id FROM automation_rules
+                WHERE is_deleted = TRUE AND deleted_at < NOW() - make_interval(days => ?)
+                ORDER BY deleted_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """),
+
+        // A section waits until no task is placed in it any more, deleted or not, so a task
+        // restored later finds its column
+        PROJECT_SECTIONS("project_sections", """
+                SELECT s.id FROM project_sections s
+                WHERE s.is_deleted = TRUE AND s.deleted_at < NOW() - make_interval(days => ?)
+                AND NOT EXISTS (SELECT 1 FROM task_projects tp WHERE tp.section_id = s.id)
+                ORDER BY s.deleted_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """),
+
+        // Tasks of a purged project that live on in other projects just lose their place in it
+        PROJECTS("projects", """
+                SELECT id FROM projects
+                WHERE is_deleted = TRUE AND deleted_at < NOW() - make_interval(days => ?)
+                ORDER BY deleted_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """,
+                "DELETE FROM task_projects WHERE project_id = ANY(?)",
+                "DELETE FROM project_members WHERE project_id = ANY(?)",
+                "DELETE FROM project_tags WHERE project_id = ANY(?)",
+                "DELETE FROM project_custom_field_values WHERE project_id = ANY(?)",
+                "DELETE FROM milestones WHERE project_id = ANY(?)",
+                "DELETE FROM sections WHERE project_id = ANY(?)");
+
+        private final String table;
+        private final String selectSql;
+        private final List<String> dependentSql;
+
+        PurgeTarget(String table, String selectSql, String... dependentSql) {
+            this.table = table;
+            this.selectSql = selectSql;
+            this.dependentSql = List.of(dependentSql);
+        }
+
+        public String table() {
+            return table;
+        }
+    }
+
+    /**
+     * The purge switch and the outcome of the last run
+     */
+    public record PurgeState(boolean paused, Instant pausedAt, UUID pausedBy, Instant lastRunStartedAt,
+                             Instant lastRunFinishedAt, long lastRunPurged) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Purge up to {@code limit} rows of {@code target} that were deleted more than
+     * {@code retentionDays} days ago. Returns the number purged; zero once none are left.
+     */
+    public int purgeBatch(PurgeTarget target, int retentionDays, int limit) {
+        List<UUID> ids = jdbcTemplate.queryForList(target.selectSql, UUID.class, retentionDays, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        for (String sql : target.dependentSql) {
+            updateWithIds(sql, ids);
+        }
+        return updateWithIds("DELETE FROM " + target.table + " WHERE id = ANY(?)", ids);
+    }
+
+    public Optional<PurgeState> findState() {
+        return jdbcTemplate.query("""
+                SELECT paused, paused_at, paused_by, last_run_started_at, last_run_finished_at, last_run_purged
+                FROM purge_state
+                """, (rs, rowNum) -> new PurgeState(
+                        rs.getBoolean("paused"),
+                        toInstant(rs.getTimestamp("paused_at")),
+                        rs.getObject("paused_by", UUID.class),
+                        toInstant(rs.getTimestamp("last_run_started_at")),
+                        toInstant(rs.getTimestamp("last_run_finished_at")),
+                        rs.getLong("last_run_purged")))
+                .stream().findFirst();
+    }
+
+    public boolean isPaused() {
+        Boolean paused = jdbcTemplate.queryForObject("SELECT paused FROM purge_state", Boolean.class);
+        return Boolean.TRUE.equals(paused);
+    }
+
+    public void setPaused(boolean paused, UUID userId) {
+        jdbcTemplate.update("""
+                UPDATE purge_state SET paused = ?,
+                    paused_at = CASE WHEN ? THEN NOW() END,
+                    paused_by = CASE WHEN ? THEN ?::uuid END
+                """, paused, paused, paused, userId);
+    }
+
+    public void markRunStarted() {
+        jdbcTemplate.update("UPDATE purge_state SET last_run_started_at = NOW(), last_run_finished_at = NULL");
+    }
+
+    public void markRunFinished(long purged) {
+        jdbcTemplate.update("UPDATE purge_state SET last_run_finished_at = NOW(), last_run_purged = ?", purged);
+    }
+
+    // Bind every placeholder of the statement to the same id array
+    private int updateWithIds(String sql, List<UUID> ids) {
+        int placeholders = (int) sql.chars().filter(c -> c == '?').count();
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            Array array = connection.createArrayOf("uuid", ids.toArray());
+            for (int i = 1; i <= placeholders; i++) {
+                ps.setArray(i, array);
+            }
+            return ps;
+        });
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
@@ -0,0 +1,54 @@
+package com.taskava.data.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Cluster-wide mutual exclusion for scheduled jobs that every node runs on the same schedule.
+ * A run holds a session-level advisory lock named after the job on one pooled connection for as
+ * long as it lasts; a node that finds the lock taken skips its run. The lock goes away with the
+ * connection, so a node that dies mid-run never blocks the others.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SchedulerLockRepository {
+
+    private static final String LOCK_SQL = "SELECT pg_try_advisory_lock(hashtextextended('scheduled_job:' || ?, 0))";
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtextextended('scheduled_job:' || ?, 0))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Run {@code job} unless another node is running the job of the same name. Returns whether it ran.
+     */
+    public boolean runExclusively(String jobName, Runnable job) {
+        Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!call(connection, LOCK_SQL, jobName)) {
+                return false;
+            }
+            try {
+                job.run();
+                return true;
+            } finally {
+                call(connection, UNLOCK_SQL, jobName);
+            }
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    private static boolean call(Connection connection, String sql, String jobName) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, jobName);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.taskava.data.repository;
+
+import com.taskava.data.entity.Task.Priority;
+import com.taskava.data.entity.Task.TaskStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based task updates for bulk operations. Each statement updates a whole chunk of ids with
+ * {@code UPDATE ... WHERE id = ANY(?)} and returns the new row versions, so bulk edits never
+ * load entities into the persistence context. Callers that must not hold the locks of a whole
+ * bulk edit until it ends split the ids with {@link #chunks} and commit each chunk on its own.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class TaskBulkRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${bulk-operations.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Id and version of a task after a bulk update
+     */
+    public record TaskVersion(UUID id, Long version) {
+    }
+
+    /**
+     * A task's status change in a bulk update, with the status it had before
+     */
+    public record StatusChange(UUID id, Long version, UUID workspaceId, TaskStatus previousStatus) {
+
+        public TaskVersion taskVersion() {
+            return new TaskVersion(id, version);
+        }
+    }
+
+    /**
+     * Split task ids into chunks of {@code bulk-operations.chunk-size}
+     */
+    public List<List<UUID>> chunks(Collection<UUID> taskIds) {
+        List<UUID> ids = new ArrayList<>(taskIds);
+        List<List<UUID>> chunks = new ArrayList<>((ids.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Set the status of tasks. The rows are locked before they are read, so the previous status
+     * returned for each task is the one this update replaced.
+     */
+    public List<StatusChange> updateStatus(Collection<UUID> taskIds, TaskStatus status, UUID workspaceId, UUID userId) {
+        String sql = """
+                UPDATE tasks t SET status = ?,
+                    completed_at = CASE WHEN ? = 'COMPLETED' THEN COALESCE(t.completed_at, NOW()) ELSE NULL END,
+                    version = COALESCE(t.version, 0) + 1, updated_at = NOW(), updated_by = ?
+                FROM (
+                    SELECT id, status FROM tasks
+                    WHERE id = ANY(?) AND is_deleted = FALSE%s
+                    FOR UPDATE
+                ) prior
+                WHERE t.id = prior.id
+                RETURNING t.id, t.version, t.workspace_id, prior.status AS previous_status
+                """.formatted(workspaceId != null ? " AND workspace_id = ?" : "");
+        return updateInChunks(sql, List.of(status.name(), status.name()), taskIds, workspaceId, userId,
+                (rs, rowNum) -> {
+                    String previous = rs.getString("previous_status");
+                    return new StatusChange(rs.getObject("id", UUID.class), rs.getLong("version"),
+                            rs.getObject("workspace_id", UUID.class),
+                            previous != null ? TaskStatus.valueOf(previous) : null);
+                });
+    }
+
+    public List<TaskVersion> updatePriority(Collection<UUID> taskIds, Priority priority, UUID workspaceId, UUID userId) {
+        return updateInChunks("priority = ?", List.of(priority.name()), taskIds, workspaceId, userId);
+    }
+
+    public List<TaskVersion> updateAssignee(Collection<UUID> taskIds, UUID assigneeId, UUID workspaceId, UUID userId) {
+        List<Object> args = new ArrayList<>();
+        args.add(assigneeId);
+        return updateInChunks("assignee_id = ?", args, taskIds, workspaceId, userId);
+    }
+
+    public List<TaskVersion> updateDueDate(Collection<UUID> taskIds, LocalDate dueDate, UUID workspaceId, UUID userId) {
+        List<Object> args = new ArrayList<>();
+        args.add(dueDate);
+        return updateInChunks("due_date = ?", args, taskIds, workspaceId, userId);
+    }
+
+    /**
+     * Soft-delete tasks as the tops of deletion {@code deletionId}; their subtrees are cascaded
+     * separately
+     */
+    public List<TaskVersion> softDelete(Collection<UUID> taskIds, UUID deletionId, UUID workspaceId, UUID userId) {
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+        args.add(deletionId);
+        return updateInChunks("is_deleted = TRUE, deleted_at = NOW(), deleted_by = ?, deletion_id = ?", args,
+                taskIds, workspaceId, userId);
+    }
+
+    private List<TaskVersion> updateInChunks(String assignments, List<Object> assignmentArgs,
+                                             Collection<UUID> taskIds, UUID workspaceId, UUID userId) {
+        String sql = "UPDATE tasks SET " + assignments.strip() + ", " +
+                "version = COALESCE(version, 0) + 1, updated_at = NOW(), updated_by = ? " +
+                "WHERE id = ANY(?) AND is_deleted = FALSE" +
+                (workspaceId != null ? " AND workspace_id = ?" : "") +
+                " RETURNING id, version";
+        return updateInChunks(sql, assignmentArgs, taskIds, workspaceId, userId,
+                (rs, rowNum) -> new TaskVersion(rs.getObject("id", UUID.class), rs.getLong("version")));
+    }
+
+    // Binds the assignment arguments, the user, the chunk of ids and the workspace, in that order
+    private <T> List<T> updateInChunks(String sql, List<Object> assignmentArgs, Collection<UUID> taskIds,
+                                       UUID workspaceId, UUID userId, RowMapper<T> rowMapper) {
+        List<T> updated = new ArrayList<>(taskIds.size());
+
+        for (List<UUID> chunk : chunks(taskIds)) {
+            updated.addAll(jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql);
+                int index = 1;
+                for (Object arg : assignmentArgs) {
+                    ps.setObject(index++, arg);
+                }
+                ps.setObject(index++, userId);
+                ps.setArray(index++, connection.createArrayOf("uuid", chunk.toArray()));
+                if (workspaceId != null) {
+                    ps.setObject(index, workspaceId);
+                }
+                return ps;
+            }, rowMapper));
+        }
+
+        log.debug("Bulk updated {} of {} tasks in chunks of {}", updated.size(), taskIds.size(), chunkSize);
+        return updated;
+    }
+}
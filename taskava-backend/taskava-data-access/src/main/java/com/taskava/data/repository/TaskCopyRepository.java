@@ -0,0 +1,182 @@
+package com.taskava.data.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based copies of tasks and what hangs off them. Every method copies a whole batch of tasks
+ * with one {@code INSERT ... SELECT} over an {@code unnest} of (source id, copy id) pairs, so the
+ * cost of a copy grows with the number of statements per batch, not with the number of tasks.
+ * Copies get their ids from the caller, which is what lets links between copied tasks (parents,
+ * dependencies) be remapped without reading anything back.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskCopyRepository {
+
+    // Copies start over as new work: to do, no progress, no actuals, not recurring
+    private static final String COPY_TASKS_SQL = """
+        INSERT INTO tasks (id, title, description, task_number, workspace_id, status, priority, task_type,
+                           start_date, due_date, due_time, estimated_hours, story_points, progress_percentage,
+                           assignee_id, created_by_user_id, parent_task_id, is_recurring,
+                           created_at, created_by, version, is_deleted)
+        SELECT c.copy_id, s.title, s.description, c.task_number, s.workspace_id, 'TODO', s.priority, s.task_type,
+               s.start_date, s.due_date, s.due_time, s.estimated_hours, s.story_points, 0,
+               s.assignee_id, ?, c.parent_id, FALSE,
+               NOW(), ?, 0, FALSE
+        FROM unnest(?::uuid[], ?::uuid[], ?::uuid[], ?::bigint[]) WITH ORDINALITY
+             AS c(source_id, copy_id, parent_id, task_number, ord)
+        JOIN tasks s ON s.id = c.source_id
+        ORDER BY c.ord
+        """;
+
+    private static final String COPY_TAGS_SQL = """
+        INSERT INTO task_tags (task_id, tag_id)
+        SELECT c.copy_id, tt.tag_id
+        FROM unnest(?::uuid[], ?::uuid[]) AS c(source_id, copy_id)
+        JOIN task_tags tt ON tt.task_id = c.source_id
+        ON CONFLICT DO NOTHING
+        """;
+
+    private static final String COPY_FOLLOWERS_SQL = """
+        INSERT INTO task_followers (task_id, user_id)
+        SELECT c.copy_id, tf.user_id
+        FROM unnest(?::uuid[], ?::uuid[]) AS c(source_id, copy_id)
+        JOIN task_followers tf ON tf.task_id = c.source_id
+        ON CONFLICT DO NOTHING
+        """;
+
+    private static final String COPY_CUSTOM_FIELD_VALUES_SQL = """
+        INSERT INTO task_custom_field_values (task_id, custom_field_id, field_value)
+        SELECT c.copy_id, v.custom_field_id, v.field_value
+        FROM unnest(?::uuid[], ?::uuid[]) AS c(source_id, copy_id)
+        JOIN task_custom_field_values v ON v.task_id = c.source_id
+        ON CONFLICT DO NOTHING
+        """;
+
+    // Only dependencies with both ends among the sources are copied, between their copies
+    private static final String COPY_DEPENDENCIES_SQL = """
+        WITH c AS (
+            SELECT * FROM unnest(?::uuid[], ?::uuid[]) AS c(source_id, copy_id)
+        )
+        INSERT INTO task_dependencies_v2 (predecessor_id, successor_id, dependency_type, lag_days, created_by)
+        SELECT p.copy_id, s.copy_id, d.dependency_type, d.lag_days, ?
+        FROM task_dependencies_v2 d
+        JOIN c p ON p.source_id = d.predecessor_id
+        JOIN c s ON s.source_id = d.successor_id
+        ON CONFLICT ON CONSTRAINT uk_task_dependency_v2 DO NOTHING
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A task to copy: the copy gets {@code copyId}, {@code taskNumber} and, remapped by the caller,
+     * {@code copyParentId} (null for a top-level copy)
+     */
+    public record TaskCopy(UUID sourceId, UUID copyId, UUID copyParentId, long taskNumber) {
+    }
+
+    /**
+     * Insert copies of tasks in the order given, which must put every parent before its children.
+     * Copies are created by {@code userId}.
+     */
+    public int copyTasks(List<TaskCopy> copies, UUID userId) {
+        if (copies.isEmpty()) {
+            return 0;
+        }
+        int size = copies.size();
+        UUID[] sourceIds = new UUID[size];
+        UUID[] copyIds = new UUID[size];
+        UUID[] parentIds = new UUID[size];
+        Long[] taskNumbers = new Long[size];
+        for (int i = 0; i < size; i++) {
+            TaskCopy copy = copies.get(i);
+            sourceIds[i] = copy.sourceId();
+            copyIds[i] = copy.copyId();
+            parentIds[i] = copy.copyParentId();
+            taskNumbers[i] = copy.taskNumber();
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(COPY_TASKS_SQL);
+            ps.setObject(1, userId);
+            ps.setObject(2, userId);
+            ps.setArray(3, connection.createArrayOf("uuid", sourceIds));
+            ps.setArray(4, connection.createArrayOf("uuid", copyIds));
+            ps.setArray(5, connection.createArrayOf("uuid", parentIds));
+            ps.setArray(6, connection.createArrayOf("bigint", taskNumbers));
+            return ps;
+        });
+    }
+
+    /**
+     * Give a copy its own title and, when {@code assigneeId} is set, another assignee
+     */
+    public void overrideCopy(UUID copyId, String title, UUID assigneeId) {
+        jdbcTemplate.update("UPDATE tasks SET title = ?, assignee_id = COALESCE(?, assignee_id) WHERE id = ?",
+                title, assigneeId, copyId);
+    }
+
+    public int copyTags(Collection<TaskCopy> copies) {
+        return copyPairs(COPY_TAGS_SQL, copies);
+    }
+
+    public int copyFollowers(Collection<TaskCopy> copies) {
+        return copyPairs(COPY_FOLLOWERS_SQL, copies);
+    }
+
+    public int copyCustomFieldValues(Collection<TaskCopy> copies) {
+        return copyPairs(COPY_CUSTOM_FIELD_VALUES_SQL, copies);
+    }
+
+    /**
+     * Copy the dependencies between the sources to their copies, created by {@code userId}
+     */
+    public int copyDependencies(Collection<TaskCopy> copies, UUID userId) {
+        if (copies.size() < 2) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(COPY_DEPENDENCIES_SQL);
+            ps.setArray(1, connection.createArrayOf("uuid", copies.stream().map(TaskCopy::sourceId).toArray()));
+            ps.setArray(2, connection.createArrayOf("uuid", copies.stream().map(TaskCopy::copyId).toArray()));
+            ps.setObject(3, userId);
+            return ps;
+        });
+    }
+
+    /**
+     * Soft-delete copies, to discard a copy that could not be finished
+     */
+    public int discard(Collection<UUID> copyIds, UUID userId) {
+        if (copyIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement("""
+                    UPDATE tasks SET is_deleted = TRUE, deleted_at = NOW(), deleted_by = ?
+                    WHERE id = ANY(?) AND is_deleted = FALSE
+                    """);
+            ps.setObject(1, userId);
+            ps.setArray(2, connection.createArrayOf("uuid", copyIds.toArray()));
+            return ps;
+        });
+    }
+
+    private int copyPairs(String sql, Collection<TaskCopy> copies) {
+        if (copies.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setArray(1, connection.createArrayOf("uuid", copies.stream().map(TaskCopy::sourceId).toArray()));
+            ps.setArray(2, connection.createArrayOf("uuid", copies.stream().map(TaskCopy::copyId).toArray()));
+            return ps;
+        });
+    }
+}
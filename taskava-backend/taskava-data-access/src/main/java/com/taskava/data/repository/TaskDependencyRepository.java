@@ -0,0 +1,209 @@
+package com.taskava.data.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Typed task dependencies ({@code task_dependencies_v2}). Reads are shaped for the in-memory
+ * dependency graph: a project's whole graph is loaded with one statement, and graph versions
+ * (maintained by the V15 triggers) tell whether a cached graph is still current.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskDependencyRepository {
+
+    public static final List<String> DEPENDENCY_TYPES =
+            List.of("finish_start", "finish_finish", "start_start", "start_finish");
+
+    private static final String EDGE_COLUMNS = "d.id, d.predecessor_id, d.successor_id, d.dependency_type, d.lag_days";
+
+    // Every dependency with at least one end in the project, whether both ends are live, and the
+    // projects of both ends. Dependencies of deleted tasks are kept because a restore brings them back.
+    private static final String PROJECT_GRAPH_SQL = """
+        SELECT %s, NOT (p.is_deleted OR s.is_deleted) AS live,
+               ARRAY(SELECT project_id FROM task_projects WHERE task_id = d.predecessor_id) AS predecessor_projects,
+               ARRAY(SELECT project_id FROM task_projects WHERE task_id = d.successor_id) AS successor_projects
+        FROM task_dependencies_v2 d
+        JOIN tasks p ON p.id = d.predecessor_id
+        JOIN tasks s ON s.id = d.successor_id
+        WHERE d.successor_id IN (SELECT task_id FROM task_projects WHERE project_id = ?)
+        OR d.predecessor_id IN (SELECT task_id FROM task_projects WHERE project_id = ?)
+        """.formatted(EDGE_COLUMNS);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A dependency: {@code successorId} cannot start (or finish, depending on the type) until
+     * {@code predecessorId} has, offset by {@code lagDays}
+     */
+    public record DependencyEdge(UUID id, UUID predecessorId, UUID successorId, String dependencyType, int lagDays) {
+    }
+
+    /**
+     * A dependency of a project graph with the projects its two tasks belong to. A dependency is
+     * live while neither of its tasks is deleted.
+     */
+    public record GraphEdge(DependencyEdge edge, boolean live, List<UUID> predecessorProjects,
+                            List<UUID> successorProjects) {
+    }
+
+    /**
+     * A dependency with the titles and statuses of both tasks
+     */
+    public record DependencyDetail(DependencyEdge edge, String predecessorTitle, String predecessorStatus,
+                                   String successorTitle, String successorStatus, Instant createdAt,
+                                   UUID createdBy) {
+    }
+
+    /**
+     * Serialize dependency changes within a workspace until the transaction ends, so concurrent
+     * additions cannot close a cycle that neither of them sees alone
+     */
+    public void lockWorkspaceDependencies(UUID workspaceId) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtextextended('task_dependencies:' || ?::text, 0))",
+                rs -> null, workspaceId);
+    }
+
+    /**
+     * Current graph versions of the projects; projects whose graph never changed are at 0
+     */
+    public Map<UUID, Long> findGraphVersions(Collection<UUID> projectIds) {
+        Map<UUID, Long> versions = new HashMap<>();
+        for (UUID projectId : projectIds) {
+            versions.put(projectId, 0L);
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT project_id, version FROM dependency_graph_versions WHERE project_id = ANY(?)");
+            ps.setArray(1, connection.createArrayOf("uuid", projectIds.toArray()));
+            return ps;
+        }, rs -> {
+            versions.put(rs.getObject("project_id", UUID.class), rs.getLong("version"));
+        });
+        return versions;
+    }
+
+    public List<GraphEdge> findProjectGraph(UUID projectId) {
+        return jdbcTemplate.query(PROJECT_GRAPH_SQL, (rs, rowNum) -> new GraphEdge(mapEdge(rs),
+                rs.getBoolean("live"), uuids(rs, "predecessor_projects"), uuids(rs, "successor_projects")), projectId, projectId);
+    }
+
+    /**
+     * Projects of each task; tasks without a project are absent
+     */
+    public Map<UUID, List<UUID>> findProjectIds(Collection<UUID> taskIds) {
+        Map<UUID, List<UUID>> projects = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT task_id, project_id FROM task_projects WHERE task_id = ANY(?)");
+            ps.setArray(1, connection.createArrayOf("uuid", taskIds.toArray()));
+            return ps;
+        }, rs -> {
+            projects.computeIfAbsent(rs.getObject("task_id", UUID.class), k -> new ArrayList<>())
+                    .add(rs.getObject("project_id", UUID.class));
+        });
+        return projects;
+    }
+
+    /**
+     * Dependencies whose predecessor is one of the tasks, only live ones unless
+     * {@code includeDeleted}. Used for tasks outside any project, which no project graph covers.
+     */
+    public List<DependencyEdge> findOutgoing(Collection<UUID> taskIds, boolean includeDeleted) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT " + EDGE_COLUMNS + " FROM task_dependencies_v2 d " +
+                    "JOIN tasks p ON p.id = d.predecessor_id " +
+                    "JOIN tasks s ON s.id = d.successor_id " +
+                    "WHERE d.predecessor_id = ANY(?) " +
+                    (includeDeleted ? "" : "AND p.is_deleted = FALSE AND s.is_deleted = FALSE"));
+            ps.setArray(1, connection.createArrayOf("uuid", taskIds.toArray()));
+            return ps;
+        }, (rs, rowNum) -> mapEdge(rs));
+    }
+
+    /**
+     * Live dependencies whose successor is one of the tasks
+     */
+    public List<DependencyEdge> findIncoming(Collection<UUID> taskIds) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT " + EDGE_COLUMNS + " FROM task_dependencies_v2 d " +
+                    "JOIN tasks p ON p.id = d.predecessor_id AND p.is_deleted = FALSE " +
+                    "WHERE d.successor_id = ANY(?)");
+            ps.setArray(1, connection.createArrayOf("uuid", taskIds.toArray()));
+            return ps;
+        }, (rs, rowNum) -> mapEdge(rs));
+    }
+
+    /**
+     * Live predecessors of a task with their details
+     */
+    public List<DependencyDetail> findPredecessors(UUID successorId) {
+        return jdbcTemplate.query("""
+                SELECT %s, d.created_at, d.created_by,
+                       p.title AS predecessor_title, p.status AS predecessor_status,
+                       s.title AS successor_title, s.status AS successor_status
+                FROM task_dependencies_v2 d
+                JOIN tasks p ON p.id = d.predecessor_id AND p.is_deleted = FALSE
+                JOIN tasks s ON s.id = d.successor_id
+                WHERE d.successor_id = ?
+                ORDER BY d.created_at, d.id
+                """.formatted(EDGE_COLUMNS), (rs, rowNum) -> new DependencyDetail(mapEdge(rs),
+                rs.getString("predecessor_title"), rs.getString("predecessor_status"),
+                rs.getString("successor_title"), rs.getString("successor_status"),
+                toInstant(rs.getTimestamp("created_at")), rs.getObject("created_by", UUID.class)), successorId);
+    }
+
+    /**
+     * Add a dependency, or update type and lag of the existing one between the same tasks
+     */
+    public DependencyEdge upsert(UUID predecessorId, UUID successorId, String dependencyType, int lagDays,
+                                 UUID userId) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO task_dependencies_v2 (predecessor_id, successor_id, dependency_type, lag_days, created_by)
+                VALUES (?, ?, ?, ?, ?)
+                ON CONFLICT (predecessor_id, successor_id)
+                DO UPDATE SET dependency_type = EXCLUDED.dependency_type, lag_days = EXCLUDED.lag_days
+                RETURNING id, predecessor_id, successor_id, dependency_type, lag_days
+                """, (rs, rowNum) -> mapEdge(rs), predecessorId, successorId, dependencyType, lagDays, userId);
+    }
+
+    public int delete(UUID predecessorId, UUID successorId) {
+        return jdbcTemplate.update("DELETE FROM task_dependencies_v2 WHERE predecessor_id = ? AND successor_id = ?",
+                predecessorId, successorId);
+    }
+
+    private static DependencyEdge mapEdge(ResultSet rs) throws SQLException {
+        return new DependencyEdge(
+                rs.getObject("id", UUID.class),
+                rs.getObject("predecessor_id", UUID.class),
+                rs.getObject("successor_id", UUID.class),
+                rs.getString("dependency_type"),
+                rs.getInt("lag_days"));
+    }
+
+    private static List<UUID> uuids(ResultSet rs, String column) throws SQLException {
+        Array array = rs.getArray(column);
+        return array == null ? List.of() : Arrays.asList((UUID[]) array.getArray());
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
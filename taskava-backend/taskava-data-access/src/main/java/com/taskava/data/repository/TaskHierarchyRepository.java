@@ -0,0 +1,177 @@
+package com.taskava.data.repository;
+
+import com.taskava.data.query.TaskSummaryView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Task trees read through the {@code task_hierarchy} closure table (V16), which holds every
+ * ancestor/descendant pair of {@code tasks.parent_task_id}. A subtree, a depth-bounded tree or
+ * the ancestor chain of a task is each one indexed lookup, however deep the tree is. The closure
+ * is maintained by a trigger on {@code tasks}, so writes only ever set the parent link.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskHierarchyRepository {
+
+    // Live descendants whose path up to the root runs only through live tasks
+    private static final String SUBTREE_SQL = """
+        SELECT h.depth, %s
+        FROM task_hierarchy h
+        JOIN tasks t ON t.id = h.descendant_id AND t.is_deleted = FALSE
+        LEFT JOIN users a ON a.id = t.assignee_id
+        WHERE h.ancestor_id = ?
+        AND h.depth <= ?
+        AND NOT EXISTS (
+            SELECT 1
+            FROM task_hierarchy x
+            JOIN tasks d ON d.id = x.ancestor_id AND d.is_deleted = TRUE
+            WHERE x.descendant_id = h.descendant_id
+            AND x.depth < h.depth
+        )
+        ORDER BY h.depth, t.parent_task_id, t.task_number, t.id
+        """.formatted(TaskSummaryView.SQL_COLUMNS);
+
+    // The root itself, then its live descendants as in SUBTREE_SQL, parents before children
+    private static final String SUBTREE_LINKS_SQL = """
+        SELECT t.id, t.parent_task_id, 0 AS depth
+        FROM tasks t
+        WHERE t.id = ?
+        AND t.is_deleted = FALSE
+        UNION ALL
+        SELECT t.id, t.parent_task_id, h.depth
+        FROM task_hierarchy h
+        JOIN tasks t ON t.id = h.descendant_id AND t.is_deleted = FALSE
+        WHERE h.ancestor_id = ?
+        AND NOT EXISTS (
+            SELECT 1
+            FROM task_hierarchy x
+            JOIN tasks d ON d.id = x.ancestor_id AND d.is_deleted = TRUE
+            WHERE x.descendant_id = h.descendant_id
+            AND x.depth < h.depth
+        )
+        ORDER BY depth, parent_task_id, id
+        """;
+
+    // Live tasks of a project and the live subtrees under them, whether or not the subtasks are
+    // in the project themselves
+    private static final String PROJECT_TASK_IDS_SQL = """
+        SELECT tp.task_id
+        FROM task_projects tp
+        JOIN tasks r ON r.id = tp.task_id AND r.is_deleted = FALSE
+        WHERE tp.project_id = ?
+        UNION
+        SELECT h.descendant_id
+        FROM task_projects tp
+        JOIN tasks r ON r.id = tp.task_id AND r.is_deleted = FALSE
+        JOIN task_hierarchy h ON h.ancestor_id = tp.task_id
+        JOIN tasks t ON t.id = h.descendant_id AND t.is_deleted = FALSE
+        WHERE tp.project_id = ?
+        AND NOT EXISTS (
+            SELECT 1
+            FROM task_hierarchy x
+            JOIN tasks d ON d.id = x.ancestor_id AND d.is_deleted = TRUE
+            WHERE x.descendant_id = h.descendant_id
+            AND x.depth < h.depth
+        )
+        """;
+
+    // The same tasks with their depth in their own tree, so every parent comes before its children
+    private static final String PROJECT_LINKS_SQL = """
+        SELECT t.id, t.parent_task_id,
+               (SELECT count(*) FROM task_hierarchy a WHERE a.descendant_id = t.id) AS depth
+        FROM tasks t
+        WHERE t.id IN (%s)
+        ORDER BY depth, t.parent_task_id, t.id
+        """.formatted(PROJECT_TASK_IDS_SQL);
+
+    private static final String ANCESTORS_SQL = """
+        SELECT h.depth, %s
+        FROM task_hierarchy h
+        JOIN tasks t ON t.id = h.ancestor_id AND t.is_deleted = FALSE
+        LEFT JOIN users a ON a.id = t.assignee_id
+        WHERE h.descendant_id = ?
+        ORDER BY h.depth DESC
+        """.formatted(TaskSummaryView.SQL_COLUMNS);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A task of a tree at {@code depth} below (or, for ancestors, above) the task asked about
+     */
+    public record TreeNode(int depth, TaskSummaryView task) {
+    }
+
+    /**
+     * A task of a subtree and its parent, {@code depth} levels below the subtree's root
+     */
+    public record SubtreeLink(UUID taskId, UUID parentId, int depth) {
+    }
+
+    /**
+     * Descendants of a task down to {@code maxDepth} levels, level by level and in task number
+     * order under each parent
+     */
+    public List<TreeNode> findSubtree(UUID rootId, int maxDepth) {
+        return jdbcTemplate.query(SUBTREE_SQL, (rs, rowNum) ->
+                new TreeNode(rs.getInt("depth"), TaskSummaryView.fromRow(rs)), rootId, maxDepth);
+    }
+
+    /**
+     * Ancestors of a task from the root down to its parent
+     */
+    public List<TreeNode> findAncestors(UUID taskId) {
+        return jdbcTemplate.query(ANCESTORS_SQL, (rs, rowNum) ->
+                new TreeNode(rs.getInt("depth"), TaskSummaryView.fromRow(rs)), taskId);
+    }
+
+    /**
+     * A live task and all of its live descendants, level by level, so every parent comes before
+     * its children. Empty when the task itself is deleted.
+     */
+    public List<SubtreeLink> findLiveSubtreeLinks(UUID rootId) {
+        return jdbcTemplate.query(SUBTREE_LINKS_SQL, (rs, rowNum) -> new SubtreeLink(
+                rs.getObject("id", UUID.class),
+                rs.getObject("parent_task_id", UUID.class),
+                rs.getInt("depth")), rootId, rootId);
+    }
+
+    /**
+     * The live tasks of a project together with their live subtrees, level by level, so every
+     * parent in the set comes before its children. {@code depth} counts levels below the root of
+     * each task's own tree, which need not be in the set.
+     */
+    public List<SubtreeLink> findLiveProjectTaskLinks(UUID projectId) {
+        return jdbcTemplate.query(PROJECT_LINKS_SQL, (rs, rowNum) -> new SubtreeLink(
+                rs.getObject("id", UUID.class),
+                rs.getObject("parent_task_id", UUID.class),
+                rs.getInt("depth")), projectId, projectId);
+    }
+
+    /**
+     * Number of tasks {@link #findLiveProjectTaskLinks} returns
+     */
+    public int countLiveProjectTasks(UUID projectId) {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM (" + PROJECT_TASK_IDS_SQL + ") p",
+                Integer.class, projectId, projectId);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Ids of every descendant of a task, deleted or not
+     */
+    public List<UUID> findDescendantIds(UUID rootId) {
+        return jdbcTemplate.queryForList("SELECT descendant_id FROM task_hierarchy WHERE ancestor_id = ?",
+                UUID.class, rootId);
+    }
+
+    public boolean isAncestor(UUID ancestorId, UUID descendantId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM task_hierarchy WHERE ancestor_id = ? AND descendant_id = ?)",
+                Boolean.class, ancestorId, descendantId));
+    }
+}
@@ -0,0 +1,218 @@
+package com.taskava.data.repository;
+
+import com.taskava.data.query.LexoRank;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Rank lookups and rebalancing for task order within a project column. A column is a section, or
+ * the tasks of a project without a section. Every lookup is a single probe of the column's unique
+ * rank index, so placing a task costs the same regardless of column size.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskProjectRankRepository {
+
+    private static final String SECTION_COLUMN = "section_id = ?";
+    private static final String UNSECTIONED_COLUMN = "project_id = ? AND section_id IS NULL";
+
+    // Inlined rather than bound so the planner can match the partial index idx_task_projects_long_rank
+    private static final String LONG_RANK = "length(rank_key) > " + LexoRank.MAX_LENGTH;
+
+    private static final String INSERT_MEMBERSHIPS_SQL = """
+        INSERT INTO task_projects (task_id, project_id, section_id, rank_key, added_at, added_by)
+        SELECT m.task_id, m.project_id, m.section_id, m.rank_key, NOW(), ?
+        FROM unnest(?::uuid[], ?::uuid[], ?::uuid[], ?::varchar[])
+             AS m(task_id, project_id, section_id, rank_key)
+        ON CONFLICT (task_id, project_id) DO NOTHING
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A project column: {@code sectionId} is null for the "no section" column
+     */
+    public record RankColumn(UUID projectId, UUID sectionId) {
+    }
+
+    /**
+     * Rank of a task in the column, or null when the task is not in it
+     */
+    public String findRank(UUID projectId, UUID sectionId, UUID taskId) {
+        return first(jdbcTemplate.queryForList(
+                "SELECT rank_key FROM task_projects WHERE " + column(sectionId) + " AND task_id = ?",
+                String.class, columnArg(projectId, sectionId), taskId));
+    }
+
+    /**
+     * Highest rank in the column, or null when it is empty
+     */
+    public String findLastRank(UUID projectId, UUID sectionId) {
+        return first(jdbcTemplate.queryForList(
+                "SELECT rank_key FROM task_projects WHERE " + column(sectionId) +
+                        " ORDER BY rank_key DESC LIMIT 1",
+                String.class, columnArg(projectId, sectionId)));
+    }
+
+    /**
+     * Lowest rank in the column above {@code rank}, ignoring the task being moved
+     */
+    public String findRankAfter(UUID projectId, UUID sectionId, String rank, UUID excludedTaskId) {
+        return first(jdbcTemplate.queryForList(
+                "SELECT rank_key FROM task_projects WHERE " + column(sectionId) +
+                        " AND rank_key > ? AND task_id <> ? ORDER BY rank_key LIMIT 1",
+                String.class, columnArg(projectId, sectionId), rank, excludedTaskId));
+    }
+
+    /**
+     * Highest rank in the column below {@code rank}, ignoring the task being moved
+     */
+    public String findRankBefore(UUID projectId, UUID sectionId, String rank, UUID excludedTaskId) {
+        return first(jdbcTemplate.queryForList(
+                "SELECT rank_key FROM task_projects WHERE " + column(sectionId) +
+                        " AND rank_key < ? AND task_id <> ? ORDER BY rank_key DESC LIMIT 1",
+                String.class, columnArg(projectId, sectionId), rank, excludedTaskId));
+    }
+
+    /**
+     * Ranks at the 0-based {@code index - 1} and {@code index} of the column, ignoring the task being
+     * moved; either is null past the ends. Used by clients that still place tasks by index.
+     */
+    public String[] findRanksAround(UUID projectId, UUID sectionId, int index, UUID excludedTaskId) {
+        int offset = Math.max(index - 1, 0);
+        List<String> ranks = jdbcTemplate.queryForList(
+                "SELECT rank_key FROM task_projects WHERE " + column(sectionId) +
+                        " AND task_id <> ? ORDER BY rank_key OFFSET ? LIMIT ?",
+                String.class, columnArg(projectId, sectionId), excludedTaskId, offset, index > 0 ? 2 : 1);
+        if (index <= 0) {
+            return new String[] {null, first(ranks)};
+        }
+        return new String[] {first(ranks), ranks.size() > 1 ? ranks.get(1) : null};
+    }
+
+    /**
+     * Columns holding at least one rank longer than {@link LexoRank#MAX_LENGTH}
+     */
+    public List<RankColumn> findColumnsNeedingRebalance(int limit) {
+        return jdbcTemplate.query(
+                "SELECT DISTINCT project_id, section_id FROM task_projects WHERE " + LONG_RANK + " LIMIT ?",
+                (rs, rowNum) -> new RankColumn(rs.getObject("project_id", UUID.class),
+                        rs.getObject("section_id", UUID.class)),
+                limit);
+    }
+
+    /**
+     * Re-spread the ranks of a column evenly, keeping its order. The column's rows are locked for
+     * the rest of the transaction. Returns the number of rows rewritten.
+     */
+    public int rebalance(UUID projectId, UUID sectionId) {
+        List<UUID> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM task_projects WHERE " + column(sectionId) + " ORDER BY rank_key FOR UPDATE",
+                UUID.class, columnArg(projectId, sectionId));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        // Park every row on a unique key outside the key alphabet first, so the new keys never
+        // collide with old ones in the unique index while the batch is applied
+        jdbcTemplate.update("UPDATE task_projects SET rank_key = '~' || id::text WHERE " + column(sectionId),
+                columnArg(projectId, sectionId));
+
+        List<String> ranks = LexoRank.spread(ids.size());
+        List<Object[]> batch = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            batch.add(new Object[] {ranks.get(i), ids.get(i)});
+        }
+        jdbcTemplate.batchUpdate("UPDATE task_projects SET rank_key = ? WHERE id = ?", batch);
+        return ids.size();
+    }
+
+    /**
+     * Add copies of tasks to the projects and sections of the task they were copied from, in one
+     * statement. Copies are appended to the end of each column, in the column order of their
+     * sources and, for copies of the same task, in the order given. Returns the number of
+     * memberships inserted.
+     */
+    public int appendCopies(Map<UUID, List<UUID>> copiesBySource, UUID addedBy) {
+        if (copiesBySource.isEmpty()) {
+            return 0;
+        }
+        record Membership(UUID sourceId, UUID projectId, UUID sectionId) {
+        }
+        List<Membership> memberships = new ArrayList<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT task_id, project_id, section_id FROM task_projects WHERE task_id = ANY(?) ORDER BY rank_key");
+            ps.setArray(1, connection.createArrayOf("uuid", copiesBySource.keySet().toArray()));
+            return ps;
+        }, rs -> {
+            memberships.add(new Membership(rs.getObject("task_id", UUID.class),
+                    rs.getObject("project_id", UUID.class), rs.getObject("section_id", UUID.class)));
+        });
+        if (memberships.isEmpty()) {
+            return 0;
+        }
+
+        // One probe per column for its last rank, then ranks are handed out in memory
+        Map<RankColumn, String> lastRanks = new HashMap<>();
+        List<UUID> taskIds = new ArrayList<>();
+        List<UUID> projectIds = new ArrayList<>();
+        List<UUID> sectionIds = new ArrayList<>();
+        List<String> rankKeys = new ArrayList<>();
+        for (Membership membership : memberships) {
+            RankColumn column = new RankColumn(membership.projectId(), membership.sectionId());
+            for (UUID copyId : copiesBySource.get(membership.sourceId())) {
+                String previous = lastRanks.containsKey(column)
+                        ? lastRanks.get(column)
+                        : findLastRank(column.projectId(), column.sectionId());
+                String rank = LexoRank.between(previous, null);
+                lastRanks.put(column, rank);
+                taskIds.add(copyId);
+                projectIds.add(column.projectId());
+                sectionIds.add(column.sectionId());
+                rankKeys.add(rank);
+            }
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_MEMBERSHIPS_SQL);
+            ps.setObject(1, addedBy);
+            ps.setArray(2, connection.createArrayOf("uuid", taskIds.toArray()));
+            ps.setArray(3, connection.createArrayOf("uuid", projectIds.toArray()));
+            ps.setArray(4, connection.createArrayOf("uuid", sectionIds.toArray()));
+            ps.setArray(5, connection.createArrayOf("varchar", rankKeys.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Add a task to the end of a project column. Returns false when it was in the project already.
+     */
+    public boolean append(UUID taskId, UUID projectId, UUID sectionId, UUID addedBy) {
+        String rank = LexoRank.between(findLastRank(projectId, sectionId), null);
+        return jdbcTemplate.update("""
+                INSERT INTO task_projects (task_id, project_id, section_id, rank_key, added_at, added_by)
+                VALUES (?, ?, ?, ?, NOW(), ?)
+                ON CONFLICT (task_id, project_id) DO NOTHING
+                """, taskId, projectId, sectionId, rank, addedBy) > 0;
+    }
+
+    private static String column(UUID sectionId) {
+        return sectionId != null ? SECTION_COLUMN : UNSECTIONED_COLUMN;
+    }
+
+    private static Object columnArg(UUID projectId, UUID sectionId) {
+        return sectionId != null ? sectionId : projectId;
+    }
+
+    private static String first(List<String> values) {
+        return values.isEmpty() ? null : values.get(0);
+    }
+}
@@ -32,36 +32,6 @@ public interface TaskProjectRepository extends JpaRepository<TaskProject, UUID>
     @Query("SELECT COUNT(tp) > 0 FROM TaskProject tp WHERE tp.task.id = :taskId AND tp.project.id = :projectId")
     boolean existsByTaskIdAndProjectId(@Param("taskId") UUID taskId, @Param("projectId") UUID projectId);
     
-    @Query("SELECT MAX(tp.position) FROM TaskProject tp WHERE tp.project.id = :projectId AND tp.section.id = :sectionId")
-    Optional<Integer> findMaxPositionInSection(@Param("projectId") UUID projectId, @Param("sectionId") UUID sectionId);
-    
-    @Query("SELECT MAX(tp.position) FROM TaskProject tp WHERE tp.project.id = :projectId AND tp.section IS NULL")
-    Optional<Integer> findMaxPositionInProjectWithNoSection(@Param("projectId") UUID projectId);
-    
-    @Modifying
-    @Query("""
-        UPDATE TaskProject tp 
-        SET tp.position = tp.position + 1 
-        WHERE tp.project.id = :projectId 
-        AND tp.section.id = :sectionId 
-        AND tp.position >= :position
-    """)
-    void incrementPositionsInSection(@Param("projectId") UUID projectId, 
-                                    @Param("sectionId") UUID sectionId, 
-                                    @Param("position") Integer position);
-    
-    @Modifying
-    @Query("""
-        UPDATE TaskProject tp 
-        SET tp.position = tp.position - 1 
-        WHERE tp.project.id = :projectId 
-        AND tp.section.id = :sectionId 
-        AND tp.position > :position
-    """)
-    void decrementPositionsInSection(@Param("projectId") UUID projectId, 
-                                    @Param("sectionId") UUID sectionId, 
-                                    @Param("position") Integer position);
-    
     @Query("SELECT tp.project.id FROM TaskProject tp WHERE tp.task.id = :taskId")
     List<UUID> findProjectIdsByTaskId(@Param("taskId") UUID taskId);
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+package com.taskava.data.repository;
+
+import com.taskava.data.entity.Task;
+import com.taskava.data.query.TaskCursor;
+import com.taskava.data.query.TaskFetchPlan;
+import com.taskava.data.query.TaskProjection;
+import com.taskava.data.query.TaskQueryBuilder;
+import com.taskava.data.query.TaskQueryBuilder.TaskQuery;
+import com.taskava.data.query.TaskQueryFilter;
+import com.taskava.data.query.TaskSortKey;
+import com.taskava.data.query.TaskSummaryView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Executes filtered task listings built by {@link TaskQueryBuilder}, either as offset pages or as
+ * keyset (cursor) slices. Keyset slices continue strictly after the {@code (sort key, id)} pair of
+ * the previous page's last row, so deep pages cost the same as the first one and concurrent
+ * inserts never shift or duplicate rows.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskQueryRepository {
+
+    private final TaskQueryBuilder queryBuilder;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * A listed item together with the value of its sort key, used to build the next cursor
+     */
+    public record Row<T>(T item, Object sortValue) {
+    }
+
+    /**
+     * Fetch one offset page of tasks matching the filter. The count query is skipped when the
+     * page itself shows the total.
+     */
+    public Page<Task> findPage(TaskQueryFilter filter, Pageable pageable) {
+        return findPage(filter, pageable, TaskProjection.ENTITY, Task.class);
+    }
+
+    /**
+     * Fetch one offset page of tasks loaded according to {@code plan} and map each of them with
+     * {@code mapper}, which may touch lazy associations
+     */
+    public <R> Page<R> findPage(TaskQueryFilter filter, Pageable pageable, TaskFetchPlan plan,
+                                Function<Task, R> mapper) {
+        return withPlan(plan, () -> {
+            TypedQuery<Task> query = createQuery(
+                    queryBuilder.select(filter, pageable.getSort(), TaskProjection.ENTITY), Task.class);
+            applyGraph(query, plan);
+            if (pageable.isPaged()) {
+                query.setFirstResult((int) pageable.getOffset());
+                query.setMaxResults(pageable.getPageSize());
+            }
+            return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(filter)).map(mapper);
+        });
+    }
+
+    /**
+     * Load a single task according to {@code plan} and map it with {@code mapper}
+     */
+    public <R> Optional<R> findById(UUID id, TaskFetchPlan plan, Function<Task, R> mapper) {
+        return withPlan(plan, () -> {
+            TypedQuery<Task> query = entityManager.createQuery(
+                    "SELECT t FROM Task t WHERE t.id = :id AND t.deleted = false", Task.class);
+            query.setParameter("id", id);
+            applyGraph(query, plan);
+            return query.getResultStream().findFirst().map(mapper);
+        });
+    }
+
+    /**
+     * Load the given tasks according to {@code plan} and map them with {@code mapper}, in no
+     * particular order
+     */
+    public <R> List<R> findAllById(Collection<UUID> ids, TaskFetchPlan plan, Function<Task, R> mapper) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return withPlan(plan, () -> {
+            TypedQuery<Task> query = entityManager.createQuery(
+                    "SELECT t FROM Task t WHERE t.id IN :ids AND t.deleted = false", Task.class);
+            query.setParameter("ids", ids);
+            applyGraph(query, plan);
+            return query.getResultList().stream().map(mapper).toList();
+        });
+    }
+
+    /**
+     * Fetch one offset page of task summaries matching the filter
+     */
+    public Page<TaskSummaryView> findSummaryPage(TaskQueryFilter filter, Pageable pageable) {
+        return findPage(filter, pageable, TaskProjection.SUMMARY, TaskSummaryView.class);
+    }
+
+    /**
+     * Fetch up to {@code limit} task summaries ordered by {@code sortKey} and id, starting after {@code after}
+     * (or from the beginning when it is null). Sorting by {@link TaskSortKey#POSITION} requires a project filter.
+     */
+    public List<Row<TaskSummaryView>> findSummarySlice(TaskQueryFilter filter, TaskSortKey sortKey, boolean descending,
+                                                       TaskCursor after, int limit) {
+        TypedQuery<Object[]> query = createQuery(
+                queryBuilder.keyset(filter, sortKey, descending, after, TaskProjection.SUMMARY), Object[].class);
+        query.setMaxResults(limit);
+
+        return query.getResultList().stream()
+                .map(result -> new Row<>((TaskSummaryView) result[0], result[1]))
+                .toList();
+    }
+
+    /**
+     * Count all tasks matching the filter
+     */
+    public long count(TaskQueryFilter filter) {
+        return createQuery(queryBuilder.count(filter), Long.class).getSingleResult();
+    }
+
+    private <T> Page<T> findPage(TaskQueryFilter filter, Pageable pageable, TaskProjection projection,
+                                 Class<T> resultType) {
+        TypedQuery<T> query = createQuery(queryBuilder.select(filter, pageable.getSort(), projection), resultType);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(filter));
+    }
+
+    /**
+     * Batch lazy loads by the plan's batch size while {@code work} loads and maps tasks, which
+     * covers associations initialized after the query returns, then restore the session's own
+     * batch size so later reads in the transaction are not affected
+     */
+    private <R> R withPlan(TaskFetchPlan plan, Supplier<R> work) {
+        Session session = entityManager.unwrap(Session.class);
+        int previousBatchSize = session.getFetchBatchSize();
+        session.setFetchBatchSize(plan.getBatchSize());
+        try {
+            return work.get();
+        } finally {
+            session.setFetchBatchSize(previousBatchSize);
+        }
+    }
+
+    private void applyGraph(TypedQuery<Task> query, TaskFetchPlan plan) {
+        query.setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(plan.getGraphName()));
+    }
+
+    private <T> TypedQuery<T> createQuery(TaskQuery taskQuery, Class<T> resultType) {
+        TypedQuery<T> query = entityManager.createQuery(taskQuery.jpql(), resultType);
+        taskQuery.parameters().forEach(query::setParameter);
+        return query;
+    }
+}
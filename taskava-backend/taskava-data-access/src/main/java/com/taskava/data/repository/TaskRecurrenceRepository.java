@@ -0,0 +1,252 @@
+package com.taskava.data.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Set-based access for the recurrence engine. Series state lives in {@code task_recurrence_state}
+ * (V18); a batch of due series is claimed with {@code FOR UPDATE SKIP LOCKED}, so concurrent
+ * engine nodes always work on disjoint series. Occurrences, their project memberships and the
+ * series progress are each written with one statement per batch, and occurrences are unique per
+ * (template, occurrence date), so a repeated expansion inserts nothing twice.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskRecurrenceRepository {
+
+    private static final String ENROLL_SQL = """
+        INSERT INTO task_recurrence_state (template_id, materialized_through, occurrence_count)
+        SELECT t.id,
+               GREATEST(COALESCE(t.due_date, t.start_date, t.created_at::date), CURRENT_DATE - 1,
+                        COALESCE(o.last_date, '-infinity'::date)),
+               COALESCE(o.occurrences, 0)
+        FROM tasks t
+        LEFT JOIN LATERAL (
+            SELECT COUNT(*)::INTEGER AS occurrences, MAX(x.recurrence_occurrence_date) AS last_date
+            FROM tasks x
+            WHERE x.recurring_task_template_id = t.id
+            AND x.recurrence_occurrence_date IS NOT NULL
+        ) o ON TRUE
+        WHERE t.is_recurring = TRUE
+        AND t.is_deleted = FALSE
+        AND t.recurring_task_template_id IS NULL
+        AND t.recurrence_type IS NOT NULL
+        AND t.workspace_id IS NOT NULL
+        AND NOT EXISTS (SELECT 1 FROM task_recurrence_state s WHERE s.template_id = t.id)
+        ON CONFLICT (template_id) DO NOTHING
+        """;
+
+    private static final String RETIRE_SQL = """
+        DELETE FROM task_recurrence_state s
+        USING tasks t
+        WHERE t.id = s.template_id
+        AND (t.is_recurring = FALSE OR t.is_deleted = TRUE OR t.recurrence_type IS NULL)
+        """;
+
+    private static final String CLAIM_SQL = """
+        SELECT s.template_id, s.materialized_through, s.occurrence_count,
+               t.workspace_id, t.recurrence_type, t.recurrence_interval, t.recurrence_days_of_week,
+               t.recurrence_day_of_month, t.recurrence_end_date, t.recurrence_max_occurrences,
+               t.start_date, t.due_date, t.created_at::date AS created_on
+        FROM task_recurrence_state s
+        JOIN tasks t ON t.id = s.template_id
+        WHERE s.finished = FALSE
+        AND s.materialized_through < ?
+        AND t.is_recurring = TRUE
+        AND t.is_deleted = FALSE
+        ORDER BY s.materialized_through
+        LIMIT ?
+        FOR UPDATE OF s SKIP LOCKED
+        """;
+
+    // Every other field of an occurrence is copied from its template
+    private static final String INSERT_OCCURRENCES_SQL = """
+        INSERT INTO tasks (title, description, task_number, workspace_id, status, priority, task_type,
+                           start_date, due_date, due_time, estimated_hours, story_points, progress_percentage,
+                           assignee_id, created_by_user_id, parent_task_id, is_recurring,
+                           recurring_task_template_id, recurrence_occurrence_date,
+                           created_at, created_by, version, is_deleted)
+        SELECT tpl.title, tpl.description, o.task_number, tpl.workspace_id, 'TODO', tpl.priority, tpl.task_type,
+               o.start_date, o.due_date, tpl.due_time, tpl.estimated_hours, tpl.story_points, 0,
+               tpl.assignee_id, tpl.created_by_user_id, tpl.parent_task_id, FALSE,
+               tpl.id, o.occurrence_date,
+               NOW(), tpl.created_by, 0, FALSE
+        FROM unnest(?::uuid[], ?::bigint[], ?::date[], ?::date[], ?::date[])
+             AS o(template_id, task_number, occurrence_date, start_date, due_date)
+        JOIN tasks tpl ON tpl.id = o.template_id
+        ORDER BY o.template_id, o.occurrence_date
+        ON CONFLICT (recurring_task_template_id, recurrence_occurrence_date)
+            WHERE recurrence_occurrence_date IS NOT NULL
+            DO NOTHING
+        RETURNING id, recurring_task_template_id, recurrence_occurrence_date
+        """;
+
+    private static final String SAVE_PROGRESS_SQL = """
+        UPDATE task_recurrence_state s SET
+            materialized_through = p.materialized_through,
+            occurrence_count = s.occurrence_count + p.added,
+            finished = p.finished,
+            updated_at = NOW()
+        FROM unnest(?::uuid[], ?::date[], ?::integer[], ?::boolean[])
+             AS p(template_id, materialized_through, added, finished)
+        WHERE s.template_id = p.template_id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskProjectRankRepository taskProjectRankRepository;
+
+    /**
+     * A claimed series: its template's recurrence settings and dates, and how far it has been
+     * materialized
+     */
+    public record RecurringSeries(UUID templateId, UUID workspaceId, String type, Integer interval,
+                                  String daysOfWeek, Integer dayOfMonth, LocalDate endDate,
+                                  Integer maxOccurrences, LocalDate startDate, LocalDate dueDate,
+                                  LocalDate createdOn, LocalDate materializedThrough, int occurrenceCount) {
+    }
+
+    /**
+     * An occurrence to insert
+     */
+    public record Occurrence(UUID templateId, long taskNumber, LocalDate occurrenceDate,
+                             LocalDate startDate, LocalDate dueDate) {
+    }
+
+    /**
+     * An occurrence that was inserted
+     */
+    public record MaterializedOccurrence(UUID taskId, UUID templateId, LocalDate occurrenceDate) {
+    }
+
+    /**
+     * Series progress after an expansion: {@code added} occurrences were inserted
+     */
+    public record SeriesProgress(UUID templateId, LocalDate materializedThrough, int added, boolean finished) {
+    }
+
+    /**
+     * Start tracking recurring templates that have no series state yet, and stop tracking
+     * templates that are no longer recurring. Returns the number of series enrolled.
+     */
+    public int enrollTemplates() {
+        jdbcTemplate.update(RETIRE_SQL);
+        return jdbcTemplate.update(ENROLL_SQL);
+    }
+
+    /**
+     * Lock up to {@code limit} unfinished series materialized only up to before {@code horizonEnd},
+     * least recently expanded first. Series locked by another transaction are skipped. Must run
+     * in a transaction, which holds the claim until it ends.
+     */
+    public List<RecurringSeries> claimDue(LocalDate horizonEnd, int limit) {
+        return jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new RecurringSeries(
+                rs.getObject("template_id", UUID.class),
+                rs.getObject("workspace_id", UUID.class),
+                rs.getString("recurrence_type"),
+                rs.getObject("recurrence_interval", Integer.class),
+                rs.getString("recurrence_days_of_week"),
+                rs.getObject("recurrence_day_of_month", Integer.class),
+                rs.getObject("recurrence_end_date", LocalDate.class),
+                rs.getObject("recurrence_max_occurrences", Integer.class),
+                rs.getObject("start_date", LocalDate.class),
+                rs.getObject("due_date", LocalDate.class),
+                rs.getObject("created_on", LocalDate.class),
+                rs.getObject("materialized_through", LocalDate.class),
+                rs.getInt("occurrence_count")),
+                Date.valueOf(horizonEnd), limit);
+    }
+
+    /**
+     * Insert occurrences in one statement. Occurrences that already exist for their template and
+     * date are skipped; only the inserted ones are returned.
+     */
+    public List<MaterializedOccurrence> insertOccurrences(List<Occurrence> occurrences) {
+        if (occurrences.isEmpty()) {
+            return List.of();
+        }
+        int size = occurrences.size();
+        UUID[] templateIds = new UUID[size];
+        Long[] taskNumbers = new Long[size];
+        Date[] occurrenceDates = new Date[size];
+        Date[] startDates = new Date[size];
+        Date[] dueDates = new Date[size];
+        for (int i = 0; i < size; i++) {
+            Occurrence occurrence = occurrences.get(i);
+            templateIds[i] = occurrence.templateId();
+            taskNumbers[i] = occurrence.taskNumber();
+            occurrenceDates[i] = Date.valueOf(occurrence.occurrenceDate());
+            startDates[i] = toDate(occurrence.startDate());
+            dueDates[i] = toDate(occurrence.dueDate());
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_OCCURRENCES_SQL);
+            ps.setArray(1, connection.createArrayOf("uuid", templateIds));
+            ps.setArray(2, connection.createArrayOf("bigint", taskNumbers));
+            ps.setArray(3, connection.createArrayOf("date", occurrenceDates));
+            ps.setArray(4, connection.createArrayOf("date", startDates));
+            ps.setArray(5, connection.createArrayOf("date", dueDates));
+            return ps;
+        }, (rs, rowNum) -> new MaterializedOccurrence(
+                rs.getObject("id", UUID.class),
+                rs.getObject("recurring_task_template_id", UUID.class),
+                rs.getObject("recurrence_occurrence_date", LocalDate.class)));
+    }
+
+    /**
+     * Add each occurrence to the projects and sections of its template, appended to the end of
+     * each column in the order given. Returns the number of memberships inserted.
+     */
+    public int copyProjectMemberships(List<MaterializedOccurrence> occurrences) {
+        Map<UUID, List<UUID>> occurrencesByTemplate = new LinkedHashMap<>();
+        for (MaterializedOccurrence occurrence : occurrences) {
+            occurrencesByTemplate.computeIfAbsent(occurrence.templateId(), id -> new ArrayList<>())
+                    .add(occurrence.taskId());
+        }
+        return taskProjectRankRepository.appendCopies(occurrencesByTemplate, null);
+    }
+
+    /**
+     * Record how far each series has been materialized
+     */
+    public void saveProgress(Collection<SeriesProgress> progress) {
+        if (progress.isEmpty()) {
+            return;
+        }
+        int size = progress.size();
+        UUID[] templateIds = new UUID[size];
+        Date[] throughDates = new Date[size];
+        Integer[] added = new Integer[size];
+        Boolean[] finished = new Boolean[size];
+        int i = 0;
+        for (SeriesProgress p : progress) {
+            templateIds[i] = p.templateId();
+            throughDates[i] = Date.valueOf(p.materializedThrough());
+            added[i] = p.added();
+            finished[i] = p.finished();
+            i++;
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SAVE_PROGRESS_SQL);
+            ps.setArray(1, connection.createArrayOf("uuid", templateIds));
+            ps.setArray(2, connection.createArrayOf("date", throughDates));
+            ps.setArray(3, connection.createArrayOf("integer", added));
+            ps.setArray(4, connection.createArrayOf("boolean", finished));
+            return ps;
+        });
+    }
+
+    private static Date toDate(LocalDate date) {
+        return date != null ? Date.valueOf(date) : null;
+    }
+}
@@ -0,0 +1,206 @@
+package com.taskava.data.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads for the due-date reminder scanner and the {@code task_reminders} ledger (V19). Open tasks
+ * are read one workspace at a time in {@code (due_date, id)} keyset chunks from the partial index
+ * {@code idx_tasks_open_due}, so no scan ever holds more than one chunk. Reminders are recorded
+ * at most once per task, kind and due instant, and are claimed for dispatch with
+ * {@code FOR UPDATE SKIP LOCKED} so concurrent dispatchers never hand out the same reminder.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskReminderRepository {
+
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    // The status and deletion filters repeat the predicate of idx_tasks_open_due
+    private static final String DUE_CHUNK_SQL = """
+        SELECT t.id, t.due_date, t.due_time,
+               COALESCE(t.assignee_id, t.created_by_user_id) AS recipient_id, u.timezone
+        FROM tasks t
+        LEFT JOIN users u ON u.id = COALESCE(t.assignee_id, t.created_by_user_id)
+        WHERE t.workspace_id = ?
+        AND t.is_deleted = FALSE
+        AND t.archived_at IS NULL
+        AND t.status NOT IN ('COMPLETED', 'CANCELLED')
+        AND t.due_date IS NOT NULL
+        AND t.due_date >= ?
+        AND t.due_date <= ?
+        AND (t.due_date, t.id) > (?, ?)
+        ORDER BY t.due_date, t.id
+        LIMIT ?
+        """;
+
+    private static final String RECORD_SQL = """
+        INSERT INTO task_reminders (task_id, workspace_id, recipient_id, kind, due_at)
+        SELECT r.task_id, ?, r.recipient_id, r.kind, r.due_at
+        FROM unnest(?::uuid[], ?::uuid[], ?::varchar[], ?::timestamptz[])
+             AS r(task_id, recipient_id, kind, due_at)
+        ON CONFLICT ON CONSTRAINT uk_task_reminders DO NOTHING
+        """;
+
+    private static final String CLAIM_PENDING_SQL = """
+        SELECT r.id, r.task_id, r.workspace_id, r.recipient_id, r.kind, r.due_at,
+               t.title, t.task_number
+        FROM task_reminders r
+        JOIN tasks t ON t.id = r.task_id
+        WHERE r.dispatched_at IS NULL
+        ORDER BY r.created_at
+        LIMIT ?
+        FOR UPDATE OF r SKIP LOCKED
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public enum ReminderKind {
+        DUE_SOON, OVERDUE
+    }
+
+    /**
+     * An open task with a due date, and who should be reminded of it: its assignee, or its
+     * creator when unassigned. {@code timezone} is the recipient's, null when unknown.
+     */
+    public record DueTask(UUID taskId, LocalDate dueDate, LocalTime dueTime, UUID recipientId, String timezone) {
+    }
+
+    /**
+     * A reminder to record
+     */
+    public record NewReminder(UUID taskId, UUID recipientId, ReminderKind kind, Instant dueAt) {
+    }
+
+    /**
+     * A recorded reminder that has not been dispatched yet
+     */
+    public record PendingReminder(UUID id, UUID taskId, UUID workspaceId, UUID recipientId, ReminderKind kind,
+                                  Instant dueAt, String title, Long taskNumber) {
+    }
+
+    /**
+     * Next live workspaces after {@code afterId} in id order
+     */
+    public List<UUID> findWorkspaceIdsAfter(UUID afterId, int limit) {
+        return jdbcTemplate.queryForList("""
+                SELECT id FROM workspaces
+                WHERE is_deleted = FALSE
+                AND id > ?
+                ORDER BY id
+                LIMIT ?
+                """, UUID.class, afterId != null ? afterId : MIN_ID, limit);
+    }
+
+    /**
+     * Next chunk of open tasks of a workspace due between {@code from} and {@code through}, after
+     * the task {@code afterId} due on {@code afterDate} in {@code (due_date, id)} order. Pass a
+     * null {@code afterId} for the first chunk.
+     */
+    public List<DueTask> findDueChunk(UUID workspaceId, LocalDate from, LocalDate through,
+                                      LocalDate afterDate, UUID afterId, int limit) {
+        LocalDate cursorDate = afterId != null ? afterDate : from;
+        return jdbcTemplate.query(DUE_CHUNK_SQL, (rs, rowNum) -> new DueTask(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("due_date", LocalDate.class),
+                        rs.getObject("due_time", LocalTime.class),
+                        rs.getObject("recipient_id", UUID.class),
+                        rs.getString("timezone")),
+                workspaceId, cursorDate, through, cursorDate, afterId != null ? afterId : MIN_ID, limit);
+    }
+
+    /**
+     * Record reminders of a workspace in one statement, skipping those recorded before. Returns
+     * the number of new reminders.
+     */
+    public int recordReminders(UUID workspaceId, Collection<NewReminder> reminders) {
+        if (reminders.isEmpty()) {
+            return 0;
+        }
+        int size = reminders.size();
+        UUID[] taskIds = new UUID[size];
+        UUID[] recipientIds = new UUID[size];
+        String[] kinds = new String[size];
+        Timestamp[] dueAts = new Timestamp[size];
+        int i = 0;
+        for (NewReminder reminder : reminders) {
+            taskIds[i] = reminder.taskId();
+            recipientIds[i] = reminder.recipientId();
+            kinds[i] = reminder.kind().name();
+            dueAts[i] = Timestamp.from(reminder.dueAt());
+            i++;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(RECORD_SQL);
+            ps.setObject(1, workspaceId);
+            ps.setArray(2, connection.createArrayOf("uuid", taskIds));
+            ps.setArray(3, connection.createArrayOf("uuid", recipientIds));
+            ps.setArray(4, connection.createArrayOf("varchar", kinds));
+            ps.setArray(5, connection.createArrayOf("timestamptz", dueAts));
+            return ps;
+        });
+    }
+
+    /**
+     * Lock up to {@code limit} pending reminders, oldest first, skipping those locked by another
+     * transaction. Must run in a transaction, which holds the claim until it ends.
+     */
+    public List<PendingReminder> claimPending(int limit) {
+        return jdbcTemplate.query(CLAIM_PENDING_SQL, (rs, rowNum) -> new PendingReminder(
+                rs.getObject("id", UUID.class),
+                rs.getObject("task_id", UUID.class),
+                rs.getObject("workspace_id", UUID.class),
+                rs.getObject("recipient_id", UUID.class),
+                ReminderKind.valueOf(rs.getString("kind")),
+                rs.getTimestamp("due_at").toInstant(),
+                rs.getString("title"),
+                rs.getObject("task_number", Long.class)), limit);
+    }
+
+    /**
+     * Number of the reminders still pending
+     */
+    public int countPending(Collection<UUID> reminderIds) {
+        if (reminderIds.isEmpty()) {
+            return 0;
+        }
+        Integer count = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT COUNT(*) FROM task_reminders WHERE id = ANY(?) AND dispatched_at IS NULL");
+            ps.setArray(1, connection.createArrayOf("uuid", reminderIds.toArray()));
+            return ps;
+        }, rs -> rs.next() ? rs.getInt(1) : 0);
+        return count != null ? count : 0;
+    }
+
+    public int markDispatched(Collection<UUID> reminderIds) {
+        if (reminderIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "UPDATE task_reminders SET dispatched_at = NOW() WHERE id = ANY(?)");
+            ps.setArray(1, connection.createArrayOf("uuid", reminderIds.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Delete dispatched reminders for tasks that were due before {@code cutoff}
+     */
+    public int deleteDispatchedDueBefore(Instant cutoff) {
+        return jdbcTemplate.update(
+                "DELETE FROM task_reminders WHERE dispatched_at IS NOT NULL AND due_at < ?",
+                Timestamp.from(cutoff));
+    }
+}
@@ -0,0 +1,78 @@
+package com.taskava.data.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repair of the subtree roll-up columns of {@code tasks}. They are kept current by the V17
+ * triggers; this recomputes them from the {@code task_hierarchy} closure for tasks that may have
+ * drifted, writing only the rows whose stored totals are wrong.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskRollupRepository {
+
+    private static final String RECOMPUTE_SQL = """
+        UPDATE tasks t SET
+            rollup_task_count = r.task_count,
+            rollup_progress_sum = r.progress_sum,
+            rollup_estimated_hours = r.estimated_hours,
+            rollup_actual_hours = r.actual_hours,
+            rollup_story_points = r.story_points
+        FROM (
+            SELECT p.id,
+                   COUNT(d.id)::INTEGER AS task_count,
+                   COALESCE(SUM(COALESCE(d.progress_percentage, 0)), 0) AS progress_sum,
+                   COALESCE(SUM(COALESCE(d.estimated_hours, 0)), 0) AS estimated_hours,
+                   COALESCE(SUM(COALESCE(d.actual_hours, 0)), 0) AS actual_hours,
+                   COALESCE(SUM(COALESCE(d.story_points, 0)), 0) AS story_points
+            FROM unnest(?::uuid[]) AS p(id)
+            LEFT JOIN task_hierarchy h ON h.ancestor_id = p.id
+            LEFT JOIN tasks d ON d.id = h.descendant_id AND d.is_deleted = FALSE
+            GROUP BY p.id
+        ) r
+        WHERE t.id = r.id
+        AND (t.rollup_task_count, t.rollup_progress_sum, t.rollup_estimated_hours,
+             t.rollup_actual_hours, t.rollup_story_points)
+            IS DISTINCT FROM
+            (r.task_count, r.progress_sum, r.estimated_hours, r.actual_hours, r.story_points)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Next tasks after {@code afterId} in id order that have descendants or stored roll-ups, the
+     * only tasks whose roll-ups can be non-zero or wrong
+     */
+    public List<UUID> findRollupTaskIdsAfter(UUID afterId, int limit) {
+        return jdbcTemplate.queryForList("""
+                SELECT id FROM tasks
+                WHERE (?::uuid IS NULL OR id > ?::uuid)
+                AND (rollup_task_count > 0
+                     OR EXISTS (SELECT 1 FROM task_hierarchy h WHERE h.ancestor_id = tasks.id))
+                ORDER BY id
+                LIMIT ?
+                """, UUID.class, afterId, afterId, limit);
+    }
+
+    /**
+     * Recompute the roll-ups of the tasks from scratch. Returns the number of tasks whose stored
+     * roll-ups were wrong.
+     */
+    public int recompute(Collection<UUID> taskIds) {
+        if (taskIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(RECOMPUTE_SQL);
+            ps.setArray(1, connection.createArrayOf("uuid", taskIds.toArray()));
+            return ps;
+        });
+    }
+}
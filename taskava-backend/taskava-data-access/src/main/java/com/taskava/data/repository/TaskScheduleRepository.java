@@ -0,0 +1,85 @@
+package com.taskava.data.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Task dates for scheduling. Reads fetch only the date columns of a whole project or task set;
+ * rescheduled dates are written back for all shifted tasks with one statement.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskScheduleRepository {
+
+    private static final String UPDATE_DATES_SQL = """
+        UPDATE tasks t
+        SET start_date = v.start_date, due_date = v.due_date,
+            version = COALESCE(t.version, 0) + 1, updated_at = NOW(), updated_by = ?
+        FROM unnest(?::uuid[], ?::date[], ?::date[]) AS v(id, start_date, due_date)
+        WHERE t.id = v.id
+        AND t.workspace_id = ?
+        AND t.is_deleted = FALSE
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Planned dates of a task; either may be null
+     */
+    public record TaskDates(UUID taskId, LocalDate startDate, LocalDate dueDate) {
+    }
+
+    public List<TaskDates> findProjectTaskDates(UUID projectId) {
+        return jdbcTemplate.query("""
+                SELECT t.id, t.start_date, t.due_date
+                FROM task_projects tp
+                JOIN tasks t ON t.id = tp.task_id AND t.is_deleted = FALSE
+                WHERE tp.project_id = ?
+                """, (rs, rowNum) -> new TaskDates(rs.getObject("id", UUID.class),
+                rs.getObject("start_date", LocalDate.class), rs.getObject("due_date", LocalDate.class)), projectId);
+    }
+
+    /**
+     * Dates of those of the tasks that belong to the workspace
+     */
+    public List<TaskDates> findTaskDates(Collection<UUID> taskIds, UUID workspaceId) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT id, start_date, due_date FROM tasks WHERE id = ANY(?) AND workspace_id = ? AND is_deleted = FALSE");
+            ps.setArray(1, connection.createArrayOf("uuid", taskIds.toArray()));
+            ps.setObject(2, workspaceId);
+            return ps;
+        }, (rs, rowNum) -> new TaskDates(rs.getObject("id", UUID.class),
+                rs.getObject("start_date", LocalDate.class), rs.getObject("due_date", LocalDate.class)));
+    }
+
+    /**
+     * Write new dates for all the tasks in one statement, skipping tasks outside the workspace.
+     * Returns the number of tasks updated.
+     */
+    public int updateDates(Collection<TaskDates> dates, UUID workspaceId, UUID userId) {
+        if (dates.isEmpty()) {
+            return 0;
+        }
+        Object[] ids = dates.stream().map(TaskDates::taskId).toArray();
+        Object[] startDates = dates.stream().map(d -> d.startDate() != null ? Date.valueOf(d.startDate()) : null).toArray();
+        Object[] dueDates = dates.stream().map(d -> d.dueDate() != null ? Date.valueOf(d.dueDate()) : null).toArray();
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(UPDATE_DATES_SQL);
+            ps.setObject(1, userId);
+            ps.setArray(2, connection.createArrayOf("uuid", ids));
+            ps.setArray(3, connection.createArrayOf("date", startDates));
+            ps.setArray(4, connection.createArrayOf("date", dueDates));
+            ps.setObject(5, workspaceId);
+            return ps;
+        });
+    }
+}
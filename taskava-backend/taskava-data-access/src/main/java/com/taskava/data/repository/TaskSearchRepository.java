@@ -0,0 +1,74 @@
+package com.taskava.data.repository;
+
+import com.taskava.data.query.TaskSearchTerms;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ranked full-text search over {@code tasks.search_vector}. Matching and ranking run against
+ * the GIN index; highlighting is the expensive part, so it is applied only to the top hits.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskSearchRepository {
+
+    private static final String HIGHLIGHT_OPTIONS = "StartSel=<mark>, StopSel=</mark>";
+
+    private static final String SEARCH_SQL = """
+        SELECT r.id, r.task_number, r.title, r.status, r.priority, r.due_date, r.rank,
+               ts_headline(?::regconfig, r.title, q.query, '%1$s, HighlightAll=true') AS title_highlight,
+               ts_headline(?::regconfig, COALESCE(r.description, ''), q.query,
+                           '%1$s, MaxFragments=2, MinWords=8, MaxWords=25') AS snippet
+        FROM (
+            SELECT t.id, t.task_number, t.title, t.description, t.status, t.priority, t.due_date,
+                   ts_rank_cd(t.search_vector, q.query) AS rank
+            FROM tasks t, to_tsquery(?::regconfig, ?) AS q(query)
+            WHERE t.workspace_id = ?
+            AND t.is_deleted = FALSE
+            AND t.archived_at IS NULL
+            AND t.search_vector @@ q.query
+            ORDER BY rank DESC, t.id
+            LIMIT ?
+        ) r, to_tsquery(?::regconfig, ?) AS q(query)
+        ORDER BY r.rank DESC, r.id
+        """.formatted(HIGHLIGHT_OPTIONS);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A ranked search match with highlighted title and description snippet
+     */
+    public record TaskSearchHit(UUID id, Long taskNumber, String title, String status, String priority,
+                                LocalDate dueDate, double rank, String titleHighlight, String snippet) {
+    }
+
+    /**
+     * Search tasks of a workspace, best matches first. The last query term matches as a prefix.
+     */
+    public List<TaskSearchHit> search(UUID workspaceId, String query, int limit) {
+        String tsQuery = TaskSearchTerms.toPrefixQuery(query);
+        if (tsQuery == null) {
+            return List.of();
+        }
+
+        String config = TaskSearchTerms.TEXT_SEARCH_CONFIG;
+        return jdbcTemplate.query(SEARCH_SQL, (rs, rowNum) -> {
+            String snippet = rs.getString("snippet");
+            return new TaskSearchHit(
+                    rs.getObject("id", UUID.class),
+                    rs.getLong("task_number"),
+                    rs.getString("title"),
+                    rs.getString("status"),
+                    rs.getString("priority"),
+                    rs.getObject("due_date", LocalDate.class),
+                    rs.getDouble("rank"),
+                    rs.getString("title_highlight"),
+                    snippet == null || snippet.isBlank() ? null : snippet);
+        }, config, config, config, tsQuery, workspaceId, limit, config, tsQuery);
+    }
+}
@@ -0,0 +1,164 @@
+package com.taskava.data.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The task status history in {@code task_status_transitions}, hash-partitioned by workspace
+ * (V25). Transitions are written in batches with one statement each; a transition carries its
+ * own id, so writing a batch again after a crash adds nothing. Every read is scoped to one
+ * workspace and so to one partition.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskStatusTransitionRepository {
+
+    private static final String INSERT_SQL = """
+        INSERT INTO task_status_transitions (id, workspace_id, task_id, from_status, to_status,
+                                             transitioned_at, transitioned_by)
+        SELECT s.id, s.workspace_id, s.task_id, s.from_status, s.to_status, s.transitioned_at, s.transitioned_by
+        FROM unnest(?::uuid[], ?::uuid[], ?::uuid[], ?::varchar[], ?::varchar[], ?::timestamptz[], ?::uuid[])
+             AS s(id, workspace_id, task_id, from_status, to_status, transitioned_at, transitioned_by)
+        WHERE EXISTS (SELECT 1 FROM tasks t WHERE t.id = s.task_id)
+        ON CONFLICT (workspace_id, id) DO NOTHING
+        """;
+
+    private static final String COLUMNS = """
+        id, workspace_id, task_id, from_status, to_status, transitioned_at, transitioned_by
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A change of a task's status from {@code fromStatus} to {@code toStatus}, made by
+     * {@code transitionedBy}
+     */
+    public record StatusTransition(UUID id, UUID workspaceId, UUID taskId, String fromStatus, String toStatus,
+                                   Instant transitionedAt, UUID transitionedBy) {
+    }
+
+    /**
+     * Write a batch of transitions, skipping those written before and those of tasks purged in
+     * the meantime. Returns the number written.
+     */
+    public int insertBatch(List<StatusTransition> transitions) {
+        if (transitions.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_SQL);
+            ps.setArray(1, connection.createArrayOf("uuid", transitions.stream().map(StatusTransition::id).toArray()));
+            ps.setArray(2, connection.createArrayOf("uuid",
+                    transitions.stream().map(StatusTransition::workspaceId).toArray()));
+            ps.setArray(3, connection.createArrayOf("uuid",
+                    transitions.stream().map(StatusTransition::taskId).toArray()));
+            ps.setArray(4, connection.createArrayOf("varchar",
+                    transitions.stream().map(StatusTransition::fromStatus).toArray()));
+            ps.setArray(5, connection.createArrayOf("varchar",
+                    transitions.stream().map(StatusTransition::toStatus).toArray()));
+            ps.setArray(6, connection.createArrayOf("timestamptz",
+                    transitions.stream().map(t -> Timestamp.from(t.transitionedAt())).toArray()));
+            ps.setArray(7, connection.createArrayOf("uuid",
+                    transitions.stream().map(StatusTransition::transitionedBy).toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Id of the current transaction, assigned now if it has none yet. Must run in a transaction.
+     */
+    public String currentTransactionId() {
+        return jdbcTemplate.queryForObject("SELECT pg_current_xact_id()::text", String.class);
+    }
+
+    /**
+     * Outcome of each of the given transactions: {@code committed}, {@code aborted} or
+     * {@code in progress}; null when the transaction is too old for the database to tell
+     */
+    public Map<String, String> findTransactionStatuses(Collection<String> transactionIds) {
+        Map<String, String> statuses = new HashMap<>();
+        if (transactionIds.isEmpty()) {
+            return statuses;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT x, pg_xact_status(x::xid8) AS status FROM unnest(?::text[]) AS x");
+            ps.setArray(1, connection.createArrayOf("text", transactionIds.toArray()));
+            return ps;
+        }, rs -> {
+            statuses.put(rs.getString("x"), rs.getString("status"));
+        });
+        return statuses;
+    }
+
+    /**
+     * Transitions of a task within {@code [from, to)}, oldest first; either bound may be null
+     */
+    public List<StatusTransition> findByTask(UUID workspaceId, UUID taskId, Instant from, Instant to, int limit) {
+        List<Object> args = new ArrayList<>();
+        args.add(workspaceId);
+        args.add(taskId);
+        String sql = "SELECT " + COLUMNS + " FROM task_status_transitions WHERE workspace_id = ? AND task_id = ?" +
+                range(from, to, args) + " ORDER BY transitioned_at, id LIMIT ?";
+        args.add(limit);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> map(rs), args.toArray());
+    }
+
+    /**
+     * Transitions in a workspace within {@code [from, to)}, oldest first; either bound may be
+     * null. Continues strictly after {@code (afterAt, afterId)} when {@code afterId} is set.
+     */
+    public List<StatusTransition> findByWorkspace(UUID workspaceId, Instant from, Instant to,
+                                                  Instant afterAt, UUID afterId, int limit) {
+        List<Object> args = new ArrayList<>();
+        args.add(workspaceId);
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS +
+                " FROM task_status_transitions WHERE workspace_id = ?");
+        sql.append(range(from, to, args));
+        if (afterId != null) {
+            sql.append(" AND (transitioned_at, id) > (?, ?)");
+            args.add(Timestamp.from(afterAt));
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY transitioned_at, id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> map(rs), args.toArray());
+    }
+
+    private static String range(Instant from, Instant to, List<Object> args) {
+        StringBuilder sql = new StringBuilder();
+        if (from != null) {
+            sql.append(" AND transitioned_at >= ?");
+            args.add(Timestamp.from(from));
+        }
+        if (to != null) {
+            sql.append(" AND transitioned_at < ?");
+            args.add(Timestamp.from(to));
+        }
+        return sql.toString();
+    }
+
+    private static StatusTransition map(ResultSet rs) throws SQLException {
+        return new StatusTransition(
+                rs.getObject("id", UUID.class),
+                rs.getObject("workspace_id", UUID.class),
+                rs.getObject("task_id", UUID.class),
+                rs.getString("from_status"),
+                rs.getString("to_status"),
+                rs.getTimestamp("transitioned_at").toInstant(),
+                rs.getObject("transitioned_by", UUID.class));
+    }
+}
@@ -0,0 +1,242 @@
+package com.taskava.data.repository;
+
+import com.taskava.data.query.TaskSummaryView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves tasks between the hot and the cold tier (V24). A task is cold once {@code archived_at}
+ * is set: task listings and the hot indexes leave it out, it is only listed here, and it is still
+ * read by id. Tasks move to the cold tier in chunks of at most {@code limit} tasks, one statement
+ * each, so callers keep every transaction short; a whole tree moves, the root last, so a hot task
+ * never hangs below a cold one. Trees come back whole, in one statement.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskTieringRepository {
+
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private static final String ARCHIVED_PROJECTS_SQL = """
+        SELECT p.id
+        FROM projects p
+        WHERE p.status = 'ARCHIVED'
+        AND p.is_deleted = FALSE
+        AND p.id > ?
+        AND EXISTS (
+            SELECT 1
+            FROM task_projects tp
+            JOIN tasks t ON t.id = tp.task_id AND t.is_deleted = FALSE AND t.archived_at IS NULL
+            WHERE tp.project_id = p.id
+        )
+        ORDER BY p.id
+        LIMIT ?
+        """;
+
+    // Hot tasks of the project and their subtrees, deepest tasks first. A task stays hot while it,
+    // or any task below it, is also in a project still in use, so no hot task ends up below a
+    // cold one, whether it is kept hot or the chunk ends before its parent.
+    private static final String PROJECT_CHUNK_SQL = """
+        UPDATE tasks SET archived_at = NOW(), archived_project_id = ?
+        WHERE id IN (
+            SELECT t.id
+            FROM (
+                SELECT tp.task_id AS id FROM task_projects tp WHERE tp.project_id = ?
+                UNION
+                SELECT h.descendant_id
+                FROM task_projects tp
+                JOIN task_hierarchy h ON h.ancestor_id = tp.task_id
+                WHERE tp.project_id = ?
+            ) c
+            JOIN tasks t ON t.id = c.id AND t.is_deleted = FALSE AND t.archived_at IS NULL
+            WHERE NOT EXISTS (
+                SELECT 1
+                FROM (
+                    SELECT t.id
+                    UNION ALL
+                    SELECT h.descendant_id FROM task_hierarchy h WHERE h.ancestor_id = t.id
+                ) s
+                JOIN tasks st ON st.id = s.id AND st.is_deleted = FALSE AND st.archived_at IS NULL
+                JOIN task_projects o ON o.task_id = st.id
+                JOIN projects p ON p.id = o.project_id AND p.is_deleted = FALSE AND p.status <> 'ARCHIVED'
+            )
+            ORDER BY (SELECT COALESCE(MAX(a.depth), 0) FROM task_hierarchy a WHERE a.descendant_id = t.id) DESC,
+                     t.id
+            LIMIT ?
+        )
+        """;
+
+    // Hot top-level trees completed, and left untouched, since before the cutoff with no open task
+    // left in them, deepest tasks first so that a tree cut off by the limit keeps its root hot
+    // until the next chunk. A tree brought back stays hot until its root is left alone that long.
+    private static final String COMPLETED_CHUNK_SQL = """
+        UPDATE tasks SET archived_at = NOW()
+        WHERE id IN (
+            SELECT d.id
+            FROM tasks r
+            CROSS JOIN LATERAL (
+                SELECT h.descendant_id AS id, h.depth FROM task_hierarchy h WHERE h.ancestor_id = r.id
+                UNION ALL
+                SELECT r.id, 0
+            ) d
+            JOIN tasks t ON t.id = d.id AND t.is_deleted = FALSE AND t.archived_at IS NULL
+            WHERE r.status = 'COMPLETED'
+            AND r.parent_task_id IS NULL
+            AND r.is_deleted = FALSE
+            AND r.archived_at IS NULL
+            AND r.completed_at < NOW() - make_interval(days => ?)
+            AND COALESCE(r.updated_at, r.completed_at) < NOW() - make_interval(days => ?)
+            AND NOT EXISTS (
+                SELECT 1
+                FROM task_hierarchy h
+                JOIN tasks o ON o.id = h.descendant_id
+                WHERE h.ancestor_id = r.id
+                AND o.is_deleted = FALSE
+                AND o.status NOT IN ('COMPLETED', 'CANCELLED')
+            )
+            ORDER BY r.id, d.depth DESC
+            LIMIT ?
+        )
+        """;
+
+    // The cold trees holding the given archived tasks, from the topmost archived ancestor down.
+    // Ancestors above a cold task are cold up to some task, and hot from there on.
+    private static final String RESTORE_TREES_SQL = """
+        UPDATE tasks t SET archived_at = NULL, archived_project_id = NULL, updated_at = NOW()
+        FROM (
+            SELECT DISTINCT COALESCE((
+                SELECT h.ancestor_id
+                FROM task_hierarchy h
+                JOIN tasks a ON a.id = h.ancestor_id AND a.archived_at IS NOT NULL
+                WHERE h.descendant_id = s.id
+                ORDER BY h.depth DESC
+                LIMIT 1
+            ), s.id) AS id
+            FROM tasks s
+            WHERE s.id = ANY(?)
+            AND s.archived_at IS NOT NULL%s
+        ) r
+        WHERE t.archived_at IS NOT NULL
+        AND (t.id = r.id
+             OR t.id IN (SELECT h.descendant_id FROM task_hierarchy h WHERE h.ancestor_id = r.id))
+        """;
+
+    private static final String ARCHIVED_SLICE_SQL = """
+        SELECT %s
+        FROM tasks t
+        LEFT JOIN users a ON a.id = t.assignee_id
+        WHERE t.workspace_id = ?
+        AND t.is_deleted = FALSE
+        AND t.archived_at IS NOT NULL
+        %s
+        ORDER BY t.created_at DESC, t.id DESC
+        LIMIT ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Archived projects that still have hot tasks, in id order after {@code afterId}
+     */
+    public List<UUID> findArchivedProjectIdsAfter(UUID afterId, int limit) {
+        return jdbcTemplate.queryForList(ARCHIVED_PROJECTS_SQL, UUID.class,
+                afterId != null ? afterId : MIN_ID, limit);
+    }
+
+    /**
+     * Move up to {@code limit} hot tasks of an archived project to the cold tier. Holds a share
+     * lock on the project for the rest of the transaction, so a concurrent restore of the project
+     * waits for the chunk and then brings its tasks back too. Returns the number moved; zero once
+     * none are left or the project is no longer archived.
+     */
+    public int archiveProjectTasksChunk(UUID projectId, int limit) {
+        List<UUID> locked = jdbcTemplate.queryForList("""
+                SELECT id FROM projects
+                WHERE id = ? AND status = 'ARCHIVED' AND is_deleted = FALSE
+                FOR SHARE
+                """, UUID.class, projectId);
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(PROJECT_CHUNK_SQL, projectId, projectId, projectId, limit);
+    }
+
+    /**
+     * Move up to {@code limit} tasks of trees completed, and left untouched, more than
+     * {@code days} days ago to the cold tier. Returns the number moved; zero once none are left.
+     */
+    public int archiveCompletedChunk(int days, int limit) {
+        return jdbcTemplate.update(COMPLETED_CHUNK_SQL, days, days, limit);
+    }
+
+    /**
+     * Bring back every task the archiving of a project moved to the cold tier. Returns the number
+     * of tasks restored.
+     */
+    public int restoreProjectTasks(UUID projectId) {
+        return jdbcTemplate.update("""
+                UPDATE tasks SET archived_at = NULL, archived_project_id = NULL
+                WHERE archived_project_id = ?
+                """, projectId);
+    }
+
+    /**
+     * Bring back the whole cold trees holding any of the given tasks; hot tasks are skipped.
+     * Returns the number of tasks restored.
+     */
+    public int restoreTrees(Collection<UUID> taskIds) {
+        return restoreTrees(RESTORE_TREES_SQL.formatted(""), taskIds);
+    }
+
+    /**
+     * Like {@link #restoreTrees}, but only for tasks that moved to the cold tier by age, not with
+     * an archived project, which would take them back
+     */
+    public int restoreCompletedTrees(Collection<UUID> taskIds) {
+        return restoreTrees(RESTORE_TREES_SQL.formatted("\n    AND s.archived_project_id IS NULL"), taskIds);
+    }
+
+    /**
+     * Archived tasks of a workspace, newest first, optionally only those in {@code projectId}.
+     * Continues strictly after the {@code (createdAt, id)} of the previous page's last row when
+     * {@code afterId} is set.
+     */
+    public List<TaskSummaryView> findArchivedSlice(UUID workspaceId, UUID projectId, Instant afterCreatedAt,
+                                                   UUID afterId, int limit) {
+        StringBuilder filters = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        args.add(workspaceId);
+        if (projectId != null) {
+            filters.append("AND EXISTS (SELECT 1 FROM task_projects tp WHERE tp.task_id = t.id AND tp.project_id = ?)\n");
+            args.add(projectId);
+        }
+        if (afterId != null) {
+            filters.append("AND (t.created_at, t.id) < (?, ?)\n");
+            args.add(Timestamp.from(afterCreatedAt));
+            args.add(afterId);
+        }
+        args.add(limit);
+        String sql = ARCHIVED_SLICE_SQL.formatted(TaskSummaryView.SQL_COLUMNS, filters);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> TaskSummaryView.fromRow(rs), args.toArray());
+    }
+
+    private int restoreTrees(String sql, Collection<UUID> taskIds) {
+        if (taskIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setArray(1, connection.createArrayOf("uuid", taskIds.toArray()));
+            return ps;
+        });
+    }
+}
@@ -0,0 +1,122 @@
+package com.taskava.data.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Typeahead lookups over task titles and project names, backed by pg_trgm GIN indexes.
+ * Results are ordered by word similarity plus a boost for items the user opened recently.
+ * Queries shorter than {@link #MIN_TRIGRAM_LENGTH} characters cannot use trigram indexes and
+ * are only matched against the user's own recent items.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TypeaheadRepository {
+
+    public static final int MIN_TRIGRAM_LENGTH = 3;
+
+    private static final String SUGGEST_SQL = """
+        SELECT i.id, %2$s AS number, i.%3$s AS label, i.status,
+               r.accessed_at IS NOT NULL AS recent,
+               word_similarity(?, i.%3$s)
+                 + COALESCE(? / (1 + EXTRACT(EPOCH FROM NOW() - r.accessed_at) / 86400), 0) AS score
+        FROM %1$s i
+        %4$s JOIN user_recent_items r ON r.user_id = ? AND r.item_type = '%5$s' AND r.item_id = i.id
+        WHERE i.workspace_id = ?
+        AND i.is_deleted = FALSE %7$s
+        AND (i.%3$s ILIKE ? %6$s)
+        ORDER BY score DESC, i.id
+        LIMIT ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A lightweight suggestion: just enough to render and navigate
+     */
+    public record Suggestion(String type, UUID id, Long number, String label, String status,
+                             boolean recent, double score) {
+    }
+
+    public List<Suggestion> suggestTasks(UUID workspaceId, UUID userId, String query,
+                                         double recencyWeight, int limit) {
+        return suggest("tasks", "i.task_number", "title", "TASK", "AND i.archived_at IS NULL",
+                workspaceId, userId, query, recencyWeight, limit);
+    }
+
+    public List<Suggestion> suggestProjects(UUID workspaceId, UUID userId, String query,
+                                            double recencyWeight, int limit) {
+        return suggest("projects", "NULL::BIGINT", "name", "PROJECT", "",
+                workspaceId, userId, query, recencyWeight, limit);
+    }
+
+    /**
+     * Limit every following statement of the current transaction to {@code millis} milliseconds
+     */
+    public void setStatementTimeout(long millis) {
+        jdbcTemplate.execute("SET LOCAL statement_timeout = " + Math.max(1, millis));
+    }
+
+    /**
+     * Remember that a user opened an item
+     */
+    public void recordVisit(UUID userId, String itemType, UUID itemId) {
+        jdbcTemplate.update("""
+            INSERT INTO user_recent_items (user_id, item_type, item_id, accessed_at, access_count)
+            VALUES (?, ?, ?, NOW(), 1)
+            ON CONFLICT (user_id, item_type, item_id) DO UPDATE
+            SET accessed_at = NOW(),
+                access_count = user_recent_items.access_count + 1
+            """, userId, itemType, itemId);
+    }
+
+    public int deleteVisitsBefore(Instant cutoff) {
+        return jdbcTemplate.update("DELETE FROM user_recent_items WHERE accessed_at < ?",
+                Timestamp.from(cutoff));
+    }
+
+    // tierFilter keeps archived items out, matching the predicate of the trigram index
+    private List<Suggestion> suggest(String table, String numberColumn, String labelColumn, String itemType,
+                                     String tierFilter, UUID workspaceId, UUID userId, String query, double recencyWeight, int limit) {
+        boolean trigram = query.length() >= MIN_TRIGRAM_LENGTH;
+        String sql = SUGGEST_SQL.formatted(
+                table,
+                numberColumn,
+                labelColumn,
+                trigram ? "LEFT" : "",
+                itemType,
+                trigram ? "OR ? <% i." + labelColumn : "",
+                tierFilter);
+
+        List<Object> args = new ArrayList<>();
+        args.add(query);
+        args.add(recencyWeight);
+        args.add(userId);
+        args.add(workspaceId);
+        args.add("%" + escapeLike(query) + "%");
+        if (trigram) {
+            args.add(query);
+        }
+        args.add(limit);
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new Suggestion(
+                itemType,
+                rs.getObject("id", UUID.class),
+                rs.getObject("number", Long.class),
+                rs.getString("label"),
+                rs.getString("status"),
+                rs.getBoolean("recent"),
+                rs.getDouble("score")), args.toArray());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
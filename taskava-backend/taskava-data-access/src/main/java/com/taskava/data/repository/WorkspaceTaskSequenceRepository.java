@@ -0,0 +1,31 @@
+package com.taskava.data.repository;
+
+import com.taskava.data.entity.WorkspaceTaskSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@Repository
+public interface WorkspaceTaskSequenceRepository extends JpaRepository<WorkspaceTaskSequence, UUID> {
+
+    /**
+     * Atomically reserve {@code blockSize} task numbers for a workspace and return the first one.
+     * Runs in its own transaction so a reserved block is never handed out twice, even if the
+     * caller's transaction rolls back.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = """
+        INSERT INTO workspace_task_sequences (workspace_id, next_value, updated_at)
+        VALUES (:workspaceId, 1 + :blockSize, NOW())
+        ON CONFLICT (workspace_id) DO UPDATE
+        SET next_value = workspace_task_sequences.next_value + :blockSize,
+            updated_at = NOW()
+        RETURNING next_value - :blockSize
+    """, nativeQuery = true)
+    Long reserveBlock(@Param("workspaceId") UUID workspaceId, @Param("blockSize") long blockSize);
+}
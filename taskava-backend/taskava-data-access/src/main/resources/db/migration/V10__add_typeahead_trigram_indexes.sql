@@ -0,0 +1,24 @@
+-- V10: Trigram indexes and recent items for typeahead suggestions
+-- Quick-switcher lookups match substrings of task titles and project names on every
+-- keystroke; pg_trgm GIN indexes answer both ILIKE '%q%' and word similarity without scans.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Indexes for typeahead
+CREATE INDEX IF NOT EXISTS idx_task_title_trgm ON tasks USING GIN (title gin_trgm_ops) WHERE is_deleted = FALSE;
+CREATE INDEX IF NOT EXISTS idx_projects_name_trgm ON projects USING GIN (name gin_trgm_ops) WHERE is_deleted = FALSE;
+
+-- Items each user opened recently, used to boost their own suggestions
+CREATE TABLE IF NOT EXISTS user_recent_items (
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    item_type VARCHAR(20) NOT NULL CHECK (item_type IN ('TASK', 'PROJECT')),
+    item_id UUID NOT NULL,
+    accessed_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    access_count INTEGER NOT NULL DEFAULT 1,
+    PRIMARY KEY (user_id, item_type, item_id)
+);
+
+-- Indexes for user_recent_items
+CREATE INDEX IF NOT EXISTS idx_user_recent_items_accessed ON user_recent_items(accessed_at);
+
+COMMENT ON TABLE user_recent_items IS 'Per-user recently opened tasks and projects, for typeahead ranking';
@@ -0,0 +1,156 @@
+-- V11: Denormalized child counters on tasks
+-- List and board views read these columns instead of counting child rows per task. They are
+-- maintained by triggers in the same transaction as the child change, like likes_count (V5).
+-- Soft-deleted children (is_deleted = TRUE) are not counted.
+
+ALTER TABLE tasks
+    ADD COLUMN IF NOT EXISTS comments_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS attachments_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS subtasks_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS completed_subtasks_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS followers_count INTEGER NOT NULL DEFAULT 0;
+
+-- Backfill from the current child rows
+UPDATE tasks t SET
+    comments_count = (SELECT COUNT(*) FROM comments c WHERE c.task_id = t.id AND c.is_deleted = FALSE),
+    attachments_count = (SELECT COUNT(*) FROM attachments a WHERE a.task_id = t.id AND a.is_deleted = FALSE),
+    subtasks_count = (SELECT COUNT(*) FROM tasks s WHERE s.parent_task_id = t.id AND s.is_deleted = FALSE),
+    completed_subtasks_count = (SELECT COUNT(*) FROM tasks s
+                                WHERE s.parent_task_id = t.id AND s.is_deleted = FALSE AND s.status = 'COMPLETED'),
+    followers_count = (SELECT COUNT(*) FROM task_followers f WHERE f.task_id = t.id);
+
+-- Add function to update comments count
+CREATE OR REPLACE FUNCTION update_task_comments_count()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND OLD.task_id = NEW.task_id AND OLD.is_deleted = NEW.is_deleted THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        IF NOT OLD.is_deleted THEN
+            UPDATE tasks
+            SET comments_count = GREATEST(comments_count - 1, 0)
+            WHERE id = OLD.task_id;
+        END IF;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        IF NOT NEW.is_deleted THEN
+            UPDATE tasks
+            SET comments_count = comments_count + 1
+            WHERE id = NEW.task_id;
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Create trigger for comments count
+DROP TRIGGER IF EXISTS update_comments_count ON comments;
+CREATE TRIGGER update_comments_count
+    AFTER INSERT OR DELETE OR UPDATE OF task_id, is_deleted ON comments
+    FOR EACH ROW
+    EXECUTE FUNCTION update_task_comments_count();
+
+-- Add function to update attachments count
+CREATE OR REPLACE FUNCTION update_task_attachments_count()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND OLD.task_id IS NOT DISTINCT FROM NEW.task_id AND OLD.is_deleted = NEW.is_deleted THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        IF OLD.task_id IS NOT NULL AND NOT OLD.is_deleted THEN
+            UPDATE tasks
+            SET attachments_count = GREATEST(attachments_count - 1, 0)
+            WHERE id = OLD.task_id;
+        END IF;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        IF NEW.task_id IS NOT NULL AND NOT NEW.is_deleted THEN
+            UPDATE tasks
+            SET attachments_count = attachments_count + 1
+            WHERE id = NEW.task_id;
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Create trigger for attachments count
+DROP TRIGGER IF EXISTS update_attachments_count ON attachments;
+CREATE TRIGGER update_attachments_count
+    AFTER INSERT OR DELETE OR UPDATE OF task_id, is_deleted ON attachments
+    FOR EACH ROW
+    EXECUTE FUNCTION update_task_attachments_count();
+
+-- Add function to update subtask counts on the parent task.
+-- The counter UPDATE only sets counter columns, so it does not fire this trigger again.
+CREATE OR REPLACE FUNCTION update_task_subtasks_count()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+       AND OLD.parent_task_id IS NOT DISTINCT FROM NEW.parent_task_id
+       AND OLD.is_deleted = NEW.is_deleted
+       AND (OLD.status = 'COMPLETED') = (NEW.status = 'COMPLETED') THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        IF OLD.parent_task_id IS NOT NULL AND NOT OLD.is_deleted THEN
+            UPDATE tasks
+            SET subtasks_count = GREATEST(subtasks_count - 1, 0),
+                completed_subtasks_count = CASE WHEN OLD.status = 'COMPLETED'
+                                                THEN GREATEST(completed_subtasks_count - 1, 0)
+                                                ELSE completed_subtasks_count END
+            WHERE id = OLD.parent_task_id;
+        END IF;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        IF NEW.parent_task_id IS NOT NULL AND NOT NEW.is_deleted THEN
+            UPDATE tasks
+            SET subtasks_count = subtasks_count + 1,
+                completed_subtasks_count = CASE WHEN NEW.status = 'COMPLETED'
+                                                THEN completed_subtasks_count + 1
+                                                ELSE completed_subtasks_count END
+            WHERE id = NEW.parent_task_id;
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Create trigger for subtask counts
+DROP TRIGGER IF EXISTS update_subtasks_count ON tasks;
+CREATE TRIGGER update_subtasks_count
+    AFTER INSERT OR DELETE OR UPDATE OF parent_task_id, status, is_deleted ON tasks
+    FOR EACH ROW
+    EXECUTE FUNCTION update_task_subtasks_count();
+
+-- Add function to update followers count
+CREATE OR REPLACE FUNCTION update_task_followers_count()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        UPDATE tasks
+        SET followers_count = followers_count + 1
+        WHERE id = NEW.task_id;
+    ELSIF TG_OP = 'DELETE' THEN
+        UPDATE tasks
+        SET followers_count = GREATEST(followers_count - 1, 0)
+        WHERE id = OLD.task_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Create trigger for followers count
+DROP TRIGGER IF EXISTS update_followers_count ON task_followers;
+CREATE TRIGGER update_followers_count
+    AFTER INSERT OR DELETE ON task_followers
+    FOR EACH ROW
+    EXECUTE FUNCTION update_task_followers_count();
+
+COMMENT ON COLUMN tasks.comments_count IS 'Live comments, maintained by update_comments_count';
+COMMENT ON COLUMN tasks.attachments_count IS 'Live attachments, maintained by update_attachments_count';
+COMMENT ON COLUMN tasks.subtasks_count IS 'Live subtasks, maintained by update_subtasks_count';
+COMMENT ON COLUMN tasks.completed_subtasks_count IS 'Live completed subtasks, maintained by update_subtasks_count';
+COMMENT ON COLUMN tasks.followers_count IS 'Followers, maintained by update_followers_count';
@@ -0,0 +1,5 @@
+-- V12: Index for project board columns
+-- Board columns and their "load more" pages read one section's tasks ordered by (position, id)
+
+-- Indexes for task_projects
+CREATE INDEX IF NOT EXISTS idx_task_projects_section_keyset ON task_projects(section_id, position, task_id);
@@ -0,0 +1,54 @@
+-- V13: Fractional rank keys for task order within a project column
+-- task_projects.position was a dense integer: inserting mid-column renumbered every following row.
+-- rank_key is a base-62 fraction (see LexoRank) compared bytewise, so a task is placed between its
+-- neighbours by writing only its own row. Keys are unique per column: per section, or per project
+-- for tasks without a section.
+
+ALTER TABLE task_projects ADD COLUMN IF NOT EXISTS rank_key VARCHAR(64) COLLATE "C";
+
+-- Fixed-width base-62 key for value / 62^width, without trailing zeros
+CREATE OR REPLACE FUNCTION lexo_rank_key(value NUMERIC, width INTEGER)
+RETURNS VARCHAR AS $$
+DECLARE
+    digits CONSTANT TEXT := '0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz';
+    key TEXT := '';
+    remaining NUMERIC := value;
+BEGIN
+    FOR i IN 1..width LOOP
+        key := substr(digits, (remaining % 62)::INTEGER + 1, 1) || key;
+        remaining := floor(remaining / 62);
+    END LOOP;
+    RETURN rtrim(key, '0');
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+-- Backfill: spread each column evenly in its current (position, task_id) order
+WITH ordered AS (
+    SELECT id,
+           ROW_NUMBER() OVER (PARTITION BY project_id, section_id ORDER BY position, task_id) AS n,
+           COUNT(*) OVER (PARTITION BY project_id, section_id) AS total
+    FROM task_projects
+)
+UPDATE task_projects tp
+SET rank_key = lexo_rank_key(floor(o.n * power(62::NUMERIC, 8) / (o.total + 1)), 8)
+FROM ordered o
+WHERE o.id = tp.id;
+
+ALTER TABLE task_projects ALTER COLUMN rank_key SET NOT NULL;
+
+-- Drop position-based ordering
+DROP INDEX IF EXISTS idx_task_projects_position;
+DROP INDEX IF EXISTS idx_task_projects_position_keyset;
+DROP INDEX IF EXISTS idx_task_projects_section_keyset;
+ALTER TABLE task_projects DROP COLUMN IF EXISTS position;
+
+-- Indexes for task_projects ordering; column scans are index-only
+CREATE UNIQUE INDEX IF NOT EXISTS uk_task_projects_section_rank
+    ON task_projects(section_id, rank_key) INCLUDE (task_id) WHERE section_id IS NOT NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_task_projects_unsectioned_rank
+    ON task_projects(project_id, rank_key) INCLUDE (task_id) WHERE section_id IS NULL;
+CREATE INDEX IF NOT EXISTS idx_task_projects_project_rank ON task_projects(project_id, rank_key, task_id);
+
+-- Columns due for rebalancing (keys longer than LexoRank.MAX_LENGTH); normally empty
+CREATE INDEX IF NOT EXISTS idx_task_projects_long_rank
+    ON task_projects(project_id, section_id) WHERE length(rank_key) > 24;
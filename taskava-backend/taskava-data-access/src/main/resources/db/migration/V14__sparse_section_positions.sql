@@ -0,0 +1,27 @@
+-- V14: Sparse section positions with deferred uniqueness
+-- Sections were numbered 0..n-1, so inserting or moving one shifted every following section and
+-- the immediate unique index on (project_id, position) rejected intermediate states. Positions are
+-- now spaced 1024 apart (see GapPositions): a moved section is renumbered into the gap between its
+-- new neighbours, and the rest are only re-spread once a gap is used up. Uniqueness is checked at
+-- commit, so a batch reorder can let sections trade places in a single statement.
+
+DROP INDEX IF EXISTS uk_project_section_position;
+DROP INDEX IF EXISTS idx_section_position;
+
+-- Re-spread live sections of every project in their current order
+WITH ordered AS (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY project_id ORDER BY position, created_at, id) AS n
+    FROM project_sections
+    WHERE is_deleted = FALSE
+)
+UPDATE project_sections s
+SET position = o.n * 1024
+FROM ordered o
+WHERE o.id = s.id;
+
+-- Unique position per project for active sections, checked at commit; its index also serves
+-- the per-project ordered section scans
+ALTER TABLE project_sections
+    ADD CONSTRAINT uk_project_section_position
+    EXCLUDE USING btree (project_id WITH =, position WITH =) WHERE (is_deleted = FALSE)
+    DEFERRABLE INITIALLY DEFERRED;
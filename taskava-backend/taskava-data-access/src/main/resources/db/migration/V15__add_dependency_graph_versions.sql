@@ -0,0 +1,116 @@
+-- V15: Typed dependencies as the single dependency store, with per-project graph versions
+-- Task.dependencies now maps task_dependencies_v2; rows of the untyped V1 table are carried over
+-- as finish_start dependencies without lag.
+-- Dependency graphs are cached per project in the application. dependency_graph_versions counts
+-- changes to what a project's graph contains: its dependencies, its task membership and the
+-- deletion of its tasks. A cached graph is valid while its version matches, on every node.
+
+INSERT INTO task_dependencies_v2 (predecessor_id, successor_id)
+SELECT d.depends_on_task_id, d.task_id
+FROM task_dependencies d
+WHERE d.depends_on_task_id <> d.task_id
+ON CONFLICT (predecessor_id, successor_id) DO NOTHING;
+
+COMMENT ON TABLE task_dependencies IS 'Deprecated: superseded by task_dependencies_v2 (V15)';
+
+CREATE TABLE IF NOT EXISTS dependency_graph_versions (
+    project_id UUID PRIMARY KEY REFERENCES projects(id) ON DELETE CASCADE,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+-- Add function to bump the graph version of every project of the given tasks
+CREATE OR REPLACE FUNCTION bump_dependency_graph_versions(task_ids UUID[])
+RETURNS VOID AS $$
+BEGIN
+    INSERT INTO dependency_graph_versions (project_id, version)
+    SELECT DISTINCT tp.project_id, 1
+    FROM task_projects tp
+    WHERE tp.task_id = ANY(task_ids)
+    AND EXISTS (SELECT 1 FROM projects p WHERE p.id = tp.project_id)
+    ORDER BY tp.project_id
+    ON CONFLICT (project_id) DO UPDATE SET version = dependency_graph_versions.version + 1;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Add function to version dependency changes
+CREATE OR REPLACE FUNCTION version_task_dependency_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM bump_dependency_graph_versions(ARRAY[OLD.predecessor_id, OLD.successor_id]);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM bump_dependency_graph_versions(ARRAY[NEW.predecessor_id, NEW.successor_id]);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Create trigger for dependency changes
+DROP TRIGGER IF EXISTS version_task_dependencies ON task_dependencies_v2;
+CREATE TRIGGER version_task_dependencies
+    AFTER INSERT OR DELETE OR UPDATE ON task_dependencies_v2
+    FOR EACH ROW
+    EXECUTE FUNCTION version_task_dependency_change();
+
+-- Add function to bump the graph version of one project when a task with dependencies joins or leaves it
+CREATE OR REPLACE FUNCTION bump_dependency_graph_version(changed_project UUID, changed_task UUID)
+RETURNS VOID AS $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM task_dependencies_v2 d
+               WHERE d.predecessor_id = changed_task OR d.successor_id = changed_task)
+       AND EXISTS (SELECT 1 FROM projects p WHERE p.id = changed_project) THEN
+        INSERT INTO dependency_graph_versions (project_id, version)
+        VALUES (changed_project, 1)
+        ON CONFLICT (project_id) DO UPDATE SET version = dependency_graph_versions.version + 1;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Add function to version project membership changes
+CREATE OR REPLACE FUNCTION version_task_project_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND OLD.project_id = NEW.project_id AND OLD.task_id = NEW.task_id THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM bump_dependency_graph_version(OLD.project_id, OLD.task_id);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM bump_dependency_graph_version(NEW.project_id, NEW.task_id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Create trigger for project membership changes
+DROP TRIGGER IF EXISTS version_task_projects ON task_projects;
+CREATE TRIGGER version_task_projects
+    AFTER INSERT OR DELETE OR UPDATE OF task_id, project_id ON task_projects
+    FOR EACH ROW
+    EXECUTE FUNCTION version_task_project_change();
+
+-- Add function to version soft-deletes and restores of tasks with dependencies
+CREATE OR REPLACE FUNCTION version_task_deleted_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF OLD.is_deleted = NEW.is_deleted THEN
+        RETURN NULL;
+    END IF;
+    IF EXISTS (SELECT 1 FROM task_dependencies_v2 d
+               WHERE d.predecessor_id = NEW.id OR d.successor_id = NEW.id) THEN
+        PERFORM bump_dependency_graph_versions(ARRAY[NEW.id]);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Create trigger for task deletion
+DROP TRIGGER IF EXISTS version_task_deleted ON tasks;
+CREATE TRIGGER version_task_deleted
+    AFTER UPDATE OF is_deleted ON tasks
+    FOR EACH ROW
+    EXECUTE FUNCTION version_task_deleted_change();
+
+COMMENT ON TABLE dependency_graph_versions IS 'Change counter of each project''s dependency graph, for cache validation';
@@ -0,0 +1,89 @@
+-- V16: Closure table for the task hierarchy
+-- task_hierarchy (V5) was an unused parent/child table. It becomes a closure table holding one row
+-- per (ancestor, descendant) pair at any distance, so a whole subtree, all ancestors or a
+-- depth-bounded tree are each one indexed lookup. tasks.parent_task_id stays the source of truth;
+-- a trigger keeps the closure in step on insert and whenever a task is moved or promoted.
+-- Soft-deleted tasks keep their rows so a restore needs no rebuild; reads filter them out.
+
+DROP TRIGGER IF EXISTS validate_task_hierarchy ON task_hierarchy;
+DROP FUNCTION IF EXISTS check_task_hierarchy_cycle();
+DROP TABLE IF EXISTS task_hierarchy;
+
+CREATE TABLE task_hierarchy (
+    ancestor_id UUID NOT NULL REFERENCES tasks(id) ON DELETE CASCADE,
+    descendant_id UUID NOT NULL REFERENCES tasks(id) ON DELETE CASCADE,
+    depth INTEGER NOT NULL CHECK (depth > 0),
+
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+-- Subtrees (optionally depth-bounded) by ancestor, ancestors by descendant, both index-only
+CREATE INDEX idx_task_hierarchy_ancestor_depth ON task_hierarchy(ancestor_id, depth) INCLUDE (descendant_id);
+CREATE INDEX idx_task_hierarchy_descendant ON task_hierarchy(descendant_id, depth) INCLUDE (ancestor_id);
+
+-- Backfill from the current parent links
+INSERT INTO task_hierarchy (ancestor_id, descendant_id, depth)
+WITH RECURSIVE paths AS (
+    SELECT parent_task_id AS ancestor_id, id AS descendant_id, 1 AS depth
+    FROM tasks
+    WHERE parent_task_id IS NOT NULL
+    UNION ALL
+    SELECT t.parent_task_id, p.descendant_id, p.depth + 1
+    FROM paths p
+    JOIN tasks t ON t.id = p.ancestor_id
+    WHERE t.parent_task_id IS NOT NULL
+    AND p.depth < 100
+)
+SELECT ancestor_id, descendant_id, depth FROM paths;
+
+-- Add function to maintain the closure when parent links change.
+-- A moved task takes its whole subtree along: the pairs linking the subtree to its old ancestors
+-- are removed, then every new ancestor is paired with every task of the subtree.
+CREATE OR REPLACE FUNCTION maintain_task_hierarchy()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND OLD.parent_task_id IS NOT DISTINCT FROM NEW.parent_task_id THEN
+        RETURN NULL;
+    END IF;
+
+    IF NEW.parent_task_id IS NOT NULL AND (NEW.parent_task_id = NEW.id OR EXISTS (
+            SELECT 1 FROM task_hierarchy
+            WHERE ancestor_id = NEW.id AND descendant_id = NEW.parent_task_id)) THEN
+        RAISE EXCEPTION 'Task % cannot be moved below its own subtask %', NEW.id, NEW.parent_task_id
+            USING ERRCODE = 'check_violation';
+    END IF;
+
+    IF TG_OP = 'UPDATE' AND OLD.parent_task_id IS NOT NULL THEN
+        DELETE FROM task_hierarchy h
+        WHERE h.ancestor_id IN (SELECT ancestor_id FROM task_hierarchy WHERE descendant_id = NEW.id)
+        AND (h.descendant_id = NEW.id
+             OR h.descendant_id IN (SELECT descendant_id FROM task_hierarchy WHERE ancestor_id = NEW.id));
+    END IF;
+
+    IF NEW.parent_task_id IS NOT NULL THEN
+        INSERT INTO task_hierarchy (ancestor_id, descendant_id, depth)
+        SELECT above.ancestor_id, below.descendant_id, above.depth + below.depth + 1
+        FROM (
+            SELECT ancestor_id, depth FROM task_hierarchy WHERE descendant_id = NEW.parent_task_id
+            UNION ALL
+            SELECT NEW.parent_task_id, 0
+        ) above
+        CROSS JOIN (
+            SELECT descendant_id, depth FROM task_hierarchy WHERE ancestor_id = NEW.id
+            UNION ALL
+            SELECT NEW.id, 0
+        ) below;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Create trigger for the closure
+DROP TRIGGER IF EXISTS maintain_task_hierarchy ON tasks;
+CREATE TRIGGER maintain_task_hierarchy
+    AFTER INSERT OR UPDATE OF parent_task_id ON tasks
+    FOR EACH ROW
+    EXECUTE FUNCTION maintain_task_hierarchy();
+
+COMMENT ON TABLE task_hierarchy IS 'Closure of tasks.parent_task_id: every ancestor/descendant pair, maintained by maintain_task_hierarchy';
+COMMENT ON COLUMN task_hierarchy.depth IS 'Distance from ancestor to descendant; 1 for a direct subtask';
@@ -0,0 +1,216 @@
+-- V17: Roll-ups of progress, estimates and story points over each task's subtree
+-- Every task carries the totals of its live descendants at any depth, so dashboards read one row
+-- instead of summing a tree. Changes are queued per statement as deltas per ancestor (found
+-- through the task_hierarchy closure, V16) and applied once per transaction at commit by a
+-- deferred trigger. When a task moves to another parent, both ancestor chains are recomputed
+-- from the closure instead. Soft-deleted tasks contribute nothing.
+
+ALTER TABLE tasks
+    ADD COLUMN IF NOT EXISTS rollup_task_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rollup_progress_sum BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rollup_estimated_hours DECIMAL(14,2) NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rollup_actual_hours DECIMAL(14,2) NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rollup_story_points BIGINT NOT NULL DEFAULT 0;
+
+-- Pending changes of the current transaction. Rows never outlive the transaction that queued
+-- them, so the table needs no WAL.
+CREATE UNLOGGED TABLE IF NOT EXISTS task_rollup_queue (
+    task_id UUID NOT NULL,
+    recompute BOOLEAN NOT NULL DEFAULT FALSE,
+    task_count INTEGER NOT NULL DEFAULT 0,
+    progress_sum BIGINT NOT NULL DEFAULT 0,
+    estimated_hours DECIMAL(14,2) NOT NULL DEFAULT 0,
+    actual_hours DECIMAL(14,2) NOT NULL DEFAULT 0,
+    story_points BIGINT NOT NULL DEFAULT 0
+);
+
+-- Backfill from the closure
+UPDATE tasks t SET
+    rollup_task_count = r.task_count,
+    rollup_progress_sum = r.progress_sum,
+    rollup_estimated_hours = r.estimated_hours,
+    rollup_actual_hours = r.actual_hours,
+    rollup_story_points = r.story_points
+FROM (
+    SELECT h.ancestor_id,
+           COUNT(*) AS task_count,
+           SUM(COALESCE(d.progress_percentage, 0)) AS progress_sum,
+           SUM(COALESCE(d.estimated_hours, 0)) AS estimated_hours,
+           SUM(COALESCE(d.actual_hours, 0)) AS actual_hours,
+           SUM(COALESCE(d.story_points, 0)) AS story_points
+    FROM task_hierarchy h
+    JOIN tasks d ON d.id = h.descendant_id AND d.is_deleted = FALSE
+    GROUP BY h.ancestor_id
+) r
+WHERE t.id = r.ancestor_id;
+
+-- Add function to queue roll-up changes of inserted tasks
+CREATE OR REPLACE FUNCTION queue_task_rollups_insert()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO task_rollup_queue (task_id, task_count, progress_sum, estimated_hours, actual_hours, story_points)
+    SELECT h.ancestor_id, COUNT(*),
+           SUM(COALESCE(n.progress_percentage, 0)), SUM(COALESCE(n.estimated_hours, 0)),
+           SUM(COALESCE(n.actual_hours, 0)), SUM(COALESCE(n.story_points, 0))
+    FROM new_rows n
+    JOIN task_hierarchy h ON h.descendant_id = n.id
+    WHERE NOT n.is_deleted
+    GROUP BY h.ancestor_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Add function to queue roll-up changes of updated tasks.
+-- Updates that only touch other columns (including the roll-ups themselves) queue nothing.
+CREATE OR REPLACE FUNCTION queue_task_rollups_update()
+RETURNS TRIGGER AS $$
+BEGIN
+    -- Moved tasks: their old and new ancestor chains are recomputed
+    INSERT INTO task_rollup_queue (task_id, recompute)
+    SELECT DISTINCT chain.task_id, TRUE
+    FROM (
+        SELECT o.parent_task_id AS parent_id
+        FROM old_rows o JOIN new_rows n ON n.id = o.id
+        WHERE o.parent_task_id IS DISTINCT FROM n.parent_task_id AND o.parent_task_id IS NOT NULL
+        UNION
+        SELECT n.parent_task_id
+        FROM old_rows o JOIN new_rows n ON n.id = o.id
+        WHERE o.parent_task_id IS DISTINCT FROM n.parent_task_id AND n.parent_task_id IS NOT NULL
+    ) moved
+    CROSS JOIN LATERAL (
+        SELECT moved.parent_id AS task_id
+        UNION
+        SELECT ancestor_id FROM task_hierarchy WHERE descendant_id = moved.parent_id
+    ) chain;
+
+    INSERT INTO task_rollup_queue (task_id, task_count, progress_sum, estimated_hours, actual_hours, story_points)
+    SELECT h.ancestor_id, SUM(d.task_count), SUM(d.progress_sum),
+           SUM(d.estimated_hours), SUM(d.actual_hours), SUM(d.story_points)
+    FROM (
+        SELECT n.id,
+               (CASE WHEN n.is_deleted THEN 0 ELSE 1 END)
+                   - (CASE WHEN o.is_deleted THEN 0 ELSE 1 END) AS task_count,
+               (CASE WHEN n.is_deleted THEN 0 ELSE COALESCE(n.progress_percentage, 0) END)
+                   - (CASE WHEN o.is_deleted THEN 0 ELSE COALESCE(o.progress_percentage, 0) END) AS progress_sum,
+               (CASE WHEN n.is_deleted THEN 0 ELSE COALESCE(n.estimated_hours, 0) END)
+                   - (CASE WHEN o.is_deleted THEN 0 ELSE COALESCE(o.estimated_hours, 0) END) AS estimated_hours,
+               (CASE WHEN n.is_deleted THEN 0 ELSE COALESCE(n.actual_hours, 0) END)
+                   - (CASE WHEN o.is_deleted THEN 0 ELSE COALESCE(o.actual_hours, 0) END) AS actual_hours,
+               (CASE WHEN n.is_deleted THEN 0 ELSE COALESCE(n.story_points, 0) END)
+                   - (CASE WHEN o.is_deleted THEN 0 ELSE COALESCE(o.story_points, 0) END) AS story_points
+        FROM old_rows o
+        JOIN new_rows n ON n.id = o.id
+        WHERE o.parent_task_id IS NOT DISTINCT FROM n.parent_task_id
+        AND n.parent_task_id IS NOT NULL
+    ) d
+    JOIN task_hierarchy h ON h.descendant_id = d.id
+    WHERE d.task_count <> 0 OR d.progress_sum <> 0 OR d.estimated_hours <> 0
+       OR d.actual_hours <> 0 OR d.story_points <> 0
+    GROUP BY h.ancestor_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Add function to queue roll-up changes of hard-deleted tasks.
+-- Their closure rows are already gone, so the former parents' chains are recomputed.
+CREATE OR REPLACE FUNCTION queue_task_rollups_delete()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO task_rollup_queue (task_id, recompute)
+    SELECT DISTINCT chain.task_id, TRUE
+    FROM (SELECT DISTINCT parent_task_id FROM old_rows WHERE parent_task_id IS NOT NULL) o
+    CROSS JOIN LATERAL (
+        SELECT o.parent_task_id AS task_id
+        UNION
+        SELECT ancestor_id FROM task_hierarchy WHERE descendant_id = o.parent_task_id
+    ) chain;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Add function to apply everything queued by the transaction. It runs at commit, once per queued
+-- row; the first run applies and empties the queue, later runs find nothing to do.
+-- Rows of other transactions are never visible here, as they are consumed before those commit.
+CREATE OR REPLACE FUNCTION apply_task_rollups()
+RETURNS TRIGGER AS $$
+BEGIN
+    WITH queued AS (
+        DELETE FROM task_rollup_queue
+        RETURNING *
+    ),
+    recomputed AS (
+        SELECT DISTINCT task_id FROM queued WHERE recompute
+    ),
+    changes AS (
+        SELECT r.task_id, TRUE AS absolute,
+               COUNT(d.id)::INTEGER AS task_count,
+               COALESCE(SUM(COALESCE(d.progress_percentage, 0)), 0) AS progress_sum,
+               COALESCE(SUM(COALESCE(d.estimated_hours, 0)), 0) AS estimated_hours,
+               COALESCE(SUM(COALESCE(d.actual_hours, 0)), 0) AS actual_hours,
+               COALESCE(SUM(COALESCE(d.story_points, 0)), 0) AS story_points
+        FROM recomputed r
+        LEFT JOIN task_hierarchy h ON h.ancestor_id = r.task_id
+        LEFT JOIN tasks d ON d.id = h.descendant_id AND d.is_deleted = FALSE
+        GROUP BY r.task_id
+        UNION ALL
+        SELECT q.task_id, FALSE,
+               SUM(q.task_count)::INTEGER, SUM(q.progress_sum), SUM(q.estimated_hours),
+               SUM(q.actual_hours), SUM(q.story_points)
+        FROM queued q
+        WHERE NOT q.recompute
+        AND q.task_id NOT IN (SELECT task_id FROM recomputed)
+        GROUP BY q.task_id
+    )
+    UPDATE tasks t SET
+        rollup_task_count = CASE WHEN c.absolute THEN c.task_count
+                                 ELSE GREATEST(t.rollup_task_count + c.task_count, 0) END,
+        rollup_progress_sum = CASE WHEN c.absolute THEN c.progress_sum
+                                   ELSE t.rollup_progress_sum + c.progress_sum END,
+        rollup_estimated_hours = CASE WHEN c.absolute THEN c.estimated_hours
+                                      ELSE t.rollup_estimated_hours + c.estimated_hours END,
+        rollup_actual_hours = CASE WHEN c.absolute THEN c.actual_hours
+                                   ELSE t.rollup_actual_hours + c.actual_hours END,
+        rollup_story_points = CASE WHEN c.absolute THEN c.story_points
+                                   ELSE t.rollup_story_points + c.story_points END
+    FROM changes c
+    WHERE t.id = c.task_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Create triggers for roll-ups. Statement triggers with transition tables run after the row
+-- triggers, so the closure already reflects the statement's parent changes.
+DROP TRIGGER IF EXISTS queue_rollups_insert ON tasks;
+CREATE TRIGGER queue_rollups_insert
+    AFTER INSERT ON tasks
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION queue_task_rollups_insert();
+
+DROP TRIGGER IF EXISTS queue_rollups_update ON tasks;
+CREATE TRIGGER queue_rollups_update
+    AFTER UPDATE ON tasks
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION queue_task_rollups_update();
+
+DROP TRIGGER IF EXISTS queue_rollups_delete ON tasks;
+CREATE TRIGGER queue_rollups_delete
+    AFTER DELETE ON tasks
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION queue_task_rollups_delete();
+
+DROP TRIGGER IF EXISTS apply_rollups ON task_rollup_queue;
+CREATE CONSTRAINT TRIGGER apply_rollups
+    AFTER INSERT ON task_rollup_queue
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW
+    EXECUTE FUNCTION apply_task_rollups();
+
+COMMENT ON TABLE task_rollup_queue IS 'Roll-up changes queued by the current transaction, applied at commit by apply_rollups';
+COMMENT ON COLUMN tasks.rollup_task_count IS 'Live descendants at any depth, maintained by the roll-up triggers';
+COMMENT ON COLUMN tasks.rollup_progress_sum IS 'Sum of progress_percentage over live descendants';
+COMMENT ON COLUMN tasks.rollup_estimated_hours IS 'Sum of estimated_hours over live descendants';
+COMMENT ON COLUMN tasks.rollup_actual_hours IS 'Sum of actual_hours over live descendants';
+COMMENT ON COLUMN tasks.rollup_story_points IS 'Sum of story_points over live descendants';
@@ -0,0 +1,37 @@
+-- V18: Materialization state for recurring tasks
+-- A recurring task (is_recurring, no recurring_task_template_id) is the template of its series
+-- and its first occurrence. The recurrence engine inserts later occurrences ahead of time up to a
+-- horizon. task_recurrence_state records how far each series has been materialized; engine nodes
+-- claim series rows with FOR UPDATE SKIP LOCKED, so several nodes share the work without ever
+-- expanding the same series at once. Occurrences are unique per (template, occurrence date), so
+-- re-running an expansion inserts nothing twice.
+
+ALTER TABLE tasks
+    ADD COLUMN IF NOT EXISTS recurrence_occurrence_date DATE;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_tasks_recurrence_occurrence
+    ON tasks(recurring_task_template_id, recurrence_occurrence_date)
+    WHERE recurrence_occurrence_date IS NOT NULL;
+
+-- Live templates, for enrolling new series without scanning all tasks
+CREATE INDEX IF NOT EXISTS idx_tasks_recurring_templates
+    ON tasks(id)
+    WHERE is_recurring = TRUE AND is_deleted = FALSE AND recurring_task_template_id IS NULL;
+
+CREATE TABLE IF NOT EXISTS task_recurrence_state (
+    template_id UUID PRIMARY KEY REFERENCES tasks(id) ON DELETE CASCADE,
+    materialized_through DATE NOT NULL,
+    occurrence_count INTEGER NOT NULL DEFAULT 0,
+    finished BOOLEAN NOT NULL DEFAULT FALSE,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- Series due for expansion, least recently expanded first
+CREATE INDEX IF NOT EXISTS idx_task_recurrence_state_due
+    ON task_recurrence_state(materialized_through)
+    WHERE finished = FALSE;
+
+COMMENT ON TABLE task_recurrence_state IS 'Per recurring series: occurrences are materialized up to materialized_through';
+COMMENT ON COLUMN task_recurrence_state.occurrence_count IS 'Occurrences inserted so far, not counting the template';
+COMMENT ON COLUMN task_recurrence_state.finished IS 'Series reached its end date or maximum occurrences';
+COMMENT ON COLUMN tasks.recurrence_occurrence_date IS 'Date of the series occurrence this task was materialized for';
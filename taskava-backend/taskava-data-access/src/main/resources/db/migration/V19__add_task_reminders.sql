@@ -0,0 +1,43 @@
+-- V19: Due-soon and overdue reminders
+-- The reminder scanner walks the open tasks of one workspace at a time in (due_date, id) keyset
+-- chunks. The partial index below holds only open, live tasks with a due date, so a chunk is a
+-- range scan over the tasks that can still need a reminder, never over completed history.
+--
+-- task_reminders is both the deduplication ledger and the outbox of the reminder pipeline: a
+-- reminder is recorded once per (task, kind, due instant), so rescans never record it again, and
+-- it stays pending until dispatched. Moving a task's due date or time yields a new due instant
+-- and therefore new reminders.
+
+CREATE INDEX IF NOT EXISTS idx_tasks_open_due
+    ON tasks(workspace_id, due_date, id)
+    INCLUDE (due_time, assignee_id, created_by_user_id)
+    WHERE is_deleted = FALSE
+    AND status NOT IN ('COMPLETED', 'CANCELLED')
+    AND due_date IS NOT NULL;
+
+CREATE TABLE IF NOT EXISTS task_reminders (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    task_id UUID NOT NULL REFERENCES tasks(id) ON DELETE CASCADE,
+    workspace_id UUID NOT NULL REFERENCES workspaces(id) ON DELETE CASCADE,
+    recipient_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    kind VARCHAR(20) NOT NULL CHECK (kind IN ('DUE_SOON', 'OVERDUE')),
+    due_at TIMESTAMPTZ NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    dispatched_at TIMESTAMPTZ,
+
+    CONSTRAINT uk_task_reminders UNIQUE (task_id, kind, due_at)
+);
+
+-- Pending reminders, oldest first
+CREATE INDEX IF NOT EXISTS idx_task_reminders_pending
+    ON task_reminders(created_at)
+    WHERE dispatched_at IS NULL;
+
+-- Pruning of dispatched reminders
+CREATE INDEX IF NOT EXISTS idx_task_reminders_dispatched
+    ON task_reminders(dispatched_at)
+    WHERE dispatched_at IS NOT NULL;
+
+COMMENT ON TABLE task_reminders IS 'Due-soon and overdue reminders, recorded once per task, kind and due instant';
+COMMENT ON COLUMN task_reminders.due_at IS 'Due date and time of the task, in the recipient''s time zone, when the reminder was recorded';
+COMMENT ON COLUMN task_reminders.dispatched_at IS 'When the reminder was handed to listeners; NULL while pending';
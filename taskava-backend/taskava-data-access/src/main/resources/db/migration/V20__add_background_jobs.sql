@@ -0,0 +1,35 @@
+-- V20: Background jobs
+-- Long-running operations (such as duplicating a large task subtree) run asynchronously and
+-- report their progress here. A job is created PENDING in the request that starts it, moves to
+-- RUNNING when a worker picks it up, and ends COMPLETED with the id of what it produced, or FAILED
+-- with an error message. Clients poll the job by id.
+
+CREATE TABLE IF NOT EXISTS background_jobs (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    workspace_id UUID NOT NULL REFERENCES workspaces(id) ON DELETE CASCADE,
+    job_type VARCHAR(50) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' CHECK (
+        status IN ('PENDING', 'RUNNING', 'COMPLETED', 'FAILED')
+    ),
+    subject_id UUID NOT NULL,
+    result_id UUID,
+    total_items INTEGER NOT NULL DEFAULT 0,
+    processed_items INTEGER NOT NULL DEFAULT 0,
+    error_message TEXT,
+    requested_by UUID REFERENCES users(id),
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    started_at TIMESTAMPTZ,
+    finished_at TIMESTAMPTZ,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_background_jobs_subject ON background_jobs(subject_id, created_at DESC);
+
+-- Unfinished jobs, for spotting ones abandoned by a node that went away
+CREATE INDEX IF NOT EXISTS idx_background_jobs_active
+    ON background_jobs(updated_at)
+    WHERE status IN ('PENDING', 'RUNNING');
+
+COMMENT ON TABLE background_jobs IS 'Progress of asynchronous long-running operations';
+COMMENT ON COLUMN background_jobs.subject_id IS 'What the job works on, e.g. the task being duplicated';
+COMMENT ON COLUMN background_jobs.result_id IS 'What the job produced, e.g. the copy of the task';
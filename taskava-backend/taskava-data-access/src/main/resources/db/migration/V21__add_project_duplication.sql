@@ -0,0 +1,32 @@
+-- V21: Project duplication
+-- Projects are duplicated with set-based INSERT ... SELECT statements that remap ids, as a
+-- background job for large projects. Jobs can now be cancelled: a client sets cancel_requested,
+-- the worker notices between batches, undoes its partial work and ends the job CANCELLED.
+
+ALTER TABLE background_jobs ADD COLUMN IF NOT EXISTS cancel_requested BOOLEAN NOT NULL DEFAULT FALSE;
+
+ALTER TABLE background_jobs DROP CONSTRAINT IF EXISTS background_jobs_status_check;
+ALTER TABLE background_jobs ADD CONSTRAINT background_jobs_status_check CHECK (
+    status IN ('PENDING', 'RUNNING', 'COMPLETED', 'FAILED', 'CANCELLED')
+);
+
+COMMENT ON COLUMN background_jobs.cancel_requested IS 'Set to ask the worker to stop; honoured between batches';
+
+-- Replace every occurrence of a source id in a JSON document by the id at the same position in
+-- copies. Automation rules refer to sections (and their project) by id inside their trigger,
+-- condition and action documents, so a copied rule is rewritten to point at the copies.
+CREATE OR REPLACE FUNCTION remap_uuids(doc JSONB, sources UUID[], copies UUID[])
+RETURNS JSONB AS $$
+DECLARE
+    txt TEXT;
+BEGIN
+    IF doc IS NULL OR sources IS NULL THEN
+        RETURN doc;
+    END IF;
+    txt := doc::text;
+    FOR i IN 1 .. coalesce(array_length(sources, 1), 0) LOOP
+        txt := replace(txt, sources[i]::text, copies[i]::text);
+    END LOOP;
+    RETURN txt::jsonb;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
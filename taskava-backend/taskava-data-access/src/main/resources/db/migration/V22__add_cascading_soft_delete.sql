@@ -0,0 +1,19 @@
+-- V22: Cascading soft-delete
+-- Deleting a task now deletes its live subtree, and deleting a project deletes its sections,
+-- automation rules and the tasks that live only in it. Every row deleted by one such operation
+-- carries the same deletion_id, so the operation can be undone exactly: a restore brings back the
+-- rows of that deletion and leaves alone anything deleted separately, before or after.
+-- Large cascades run as background jobs in short chunked transactions.
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS deletion_id UUID;
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS deletion_id UUID;
+ALTER TABLE project_sections ADD COLUMN IF NOT EXISTS deletion_id UUID;
+ALTER TABLE automation_rules ADD COLUMN IF NOT EXISTS deletion_id UUID;
+
+-- Rows of one deletion, for cascading it and for restoring it chunk by chunk
+CREATE INDEX IF NOT EXISTS idx_tasks_deletion ON tasks(deletion_id) WHERE deletion_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_project_sections_deletion ON project_sections(deletion_id) WHERE deletion_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_automation_rules_deletion ON automation_rules(deletion_id) WHERE deletion_id IS NOT NULL;
+
+COMMENT ON COLUMN tasks.deletion_id IS 'Deletion that soft-deleted the task, shared by every row it deleted; NULL when live';
+COMMENT ON COLUMN projects.deletion_id IS 'Deletion that soft-deleted the project; NULL when live';
@@ -0,0 +1,35 @@
+-- V23: Purge of soft-deleted rows
+-- Soft-deleted rows were never removed, so dead tasks, comments and projects kept bloating their
+-- tables and indexes. A background purge now hard-deletes rows that have been deleted for longer
+-- than the retention window, in small batches, children before parents. The partial indexes let
+-- each batch find the oldest deleted rows without scanning the live ones; purge_state holds the
+-- switch that pauses the purge on every node.
+
+CREATE INDEX IF NOT EXISTS idx_tasks_purge ON tasks(deleted_at) WHERE is_deleted = TRUE;
+CREATE INDEX IF NOT EXISTS idx_comments_purge ON comments(deleted_at) WHERE is_deleted = TRUE;
+CREATE INDEX IF NOT EXISTS idx_attachments_purge ON attachments(deleted_at) WHERE is_deleted = TRUE;
+CREATE INDEX IF NOT EXISTS idx_projects_purge ON projects(deleted_at) WHERE is_deleted = TRUE;
+CREATE INDEX IF NOT EXISTS idx_project_sections_purge ON project_sections(deleted_at) WHERE is_deleted = TRUE;
+CREATE INDEX IF NOT EXISTS idx_automation_rules_purge ON automation_rules(deleted_at) WHERE is_deleted = TRUE;
+CREATE INDEX IF NOT EXISTS idx_forms_purge ON forms(deleted_at) WHERE is_deleted = TRUE;
+
+-- Lookups the purge makes for every batch: references to the rows it is about to delete
+CREATE INDEX IF NOT EXISTS idx_comments_parent ON comments(parent_comment_id) WHERE parent_comment_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_comments_task ON comments(task_id);
+CREATE INDEX IF NOT EXISTS idx_attachments_comment ON attachments(comment_id) WHERE comment_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_attachments_task ON attachments(task_id) WHERE task_id IS NOT NULL;
+
+-- Single row
+CREATE TABLE purge_state (
+    id BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (id),
+    paused BOOLEAN NOT NULL DEFAULT FALSE,
+    paused_at TIMESTAMPTZ,
+    paused_by UUID,
+    last_run_started_at TIMESTAMPTZ,
+    last_run_finished_at TIMESTAMPTZ,
+    last_run_purged BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO purge_state DEFAULT VALUES;
+
+COMMENT ON TABLE purge_state IS 'Pause switch and last run of the purge of soft-deleted rows';
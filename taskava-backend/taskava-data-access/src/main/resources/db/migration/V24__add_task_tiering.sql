@@ -0,0 +1,51 @@
+-- V24: Hot/cold tiering of tasks
+-- Tasks of archived projects and task trees completed long ago stay in tasks but move to the cold
+-- tier: archived_at is set, and every index on the hot read paths is rebuilt to hold live, hot
+-- tasks only, so lookups on active work no longer wade through years of history. Archived tasks
+-- are read through their own index, only when explicitly asked for. archived_project_id records
+-- the project whose archiving moved a task, so restoring that project brings it back.
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS archived_at TIMESTAMPTZ;
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS archived_project_id UUID;
+
+-- Hot tier: the listing, search and typeahead indexes, restricted to tasks that are not archived
+DROP INDEX IF EXISTS idx_task_workspace;
+CREATE INDEX idx_task_workspace ON tasks(workspace_id)
+    WHERE is_deleted = FALSE AND archived_at IS NULL;
+
+DROP INDEX IF EXISTS idx_task_workspace_created_keyset;
+CREATE INDEX idx_task_workspace_created_keyset ON tasks(workspace_id, created_at, id)
+    WHERE is_deleted = FALSE AND archived_at IS NULL;
+
+DROP INDEX IF EXISTS idx_task_workspace_due_keyset;
+CREATE INDEX idx_task_workspace_due_keyset ON tasks(workspace_id, due_date, id)
+    WHERE is_deleted = FALSE AND archived_at IS NULL;
+
+DROP INDEX IF EXISTS idx_task_assignee_created_keyset;
+CREATE INDEX idx_task_assignee_created_keyset ON tasks(assignee_id, created_at, id)
+    WHERE is_deleted = FALSE AND archived_at IS NULL;
+
+DROP INDEX IF EXISTS idx_task_assignee_due_keyset;
+CREATE INDEX idx_task_assignee_due_keyset ON tasks(assignee_id, due_date, id)
+    WHERE is_deleted = FALSE AND archived_at IS NULL;
+
+DROP INDEX IF EXISTS idx_task_search_vector;
+CREATE INDEX idx_task_search_vector ON tasks USING GIN (search_vector)
+    WHERE is_deleted = FALSE AND archived_at IS NULL;
+
+DROP INDEX IF EXISTS idx_task_title_trgm;
+CREATE INDEX idx_task_title_trgm ON tasks USING GIN (title gin_trgm_ops)
+    WHERE is_deleted = FALSE AND archived_at IS NULL;
+
+-- Top-level hot trees completed long enough ago to move to the cold tier
+CREATE INDEX IF NOT EXISTS idx_tasks_tiering_completed ON tasks(completed_at)
+    WHERE status = 'COMPLETED' AND parent_task_id IS NULL AND is_deleted = FALSE AND archived_at IS NULL;
+
+-- Cold tier: archived tasks of a workspace, newest first, and the tasks a project took along
+CREATE INDEX IF NOT EXISTS idx_tasks_archived ON tasks(workspace_id, created_at, id)
+    WHERE is_deleted = FALSE AND archived_at IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_tasks_archived_project ON tasks(archived_project_id)
+    WHERE archived_project_id IS NOT NULL;
+
+COMMENT ON COLUMN tasks.archived_at IS 'When the task moved to the cold tier; NULL while hot';
+COMMENT ON COLUMN tasks.archived_project_id IS 'Archived project that moved the task to the cold tier; NULL when it moved by age';
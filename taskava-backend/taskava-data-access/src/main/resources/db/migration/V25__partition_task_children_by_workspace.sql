@@ -0,0 +1,150 @@
+-- V25: Workspace on task child tables, hash-partitioned per-task tables
+-- tasks carries its workspace since V7; the tables hanging off it now carry it too, so
+-- tenant-scoped reads and maintenance of those rows no longer have to join back to tasks.
+-- task_projects and task_custom_field_values get the column filled by a trigger from their task.
+-- The per-task value and history tables that nothing references are rebuilt hash-partitioned by
+-- workspace: a tenant-scoped query prunes to a single partition, and vacuum and reindex work one
+-- partition at a time. tasks itself stays unpartitioned: a partitioned table's keys must include
+-- the partition key, and every table referencing tasks(id) would lose its foreign key.
+
+CREATE OR REPLACE FUNCTION set_workspace_from_task()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.workspace_id IS NULL THEN
+        SELECT workspace_id INTO NEW.workspace_id FROM tasks WHERE id = NEW.task_id;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Project memberships
+ALTER TABLE task_projects ADD COLUMN IF NOT EXISTS workspace_id UUID;
+
+UPDATE task_projects tp
+SET workspace_id = t.workspace_id
+FROM tasks t
+WHERE t.id = tp.task_id
+AND tp.workspace_id IS NULL;
+
+DROP TRIGGER IF EXISTS set_task_projects_workspace ON task_projects;
+CREATE TRIGGER set_task_projects_workspace
+    BEFORE INSERT ON task_projects
+    FOR EACH ROW
+    EXECUTE FUNCTION set_workspace_from_task();
+
+-- Workspace custom field values
+ALTER TABLE task_custom_field_values ADD COLUMN IF NOT EXISTS workspace_id UUID;
+
+UPDATE task_custom_field_values v
+SET workspace_id = t.workspace_id
+FROM tasks t
+WHERE t.id = v.task_id
+AND v.workspace_id IS NULL;
+
+DROP TRIGGER IF EXISTS set_task_custom_field_values_workspace ON task_custom_field_values;
+CREATE TRIGGER set_task_custom_field_values_workspace
+    BEFORE INSERT ON task_custom_field_values
+    FOR EACH ROW
+    EXECUTE FUNCTION set_workspace_from_task();
+
+-- A task given its workspace late takes its memberships and values along
+CREATE OR REPLACE FUNCTION propagate_task_workspace()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE task_projects SET workspace_id = NEW.workspace_id WHERE task_id = NEW.id;
+    UPDATE task_custom_field_values SET workspace_id = NEW.workspace_id WHERE task_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS propagate_task_workspace ON tasks;
+CREATE TRIGGER propagate_task_workspace
+    AFTER UPDATE OF workspace_id ON tasks
+    FOR EACH ROW
+    WHEN (OLD.workspace_id IS DISTINCT FROM NEW.workspace_id)
+    EXECUTE FUNCTION propagate_task_workspace();
+
+-- Project custom field values, partitioned. The workspace comes from the project, which every
+-- row has; writers supply it, as a row cannot be rerouted to another partition once inserted.
+ALTER TABLE task_custom_field_values_v2 RENAME TO task_custom_field_values_v2_old;
+ALTER TABLE task_custom_field_values_v2_old RENAME CONSTRAINT uk_task_custom_value_v2 TO uk_task_custom_value_v2_old;
+DROP INDEX IF EXISTS idx_task_custom_values_v2_task;
+DROP INDEX IF EXISTS idx_task_custom_values_v2_field;
+DROP INDEX IF EXISTS idx_task_custom_values_v2_project;
+
+CREATE TABLE task_custom_field_values_v2 (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    workspace_id UUID NOT NULL,
+    task_id UUID NOT NULL REFERENCES tasks(id) ON DELETE CASCADE,
+    custom_field_id UUID NOT NULL REFERENCES custom_fields(id) ON DELETE CASCADE,
+    project_id UUID NOT NULL REFERENCES projects(id) ON DELETE CASCADE,
+
+    -- Different value types for different field types
+    text_value TEXT,
+    number_value DECIMAL(20,6),
+    date_value DATE,
+    boolean_value BOOLEAN,
+    json_value JSONB, -- For complex types like multi-select, people, etc.
+
+    updated_at TIMESTAMPTZ DEFAULT NOW(),
+    updated_by UUID REFERENCES users(id),
+
+    -- Constraints; a task belongs to one workspace, so the keys are as unique as before
+    PRIMARY KEY (workspace_id, id),
+    CONSTRAINT uk_task_custom_value_v2 UNIQUE (workspace_id, task_id, custom_field_id, project_id)
+) PARTITION BY HASH (workspace_id);
+
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE task_custom_field_values_v2_p%s PARTITION OF task_custom_field_values_v2 '
+                       'FOR VALUES WITH (MODULUS 16, REMAINDER %s)', i, i);
+    END LOOP;
+END $$;
+
+INSERT INTO task_custom_field_values_v2 (id, workspace_id, task_id, custom_field_id, project_id, text_value,
+                                         number_value, date_value, boolean_value, json_value, updated_at, updated_by)
+SELECT v.id, p.workspace_id, v.task_id, v.custom_field_id, v.project_id, v.text_value,
+       v.number_value, v.date_value, v.boolean_value, v.json_value, v.updated_at, v.updated_by
+FROM task_custom_field_values_v2_old v
+JOIN projects p ON p.id = v.project_id;
+
+DROP TABLE task_custom_field_values_v2_old;
+
+-- Indexes for task_custom_field_values_v2
+CREATE INDEX idx_task_custom_values_v2_task ON task_custom_field_values_v2(task_id);
+CREATE INDEX idx_task_custom_values_v2_field ON task_custom_field_values_v2(custom_field_id);
+CREATE INDEX idx_task_custom_values_v2_project ON task_custom_field_values_v2(workspace_id, project_id);
+
+-- Status transitions, partitioned. Never written so far, so the table is rebuilt empty.
+DROP TABLE IF EXISTS task_status_transitions;
+
+CREATE TABLE task_status_transitions (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    workspace_id UUID NOT NULL,
+    task_id UUID NOT NULL REFERENCES tasks(id) ON DELETE CASCADE,
+    from_status VARCHAR(50),
+    to_status VARCHAR(50) NOT NULL,
+    transitioned_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    transitioned_by UUID REFERENCES users(id),
+    reason TEXT,
+    metadata JSONB,
+    PRIMARY KEY (workspace_id, id)
+) PARTITION BY HASH (workspace_id);
+
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE task_status_transitions_p%s PARTITION OF task_status_transitions '
+                       'FOR VALUES WITH (MODULUS 16, REMAINDER %s)', i, i);
+    END LOOP;
+END $$;
+
+-- Indexes for task_status_transitions
+CREATE INDEX idx_task_transitions_task ON task_status_transitions(task_id, transitioned_at);
+CREATE INDEX idx_task_transitions_date ON task_status_transitions(workspace_id, transitioned_at);
+
+COMMENT ON COLUMN task_projects.workspace_id IS 'Workspace of the task, filled in from tasks on insert';
+COMMENT ON COLUMN task_custom_field_values.workspace_id IS 'Workspace of the task, filled in from tasks on insert';
+COMMENT ON TABLE task_custom_field_values_v2 IS 'Project custom field values, hash-partitioned by workspace';
+COMMENT ON TABLE task_status_transitions IS 'Task status history, hash-partitioned by workspace';
@@ -0,0 +1,42 @@
+-- V26: Dependency graph versions drawn from a sequence
+-- A counter incremented in place goes back down when the transaction that incremented it rolls
+-- back, so the next committed change reaches the same version again, and a graph cached inside the
+-- rolled back transaction would be taken for the committed one. nextval() is never rolled back:
+-- every change gets a version no other change ever had, and versions still only grow.
+
+CREATE SEQUENCE IF NOT EXISTS dependency_graph_version_seq;
+
+SELECT setval('dependency_graph_version_seq',
+              COALESCE((SELECT MAX(version) FROM dependency_graph_versions), 0) + 1, false);
+
+-- Replace the functions bumping graph versions so every change draws a new version
+CREATE OR REPLACE FUNCTION bump_dependency_graph_versions(task_ids UUID[])
+RETURNS VOID AS $$
+BEGIN
+    INSERT INTO dependency_graph_versions (project_id, version)
+    SELECT changed.project_id, nextval('dependency_graph_version_seq')
+    FROM (
+        SELECT DISTINCT tp.project_id
+        FROM task_projects tp
+        WHERE tp.task_id = ANY(task_ids)
+        AND EXISTS (SELECT 1 FROM projects p WHERE p.id = tp.project_id)
+    ) changed
+    ORDER BY changed.project_id
+    ON CONFLICT (project_id) DO UPDATE SET version = nextval('dependency_graph_version_seq');
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION bump_dependency_graph_version(changed_project UUID, changed_task UUID)
+RETURNS VOID AS $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM task_dependencies_v2 d
+               WHERE d.predecessor_id = changed_task OR d.successor_id = changed_task)
+       AND EXISTS (SELECT 1 FROM projects p WHERE p.id = changed_project) THEN
+        INSERT INTO dependency_graph_versions (project_id, version)
+        VALUES (changed_project, nextval('dependency_graph_version_seq'))
+        ON CONFLICT (project_id) DO UPDATE SET version = nextval('dependency_graph_version_seq');
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON TABLE dependency_graph_versions IS 'Version of each project''s dependency graph, drawn from dependency_graph_version_seq, for cache validation';
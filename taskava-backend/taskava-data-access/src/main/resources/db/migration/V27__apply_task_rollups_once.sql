@@ -0,0 +1,97 @@
+-- V27: Apply queued roll-ups once per transaction
+-- The deferred trigger applying the queue fired once per queued row. The first firing applied
+-- everything, and each later one still scanned the queue, so commit time grew with the square
+-- of the queued rows. Queued rows now only mark the transaction as pending, once, through a
+-- transaction-local setting, and the deferred trigger fires on that single marker row.
+
+-- Pending marker of the current transaction. Like the queue, rows never outlive the transaction.
+CREATE UNLOGGED TABLE IF NOT EXISTS task_rollup_pending (
+    queued_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- Add function to mark the transaction pending on its first queued rows. The setting is local
+-- to the transaction, and a rolled back savepoint takes back both the setting and its marker.
+CREATE OR REPLACE FUNCTION mark_task_rollups_pending()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF current_setting('taskava.rollups_pending', TRUE) IS DISTINCT FROM 'on'
+       AND EXISTS (SELECT 1 FROM queued_rows) THEN
+        INSERT INTO task_rollup_pending DEFAULT VALUES;
+        PERFORM set_config('taskava.rollups_pending', 'on', TRUE);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Replace the function applying the queue so it also clears the marker. Changes queued after
+-- SET CONSTRAINTS ... IMMEDIATE applied the queue mark the transaction pending again.
+CREATE OR REPLACE FUNCTION apply_task_rollups()
+RETURNS TRIGGER AS $$
+BEGIN
+    DELETE FROM task_rollup_pending;
+    PERFORM set_config('taskava.rollups_pending', 'off', TRUE);
+
+    WITH queued AS (
+        DELETE FROM task_rollup_queue
+        RETURNING *
+    ),
+    recomputed AS (
+        SELECT DISTINCT task_id FROM queued WHERE recompute
+    ),
+    changes AS (
+        SELECT r.task_id, TRUE AS absolute,
+               COUNT(d.id)::INTEGER AS task_count,
+               COALESCE(SUM(COALESCE(d.progress_percentage, 0)), 0) AS progress_sum,
+               COALESCE(SUM(COALESCE(d.estimated_hours, 0)), 0) AS estimated_hours,
+               COALESCE(SUM(COALESCE(d.actual_hours, 0)), 0) AS actual_hours,
+               COALESCE(SUM(COALESCE(d.story_points, 0)), 0) AS story_points
+        FROM recomputed r
+        LEFT JOIN task_hierarchy h ON h.ancestor_id = r.task_id
+        LEFT JOIN tasks d ON d.id = h.descendant_id AND d.is_deleted = FALSE
+        GROUP BY r.task_id
+        UNION ALL
+        SELECT q.task_id, FALSE,
+               SUM(q.task_count)::INTEGER, SUM(q.progress_sum), SUM(q.estimated_hours),
+               SUM(q.actual_hours), SUM(q.story_points)
+        FROM queued q
+        WHERE NOT q.recompute
+        AND q.task_id NOT IN (SELECT task_id FROM recomputed)
+        GROUP BY q.task_id
+    )
+    UPDATE tasks t SET
+        rollup_task_count = CASE WHEN c.absolute THEN c.task_count
+                                 ELSE GREATEST(t.rollup_task_count + c.task_count, 0) END,
+        rollup_progress_sum = CASE WHEN c.absolute THEN c.progress_sum
+                                   ELSE t.rollup_progress_sum + c.progress_sum END,
+        rollup_estimated_hours = CASE WHEN c.absolute THEN c.estimated_hours
+                                      ELSE t.rollup_estimated_hours + c.estimated_hours END,
+        rollup_actual_hours = CASE WHEN c.absolute THEN c.actual_hours
+                                   ELSE t.rollup_actual_hours + c.actual_hours END,
+        rollup_story_points = CASE WHEN c.absolute THEN c.story_points
+                                   ELSE t.rollup_story_points + c.story_points END
+    FROM changes c
+    WHERE t.id = c.task_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Replace the per-row deferred trigger on the queue with a statement trigger marking the
+-- transaction, and fire the deferred trigger on the marker instead
+DROP TRIGGER IF EXISTS apply_rollups ON task_rollup_queue;
+
+DROP TRIGGER IF EXISTS mark_rollups_pending ON task_rollup_queue;
+CREATE TRIGGER mark_rollups_pending
+    AFTER INSERT ON task_rollup_queue
+    REFERENCING NEW TABLE AS queued_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION mark_task_rollups_pending();
+
+DROP TRIGGER IF EXISTS apply_rollups ON task_rollup_pending;
+CREATE CONSTRAINT TRIGGER apply_rollups
+    AFTER INSERT ON task_rollup_pending
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW
+    EXECUTE FUNCTION apply_task_rollups();
+
+COMMENT ON TABLE task_rollup_queue IS 'Roll-up changes queued by the current transaction, applied at commit by apply_rollups on task_rollup_pending';
+COMMENT ON TABLE task_rollup_pending IS 'One row while the current transaction has queued roll-up changes, firing apply_rollups at commit';
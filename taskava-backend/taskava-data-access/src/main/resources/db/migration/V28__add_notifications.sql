@@ -0,0 +1,34 @@
+-- V28: In-app notifications
+-- Each user's notification inbox, read newest first. Task reminders are delivered here: a
+-- reminder is marked dispatched in the same transaction that writes its notification, and a
+-- reminder is delivered at most once, so dispatching a reminder again adds nothing.
+
+CREATE TABLE IF NOT EXISTS notifications (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    workspace_id UUID NOT NULL REFERENCES workspaces(id) ON DELETE CASCADE,
+    task_id UUID REFERENCES tasks(id) ON DELETE CASCADE,
+    reminder_id UUID,
+    kind VARCHAR(30) NOT NULL,
+    title VARCHAR(500),
+    due_at TIMESTAMPTZ,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    read_at TIMESTAMPTZ,
+
+    -- Reminders are pruned after delivery, so the id is kept without a foreign key
+    CONSTRAINT uk_notifications_reminder UNIQUE (reminder_id)
+);
+
+-- A user's inbox, newest first
+CREATE INDEX IF NOT EXISTS idx_notifications_user
+    ON notifications(user_id, created_at DESC, id DESC);
+
+-- A user's unread notifications
+CREATE INDEX IF NOT EXISTS idx_notifications_user_unread
+    ON notifications(user_id, created_at DESC, id DESC)
+    WHERE read_at IS NULL;
+
+COMMENT ON TABLE notifications IS 'In-app notifications of each user, including delivered task reminders';
+COMMENT ON COLUMN notifications.reminder_id IS 'Task reminder delivered by this notification, at most one notification per reminder';
+COMMENT ON COLUMN notifications.read_at IS 'When the user marked the notification read; NULL while unread';
+COMMENT ON COLUMN task_reminders.dispatched_at IS 'When a listener delivered the reminder; NULL while pending';
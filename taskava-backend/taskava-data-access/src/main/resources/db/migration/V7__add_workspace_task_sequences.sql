@@ -0,0 +1,89 @@
+-- V7: Per-workspace task number sequences
+-- Task numbers are handed out in pre-reserved blocks instead of MAX(task_number) + 1,
+-- so tasks carry their workspace directly and numbers are unique per workspace.
+
+-- Denormalized workspace on tasks (previously derived through task_projects -> projects)
+ALTER TABLE tasks
+    ADD COLUMN IF NOT EXISTS workspace_id UUID REFERENCES workspaces(id);
+
+-- Backfill from the first project each task was added to
+UPDATE tasks t
+SET workspace_id = src.workspace_id
+FROM (
+    SELECT DISTINCT ON (tp.task_id) tp.task_id, p.workspace_id
+    FROM task_projects tp
+    JOIN projects p ON p.id = tp.project_id
+    ORDER BY tp.task_id, tp.added_at
+) src
+WHERE t.id = src.task_id
+AND t.workspace_id IS NULL;
+
+-- Subtasks that were never added to a project inherit the workspace of their ancestors
+WITH RECURSIVE tree AS (
+    SELECT id, workspace_id
+    FROM tasks
+    WHERE workspace_id IS NOT NULL
+
+    UNION ALL
+
+    SELECT c.id, tree.workspace_id
+    FROM tasks c
+    INNER JOIN tree ON c.parent_task_id = tree.id
+    WHERE c.workspace_id IS NULL
+)
+UPDATE tasks t
+SET workspace_id = tree.workspace_id
+FROM tree
+WHERE t.id = tree.id
+AND t.workspace_id IS NULL;
+
+-- Renumber duplicates left behind by concurrent MAX(task_number) + 1 allocation
+WITH ranked AS (
+    SELECT id, workspace_id,
+           ROW_NUMBER() OVER (PARTITION BY workspace_id, task_number ORDER BY created_at, id) AS rn
+    FROM tasks
+    WHERE workspace_id IS NOT NULL
+),
+maxima AS (
+    SELECT workspace_id, MAX(task_number) AS max_number
+    FROM tasks
+    WHERE workspace_id IS NOT NULL
+    GROUP BY workspace_id
+),
+renumbered AS (
+    SELECT r.id,
+           m.max_number + ROW_NUMBER() OVER (PARTITION BY r.workspace_id ORDER BY r.id) AS new_number
+    FROM ranked r
+    JOIN maxima m ON m.workspace_id = r.workspace_id
+    WHERE r.rn > 1
+)
+UPDATE tasks t
+SET task_number = renumbered.new_number
+FROM renumbered
+WHERE t.id = renumbered.id;
+
+CREATE INDEX IF NOT EXISTS idx_task_workspace ON tasks(workspace_id) WHERE is_deleted = FALSE;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_task_workspace_number ON tasks(workspace_id, task_number);
+
+-- Next unreserved task number per workspace
+CREATE TABLE IF NOT EXISTS workspace_task_sequences (
+    workspace_id UUID PRIMARY KEY REFERENCES workspaces(id) ON DELETE CASCADE,
+    next_value BIGINT NOT NULL DEFAULT 1,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+
+    -- Constraints
+    CONSTRAINT chk_workspace_task_sequence_positive CHECK (next_value > 0)
+);
+
+-- Seed sequences past the highest number already in use
+INSERT INTO workspace_task_sequences (workspace_id, next_value)
+SELECT workspace_id, MAX(task_number) + 1
+FROM tasks
+WHERE workspace_id IS NOT NULL
+GROUP BY workspace_id
+ON CONFLICT (workspace_id) DO NOTHING;
+
+-- Comments for documentation
+COMMENT ON TABLE workspace_task_sequences IS 'Per-workspace task number sequence; application nodes reserve numbers in blocks';
+COMMENT ON COLUMN workspace_task_sequences.next_value IS 'First task number not yet reserved by any node';
+COMMENT ON COLUMN tasks.workspace_id IS 'Workspace that owns the task (denormalized from task_projects)';
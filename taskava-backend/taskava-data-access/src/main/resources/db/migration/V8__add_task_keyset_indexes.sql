@@ -0,0 +1,14 @@
+-- V8: Indexes for keyset (cursor) pagination of task listings
+-- Every listing orders by (sort key, id), so each composite index serves both the ORDER BY
+-- and the "after cursor" range predicate without sorting or skipping rows.
+
+-- Indexes for workspace-scoped task listings
+CREATE INDEX IF NOT EXISTS idx_task_workspace_created_keyset ON tasks(workspace_id, created_at, id) WHERE is_deleted = FALSE;
+CREATE INDEX IF NOT EXISTS idx_task_workspace_due_keyset ON tasks(workspace_id, due_date, id) WHERE is_deleted = FALSE;
+
+-- Indexes for assignee task listings
+CREATE INDEX IF NOT EXISTS idx_task_assignee_created_keyset ON tasks(assignee_id, created_at, id) WHERE is_deleted = FALSE;
+CREATE INDEX IF NOT EXISTS idx_task_assignee_due_keyset ON tasks(assignee_id, due_date, id) WHERE is_deleted = FALSE;
+
+-- Index for project listings in board/list order
+CREATE INDEX IF NOT EXISTS idx_task_projects_position_keyset ON task_projects(project_id, position, task_id);
@@ -0,0 +1,16 @@
+-- V9: Full-text search for tasks
+-- Replaces LOWER(title/description) LIKE '%q%' scans with a weighted tsvector that PostgreSQL
+-- keeps in sync with title and description, so search is an index lookup instead of a table scan.
+
+-- Title terms rank above description terms
+ALTER TABLE tasks
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', COALESCE(title, '')), 'A') ||
+        setweight(to_tsvector('english', COALESCE(description, '')), 'B')
+    ) STORED;
+
+-- Index for full-text search
+CREATE INDEX IF NOT EXISTS idx_task_search_vector ON tasks USING GIN (search_vector) WHERE is_deleted = FALSE;
+
+COMMENT ON COLUMN tasks.search_vector IS 'Weighted full-text document: title (A) and description (B)';
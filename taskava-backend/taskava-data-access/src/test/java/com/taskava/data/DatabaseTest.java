@@ -0,0 +1,126 @@
+package com.taskava.data;
+
+import com.taskava.data.query.LexoRank;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Base of the tests against PostgreSQL, migrated by Flyway in a Testcontainers container and
+ * skipped where Docker is not available. Statements commit as they run, so each test works in a
+ * workspace of its own, created with its organization and a user before every test. Subclasses
+ * import the beans they exercise and add properties with {@code @TestPropertySource}.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:tc:postgresql:15-alpine:///taskava",
+        "spring.datasource.driver-class-name=org.testcontainers.jdbc.ContainerDatabaseDriver"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public abstract class DatabaseTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    protected JdbcTemplate jdbc;
+    protected UUID organizationId;
+    protected UUID workspaceId;
+    protected UUID userId;
+
+    private int taskNumber;
+    private String lastRankKey;
+
+    @BeforeEach
+    protected void createWorkspace() {
+        jdbc = new JdbcTemplate(dataSource);
+        organizationId = UUID.randomUUID();
+        workspaceId = UUID.randomUUID();
+
+        jdbc.update("INSERT INTO organizations (id, name) VALUES (?, 'Acme')", organizationId);
+        jdbc.update("INSERT INTO workspaces (id, name, organization_id) VALUES (?, 'Engineering', ?)",
+                workspaceId, organizationId);
+        userId = user();
+    }
+
+    protected UUID user() {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO users (id, email, username, organization_id) VALUES (?, ?, ?, ?)",
+                id, id + "@acme.test", id.toString(), organizationId);
+        return id;
+    }
+
+    protected UUID task(UUID parentId) {
+        return task(parentId, Map.of());
+    }
+
+    /**
+     * A task of the workspace, numbered in order, with the given columns set or overridden
+     */
+    protected UUID task(UUID parentId, Map<String, ?> columns) {
+        UUID taskId = UUID.randomUUID();
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("id", taskId);
+        values.put("title", "Task " + ++taskNumber);
+        values.put("task_number", taskNumber);
+        values.put("workspace_id", workspaceId);
+        values.put("parent_task_id", parentId);
+        values.putAll(columns);
+        jdbc.update("INSERT INTO tasks (%s) VALUES (%s)".formatted(String.join(", ", values.keySet()),
+                String.join(", ", Collections.nCopies(values.size(), "?"))), values.values().toArray());
+        return taskId;
+    }
+
+    protected UUID project(String name) {
+        return project(name, "ACTIVE");
+    }
+
+    protected UUID project(String name, String status) {
+        UUID projectId = UUID.randomUUID();
+        jdbc.update("INSERT INTO projects (id, name, workspace_id, status) VALUES (?, ?, ?, ?)",
+                projectId, name, workspaceId, status);
+        return projectId;
+    }
+
+    protected void addToProject(UUID taskId, UUID projectId) {
+        addToProject(taskId, projectId, null);
+    }
+
+    /**
+     * Add the task to the project, in the section if given, after the tasks added before it
+     */
+    protected void addToProject(UUID taskId, UUID projectId, UUID sectionId) {
+        lastRankKey = LexoRank.between(lastRankKey, null);
+        jdbc.update("INSERT INTO task_projects (task_id, project_id, section_id, rank_key) VALUES (?, ?, ?, ?)",
+                taskId, projectId, sectionId, lastRankKey);
+    }
+
+    /**
+     * The given tasks that meet the condition on {@code tasks}, in the order given
+     */
+    protected List<UUID> tasksWhere(String condition, UUID... taskIds) {
+        List<UUID> matching = jdbc.queryForList("SELECT id FROM tasks WHERE (" + condition + ") AND id = ANY(?::uuid[])",
+                UUID.class, (Object) Arrays.stream(taskIds).map(UUID::toString).toArray(String[]::new));
+        return Arrays.stream(taskIds).filter(matching::contains).toList();
+    }
+
+    protected static Timestamp daysAgo(int days) {
+        return Timestamp.from(Instant.now().minus(days, ChronoUnit.DAYS));
+    }
+}
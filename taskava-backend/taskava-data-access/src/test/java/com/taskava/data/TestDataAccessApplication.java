@@ -0,0 +1,10 @@
+package com.taskava.data;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Minimal boot configuration for JPA slice tests of the data access module
+ */
+@SpringBootApplication
+public class TestDataAccessApplication {
+}
@@ -0,0 +1,32 @@
+package com.taskava.data.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GapPositionsTest {
+    
+    @Test
+    void testMovedItemsFillGapBetweenNeighbours() {
+        List<Integer> positions = GapPositions.assign(Arrays.asList(1024, null, null, 2048, null));
+        
+        assertEquals(List.of(1024, 1365, 1706, 2048, 3072), positions);
+    }
+    
+    @Test
+    void testLeadingItemsGoBeforeFirstKeptItem() {
+        List<Integer> positions = GapPositions.assign(Arrays.asList(null, 1024, 2048));
+        
+        assertEquals(List.of(512, 1024, 2048), positions);
+    }
+    
+    @Test
+    void testExhaustedGapRespreadsEverything() {
+        List<Integer> positions = GapPositions.assign(Arrays.asList(1024, null, 1025));
+        
+        assertEquals(GapPositions.spread(3), positions);
+    }
+}
@@ -0,0 +1,66 @@
+package com.taskava.data.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LexoRankTest {
+    
+    @Test
+    void testBetweenSortsStrictlyBetweenBounds() {
+        String first = LexoRank.between(null, null);
+        String last = LexoRank.between(first, null);
+        String head = LexoRank.between(null, first);
+        String middle = LexoRank.between(first, last);
+        
+        assertTrue(head.compareTo(first) < 0);
+        assertTrue(first.compareTo(middle) < 0);
+        assertTrue(middle.compareTo(last) < 0);
+    }
+    
+    @Test
+    void testAppendsStayShort() {
+        String key = null;
+        for (int i = 0; i < 10_000; i++) {
+            String next = LexoRank.between(key, null);
+            assertTrue(key == null || key.compareTo(next) < 0);
+            key = next;
+        }
+        assertTrue(key.length() <= 3, key);
+    }
+    
+    @Test
+    void testRepeatedInsertsIntoOneGap() {
+        String low = LexoRank.between(null, null);
+        String high = LexoRank.between(low, null);
+        for (int i = 0; i < 200; i++) {
+            String mid = LexoRank.between(low, high);
+            assertTrue(low.compareTo(mid) < 0 && mid.compareTo(high) < 0);
+            assertFalse(mid.endsWith("0"));
+            high = mid;
+        }
+        assertTrue(LexoRank.needsRebalance(high));
+    }
+    
+    @Test
+    void testSpreadIsOrderedAndUnique() {
+        List<String> keys = LexoRank.spread(5_000);
+        List<String> sorted = new ArrayList<>(keys);
+        sorted.sort(null);
+        
+        assertEquals(5_000, keys.stream().distinct().count());
+        assertEquals(sorted, keys);
+        assertFalse(LexoRank.needsRebalance(keys.get(keys.size() - 1)));
+    }
+    
+    @Test
+    void testInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> LexoRank.between("b", "a"));
+        assertThrows(IllegalArgumentException.class, () -> LexoRank.between("a", "a"));
+        assertThrows(IllegalArgumentException.class, () -> LexoRank.between("a0", null));
+        assertThrows(IllegalArgumentException.class, () -> LexoRank.between("a|", null));
+    }
+}
@@ -0,0 +1,42 @@
+package com.taskava.data.query;
+
+import com.taskava.common.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskQueryBuilderTest {
+
+    private final TaskQueryBuilder builder = new TaskQueryBuilder();
+
+    @Test
+    void testSearchWithTermsIsPartOfTheQuery() {
+        TaskQueryFilter filter = TaskQueryFilter.builder().workspaceId(UUID.randomUUID()).search("release").build();
+
+        TaskQueryBuilder.TaskQuery query = builder.count(filter);
+
+        assertTrue(query.jpql().contains("fts_match"));
+        assertEquals("release:*", query.parameters().get("search"));
+    }
+
+    @Test
+    void testSearchWithoutTermsIsRejected() {
+        TaskQueryFilter filter = TaskQueryFilter.builder().workspaceId(UUID.randomUUID()).search("!!!").build();
+
+        assertThrows(BadRequestException.class, () -> builder.count(filter));
+        assertThrows(BadRequestException.class, () -> builder.select(filter, Sort.unsorted(), TaskProjection.ENTITY));
+    }
+
+    @Test
+    void testBlankSearchIsIgnored() {
+        TaskQueryFilter filter = TaskQueryFilter.builder().workspaceId(UUID.randomUUID()).search("  ").build();
+
+        TaskQueryBuilder.TaskQuery query = builder.count(filter);
+
+        assertFalse(query.jpql().contains("fts_match"));
+        assertFalse(query.parameters().containsKey("search"));
+    }
+}
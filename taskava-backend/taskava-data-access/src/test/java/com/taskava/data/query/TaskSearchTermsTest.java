@@ -0,0 +1,28 @@
+package com.taskava.data.query;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSearchTermsTest {
+    
+    @Test
+    void testLastTermMatchesAsPrefix() {
+        assertEquals("quick & bro:*", TaskSearchTerms.toPrefixQuery("Quick bro"));
+        assertEquals("release:*", TaskSearchTerms.toPrefixQuery("release"));
+    }
+    
+    @Test
+    void testTsQuerySyntaxIsStripped() {
+        assertEquals("a & b & c:*", TaskSearchTerms.toPrefixQuery("a & (b | !c)"));
+        assertEquals("don & t:*", TaskSearchTerms.toPrefixQuery("don't"));
+        assertEquals("ünïcode & 42:*", TaskSearchTerms.toPrefixQuery("Ünïcode: 42"));
+    }
+    
+    @Test
+    void testNoSearchableTerms() {
+        assertNull(TaskSearchTerms.toPrefixQuery(null));
+        assertNull(TaskSearchTerms.toPrefixQuery(""));
+        assertNull(TaskSearchTerms.toPrefixQuery("  :*&| "));
+    }
+}
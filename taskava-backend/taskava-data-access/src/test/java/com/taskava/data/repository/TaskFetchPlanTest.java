@@ -0,0 +1,125 @@
+package com.taskava.data.repository;
+
+import com.taskava.data.DatabaseTest;
+import com.taskava.data.entity.Task;
+import com.taskava.data.query.TaskFetchPlan;
+import com.taskava.data.query.TaskQueryBuilder;
+import com.taskava.data.query.TaskQueryFilter;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that fetch plans keep the number of SQL statements per page constant, whatever the page size
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@Import({TaskQueryBuilder.class, TaskQueryRepository.class})
+class TaskFetchPlanTest extends DatabaseTest {
+
+    // More tasks than the LIST plan batches at once, so a full page needs several batches
+    private static final int TASK_COUNT = 120;
+
+    @Autowired
+    private TaskQueryRepository taskQueryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private UUID parentId;
+
+    @BeforeEach
+    void setUp() {
+        UUID assigneeId = user();
+        UUID tagId = UUID.randomUUID();
+        jdbc.update("INSERT INTO tags (id, name, workspace_id) VALUES (?, 'backend', ?)", tagId, workspaceId);
+
+        for (int i = 1; i <= TASK_COUNT; i++) {
+            UUID taskId = task(parentId, Map.of("assignee_id", assigneeId, "created_by_user_id", userId));
+            jdbc.update("INSERT INTO task_tags (task_id, tag_id) VALUES (?, ?)", taskId, tagId);
+            jdbc.update("INSERT INTO task_followers (task_id, user_id) VALUES (?, ?)", taskId, userId);
+            if (parentId == null) {
+                parentId = taskId;
+            }
+        }
+
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testListPlanStatementCountDoesNotDependOnPageSize() {
+        // page query + count + one batch each for creators, tags, followers, comments and subtasks
+        assertEquals(7, statementsForPage(10));
+        assertEquals(7, statementsForPage(25));
+    }
+
+    @Test
+    void testListPlanLoadsLargePagesInBatches() {
+        int batches = (TASK_COUNT + TaskFetchPlan.LIST.getBatchSize() - 1) / TaskFetchPlan.LIST.getBatchSize();
+
+        // page query + count + one batch for the shared creator + one batch per collection and batch of tasks
+        assertEquals(3 + 4 * batches, statementsForPage(TASK_COUNT));
+    }
+
+    @Test
+    void testFetchPlanKeepsTheSessionBatchSize() {
+        Session session = entityManager.unwrap(Session.class);
+        int batchSize = session.getFetchBatchSize();
+
+        TaskQueryFilter filter = TaskQueryFilter.builder().workspaceId(workspaceId).build();
+        taskQueryRepository.findPage(filter, PageRequest.of(0, 10), TaskFetchPlan.EXPORT, task -> task);
+        taskQueryRepository.findById(parentId, TaskFetchPlan.DETAIL, task -> task);
+
+        assertEquals(batchSize, session.getFetchBatchSize());
+    }
+
+    @Test
+    void testDetailPlanLoadsTaskWithFixedStatementCount() {
+        Task task = taskQueryRepository.findById(parentId, TaskFetchPlan.DETAIL, TaskFetchPlanTest::touch)
+                .orElseThrow();
+
+        // task with assignee, creator, parent and projects + tags, followers, comments and subtasks
+        assertEquals(5, statistics.getPrepareStatementCount());
+        assertEquals(TASK_COUNT - 1, task.getSubtasks().size());
+    }
+
+    private long statementsForPage(int size) {
+        entityManager.clear();
+        statistics.clear();
+
+        TaskQueryFilter filter = TaskQueryFilter.builder().workspaceId(workspaceId).build();
+        // Lazy associations are touched while mapping, as the task mapper does
+        List<Task> tasks = taskQueryRepository.findPage(filter, PageRequest.of(0, size, Sort.by("taskNumber")),
+                TaskFetchPlan.LIST, TaskFetchPlanTest::touch).getContent();
+        assertEquals(size, tasks.size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static Task touch(Task task) {
+        task.getAssignee().getEmail();
+        task.getCreatedByUser().getEmail();
+        task.getTags().size();
+        task.getFollowers().size();
+        task.getComments().size();
+        task.getSubtasks().size();
+        return task;
+    }
+}
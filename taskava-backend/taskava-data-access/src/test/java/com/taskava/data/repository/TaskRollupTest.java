@@ -0,0 +1,78 @@
+package com.taskava.data.repository;
+
+import com.taskava.data.DatabaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that roll-ups queued by a transaction are applied once, at commit
+ */
+class TaskRollupTest extends DatabaseTest {
+
+    private static final int CHILD_COUNT = 200;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID parentId;
+
+    @BeforeEach
+    void setUp() {
+        parentId = task(null, Map.of("story_points", 0));
+    }
+
+    @Test
+    void testRollupsOfManyStatementsAreAppliedAtCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < CHILD_COUNT; i++) {
+                child(2);
+            }
+            assertEquals(0, rollupTaskCount(parentId));
+            assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM task_rollup_pending", Integer.class));
+        });
+
+        assertEquals(CHILD_COUNT, rollupTaskCount(parentId));
+        assertEquals(2L * CHILD_COUNT, jdbc.queryForObject(
+                "SELECT rollup_story_points FROM tasks WHERE id = ?", Long.class, parentId));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM task_rollup_queue", Integer.class));
+    }
+
+    @Test
+    void testChangesQueuedAfterImmediateApplyAreApplied() {
+        transactionTemplate.executeWithoutResult(status -> {
+            child(1);
+            jdbc.execute("SET CONSTRAINTS ALL IMMEDIATE");
+            assertEquals(1, rollupTaskCount(parentId));
+            jdbc.execute("SET CONSTRAINTS ALL DEFERRED");
+            child(1);
+        });
+
+        assertEquals(2, rollupTaskCount(parentId));
+    }
+
+    @Test
+    void testRolledBackChangesAreNotApplied() {
+        transactionTemplate.executeWithoutResult(status -> {
+            child(1);
+            status.setRollbackOnly();
+        });
+        child(1);
+
+        assertEquals(1, rollupTaskCount(parentId));
+    }
+
+    private void child(int storyPoints) {
+        task(parentId, Map.of("story_points", storyPoints));
+    }
+
+    private int rollupTaskCount(UUID taskId) {
+        return jdbc.queryForObject("SELECT rollup_task_count FROM tasks WHERE id = ?", Integer.class, taskId);
+    }
+}